@@ -0,0 +1,131 @@
+package com.bank.benchmark;
+
+import com.bank.dto.CardResponseDto;
+import com.bank.entity.CardEntity;
+import com.bank.enums.CardStatus;
+import com.bank.util.CardUtils;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.cfg.AvailableSettings;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.context.support.GenericApplicationContext;
+import org.springframework.core.env.MapPropertySource;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.orm.hibernate5.SpringBeanContainer;
+import org.springframework.orm.jpa.LocalContainerEntityManagerFactoryBean;
+import org.springframework.orm.jpa.persistenceunit.PersistenceManagedTypes;
+import org.springframework.orm.jpa.vendor.HibernateJpaVendorAdapter;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+
+/**
+ * Стоимость чтения одной страницы из 100 карт пользователя настоящими запросами Hibernate
+ * к встроенной H2: через сущности (расшифровка номера, снимок состояния для dirty checking
+ * и его проверка при фиксации, маппинг в DTO) и через JPQL-проекцию из {@code CardRepository}
+ * (DTO строится прямо из строки результата).
+ *
+ * <p>В замер входят запрос, разбор результата и транзакция; сеть и диск PostgreSQL — нет,
+ * поэтому на настоящей базе доля разницы меньше. Запуск: {@code ./gradlew jmh}; профайлер
+ * {@code gc} показывает {@code gc.alloc.rate.norm} — байты на страницу.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class CardListingBenchmark {
+
+    private static final int PAGE_SIZE = 100;
+    private static final long USER_ID = 1L;
+
+    private static final String ENTITY_QUERY =
+            "select c from CardEntity c where c.userId = :userId order by c.id";
+    private static final String PROJECTION_QUERY =
+            "select new com.bank.dto.CardResponseDto(c.id, c.userId, c.maskedNumber, c.ownerName, " +
+            "c.expiryDate, c.status, c.balance, c.currency) from CardEntity c where c.userId = :userId order by c.id";
+
+    private GenericApplicationContext context;
+    private EntityManagerFactory entityManagerFactory;
+
+    @Setup
+    public void setUp() {
+        // конвертер номера карты берёт ключ из свойств, поэтому Hibernate получает его через контейнер Spring
+        context = new GenericApplicationContext();
+        context.getEnvironment().getPropertySources()
+                .addFirst(new MapPropertySource("benchmark", Map.of("encryption.aes-key", "0123456789abcdef")));
+        context.refresh();
+
+        LocalContainerEntityManagerFactoryBean factory = new LocalContainerEntityManagerFactoryBean();
+        factory.setDataSource(new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1"));
+        factory.setManagedTypes(PersistenceManagedTypes.of(CardEntity.class.getName()));
+        factory.setJpaVendorAdapter(new HibernateJpaVendorAdapter());
+        factory.setJpaPropertyMap(Map.of(
+                AvailableSettings.HBM2DDL_AUTO, "create",
+                AvailableSettings.BEAN_CONTAINER, new SpringBeanContainer(context.getBeanFactory())));
+        factory.afterPropertiesSet();
+        entityManagerFactory = factory.getObject();
+
+        inTransaction(em -> {
+            for (int i = 0; i < PAGE_SIZE; i++) {
+                String number = String.format("4111%012d", i);
+                em.persist(CardEntity.builder()
+                        .cardNumberEncrypted(number)
+                        .maskedNumber(CardUtils.maskNumber(number))
+                        .ownerName("IVAN PETROV")
+                        .expiryDate(LocalDate.now().plusYears(3))
+                        .status(CardStatus.ACTIVE)
+                        .userId(USER_ID)
+                        .balance(new BigDecimal("1500.75"))
+                        .currency("RUB")
+                        .build());
+            }
+            return null;
+        });
+    }
+
+    @TearDown
+    public void tearDown() {
+        entityManagerFactory.close();
+        context.close();
+    }
+
+    @Benchmark
+    public List<CardResponseDto> entityPage() {
+        return inTransaction(em -> {
+            List<CardEntity> cards = em.createQuery(ENTITY_QUERY, CardEntity.class)
+                    .setParameter("userId", USER_ID)
+                    .setMaxResults(PAGE_SIZE)
+                    .getResultList();
+            List<CardResponseDto> page = new ArrayList<>(cards.size());
+            for (CardEntity card : cards) {
+                page.add(CardUtils.toResponseDto(card));
+            }
+            return page;
+        });
+    }
+
+    @Benchmark
+    public List<CardResponseDto> projectionPage() {
+        return inTransaction(em -> em.createQuery(PROJECTION_QUERY, CardResponseDto.class)
+                .setParameter("userId", USER_ID)
+                .setMaxResults(PAGE_SIZE)
+                .getResultList());
+    }
+
+    private <T> T inTransaction(Function<EntityManager, T> work) {
+        EntityManager em = entityManagerFactory.createEntityManager();
+        try {
+            em.getTransaction().begin();
+            T result = work.apply(em);
+            em.getTransaction().commit();
+            return result;
+        } finally {
+            em.close();
+        }
+    }
+}
@@ -0,0 +1,93 @@
+package com.bank.benchmark;
+
+import com.bank.controller.ErrorController;
+import com.bank.dto.ErrorDto;
+import com.bank.exception.BusinessException;
+import com.bank.exception.CommonException;
+import com.bank.exception.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость отказа в переводе («Insufficient funds») от броска исключения до готового ответа:
+ * исключение со стеком вызовов и новым {@link ErrorDto} против {@link BusinessException}
+ * без стека и заранее построенного ответа.
+ *
+ * <p>Исключение бросается с глубины {@code depth} кадров: в приложении между сервисом и
+ * обработчиком лежат фильтры, прокси транзакций и диспетчер MVC, и заполнение стека
+ * пропорционально глубине.</p>
+ *
+ * <p>Запуск: {@code ./gradlew jmh}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class RejectedTransferBenchmark {
+
+    /**
+     * Прежнее исключение: стек заполняется при каждом создании.
+     */
+    private static final class StackfulException extends RuntimeException {
+
+        private final int code;
+
+        StackfulException(int code, String message) {
+            super(message);
+            this.code = code;
+        }
+    }
+
+    @Param({"20", "120"})
+    public int depth;
+
+    private ErrorController errorController;
+
+    @Setup
+    public void setUp() {
+        errorController = new ErrorController(new StaticListableBeanFactory(Map.of("meterRegistry", new SimpleMeterRegistry()))
+                .getBeanProvider(MeterRegistry.class));
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorDto> stackfulException() {
+        try {
+            rejectStackful(depth);
+            throw new IllegalStateException();
+        } catch (StackfulException e) {
+            ErrorDto error = new ErrorDto(e.code, e.getMessage());
+            return ResponseEntity.status(error.getCode()).body(error);
+        }
+    }
+
+    @Benchmark
+    public ResponseEntity<ErrorDto> stacklessException() {
+        try {
+            rejectStackless(depth);
+            throw new IllegalStateException();
+        } catch (CommonException e) {
+            return errorController.handleCommonException(e);
+        }
+    }
+
+    private static void rejectStackful(int depth) {
+        if (depth > 0) {
+            rejectStackful(depth - 1);
+            return;
+        }
+        throw new StackfulException(400, "Insufficient funds");
+    }
+
+    private static void rejectStackless(int depth) {
+        if (depth > 0) {
+            rejectStackless(depth - 1);
+            return;
+        }
+        throw new BusinessException(ErrorCode.INSUFFICIENT_FUNDS);
+    }
+}
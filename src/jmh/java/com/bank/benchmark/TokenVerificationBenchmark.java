@@ -0,0 +1,79 @@
+package com.bank.benchmark;
+
+import com.bank.entity.UserEntity;
+import com.bank.enums.Role;
+import com.bank.security.JwtKeyring;
+import com.bank.security.JwtService;
+import com.bank.security.VerifiedTokenCache;
+import com.bank.service.TokenRevocationService;
+import com.bank.service.impl.TokenRevocationServiceImpl;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Стоимость проверки access-токена в {@code JwtAuthenticationFilter} до загрузки пользователя:
+ * без кэша (проверка подписи ES256 и проверка отзыва) и с попаданием в {@link VerifiedTokenCache}
+ * (хэш токена, сравнение строк и сверка версии отзывов).
+ *
+ * <p>Запуск: {@code ./gradlew jmh}.</p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+public class TokenVerificationBenchmark {
+
+    private JwtService jwtService;
+    private TokenRevocationService revocations;
+    private VerifiedTokenCache cache;
+    private String token;
+
+    @Setup
+    public void setUp() throws IOException, ReflectiveOperationException {
+        Path keysDir = Files.createTempDirectory("jwt-keys");
+        jwtService = new JwtService(new JwtKeyring(keysDir, 86400000L, 0, 1000));
+        Field accessExpiration = JwtService.class.getDeclaredField("accessExpiration");
+        accessExpiration.setAccessible(true);
+        accessExpiration.setLong(jwtService, 600000L);
+
+        // запись отзыва в таблицу в замер не входит
+        JdbcTemplate noDatabase = new JdbcTemplate() {
+            @Override
+            public int update(String sql, Object... args) {
+                return 1;
+            }
+        };
+        revocations = new TokenRevocationServiceImpl(noDatabase, jwtService, 10000);
+        // один отозванный пользователь, чтобы фильтр Блума был непустым, как в работе
+        revocations.revokeUser("blocked");
+        cache = new VerifiedTokenCache(revocations, new SimpleMeterRegistry(), 65536);
+
+        UserEntity user = UserEntity.builder()
+                .id(1L)
+                .username("john")
+                .role(Role.ROLE_USER)
+                .enabled(true)
+                .build();
+        token = jwtService.generateAccessToken(user);
+        Claims claims = jwtService.extractClaims(token);
+        cache.put(token, claims, revocations.version());
+    }
+
+    @Benchmark
+    public boolean uncached() {
+        Claims claims = jwtService.extractClaims(token);
+        return revocations.isRevoked(claims.getSubject(), claims.getId(), claims.getIssuedAt());
+    }
+
+    @Benchmark
+    public Claims cached() {
+        return cache.get(token);
+    }
+}
@@ -2,12 +2,20 @@ package com.bank;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class BankRestApplication {
 
+    /** Шагов старта в буфере для отчёта и /actuator/startup; с запасом на ленивое создание бинов после старта. */
+    private static final int STARTUP_STEPS = 10000;
+
     public static void main(String[] args) {
-        SpringApplication.run(BankRestApplication.class, args);
+        SpringApplication application = new SpringApplication(BankRestApplication.class);
+        application.setApplicationStartup(new BufferingApplicationStartup(STARTUP_STEPS));
+        application.run(args);
     }
 
 }
@@ -0,0 +1,151 @@
+package com.bank.config;
+
+import liquibase.integration.spring.SpringLiquibase;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.core.io.Resource;
+import org.springframework.core.io.support.PathMatchingResourcePatternResolver;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.sql.Timestamp;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HexFormat;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Пропускает Liquibase, если набор изменений не менялся с последнего успешного обновления.
+ *
+ * <p>Даже без новых changeset'ов Liquibase при каждом старте берёт блокировку, читает
+ * {@code databasechangelog}, разбирает все файлы и сверяет контрольные суммы. Вместо этого
+ * до инициализации {@link SpringLiquibase} считается SHA-256 всех файлов каталога
+ * changelog'а (вместе с контекстами, метками и схемой) и сравнивается с отпечатком,
+ * сохранённым в {@code liquibase_fingerprints} после прошлого обновления. Совпал — обновление
+ * не запускается; нет — Liquibase работает как обычно, и после успеха отпечаток
+ * перезаписывается. Ошибка чтения или записи отпечатка не мешает старту: тогда Liquibase
+ * просто запускается.</p>
+ */
+@Slf4j
+public class LiquibaseFingerprintPostProcessor implements BeanPostProcessor {
+
+    private static final String SELECT_SQL = "SELECT fingerprint FROM liquibase_fingerprints WHERE change_log = ?";
+    private static final String UPDATE_SQL =
+            "UPDATE liquibase_fingerprints SET fingerprint = ?, updated_at = ? WHERE change_log = ?";
+    private static final String INSERT_SQL =
+            "INSERT INTO liquibase_fingerprints (change_log, fingerprint, updated_at) VALUES (?, ?, ?)";
+
+    /** Отпечатки запущенных обновлений: записываются только после успешной инициализации. */
+    private final Map<String, String> pending = new ConcurrentHashMap<>();
+
+    @Override
+    public Object postProcessBeforeInitialization(Object bean, String beanName) {
+        if (bean instanceof SpringLiquibase liquibase && !liquibase.isDropFirst()) {
+            String fingerprint = fingerprint(liquibase);
+            if (fingerprint.equals(stored(liquibase))) {
+                log.info("Liquibase changelog {} is unchanged since the last update, skipping", liquibase.getChangeLog());
+                liquibase.setShouldRun(false);
+            } else {
+                pending.put(beanName, fingerprint);
+            }
+        }
+        return bean;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        String fingerprint = pending.remove(beanName);
+        if (fingerprint != null && bean instanceof SpringLiquibase liquibase) {
+            store(liquibase, fingerprint);
+        }
+        return bean;
+    }
+
+    /**
+     * Файлы перебираются в порядке путей, в хэш попадает и путь, и содержимое:
+     * переименование changeset-файла тоже меняет отпечаток.
+     */
+    String fingerprint(SpringLiquibase liquibase) {
+        String changeLog = liquibase.getChangeLog().replaceFirst("^classpath:", "");
+        int slash = changeLog.lastIndexOf('/');
+        String dir = slash >= 0 ? changeLog.substring(0, slash + 1) : "";
+        try {
+            MessageDigest digest = MessageDigest.getInstance("SHA-256");
+            update(digest, changeLog);
+            update(digest, Objects.toString(liquibase.getContexts(), ""));
+            update(digest, Objects.toString(liquibase.getLabelFilter(), ""));
+            update(digest, Objects.toString(liquibase.getDefaultSchema(), ""));
+
+            PathMatchingResourcePatternResolver resolver = liquibase.getResourceLoader() != null
+                    ? new PathMatchingResourcePatternResolver(liquibase.getResourceLoader())
+                    : new PathMatchingResourcePatternResolver();
+            Resource[] resources = resolver.getResources("classpath*:" + dir + "**/*.*");
+            List<Resource> files = Arrays.stream(resources)
+                    .filter(Resource::isReadable)
+                    .sorted(Comparator.comparing(r -> relativePath(r, dir)))
+                    .toList();
+            for (Resource file : files) {
+                update(digest, relativePath(file, dir));
+                try (InputStream in = file.getInputStream()) {
+                    digest.update(in.readAllBytes());
+                }
+            }
+            return HexFormat.of().formatHex(digest.digest());
+        } catch (IOException | NoSuchAlgorithmException e) {
+            // без отпечатка обновление просто выполняется
+            log.warn("Cannot fingerprint Liquibase changelog {}", changeLog, e);
+            return "";
+        }
+    }
+
+    private String stored(SpringLiquibase liquibase) {
+        try {
+            List<String> rows = new JdbcTemplate(liquibase.getDataSource())
+                    .queryForList(SELECT_SQL, String.class, liquibase.getChangeLog());
+            return rows.isEmpty() ? null : rows.get(0);
+        } catch (RuntimeException e) {
+            // до первого обновления таблицы ещё нет
+            log.debug("No stored Liquibase fingerprint for {}", liquibase.getChangeLog(), e);
+            return null;
+        }
+    }
+
+    private void store(SpringLiquibase liquibase, String fingerprint) {
+        if (fingerprint.isEmpty()) {
+            return;
+        }
+        try {
+            JdbcTemplate jdbcTemplate = new JdbcTemplate(liquibase.getDataSource());
+            Timestamp now = new Timestamp(System.currentTimeMillis());
+            if (jdbcTemplate.update(UPDATE_SQL, fingerprint, now, liquibase.getChangeLog()) == 0) {
+                jdbcTemplate.update(INSERT_SQL, liquibase.getChangeLog(), fingerprint, now);
+            }
+        } catch (RuntimeException e) {
+            log.warn("Cannot store Liquibase fingerprint for {}, the next start will run the update again",
+                    liquibase.getChangeLog(), e);
+        }
+    }
+
+    private static String relativePath(Resource resource, String dir) {
+        String path;
+        try {
+            path = resource.getURL().getPath();
+        } catch (IOException e) {
+            path = Objects.toString(resource.getFilename(), "");
+        }
+        int at = dir.isEmpty() ? -1 : path.lastIndexOf("/" + dir);
+        return at >= 0 ? path.substring(at + 1) : path;
+    }
+
+    private static void update(MessageDigest digest, String value) {
+        digest.update(value.getBytes(StandardCharsets.UTF_8));
+        digest.update((byte) 0);
+    }
+}
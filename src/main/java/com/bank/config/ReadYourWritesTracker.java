@@ -0,0 +1,32 @@
+package com.bank.config;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+
+import java.time.Duration;
+
+/**
+ * Запоминает пользователей, которые недавно что-то записали.
+ *
+ * <p>Пока не истекло окно {@code datasource.replica.read-your-writes-ms}, их читающие
+ * транзакции идут на основную базу: реплика могла ещё не получить их изменения.</p>
+ */
+public class ReadYourWritesTracker {
+
+    private final Cache<String, Boolean> recentWriters;
+
+    public ReadYourWritesTracker(Duration window, long maxUsers) {
+        this.recentWriters = Caffeine.newBuilder()
+                .expireAfterWrite(window)
+                .maximumSize(maxUsers)
+                .build();
+    }
+
+    public void recordWrite(String principal) {
+        recentWriters.put(principal, Boolean.TRUE);
+    }
+
+    public boolean recentlyWrote(String principal) {
+        return recentWriters.getIfPresent(principal) != null;
+    }
+}
@@ -0,0 +1,67 @@
+package com.bank.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+
+import javax.sql.DataSource;
+
+/**
+ * Периодически измеряет отставание реплики и решает, можно ли читать с неё.
+ *
+ * <p>До первого успешного измерения, при ошибке запроса и при отставании больше
+ * {@code datasource.replica.max-lag-ms} реплика считается непригодной,
+ * и все транзакции идут на основную базу.</p>
+ */
+@Slf4j
+public class ReplicaLagMonitor {
+
+    private final JdbcTemplate replica;
+    private final String lagQuery;
+    private final long maxLagMillis;
+
+    private volatile long lagMillis = -1;
+    private volatile boolean usable;
+
+    public ReplicaLagMonitor(DataSource replica, String lagQuery, long maxLagMillis) {
+        this.replica = new JdbcTemplate(replica);
+        this.replica.setQueryTimeout(1);
+        this.lagQuery = lagQuery;
+        this.maxLagMillis = maxLagMillis;
+    }
+
+    /**
+     * @return {@code true}, если последнее измерение прошло и отставание в пределах допустимого
+     */
+    public boolean isUsable() {
+        return usable;
+    }
+
+    /**
+     * @return отставание по последнему измерению в миллисекундах или {@code -1}, если оно неизвестно
+     */
+    public long getLagMillis() {
+        return lagMillis;
+    }
+
+    @Scheduled(initialDelay = 0, fixedDelayString = "${datasource.replica.lag-check-interval-ms:1000}")
+    public void check() {
+        boolean wasUsable = usable;
+        try {
+            Number lag = replica.queryForObject(lagQuery, Number.class);
+            lagMillis = lag != null ? lag.longValue() : 0;
+            usable = lagMillis <= maxLagMillis;
+        } catch (Exception e) {
+            log.debug("Replica lag check failed", e);
+            lagMillis = -1;
+            usable = false;
+        }
+        if (wasUsable != usable) {
+            if (usable) {
+                log.info("Replica is in sync (lag {} ms), routing read-only transactions to it", lagMillis);
+            } else {
+                log.warn("Replica is unavailable or lagging (lag {} ms), routing all transactions to the primary", lagMillis);
+            }
+        }
+    }
+}
@@ -1,6 +1,9 @@
 package com.bank.config;
 
 import com.bank.security.JwtAuthenticationFilter;
+import com.bank.security.RateLimitFilter;
+import com.bank.security.UserRateLimitFilter;
+import jakarta.servlet.DispatcherType;
 import lombok.RequiredArgsConstructor;
 import org.springframework.context.annotation.*;
 import org.springframework.security.authentication.AuthenticationManager;
@@ -24,14 +27,14 @@ import java.util.List;
  * <ul>
  *     <li>Отключает stateful-сессии (STATELESS)</li>
  *     <li>Отключает CSRF, form-login и HTTP Basic</li>
- *     <li>Добавляет JWT-фильтр в цепочку фильтров</li>
+ *     <li>Добавляет фильтр ограничения частоты запросов и JWT-фильтр в цепочку фильтров</li>
  *     <li>Определяет правила доступа к API</li>
  *     <li>Настраивает CORS для frontend-приложения</li>
  * </ul>
  * </p>
  *
  * <p>Все запросы, кроме аутентификации и документации (Swagger),
- * требуют наличия валидного JWT-токена.</p>
+ * требуют наличия валидного JWT-токена. Эндпоинты Actuator, кроме health, доступны только администратору.</p>
  */
 @Configuration
 @RequiredArgsConstructor
@@ -43,12 +46,23 @@ public class SecurityConfig {
      */
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    /**
+     * Фильтр ограничения частоты запросов по IP, выполняется до JWT-фильтра: логин и запросы без токена.
+     */
+    private final RateLimitFilter rateLimitFilter;
+
+    /**
+     * Фильтр ограничения частоты запросов с токеном, выполняется после JWT-фильтра: ключ — проверенный пользователь.
+     */
+    private final UserRateLimitFilter userRateLimitFilter;
+
     /**
      * Основная цепочка фильтров Spring Security.
      *
      * <p>Включает:
      * <ul>
-     *     <li>Разрешение публичных эндпоинтов (/auth, swagger)</li>
+     *     <li>Разрешение публичных эндпоинтов (/auth, JWKS, swagger)</li>
+     *     <li>Ограничение частоты запросов (429 + Retry-After)</li>
      *     <li>JWT-аутентификацию для остальных запросов</li>
      *     <li>STATLESS-сессию</li>
      *     <li>CORS-настройки</li>
@@ -64,7 +78,13 @@ public class SecurityConfig {
 
         http
             .authorizeHttpRequests(auth -> auth
-                .requestMatchers("/v1/api/auth/**", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                // асинхронный ответ (перевод через движок групповой фиксации) дописывается повторной
+                // диспетчеризацией того же запроса, уже авторизованного при первой
+                .dispatcherTypeMatchers(DispatcherType.ASYNC).permitAll()
+                .requestMatchers("/v1/api/auth/**", "/.well-known/jwks.json", "/swagger-ui/**", "/v3/api-docs/**").permitAll()
+                // метрики и отчёт о запуске раскрывают внутреннее устройство узла
+                .requestMatchers("/actuator/health", "/actuator/health/**").authenticated()
+                .requestMatchers("/actuator/**").hasRole("ADMIN")
                 .anyRequest().authenticated()
             )
             .sessionManagement(sm -> sm.sessionCreationPolicy(SessionCreationPolicy.STATELESS))
@@ -79,7 +99,9 @@ public class SecurityConfig {
                 }))
             .httpBasic(AbstractHttpConfigurer::disable)
             .formLogin(AbstractHttpConfigurer::disable)
-            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class);
+            .addFilterBefore(jwtAuthenticationFilter, UsernamePasswordAuthenticationFilter.class)
+            .addFilterBefore(rateLimitFilter, JwtAuthenticationFilter.class)
+            .addFilterAfter(userRateLimitFilter, JwtAuthenticationFilter.class);
 
         return http.build();
     }
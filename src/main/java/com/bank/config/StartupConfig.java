@@ -0,0 +1,44 @@
+package com.bank.config;
+
+import org.springframework.boot.LazyInitializationExcludeFilter;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.util.ReflectionUtils;
+
+import java.lang.reflect.Method;
+
+/**
+ * Настройки старта приложения.
+ *
+ * <p>Профиль {@code lazy} включает {@code spring.main.lazy-initialization}: бины создаются при
+ * первом обращении. Бины с {@link Scheduled}-методами из ленивой инициализации исключены —
+ * задачи регистрируются только у созданного бина, и иначе фоновые процессы (опрос отзывов,
+ * outbox, регулярные переводы) не запустились бы вовсе. Горячий путь запросов создаётся до
+ * приёма трафика, см. {@link StartupWarmup}.</p>
+ */
+@Configuration
+public class StartupConfig {
+
+    @Bean
+    public static LazyInitializationExcludeFilter scheduledBeansEager() {
+        return (beanName, beanDefinition, beanType) -> beanType != null && hasScheduledMethods(beanType);
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "startup.liquibase.skip-unchanged", havingValue = "true", matchIfMissing = true)
+    public static LiquibaseFingerprintPostProcessor liquibaseFingerprintPostProcessor() {
+        return new LiquibaseFingerprintPostProcessor();
+    }
+
+    private static boolean hasScheduledMethods(Class<?> type) {
+        for (Method method : ReflectionUtils.getUniqueDeclaredMethods(type)) {
+            if (AnnotatedElementUtils.hasAnnotation(method, Scheduled.class)) {
+                return true;
+            }
+        }
+        return false;
+    }
+}
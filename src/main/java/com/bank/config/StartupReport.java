@@ -0,0 +1,60 @@
+package com.bank.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.metrics.buffering.BufferingApplicationStartup;
+import org.springframework.boot.context.metrics.buffering.StartupTimeline;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.core.metrics.StartupStep;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.stream.Collectors;
+import java.util.stream.StreamSupport;
+
+/**
+ * Отчёт о старте: общее время и самые долгие шаги по данным {@link BufferingApplicationStartup}.
+ *
+ * <p>Шаги вложены (создание бина включает создание его зависимостей), поэтому длительности
+ * не складываются. Полная шкала доступна на {@code /actuator/startup}.</p>
+ */
+@Slf4j
+@Component
+public class StartupReport {
+
+    @Value("${startup.report.top-steps:15}")
+    private int topSteps;
+
+    @Order(Ordered.LOWEST_PRECEDENCE)
+    @EventListener
+    public void report(ApplicationReadyEvent event) {
+        if (!(event.getApplicationContext().getApplicationStartup() instanceof BufferingApplicationStartup startup)) {
+            return;
+        }
+        StartupTimeline timeline = startup.getBufferedTimeline();
+        List<StartupTimeline.TimelineEvent> slowest = timeline.getEvents().stream()
+                .sorted(Comparator.comparing(StartupTimeline.TimelineEvent::getDuration).reversed())
+                .limit(topSteps)
+                .toList();
+
+        StringBuilder report = new StringBuilder();
+        for (StartupTimeline.TimelineEvent step : slowest) {
+            report.append(String.format("%n%8d ms  %s%s", step.getDuration().toMillis(),
+                    step.getStartupStep().getName(), tags(step.getStartupStep())));
+        }
+        log.info("Application ready in {} ms, {} startup steps recorded; slowest:{}",
+                event.getTimeTaken() != null ? event.getTimeTaken().toMillis() : -1,
+                timeline.getEvents().size(), report);
+    }
+
+    private static String tags(StartupStep step) {
+        String tags = StreamSupport.stream(step.getTags().spliterator(), false)
+                .map(tag -> tag.getKey() + "=" + tag.getValue())
+                .collect(Collectors.joining(", "));
+        return tags.isEmpty() ? "" : " [" + tags + "]";
+    }
+}
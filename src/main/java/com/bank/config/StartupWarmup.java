@@ -0,0 +1,58 @@
+package com.bank.config;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.event.EventListener;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.Order;
+import org.springframework.stereotype.Component;
+import org.springframework.util.ClassUtils;
+
+import java.util.List;
+
+/**
+ * Создаёт бины горячего пути запросов до приёма трафика ({@code startup.warm-up}).
+ *
+ * <p>Нужен при ленивой инициализации: иначе первые запросы после старта ждали бы создания
+ * EntityManagerFactory, сервисов и контроллеров. Готовность ({@code readiness}) публикуется
+ * после обработки {@link ApplicationReadyEvent}, поэтому балансировщик не пустит трафик
+ * на узел раньше прогрева. Без ленивой инициализации все бины уже созданы, и прогрев ничего
+ * не делает.</p>
+ */
+@Slf4j
+@Component
+public class StartupWarmup {
+
+    private final ApplicationContext applicationContext;
+    private final List<String> beanTypes;
+
+    public StartupWarmup(ApplicationContext applicationContext,
+                         @Value("${startup.warm-up:}") List<String> beanTypes) {
+        this.applicationContext = applicationContext;
+        this.beanTypes = beanTypes;
+    }
+
+    @Order(Ordered.HIGHEST_PRECEDENCE)
+    @EventListener(ApplicationReadyEvent.class)
+    public void warmUp() {
+        long started = System.currentTimeMillis();
+        int created = 0;
+        for (String name : beanTypes) {
+            String typeName = name.trim();
+            if (typeName.isEmpty()) {
+                continue;
+            }
+            try {
+                Class<?> type = ClassUtils.forName(typeName, applicationContext.getClassLoader());
+                created += applicationContext.getBeansOfType(type).size();
+            } catch (ClassNotFoundException | LinkageError e) {
+                log.warn("Cannot warm up {}: class not found", typeName);
+            }
+        }
+        if (created > 0) {
+            log.info("Warmed up {} beans in {} ms", created, System.currentTimeMillis() - started);
+        }
+    }
+}
@@ -2,7 +2,10 @@ package com.bank.controller;
 
 import com.bank.dto.*;
 import com.bank.entity.UserEntity;
+import com.bank.event.CardEventHub;
+import com.bank.service.CardBulkImportService;
 import com.bank.service.CardService;
+import com.bank.service.CardSummaryService;
 import com.bank.service.impl.UserServiceImpl;
 import io.swagger.v3.oas.annotations.parameters.RequestBody;
 import io.swagger.v3.oas.annotations.Operation;
@@ -14,21 +17,27 @@ import io.swagger.v3.oas.annotations.responses.ApiResponse;
 import io.swagger.v3.oas.annotations.responses.ApiResponses;
 import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NullMarked;
 import org.springframework.data.domain.*;
+import org.springframework.http.MediaType;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
 
 /**
  * Контроллер для управления банковскими картами.
  *
  * <p>Обеспечивает доступ к CRUD операциям карт для пользователей и администраторов:
  * <ul>
- *   <li>Пользователи: просмотр своих карт и баланса</li>
- *   <li>Администраторы: создание, блокировка, активация, удаление карт, просмотр всех карт</li>
+ *   <li>Пользователи: просмотр своих карт и баланса, подписка на изменения карт (SSE)</li>
+ *   <li>Администраторы: создание (в том числе массовое), блокировка, активация, удаление карт, просмотр всех карт</li>
  * </ul>
  * </p>
  *
@@ -45,6 +54,9 @@ public class CardController {
 
     private final CardService cardService;
     private final UserServiceImpl userService;
+    private final CardEventHub cardEventHub;
+    private final CardBulkImportService cardBulkImportService;
+    private final CardSummaryService cardSummaryService;
 
     @GetMapping
     @NullMarked
@@ -63,6 +75,12 @@ public class CardController {
                             in = ParameterIn.QUERY,
                             description = "Page size",
                             schema = @Schema(type = "integer", defaultValue = "10", minimum = "1", maximum = "100")
+                    ),
+                    @Parameter(
+                            name = "withTotal",
+                            in = ParameterIn.QUERY,
+                            description = "When false, returns a slice (no total count, only whether a next page exists)",
+                            schema = @Schema(type = "boolean", defaultValue = "true")
                     )
             },
             responses = {
@@ -77,14 +95,74 @@ public class CardController {
             },
             security = @SecurityRequirement(name = "bearerAuth")
     )
-    public Page<CardResponseDto> getAllCards(
+    public Slice<CardResponseDto> getAllCards(
             @AuthenticationPrincipal UserDetails userDetails,
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal
     ) {
         UserEntity user = userService.getByUsername(userDetails.getUsername());
 
-        return cardService.getUserCards(user.getId(), PageRequest.of(page, size));
+        return withTotal
+                ? cardService.getUserCards(user.getId(), PageRequest.of(page, size))
+                : cardService.getUserCardsSlice(user.getId(), PageRequest.of(page, size));
+    }
+
+    @GetMapping("/summary")
+    @Operation(
+            summary = "Get user's card summary",
+            description = "Returns total balance per currency, card counts by status and last transfer time " +
+                    "for the authenticated user. Served from a maintained summary table, without scanning cards.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Card summary",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = CardSummaryDto.class)
+                            )
+                    )
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public CardSummaryDto getSummary(@AuthenticationPrincipal UserDetails userDetails) {
+        UserEntity user = userService.getByUsername(userDetails.getUsername());
+        return cardSummaryService.getSummary(user.getId());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/summary/rebuild")
+    @Operation(
+            summary = "Rebuild card summaries (ADMIN only)",
+            description = "Recomputes every user's card summary from the cards and transfers tables. " +
+                    "Use to repair the summary after manual data changes. Returns the number of summary rows.",
+            security = @SecurityRequirement(name = "bearerAuth", scopes = {"ADMIN"})
+    )
+    public int rebuildSummary() {
+        return cardSummaryService.rebuild();
+    }
+
+    @GetMapping(value = "/stream", produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    @Operation(
+            summary = "Stream card updates",
+            description = "Opens a Server-Sent Events stream. Each event named 'card' carries the current " +
+                    "CardResponseDto of a card of the authenticated user whose balance or status changed. " +
+                    "Slow consumers are disconnected and should reconnect.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Event stream of card updates",
+                            content = @Content(
+                                    mediaType = "text/event-stream",
+                                    schema = @Schema(implementation = CardResponseDto.class)
+                            )
+                    )
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public SseEmitter streamCards(@AuthenticationPrincipal UserDetails userDetails) {
+        UserEntity user = userService.getByUsername(userDetails.getUsername());
+        return cardEventHub.subscribe(user.getId());
     }
 
     @GetMapping("/{id}")
@@ -183,6 +261,36 @@ public class CardController {
         return cardService.createCard(dto);
     }
 
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping(value = "/bulk", consumes = {"application/x-ndjson", "text/csv"}, produces = "application/x-ndjson")
+    @Operation(
+            summary = "Bulk card issuance",
+            description = "Creates cards from a streamed NDJSON (one CardCreateDto per line) or CSV " +
+                    "(cardNumber,ownerName,userId,expiryDate,initialBalance[,currency]) body. " +
+                    "Lines are processed in chunks; the response streams NDJSON with per-line errors " +
+                    "and progress after each chunk. Admin-only operation.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Progress stream",
+                            content = @Content(
+                                    mediaType = "application/x-ndjson",
+                                    schema = @Schema(implementation = BulkImportEventDto.class)
+                            )
+                    )
+            },
+            security = @SecurityRequirement(name = "bearerAuth", scopes = {"ADMIN"})
+    )
+    public void bulkCreateCards(HttpServletRequest request, HttpServletResponse response) throws IOException {
+        CardBulkImportService.Format format = MediaType.parseMediaType(request.getContentType())
+                .isCompatibleWith(MediaType.valueOf("text/csv"))
+                ? CardBulkImportService.Format.CSV
+                : CardBulkImportService.Format.NDJSON;
+
+        response.setContentType("application/x-ndjson");
+        cardBulkImportService.importCards(request.getInputStream(), format, response.getOutputStream());
+    }
+
     @PreAuthorize("hasRole('ADMIN')")
     @PostMapping("/{id}/block")
     @Operation(
@@ -263,7 +371,8 @@ public class CardController {
     @NullMarked
     @Operation(
             summary = "Get all cards (paginated)",
-            description = "Retrieves a paginated list of all cards. Available only for ADMIN users.",
+            description = "Retrieves a paginated list of all cards. Available only for ADMIN users. " +
+                    "The total count is an estimate; pass withTotal=false to get a slice without any count.",
             security = @SecurityRequirement(name = "bearer-token")
     )
     @ApiResponses({
@@ -280,10 +389,13 @@ public class CardController {
                     description = "Forbidden: user does not have ADMIN role"
             )
     })
-    public Page<CardResponseDto> getAllCards(
+    public Slice<CardResponseDto> getAllCards(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal
     ) {
-        return cardService.getAllCards(PageRequest.of(page, size));
+        return withTotal
+                ? cardService.getAllCards(PageRequest.of(page, size))
+                : cardService.getAllCardsSlice(PageRequest.of(page, size));
     }
 }
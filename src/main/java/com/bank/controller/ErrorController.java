@@ -1,20 +1,53 @@
 package com.bank.controller;
 
 import com.bank.dto.ErrorDto;
+import com.bank.exception.BusinessException;
 import com.bank.exception.CommonException;
+import com.bank.exception.ErrorCode;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Metrics;
 import org.jspecify.annotations.NullMarked;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
+
+import java.util.EnumMap;
+import java.util.Map;
+
 /**
  * Глобальный обработчик исключений для REST API.
  *
  * <p>Перехватывает исключения типа {@link CommonException} и формирует
  * корректный {@link ResponseEntity} с телом {@link ErrorDto} и соответствующим HTTP кодом.</p>
+ *
+ * <p>Для каждого {@link ErrorCode} ответ и счётчик {@code business_errors} создаются при старте,
+ * поэтому обработка отказа не выделяет памяти. Исключения без кода учитываются
+ * под тегом {@code UNCLASSIFIED}.</p>
  */
 @RestControllerAdvice
 public class ErrorController {
 
+    private static final String METRIC = "business_errors";
+    private static final String UNCLASSIFIED = "UNCLASSIFIED";
+
+    private final Map<ErrorCode, ResponseEntity<ErrorDto>> responses = new EnumMap<>(ErrorCode.class);
+    private final Map<ErrorCode, Counter> counters = new EnumMap<>(ErrorCode.class);
+    private final MeterRegistry meterRegistry;
+
+    /**
+     * В срезовых тестах MVC реестра метрик может не быть — тогда счётчики пишутся в глобальный реестр.
+     */
+    public ErrorController(ObjectProvider<MeterRegistry> meterRegistry) {
+        this.meterRegistry = meterRegistry.getIfAvailable(() -> Metrics.globalRegistry);
+        for (ErrorCode code : ErrorCode.values()) {
+            responses.put(code, ResponseEntity.status(code.getStatus())
+                    .body(new ErrorDto(code.getStatus(), code.getMessage())));
+            counters.put(code, counter(code.name(), code.getStatus()));
+        }
+    }
+
     /**
      * Обрабатывает исключения {@link CommonException}.
      *
@@ -25,9 +58,21 @@ public class ErrorController {
     @NullMarked
     public ResponseEntity<ErrorDto> handleCommonException(CommonException exc) {
 
+        if (exc instanceof BusinessException business) {
+            counters.get(business.getErrorCode()).increment();
+            return responses.get(business.getErrorCode());
+        }
+
         ErrorDto error = new ErrorDto(exc.getCode(), exc.getMessage());
+        counter(UNCLASSIFIED, error.getCode()).increment();
 
         return ResponseEntity.status(error.getCode()).body(error);
     }
 
+    private Counter counter(String code, int status) {
+        return Counter.builder(METRIC)
+                .tag("code", code)
+                .tag("status", String.valueOf(status))
+                .register(meterRegistry);
+    }
 }
@@ -0,0 +1,132 @@
+package com.bank.controller;
+
+import com.bank.dto.ErrorDto;
+import com.bank.service.ExportService;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.Parameter;
+import io.swagger.v3.oas.annotations.enums.ParameterIn;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.HttpHeaders;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.util.Locale;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Контроллер полной выгрузки данных для аудита (только для администраторов).
+ *
+ * <p>Данные пишутся в ответ по мере чтения из базы; если клиент принимает
+ * {@code gzip}, ответ сжимается на лету.</p>
+ */
+@RestController
+@RequestMapping("/v1/api/admin/export")
+@RequiredArgsConstructor
+@PreAuthorize("hasRole('ADMIN')")
+@Tag(
+        name = "Export",
+        description = "Streaming full exports of cards and transfers for auditors (ADMIN only)"
+)
+public class ExportController {
+
+    private static final int GZIP_BUFFER_SIZE = 64 * 1024;
+
+    private final ExportService exportService;
+
+    @GetMapping("/cards")
+    @Operation(
+            summary = "Export all cards (ADMIN only)",
+            description = "Streams every card as CSV or NDJSON. Card numbers are exported masked only. " +
+                    "The response is gzip-encoded when the client sends Accept-Encoding: gzip.",
+            parameters = @Parameter(
+                    name = "format",
+                    in = ParameterIn.QUERY,
+                    description = "Export format",
+                    schema = @Schema(type = "string", allowableValues = {"csv", "ndjson"}, defaultValue = "csv")
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Export stream"),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Forbidden - insufficient permissions",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorDto.class)
+                            )
+                    )
+            },
+            security = @SecurityRequirement(name = "bearerAuth", scopes = {"ADMIN"})
+    )
+    public void exportCards(@RequestParam(defaultValue = "csv") String format,
+                            HttpServletRequest request,
+                            HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = parseFormat(format);
+        try (OutputStream out = open(request, response, "cards", exportFormat)) {
+            exportService.exportCards(exportFormat, out);
+        }
+    }
+
+    @GetMapping("/transfers")
+    @Operation(
+            summary = "Export all transfers (ADMIN only)",
+            description = "Streams every transfer as CSV or NDJSON. " +
+                    "The response is gzip-encoded when the client sends Accept-Encoding: gzip.",
+            parameters = @Parameter(
+                    name = "format",
+                    in = ParameterIn.QUERY,
+                    description = "Export format",
+                    schema = @Schema(type = "string", allowableValues = {"csv", "ndjson"}, defaultValue = "csv")
+            ),
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Export stream"),
+                    @ApiResponse(
+                            responseCode = "403",
+                            description = "Forbidden - insufficient permissions",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorDto.class)
+                            )
+                    )
+            },
+            security = @SecurityRequirement(name = "bearerAuth", scopes = {"ADMIN"})
+    )
+    public void exportTransfers(@RequestParam(defaultValue = "csv") String format,
+                                HttpServletRequest request,
+                                HttpServletResponse response) throws IOException {
+        ExportService.Format exportFormat = parseFormat(format);
+        try (OutputStream out = open(request, response, "transfers", exportFormat)) {
+            exportService.exportTransfers(exportFormat, out);
+        }
+    }
+
+    private static ExportService.Format parseFormat(String format) {
+        return "ndjson".equals(format.toLowerCase(Locale.ROOT)) ? ExportService.Format.NDJSON : ExportService.Format.CSV;
+    }
+
+    private static OutputStream open(HttpServletRequest request,
+                                     HttpServletResponse response,
+                                     String name,
+                                     ExportService.Format format) throws IOException {
+        boolean csv = format == ExportService.Format.CSV;
+        response.setContentType(csv ? "text/csv;charset=UTF-8" : "application/x-ndjson");
+        response.setHeader(HttpHeaders.CONTENT_DISPOSITION,
+                "attachment; filename=\"" + name + (csv ? ".csv" : ".ndjson") + "\"");
+        response.setHeader(HttpHeaders.VARY, HttpHeaders.ACCEPT_ENCODING);
+
+        String acceptEncoding = request.getHeader(HttpHeaders.ACCEPT_ENCODING);
+        if (acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            response.setHeader(HttpHeaders.CONTENT_ENCODING, "gzip");
+            return new GZIPOutputStream(response.getOutputStream(), GZIP_BUFFER_SIZE);
+        }
+        return response.getOutputStream();
+    }
+}
@@ -0,0 +1,60 @@
+package com.bank.controller;
+
+import com.bank.security.JwtKeyring;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.CacheControl;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.Duration;
+import java.util.Map;
+
+/**
+ * Контроллер ключей подписи JWT.
+ *
+ * <p>Публикует открытые ключи в формате JWKS, чтобы другие сервисы проверяли
+ * токены локально, и позволяет администратору ротировать ключ подписи.</p>
+ */
+@RestController
+@RequiredArgsConstructor
+@Tag(name = "Keys", description = "JWT verification keys (JWKS) and signing key rotation")
+public class JwkController {
+
+    /**
+     * Сколько клиентам кэшировать JWKS. Ключ, созданный ротацией, подписывает токены сразу,
+     * поэтому клиент должен перечитывать JWKS, встретив незнакомый kid.
+     */
+    private static final Duration JWKS_MAX_AGE = Duration.ofMinutes(5);
+
+    private final JwtKeyring keyring;
+
+    @GetMapping("/.well-known/jwks.json")
+    @Operation(
+            summary = "JWT verification keys",
+            description = "Returns all current verification keys as a JWK Set (ES256). " +
+                    "Select the key by the kid header of the token; refetch when the kid is unknown."
+    )
+    public ResponseEntity<Map<String, Object>> jwks() {
+        return ResponseEntity.ok()
+                .cacheControl(CacheControl.maxAge(JWKS_MAX_AGE).cachePublic())
+                .body(keyring.jwks());
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/v1/api/admin/jwt-keys/rotate")
+    @Operation(
+            summary = "Rotate JWT signing key (ADMIN only)",
+            description = "Generates a new signing key and returns its kid. Tokens signed with previous keys " +
+                    "stay valid until they expire; other nodes pick up the new key without a restart.",
+            security = @SecurityRequirement(name = "bearerAuth", scopes = {"ADMIN"})
+    )
+    public String rotate() {
+        return keyring.rotate();
+    }
+}
@@ -0,0 +1,132 @@
+package com.bank.controller;
+
+import com.bank.dto.ErrorDto;
+import com.bank.dto.ScheduledTransferCreateDto;
+import com.bank.dto.ScheduledTransferDto;
+import com.bank.entity.UserEntity;
+import com.bank.service.ScheduledTransferService;
+import com.bank.service.impl.UserServiceImpl;
+import io.swagger.v3.oas.annotations.Operation;
+import io.swagger.v3.oas.annotations.media.ArraySchema;
+import io.swagger.v3.oas.annotations.media.Content;
+import io.swagger.v3.oas.annotations.media.Schema;
+import io.swagger.v3.oas.annotations.parameters.RequestBody;
+import io.swagger.v3.oas.annotations.responses.ApiResponse;
+import io.swagger.v3.oas.annotations.security.SecurityRequirement;
+import io.swagger.v3.oas.annotations.tags.Tag;
+import jakarta.validation.Valid;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.core.annotation.AuthenticationPrincipal;
+import org.springframework.security.core.userdetails.UserDetails;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.List;
+
+/**
+ * Контроллер регулярных переводов между картами пользователя.
+ *
+ * <p>Пользователь создаёт, просматривает и отключает свои регулярные переводы;
+ * выполняет их планировщик (см. {@link ScheduledTransferService}).</p>
+ */
+@RestController
+@RequestMapping("/v1/api/transfers/scheduled")
+@RequiredArgsConstructor
+@Tag(
+        name = "Scheduled transfers",
+        description = "API for recurring transfers between user's own cards"
+)
+public class ScheduledTransferController {
+
+    private final ScheduledTransferService scheduledTransferService;
+    private final UserServiceImpl userService;
+
+    @PostMapping
+    @Operation(
+            summary = "Create recurring transfer",
+            description = "Schedules a transfer between two cards of the authenticated user to run daily, weekly or monthly. " +
+                    "Each run goes through the same checks and limits as a one-off transfer; " +
+                    "a failed run is skipped until the next period.",
+            requestBody = @RequestBody(
+                    description = "Recurring transfer details",
+                    required = true,
+                    content = @Content(schema = @Schema(implementation = ScheduledTransferCreateDto.class))
+            ),
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "Recurring transfer created",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ScheduledTransferDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "400",
+                            description = "Bad request: same cards or cards of another user",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorDto.class)
+                            )
+                    ),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Card not found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorDto.class)
+                            )
+                    )
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public ScheduledTransferDto create(
+            @Valid @org.springframework.web.bind.annotation.RequestBody ScheduledTransferCreateDto dto,
+            @AuthenticationPrincipal UserDetails userDetails
+    ) {
+        UserEntity user = userService.getByUsername(userDetails.getUsername());
+        return scheduledTransferService.create(user.getId(), dto);
+    }
+
+    @GetMapping
+    @Operation(
+            summary = "Get user's recurring transfers",
+            description = "Returns all recurring transfers of the authenticated user, including deactivated ones.",
+            responses = {
+                    @ApiResponse(
+                            responseCode = "200",
+                            description = "List of recurring transfers",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    array = @ArraySchema(schema = @Schema(implementation = ScheduledTransferDto.class))
+                            )
+                    )
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public List<ScheduledTransferDto> getAll(@AuthenticationPrincipal UserDetails userDetails) {
+        UserEntity user = userService.getByUsername(userDetails.getUsername());
+        return scheduledTransferService.getUserSchedules(user.getId());
+    }
+
+    @DeleteMapping("/{id}")
+    @Operation(
+            summary = "Cancel recurring transfer",
+            description = "Deactivates a recurring transfer of the authenticated user. Past transfers are not affected.",
+            responses = {
+                    @ApiResponse(responseCode = "200", description = "Recurring transfer cancelled"),
+                    @ApiResponse(
+                            responseCode = "404",
+                            description = "Recurring transfer not found",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorDto.class)
+                            )
+                    )
+            },
+            security = @SecurityRequirement(name = "bearerAuth")
+    )
+    public void cancel(@PathVariable Long id, @AuthenticationPrincipal UserDetails userDetails) {
+        UserEntity user = userService.getByUsername(userDetails.getUsername());
+        scheduledTransferService.cancel(user.getId(), id);
+    }
+}
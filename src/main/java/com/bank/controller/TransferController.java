@@ -5,6 +5,7 @@ import com.bank.dto.TransferDto;
 import com.bank.dto.TransferRequestDto;
 import com.bank.dto.TransferResponseDto;
 import com.bank.entity.UserEntity;
+import com.bank.service.TransferArchiveService;
 import com.bank.service.TransferService;
 import com.bank.service.impl.UserServiceImpl;
 import io.swagger.v3.oas.annotations.Operation;
@@ -18,13 +19,19 @@ import io.swagger.v3.oas.annotations.security.SecurityRequirement;
 import io.swagger.v3.oas.annotations.tags.Tag;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NullMarked;
+import org.jspecify.annotations.Nullable;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.annotation.AuthenticationPrincipal;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.web.bind.annotation.*;
 
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
+
 /**
  * Контроллер для управления переводами между картами пользователя.
  *
@@ -46,6 +53,7 @@ import org.springframework.web.bind.annotation.*;
 public class TransferController {
 
     private final TransferService transferService;
+    private final TransferArchiveService transferArchiveService;
     private final UserServiceImpl userService;
 
     @Operation(
@@ -74,7 +82,7 @@ public class TransferController {
                                     "- source and destination cards are the same; " +
                                     "- insufficient funds; " +
                                     "- cards don't belong to the user; " +
-                                    "- card is not active",
+                                    "- card is not active or expired",
                             content = @Content(
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = ErrorDto.class)
@@ -87,17 +95,26 @@ public class TransferController {
                                     mediaType = "application/json",
                                     schema = @Schema(implementation = ErrorDto.class)
                             )
+                    ),
+                    @ApiResponse(
+                            responseCode = "503",
+                            description = "Transfer queue is full, retry later",
+                            content = @Content(
+                                    mediaType = "application/json",
+                                    schema = @Schema(implementation = ErrorDto.class)
+                            )
                     )
             },
             security = @SecurityRequirement(name = "bearerAuth")
     )
     @PostMapping
-    public TransferResponseDto transfer(
+    public CompletableFuture<TransferResponseDto> transfer(
             @org.springframework.web.bind.annotation.RequestBody TransferRequestDto dto,
             @AuthenticationPrincipal UserDetails userDetails
     ) {
         UserEntity user = userService.getByUsername(userDetails.getUsername());
-        return transferService.transferBetweenOwnCards(user.getId(), dto);
+        // в режиме transfers.engine.mode=partitioned поток запроса освобождается до фиксации перевода
+        return transferService.transferBetweenOwnCardsAsync(user.getId(), dto);
     }
 
     @PreAuthorize("hasRole('ADMIN')")
@@ -105,7 +122,7 @@ public class TransferController {
     @Operation(
             summary = "Get all transfers (ADMIN only)",
             description = "Retrieves a paginated list of all transfers in the system. " +
-                    "Accessible only to administrators.",
+                    "The total count is an estimate. Accessible only to administrators.",
             parameters = {
                     @Parameter(
                             name = "page",
@@ -118,6 +135,26 @@ public class TransferController {
                             in = ParameterIn.QUERY,
                             description = "Page size",
                             schema = @Schema(type = "integer", defaultValue = "10", minimum = "1", maximum = "100")
+                    ),
+                    @Parameter(
+                            name = "withTotal",
+                            in = ParameterIn.QUERY,
+                            description = "When false, returns a slice (no total count, only whether a next page exists)",
+                            schema = @Schema(type = "boolean", defaultValue = "true")
+                    ),
+                    @Parameter(
+                            name = "from",
+                            in = ParameterIn.QUERY,
+                            description = "Start of the period, inclusive (ISO date-time). " +
+                                    "With a period, only the matching monthly partitions are read and the total is exact. " +
+                                    "Periods before the archive horizon are read from archived segments, ordered by creation time",
+                            schema = @Schema(type = "string", format = "date-time")
+                    ),
+                    @Parameter(
+                            name = "to",
+                            in = ParameterIn.QUERY,
+                            description = "End of the period, exclusive (ISO date-time)",
+                            schema = @Schema(type = "string", format = "date-time")
                     )
             },
             responses = {
@@ -141,10 +178,34 @@ public class TransferController {
             security = @SecurityRequirement(name = "bearerAuth", scopes = {"ADMIN"})
     )
     @NullMarked
-    public Page<TransferDto> getAll(
+    public Slice<TransferDto> getAll(
             @RequestParam(defaultValue = "0") int page,
-            @RequestParam(defaultValue = "10") int size
+            @RequestParam(defaultValue = "10") int size,
+            @RequestParam(defaultValue = "true") boolean withTotal,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) @Nullable LocalDateTime to
     ) {
-        return transferService.getAll(PageRequest.of(page, size));
+        PageRequest pageRequest = PageRequest.of(page, size);
+        if (from != null || to != null) {
+            return withTotal
+                    ? transferService.getAllBetween(from, to, pageRequest)
+                    : transferService.getAllBetweenSlice(from, to, pageRequest);
+        }
+        return withTotal
+                ? transferService.getAll(pageRequest)
+                : transferService.getAllSlice(pageRequest);
+    }
+
+    @PreAuthorize("hasRole('ADMIN')")
+    @PostMapping("/archive")
+    @Operation(
+            summary = "Archive old transfers (ADMIN only)",
+            description = "Moves transfers older than the configured age, and detached monthly partitions, " +
+                    "to compressed segment files and deletes them from the database. " +
+                    "Normally runs on a schedule. Returns the number of archived transfers.",
+            security = @SecurityRequirement(name = "bearerAuth", scopes = {"ADMIN"})
+    )
+    public long archive() {
+        return transferArchiveService.archive();
     }
 }
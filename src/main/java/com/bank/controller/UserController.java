@@ -99,15 +99,18 @@ public class UserController {
 
     @Operation(
             summary = "Logout user",
-            description = "Removes refresh token cookie, invalidating the session.",
+            description = "Revokes the refresh token and the current access token on the server and removes the refresh cookie.",
             responses = {
                     @ApiResponse(responseCode = "204", description = "Logged out successfully")
             }
     )
     @PostMapping("/auth/logout")
-    public ResponseEntity<?> logout(HttpServletResponse response) {
+    public ResponseEntity<?> logout(
+            @CookieValue(value = "refresh_token", required = false) String refreshToken,
+            @RequestHeader(value = HttpHeaders.AUTHORIZATION, required = false) String authorization,
+            HttpServletResponse response) {
 
-        userService.logout(response);
+        userService.logout(refreshToken, authorization, response);
 
         return ResponseEntity.noContent().build();
     }
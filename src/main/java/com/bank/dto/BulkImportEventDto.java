@@ -0,0 +1,49 @@
+package com.bank.dto;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import io.swagger.v3.oas.annotations.media.Schema;
+
+/**
+ * Строка потокового ответа массового выпуска карт (NDJSON).
+ *
+ * <p>Тип {@code error} описывает отклонённую строку входных данных, {@code progress}
+ * отправляется после каждой обработанной пачки, {@code done} — в конце импорта.</p>
+ *
+ * @param type тип события: {@code error}, {@code progress} или {@code done}
+ * @param line номер строки входных данных (для {@code error})
+ * @param message причина отклонения строки (для {@code error})
+ * @param processed количество обработанных строк
+ * @param created количество выпущенных карт
+ * @param failed количество отклонённых строк
+ */
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@Schema(description = "Line of the bulk card import progress stream")
+public record BulkImportEventDto(
+
+    @Schema(description = "Event type: error, progress or done", example = "progress")
+    String type,
+
+    @Schema(description = "Input line number (for errors)", example = "17")
+    Long line,
+
+    @Schema(description = "Rejection reason (for errors)", example = "User not found")
+    String message,
+
+    @Schema(description = "Lines processed so far", example = "1000")
+    Long processed,
+
+    @Schema(description = "Cards created so far", example = "998")
+    Long created,
+
+    @Schema(description = "Lines rejected so far", example = "2")
+    Long failed
+) {
+
+    public static BulkImportEventDto error(long line, String message) {
+        return new BulkImportEventDto("error", line, message, null, null, null);
+    }
+
+    public static BulkImportEventDto progress(String type, long processed, long created, long failed) {
+        return new BulkImportEventDto(type, null, null, processed, created, failed);
+    }
+}
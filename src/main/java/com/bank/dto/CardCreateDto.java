@@ -15,6 +15,7 @@ import java.math.BigDecimal;
  * @param userId идентификатор пользователя, которому принадлежит карта
  * @param expiryDate срок действия карты
  * @param initialBalance начальный баланс карты (>= 0)
+ * @param currency валюта карты (ISO 4217); если не указана — используется валюта по умолчанию
  */
 @Schema(description = "DTO for creating a new bank card")
 public record CardCreateDto(
@@ -57,5 +58,12 @@ public record CardCreateDto(
             example = "1000.50",
             required = true
     )
-    BigDecimal initialBalance
+    BigDecimal initialBalance,
+
+    @Pattern(regexp = "[A-Z]{3}")
+    @Schema(
+            description = "Card currency (ISO 4217). Defaults to RUB when omitted",
+            example = "USD"
+    )
+    String currency
 ) {}
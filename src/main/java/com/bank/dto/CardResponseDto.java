@@ -1,5 +1,6 @@
 package com.bank.dto;
 
+import com.bank.enums.CardStatus;
 import io.swagger.v3.oas.annotations.media.Schema;
 
 import java.math.BigDecimal;
@@ -17,6 +18,7 @@ import java.time.LocalDate;
  * @param expiryDate срок действия карты
  * @param status статус карты ("ACTIVE", "BLOCKED", "EXPIRED")
  * @param balance текущий баланс карты
+ * @param currency валюта карты (ISO 4217)
  */
 @Schema(description = "DTO representing a bank card information")
 public record CardResponseDto(
@@ -40,5 +42,17 @@ public record CardResponseDto(
     String status,
 
     @Schema(description = "Current balance of the card", example = "1500.75")
-    BigDecimal balance
-) {}
+    BigDecimal balance,
+
+    @Schema(description = "Card currency (ISO 4217)", example = "RUB")
+    String currency
+) {
+
+    /**
+     * Конструктор для JPQL-проекций ({@code select new ...}): статус приходит как enum сущности.
+     */
+    public CardResponseDto(Long id, Long userId, String maskedNumber, String ownerName,
+                           LocalDate expiryDate, CardStatus status, BigDecimal balance, String currency) {
+        this(id, userId, maskedNumber, ownerName, expiryDate, status.name(), balance, currency);
+    }
+}
@@ -0,0 +1,39 @@
+package com.bank.dto;
+
+import io.swagger.v3.oas.annotations.media.Schema;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.Map;
+
+/**
+ * DTO сводки по картам пользователя для дашборда.
+ *
+ * @param userId идентификатор пользователя
+ * @param balances суммарный баланс карт по валютам (ISO 4217)
+ * @param activeCards количество активных карт
+ * @param blockedCards количество заблокированных карт
+ * @param expiredCards количество карт с истёкшим сроком
+ * @param lastTransferAt время последнего перевода пользователя ({@code null}, если переводов не было)
+ */
+@Schema(description = "Summary of the user's cards")
+public record CardSummaryDto(
+
+    @Schema(description = "ID of the user", example = "1")
+    Long userId,
+
+    @Schema(description = "Total balance per currency", example = "{\"RUB\": 1500.75, \"USD\": 20.00}")
+    Map<String, BigDecimal> balances,
+
+    @Schema(description = "Number of ACTIVE cards", example = "2")
+    long activeCards,
+
+    @Schema(description = "Number of BLOCKED cards", example = "1")
+    long blockedCards,
+
+    @Schema(description = "Number of EXPIRED cards", example = "0")
+    long expiredCards,
+
+    @Schema(description = "Time of the user's last transfer", example = "2025-01-01T12:00:00")
+    LocalDateTime lastTransferAt
+) {}
@@ -2,8 +2,6 @@ package com.bank.dto;
 
 import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
 
 /**
  * DTO для представления ошибки API.
@@ -12,20 +10,20 @@ import lombok.Setter;
  * в формате JSON.</p>
  *
  * <p>Возвращается глобальным обработчиком исключений
- * ({@code @ControllerAdvice}).</p>
+ * ({@code @ControllerAdvice}). Объект неизменяемый: ответы для известных кодов ошибок
+ * строятся один раз и переиспользуются всеми запросами.</p>
  */
-@NoArgsConstructor
 @AllArgsConstructor
-@Getter @Setter
+@Getter
 public class ErrorDto {
 
     /**
      * HTTP-код ошибки или внутренний код приложения.
      */
-    private Integer code;
+    private final Integer code;
 
     /**
      * Описание ошибки, понятное клиенту.
      */
-    private String message;
+    private final String message;
 }
@@ -0,0 +1,59 @@
+package com.bank.dto;
+
+import com.bank.enums.TransferFrequency;
+import io.swagger.v3.oas.annotations.media.Schema;
+import jakarta.validation.constraints.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO для создания регулярного перевода между картами пользователя.
+ *
+ * @param fromCardId карта списания
+ * @param toCardId карта зачисления
+ * @param amount сумма каждого перевода
+ * @param frequency периодичность
+ * @param startAt первый запуск; если не указан или в прошлом — ближайший опрос планировщика
+ */
+@Schema(description = "DTO for creating a recurring transfer between the user's own cards")
+public record ScheduledTransferCreateDto(
+
+    @NotNull
+    @Schema(
+            description = "Identifier of the source card",
+            example = "101",
+            requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    Long fromCardId,
+
+    @NotNull
+    @Schema(
+            description = "Identifier of the destination card",
+            example = "202",
+            requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    Long toCardId,
+
+    @NotNull @DecimalMin("0.01")
+    @Schema(
+            description = "Amount of each transfer. Must be greater than zero",
+            example = "500.00",
+            requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    BigDecimal amount,
+
+    @NotNull
+    @Schema(
+            description = "How often the transfer runs",
+            example = "WEEKLY",
+            requiredMode = Schema.RequiredMode.REQUIRED
+    )
+    TransferFrequency frequency,
+
+    @Schema(
+            description = "First run. Later runs are counted from it. Defaults to now",
+            example = "2025-01-17T09:00:00"
+    )
+    LocalDateTime startAt
+) {}
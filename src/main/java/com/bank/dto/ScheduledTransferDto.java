@@ -0,0 +1,48 @@
+package com.bank.dto;
+
+import com.bank.enums.TransferFrequency;
+import io.swagger.v3.oas.annotations.media.Schema;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * DTO регулярного перевода с состоянием его графика.
+ */
+@NoArgsConstructor
+@AllArgsConstructor
+@Getter @Setter
+@Builder
+public class ScheduledTransferDto {
+
+    @Schema(description = "Unique identifier of the recurring transfer", example = "7")
+    private Long id;
+
+    @Schema(description = "Identifier of the source card", example = "101")
+    private Long fromCardId;
+
+    @Schema(description = "Identifier of the destination card", example = "202")
+    private Long toCardId;
+
+    @Schema(description = "Amount of each transfer", example = "500.00")
+    private BigDecimal amount;
+
+    @Schema(description = "How often the transfer runs", example = "WEEKLY")
+    private TransferFrequency frequency;
+
+    @Schema(description = "Next planned run", example = "2025-01-24T09:00:00")
+    private LocalDateTime nextRunAt;
+
+    @Schema(description = "Whether the transfer is still scheduled", example = "true")
+    private boolean active;
+
+    @Schema(description = "Time of the last attempt", example = "2025-01-17T09:00:03")
+    private LocalDateTime lastRunAt;
+
+    @Schema(description = "Consecutive failed runs; the transfer is deactivated after too many", example = "0")
+    private int failureCount;
+
+    @Schema(description = "Error of the last failed run", example = "Insufficient funds")
+    private String lastError;
+}
@@ -47,6 +47,18 @@ public class TransferDto {
     )
     private BigDecimal amount;
 
+    @Schema(
+            description = "Amount credited to the destination card in its currency",
+            example = "2.71"
+    )
+    private BigDecimal creditedAmount;
+
+    @Schema(
+            description = "Applied exchange rate (1 for same-currency transfers)",
+            example = "0.01084000"
+    )
+    private BigDecimal exchangeRate;
+
     @Schema(
             description = "Date and time when the transfer was created",
             example = "2025-01-15T13:45:00"
@@ -35,6 +35,18 @@ public class TransferResponseDto {
     )
     private BigDecimal amount;
 
+    @Schema(
+            description = "Amount credited to the destination card in its currency",
+            example = "2.71"
+    )
+    private BigDecimal creditedAmount;
+
+    @Schema(
+            description = "Applied exchange rate (1 for same-currency transfers)",
+            example = "0.01084000"
+    )
+    private BigDecimal exchangeRate;
+
     @Schema(
             description = "Source card balance after the transfer",
             example = "750.00"
@@ -37,4 +37,7 @@ public class CardEntity {
 
     @Column(nullable = false)
     private BigDecimal balance;
+
+    @Column(nullable = false, length = 3)
+    private String currency; // Валюта карты (ISO 4217), баланс хранится в этой валюте
 }
@@ -0,0 +1,32 @@
+package com.bank.entity;
+
+import jakarta.persistence.*;
+import lombok.*;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+@Entity
+@Table(name = "fx_rates")
+@Getter @Setter
+@NoArgsConstructor
+@AllArgsConstructor
+@Builder
+public class FxRateEntity {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    private Long id;
+
+    @Column(name = "base_currency", nullable = false, length = 3)
+    private String baseCurrency;
+
+    @Column(name = "quote_currency", nullable = false, length = 3)
+    private String quoteCurrency;
+
+    @Column(nullable = false)
+    private BigDecimal rate; // Сколько единиц quoteCurrency за одну единицу baseCurrency
+
+    @Column(name = "updated_at", nullable = false)
+    private LocalDateTime updatedAt;
+}
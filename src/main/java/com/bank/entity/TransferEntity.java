@@ -28,7 +28,13 @@ public class TransferEntity {
     private CardEntity toCard;
 
     @Column(nullable = false)
-    private BigDecimal amount;
+    private BigDecimal amount; // Сумма списания в валюте исходной карты
+
+    @Column(name = "credited_amount", nullable = false)
+    private BigDecimal creditedAmount; // Сумма зачисления в валюте карты-получателя
+
+    @Column(name = "exchange_rate", nullable = false)
+    private BigDecimal exchangeRate; // Применённый курс (1 для переводов в одной валюте)
 
     @Column(nullable = false)
     private LocalDateTime createdAt;
@@ -0,0 +1,28 @@
+package com.bank.enums;
+
+/**
+ * Класс эндпоинтов для ограничения частоты запросов.
+ *
+ * <p>Для каждого класса задаются собственные параметры token bucket
+ * и способ выбора ключа (по IP-адресу или по пользователю из проверенного токена доступа).</p>
+ */
+public enum RateLimitTier {
+
+    /**
+     * Эндпоинты аутентификации ({@code /v1/api/auth/**}).
+     * <p>Ограничиваются по IP-адресу клиента: логин дорог из-за BCrypt.</p>
+     */
+    AUTH,
+
+    /**
+     * Выполнение переводов ({@code POST /v1/api/transfers}).
+     * <p>Ограничивается по пользователю из проверенного токена, а без него — по IP-адресу.</p>
+     */
+    TRANSFER,
+
+    /**
+     * Все остальные запросы.
+     * <p>Ограничиваются по пользователю из проверенного токена, а без него — по IP-адресу.</p>
+     */
+    DEFAULT
+}
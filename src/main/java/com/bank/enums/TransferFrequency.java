@@ -0,0 +1,51 @@
+package com.bank.enums;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+
+/**
+ * Периодичность регулярного перевода.
+ *
+ * <p>Запуски отсчитываются от даты начала: {@code start + k * период}. Поэтому месячный
+ * перевод, начатый 31-го числа, в коротком месяце выполняется в его последний день,
+ * а в следующем снова 31-го.</p>
+ */
+public enum TransferFrequency {
+
+    DAILY,
+
+    WEEKLY,
+
+    MONTHLY;
+
+    /**
+     * Возвращает первый запуск графика строго позже {@code after}.
+     *
+     * @param start дата и время первого запуска
+     * @param after момент, после которого нужен запуск
+     * @return ближайший запуск после {@code after}
+     */
+    public LocalDateTime nextAfter(LocalDateTime start, LocalDateTime after) {
+        if (start.isAfter(after)) {
+            return start;
+        }
+        long periods = switch (this) {
+            case DAILY -> ChronoUnit.DAYS.between(start, after);
+            case WEEKLY -> ChronoUnit.WEEKS.between(start, after);
+            case MONTHLY -> ChronoUnit.MONTHS.between(start, after);
+        };
+        LocalDateTime next = plus(start, periods);
+        while (!next.isAfter(after)) {
+            next = plus(start, ++periods);
+        }
+        return next;
+    }
+
+    private LocalDateTime plus(LocalDateTime start, long periods) {
+        return switch (this) {
+            case DAILY -> start.plusDays(periods);
+            case WEEKLY -> start.plusWeeks(periods);
+            case MONTHLY -> start.plusMonths(periods);
+        };
+    }
+}
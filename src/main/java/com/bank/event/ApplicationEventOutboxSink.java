@@ -0,0 +1,26 @@
+package com.bank.event;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * Внутрипроцессный приёмник: публикует каждое событие как Spring application event.
+ *
+ * <p>Слушатели подписываются через {@code @EventListener} на {@link TransferEvent}.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class ApplicationEventOutboxSink implements OutboxSink {
+
+    private final ApplicationEventPublisher publisher;
+
+    @Override
+    public void publish(List<TransferEvent> events) {
+        for (TransferEvent event : events) {
+            publisher.publishEvent(event);
+        }
+    }
+}
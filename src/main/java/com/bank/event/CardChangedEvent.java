@@ -0,0 +1,15 @@
+package com.bank.event;
+
+import com.bank.dto.CardResponseDto;
+
+import java.util.List;
+
+/**
+ * Событие об изменении карт пользователя (баланс после перевода, смена статуса администратором).
+ *
+ * <p>Публикуется внутри транзакции изменения и обрабатывается после её фиксации.</p>
+ *
+ * @param userId владелец карт
+ * @param cards актуальное состояние изменённых карт
+ */
+public record CardChangedEvent(Long userId, List<CardResponseDto> cards) {}
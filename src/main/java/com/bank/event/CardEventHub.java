@@ -0,0 +1,192 @@
+package com.bank.event;
+
+import com.bank.dto.CardResponseDto;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.event.TransactionPhase;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Хаб рассылки изменений карт по SSE-подписчикам.
+ *
+ * <p>Подписчики сгруппированы по {@code userId}. У каждого подписчика ограниченный буфер;
+ * если буфер переполнен (клиент не успевает читать), подписчик отключается — клиент
+ * переподключится и получит актуальное состояние обычным запросом.</p>
+ *
+ * <p>Простаивающее соединение не занимает поток: отправка выполняется задачей на
+ * виртуальном потоке, которая запускается только при наличии данных в буфере
+ * и завершается, когда буфер опустел.</p>
+ */
+@Slf4j
+@Component
+public class CardEventHub {
+
+    private static final Object HEARTBEAT = new Object();
+
+    private final Map<Long, Set<Subscriber>> subscribers = new ConcurrentHashMap<>();
+    private final ExecutorService sender = Executors.newVirtualThreadPerTaskExecutor();
+    private final AtomicInteger connections = new AtomicInteger();
+    private final Counter evicted;
+
+    @Value("${cards.stream.buffer-size:32}")
+    private int bufferSize;
+
+    @Value("${cards.stream.timeout-ms:1800000}")
+    private long timeoutMs;
+
+    @Value("${cards.stream.max-per-user:5}")
+    private int maxPerUser;
+
+    public CardEventHub(MeterRegistry meterRegistry) {
+        this.evicted = Counter.builder("cards.stream.evicted").register(meterRegistry);
+        Gauge.builder("cards.stream.connections", connections, AtomicInteger::get).register(meterRegistry);
+    }
+
+    /**
+     * Регистрирует нового подписчика пользователя.
+     *
+     * @param userId ID пользователя
+     * @return SSE-соединение
+     */
+    public SseEmitter subscribe(Long userId) {
+        SseEmitter emitter = newEmitter(timeoutMs);
+        Subscriber subscriber = new Subscriber(userId, emitter, new ArrayBlockingQueue<>(bufferSize));
+
+        Set<Subscriber> existing = subscribers.get(userId);
+        if (existing != null && existing.size() >= maxPerUser) {
+            existing.stream().findAny().ifPresent(this::evict);
+        }
+        subscribers.compute(userId, (k, set) -> {
+            Set<Subscriber> target = set != null ? set : ConcurrentHashMap.newKeySet();
+            target.add(subscriber);
+            return target;
+        });
+        connections.incrementAndGet();
+
+        emitter.onCompletion(() -> remove(subscriber));
+        emitter.onTimeout(() -> remove(subscriber));
+        emitter.onError(e -> remove(subscriber));
+        return emitter;
+    }
+
+    SseEmitter newEmitter(long timeout) {
+        return new SseEmitter(timeout);
+    }
+
+    /**
+     * Рассылает изменения после фиксации транзакции, в которой они были сделаны.
+     */
+    @TransactionalEventListener(phase = TransactionPhase.AFTER_COMMIT, fallbackExecution = true)
+    public void onCardChanged(CardChangedEvent event) {
+        Set<Subscriber> set = subscribers.get(event.userId());
+        if (set == null) {
+            return;
+        }
+        subscribers:
+        for (Subscriber s : set) {
+            for (CardResponseDto card : event.cards()) {
+                if (!s.queue.offer(card)) {
+                    evict(s);
+                    continue subscribers;
+                }
+            }
+            scheduleDrain(s);
+        }
+    }
+
+    /**
+     * Периодический heartbeat: выявляет разорванные соединения и не даёт прокси закрыть простаивающие.
+     */
+    @Scheduled(fixedDelayString = "${cards.stream.heartbeat-ms:30000}")
+    public void heartbeat() {
+        for (Set<Subscriber> set : subscribers.values()) {
+            for (Subscriber s : set) {
+                if (s.queue.isEmpty() && s.queue.offer(HEARTBEAT)) {
+                    scheduleDrain(s);
+                }
+            }
+        }
+    }
+
+    private void scheduleDrain(Subscriber s) {
+        if (s.draining.compareAndSet(false, true)) {
+            sender.execute(() -> drain(s));
+        }
+    }
+
+    private void drain(Subscriber s) {
+        try {
+            Object next;
+            while ((next = s.queue.poll()) != null) {
+                if (next == HEARTBEAT) {
+                    s.emitter.send(SseEmitter.event().comment("ping"));
+                } else {
+                    s.emitter.send(SseEmitter.event().name("card").data(next));
+                }
+            }
+        } catch (Exception e) {
+            remove(s);
+            s.emitter.completeWithError(e);
+            return;
+        } finally {
+            s.draining.set(false);
+        }
+        // данные могли появиться между последним poll и сбросом флага
+        if (!s.queue.isEmpty()) {
+            scheduleDrain(s);
+        }
+    }
+
+    private void evict(Subscriber s) {
+        evicted.increment();
+        log.debug("Evicting slow SSE subscriber of user {}", s.userId);
+        remove(s);
+        s.emitter.complete();
+    }
+
+    private void remove(Subscriber s) {
+        if (s.removed.compareAndSet(false, true)) {
+            connections.decrementAndGet();
+            subscribers.computeIfPresent(s.userId, (k, set) -> {
+                set.remove(s);
+                return set.isEmpty() ? null : set;
+            });
+        }
+    }
+
+    @PreDestroy
+    void shutdown() {
+        sender.shutdownNow();
+    }
+
+    private static final class Subscriber {
+        private final Long userId;
+        private final SseEmitter emitter;
+        private final BlockingQueue<Object> queue;
+        private final AtomicBoolean draining = new AtomicBoolean();
+        private final AtomicBoolean removed = new AtomicBoolean();
+
+        private Subscriber(Long userId, SseEmitter emitter, BlockingQueue<Object> queue) {
+            this.userId = userId;
+            this.emitter = emitter;
+            this.queue = queue;
+        }
+    }
+}
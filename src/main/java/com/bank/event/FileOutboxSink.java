@@ -0,0 +1,49 @@
+package com.bank.event;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.List;
+
+/**
+ * Приёмник для локальной отладки и тестов: дописывает события в файл в формате NDJSON.
+ *
+ * <p>Включается свойством {@code outbox.file-sink.path}. Пачка сбрасывается на диск
+ * ({@code fsync}) до того, как события будут помечены опубликованными.</p>
+ */
+@Component
+@RequiredArgsConstructor
+@ConditionalOnProperty(name = "outbox.file-sink.path")
+public class FileOutboxSink implements OutboxSink {
+
+    private final ObjectMapper objectMapper;
+
+    @Value("${outbox.file-sink.path}")
+    private Path path;
+
+    @Override
+    public synchronized void publish(List<TransferEvent> events) throws IOException {
+        StringBuilder sb = new StringBuilder();
+        for (TransferEvent event : events) {
+            sb.append(objectMapper.writeValueAsString(event)).append('\n');
+        }
+
+        try (FileChannel channel = FileChannel.open(path,
+                StandardOpenOption.CREATE, StandardOpenOption.WRITE, StandardOpenOption.APPEND)) {
+            ByteBuffer buffer = ByteBuffer.wrap(sb.toString().getBytes(StandardCharsets.UTF_8));
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+            channel.force(false);
+        }
+    }
+}
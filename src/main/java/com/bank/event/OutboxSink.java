@@ -0,0 +1,22 @@
+package com.bank.event;
+
+import java.util.List;
+
+/**
+ * Приёмник событий из outbox.
+ *
+ * <p>Получает события пачками в порядке возрастания {@code outboxId}; для одного пользователя
+ * порядок строгий. Доставка «как минимум один раз»: если любой приёмник выбросил исключение,
+ * пачка не помечается опубликованной и будет отправлена повторно, поэтому приёмники должны
+ * быть идемпотентны по {@link TransferEvent#outboxId()}.</p>
+ */
+public interface OutboxSink {
+
+    /**
+     * Публикует пачку событий.
+     *
+     * @param events события в порядке {@code outboxId}
+     * @throws Exception если доставка не удалась
+     */
+    void publish(List<TransferEvent> events) throws Exception;
+}
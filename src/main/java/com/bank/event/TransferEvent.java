@@ -0,0 +1,38 @@
+package com.bank.event;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Событие о выполненном переводе между картами пользователя.
+ *
+ * <p>Сериализуется в JSON и сохраняется в outbox в той же транзакции, что и перевод;
+ * после фиксации доставляется во все {@link OutboxSink}.</p>
+ *
+ * @param outboxId идентификатор записи outbox (монотонно растёт внутри одного пользователя)
+ * @param transferId идентификатор перевода
+ * @param userId идентификатор пользователя
+ * @param fromCardId карта списания
+ * @param toCardId карта зачисления
+ * @param amount сумма списания
+ * @param creditedAmount сумма зачисления
+ * @param exchangeRate применённый курс
+ * @param createdAt время перевода
+ */
+public record TransferEvent(
+        Long outboxId,
+        Long transferId,
+        Long userId,
+        Long fromCardId,
+        Long toCardId,
+        BigDecimal amount,
+        BigDecimal creditedAmount,
+        BigDecimal exchangeRate,
+        LocalDateTime createdAt
+) {
+
+    /**
+     * Тип события в таблице {@code outbox_events}.
+     */
+    public static final String TYPE = "TRANSFER_COMPLETED";
+}
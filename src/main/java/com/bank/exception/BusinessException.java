@@ -0,0 +1,20 @@
+package com.bank.exception;
+
+import lombok.Getter;
+
+/**
+ * Бизнес-ошибка с кодом из {@link ErrorCode}.
+ *
+ * <p>Ответ на такую ошибку заранее построен для каждого кода, а счётчики ошибок
+ * ведутся по имени кода.</p>
+ */
+@Getter
+public class BusinessException extends CommonException {
+
+    private final ErrorCode errorCode;
+
+    public BusinessException(ErrorCode errorCode) {
+        super(errorCode.getStatus(), errorCode.getMessage());
+        this.errorCode = errorCode;
+    }
+}
@@ -1,9 +1,6 @@
 package com.bank.exception;
 
-import lombok.AllArgsConstructor;
 import lombok.Getter;
-import lombok.NoArgsConstructor;
-import lombok.Setter;
 
 /**
  * Базовое исключение приложения.
@@ -13,19 +10,28 @@ import lombok.Setter;
  *
  * <p>Исключение является unchecked (наследуется от {@link RuntimeException})
  * и может обрабатываться глобальным {@code @ControllerAdvice}.</p>
+ *
+ * <p>Бизнес-ошибки — обычный исход запроса (нет средств, карта не найдена), а не сбой,
+ * поэтому исключение не заполняет стек вызовов и не собирает подавленные исключения:
+ * его создание стоит как создание обычного объекта. Для ошибок с известным кодом
+ * используется {@link BusinessException}.</p>
  */
-@NoArgsConstructor
-@AllArgsConstructor
-@Getter @Setter
+@Getter
 public class CommonException extends RuntimeException {
 
     /**
      * HTTP-код ошибки или внутренний код приложения.
      */
-    private Integer code;
+    private final Integer code;
 
     /**
      * Описание ошибки, понятное клиенту.
      */
-    private String message;
+    private final String message;
+
+    public CommonException(Integer code, String message) {
+        super(message, null, false, false);
+        this.code = code;
+        this.message = message;
+    }
 }
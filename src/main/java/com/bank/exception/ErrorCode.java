@@ -0,0 +1,57 @@
+package com.bank.exception;
+
+import lombok.Getter;
+import lombok.RequiredArgsConstructor;
+
+/**
+ * Коды бизнес-ошибок: HTTP-статус и сообщение для клиента.
+ *
+ * <p>Сообщения неизменны, поэтому ответ для каждого кода строится один раз
+ * (см. {@code ErrorController}), а по имени кода ведутся счётчики ошибок.</p>
+ */
+@Getter
+@RequiredArgsConstructor
+public enum ErrorCode {
+
+    USER_NOT_FOUND(404, "User not found"),
+    USER_ALREADY_EXISTS(409, "User already exists"),
+    ADMIN_DELETE_FORBIDDEN(403, "You cannot delete the administrator"),
+    INVALID_REFRESH_TOKEN(401, "Invalid refresh token"),
+
+    CARD_NOT_FOUND(404, "Card not found"),
+    CARD_ALREADY_EXISTS(409, "Card already exists"),
+    CARD_EXPIRY_IN_PAST(400, "Expiry date must be in the future"),
+    CARD_NOT_OWNED(400, "Card does not belong to user"),
+
+    FROM_CARD_NOT_FOUND(404, "From card not found"),
+    TO_CARD_NOT_FOUND(404, "To card not found"),
+    SAME_CARD(400, "From and To card must differ"),
+    CARDS_OF_DIFFERENT_USERS(400, "Cards must belong to the same user"),
+    CARDS_NOT_ACTIVE(400, "Both cards must be ACTIVE"),
+    CARD_EXPIRED(400, "Card is expired"),
+    INSUFFICIENT_FUNDS(400, "Insufficient funds"),
+    FX_RATE_UNAVAILABLE(400, "Exchange rate not available"),
+    SCHEDULED_TRANSFER_NOT_FOUND(404, "Scheduled transfer not found"),
+    TRANSFER_QUEUE_FULL(503, "Transfer queue is full, retry later"),
+    TRANSFER_ENGINE_STOPPED(503, "Transfer engine is shutting down, retry later"),
+
+    CARD_DAILY_AMOUNT_LIMIT(400, "Card daily transfer amount limit exceeded"),
+    CARD_DAILY_COUNT_LIMIT(400, "Card daily transfer count limit exceeded"),
+    CARD_MONTHLY_AMOUNT_LIMIT(400, "Card monthly transfer amount limit exceeded"),
+    CARD_MONTHLY_COUNT_LIMIT(400, "Card monthly transfer count limit exceeded"),
+    USER_DAILY_AMOUNT_LIMIT(400, "User daily transfer amount limit exceeded"),
+    USER_DAILY_COUNT_LIMIT(400, "User daily transfer count limit exceeded"),
+    USER_MONTHLY_AMOUNT_LIMIT(400, "User monthly transfer amount limit exceeded"),
+    USER_MONTHLY_COUNT_LIMIT(400, "User monthly transfer count limit exceeded"),
+    LIMITS_UNAVAILABLE(503, "Transfer limits are temporarily unavailable");
+
+    /**
+     * HTTP-статус ответа.
+     */
+    private final int status;
+
+    /**
+     * Описание ошибки, понятное клиенту.
+     */
+    private final String message;
+}
@@ -1,20 +1,58 @@
 package com.bank.repository;
 
+import com.bank.dto.CardResponseDto;
 import com.bank.entity.CardEntity;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.jspecify.annotations.NullMarked;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
+import org.springframework.data.repository.query.Param;
+
 import java.util.Optional;
 
 @NullMarked
 public interface CardRepository extends JpaRepository<CardEntity, Long> {
 
-    @NullMarked
-    Page<CardEntity> findAllByUserId(Long userId, Pageable pageable);
+    /**
+     * Карты пользователя сразу в виде DTO: без загрузки сущностей, расшифровки номера
+     * и снимков состояния в persistence context.
+     */
+    @Query(value = "select new com.bank.dto.CardResponseDto(c.id, c.userId, c.maskedNumber, c.ownerName, " +
+                   "c.expiryDate, c.status, c.balance, c.currency) from CardEntity c where c.userId = :userId",
+           countQuery = "select count(c) from CardEntity c where c.userId = :userId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    Page<CardResponseDto> findCardViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Срез карт пользователя без запроса количества: читается {@code limit + 1} строк.
+     */
+    @Query("select new com.bank.dto.CardResponseDto(c.id, c.userId, c.maskedNumber, c.ownerName, " +
+           "c.expiryDate, c.status, c.balance, c.currency) from CardEntity c where c.userId = :userId")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    Slice<CardResponseDto> sliceCardViewsByUserId(@Param("userId") Long userId, Pageable pageable);
+
+    /**
+     * Срез всех карт без запроса количества: читается {@code limit + 1} строк.
+     */
+    @Query("select new com.bank.dto.CardResponseDto(c.id, c.userId, c.maskedNumber, c.ownerName, " +
+           "c.expiryDate, c.status, c.balance, c.currency) from CardEntity c")
+    @QueryHints(@QueryHint(name = HibernateHints.HINT_FLUSH_MODE, value = "MANUAL"))
+    Slice<CardResponseDto> sliceAllCardViews(Pageable pageable);
 
-    @NullMarked
-    Page<CardEntity> findAll(Pageable pageable);
+    /**
+     * Загружает карту с блокировкой строки ({@code SELECT ... FOR UPDATE}).
+     * Используется при изменении баланса.
+     */
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select c from CardEntity c where c.id = :id")
+    Optional<CardEntity> findByIdForUpdate(@Param("id") Long id);
 
     boolean existsByCardNumberEncrypted (String encrypted);
 
@@ -0,0 +1,9 @@
+package com.bank.repository;
+
+import com.bank.entity.FxRateEntity;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.data.jpa.repository.JpaRepository;
+
+@NullMarked
+public interface FxRateRepository extends JpaRepository<FxRateEntity, Long> {
+}
@@ -0,0 +1,43 @@
+package com.bank.repository;
+
+import com.bank.entity.OutboxEventEntity;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+
+@NullMarked
+public interface OutboxEventRepository extends JpaRepository<OutboxEventEntity, Long> {
+
+    /**
+     * Захватывает пачку неопубликованных событий.
+     *
+     * <p>Ключи упорядочивания разбиты на корзины; на каждую корзину берётся транзакционная
+     * advisory-блокировка, поэтому события одного ключа в любой момент обрабатывает только
+     * один экземпляр приложения, и порядок внутри ключа сохраняется. Строки, уже захваченные
+     * другими транзакциями, пропускаются ({@code SKIP LOCKED}).</p>
+     */
+    @Query(value = "SELECT * FROM outbox_events e " +
+            "WHERE e.published_at IS NULL " +
+            "AND pg_try_advisory_xact_lock(7301, CAST(e.partition_key % :buckets AS INTEGER)) " +
+            "ORDER BY e.id " +
+            "LIMIT :batchSize " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<OutboxEventEntity> claimBatch(@Param("batchSize") int batchSize, @Param("buckets") int buckets);
+
+    @Modifying
+    @Query("update OutboxEventEntity e set e.publishedAt = :publishedAt where e.id in :ids")
+    int markPublished(@Param("ids") List<Long> ids, @Param("publishedAt") LocalDateTime publishedAt);
+
+    /**
+     * Удаляет не больше {@code limit} событий, опубликованных раньше {@code before}.
+     */
+    @Modifying
+    @Query(value = "DELETE FROM outbox_events WHERE id IN (" +
+            "SELECT id FROM outbox_events WHERE published_at < :before LIMIT :limit)", nativeQuery = true)
+    int deletePublishedBefore(@Param("before") LocalDateTime before, @Param("limit") int limit);
+}
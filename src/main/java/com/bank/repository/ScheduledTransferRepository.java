@@ -0,0 +1,39 @@
+package com.bank.repository;
+
+import com.bank.entity.ScheduledTransferEntity;
+import jakarta.persistence.LockModeType;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+
+@NullMarked
+public interface ScheduledTransferRepository extends JpaRepository<ScheduledTransferEntity, Long> {
+
+    /**
+     * Захватывает пачку наступивших запусков.
+     *
+     * <p>Строки, которые сейчас захватывает другой узел, пропускаются ({@code SKIP LOCKED}),
+     * а запуски с действующей арендой ({@code claimed_until}) уже выполняются где-то ещё.</p>
+     */
+    @Query(value = "SELECT * FROM scheduled_transfers s " +
+            "WHERE s.active AND s.next_run_at <= :now " +
+            "AND (s.claimed_until IS NULL OR s.claimed_until < :now) " +
+            "ORDER BY s.next_run_at " +
+            "LIMIT :batchSize " +
+            "FOR UPDATE SKIP LOCKED", nativeQuery = true)
+    List<ScheduledTransferEntity> claimDue(@Param("now") LocalDateTime now, @Param("batchSize") int batchSize);
+
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("select s from ScheduledTransferEntity s where s.id = :id")
+    Optional<ScheduledTransferEntity> findByIdForUpdate(@Param("id") Long id);
+
+    List<ScheduledTransferEntity> findByUserIdOrderByIdAsc(Long userId);
+
+    Optional<ScheduledTransferEntity> findByIdAndUserId(Long id, Long userId);
+}
@@ -4,13 +4,59 @@ import com.bank.entity.TransferEntity;
 import org.jspecify.annotations.NullMarked;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @NullMarked
 public interface TransferRepository extends JpaRepository<TransferEntity, UUID> {
 
-    @NullMarked
-    Page<TransferEntity> findAll(Pageable pageable);
+    /**
+     * Срез переводов без запроса количества: читается {@code limit + 1} строк.
+     */
+    Slice<TransferEntity> findSliceBy(Pageable pageable);
+
+    /**
+     * Переводы за полуинтервал {@code [from, to)}. Условие по {@code created_at}
+     * позволяет PostgreSQL читать только секции этого периода, в том числе при подсчёте.
+     */
+    @Query(value = "select t from TransferEntity t where t.createdAt >= :from and t.createdAt < :to",
+            countQuery = "select count(t) from TransferEntity t where t.createdAt >= :from and t.createdAt < :to")
+    Page<TransferEntity> findCreatedBetween(@Param("from") LocalDateTime from,
+                                            @Param("to") LocalDateTime to,
+                                            Pageable pageable);
+
+    @Query("select count(t) from TransferEntity t where t.createdAt >= :from and t.createdAt < :to")
+    long countCreatedBetween(@Param("from") LocalDateTime from, @Param("to") LocalDateTime to);
+
+    /**
+     * Срез переводов за полуинтервал {@code [from, to)} без запроса количества.
+     */
+    @Query("select t from TransferEntity t where t.createdAt >= :from and t.createdAt < :to")
+    Slice<TransferEntity> sliceCreatedBetween(@Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to,
+                                              Pageable pageable);
+
+    /**
+     * Потоково читает переводы начиная с указанного момента для восстановления счётчиков лимитов.
+     * Вызывается только внутри транзакции.
+     */
+    @Query("select t.fromCard.id as cardId, t.user.id as userId, t.fromCard.currency as currency, " +
+            "t.amount as amount, t.createdAt as createdAt " +
+            "from TransferEntity t where t.createdAt >= :since")
+    Stream<VelocityRow> streamVelocitySince(@Param("since") LocalDateTime since);
+
+    interface VelocityRow {
+        Long getCardId();
+        Long getUserId();
+        String getCurrency();
+        BigDecimal getAmount();
+        LocalDateTime getCreatedAt();
+    }
 }
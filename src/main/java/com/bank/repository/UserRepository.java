@@ -3,11 +3,20 @@ package com.bank.repository;
 import com.bank.entity.UserEntity;
 import org.jspecify.annotations.NullMarked;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+
+import java.util.Collection;
+import java.util.List;
 import java.util.Optional;
 
 @NullMarked
 public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
+    /**
+     * Не кэшируется: блокировка пользователя и регистрация нового должны сразу
+     * действовать на всех узлах.
+     */
     Optional<UserEntity> findByUsername(String username);
 
     Optional<UserEntity> findById(Long id);
@@ -18,5 +27,7 @@ public interface UserRepository extends JpaRepository<UserEntity, Long> {
 
     void deleteById(Long id);
 
+    @Query("select u.id from UserEntity u where u.id in :ids")
+    List<Long> findExistingIds(@Param("ids") Collection<Long> ids);
 
 }
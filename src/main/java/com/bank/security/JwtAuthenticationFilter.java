@@ -1,5 +1,8 @@
 package com.bank.security;
 
+import com.bank.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import jakarta.servlet.FilterChain;
 import jakarta.servlet.ServletException;
 import jakarta.servlet.http.*;
@@ -35,11 +38,22 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
      */
     private final JpaUserDetailsService userDetailsService;
 
+    /**
+     * Сервис отзыва access-токенов (блокировка и удаление пользователя, выход).
+     */
+    private final TokenRevocationService tokenRevocationService;
+
+    /**
+     * Кэш токенов, подпись которых уже проверена.
+     */
+    private final VerifiedTokenCache verifiedTokenCache;
+
     /**
      * Основной метод фильтра, который проверяет наличие JWT-токена в запросе.
      *
-     * <p>Если токен присутствует и валиден, устанавливает {@link UsernamePasswordAuthenticationToken}
-     * в {@link SecurityContextHolder} для дальнейшей авторизации пользователя в Spring Security.</p>
+     * <p>Если токен присутствует, валиден и не отозван, устанавливает {@link UsernamePasswordAuthenticationToken}
+     * в {@link SecurityContextHolder} для дальнейшей авторизации пользователя в Spring Security.
+     * Повторно предъявленный токен берётся из {@link VerifiedTokenCache} без проверки подписи.</p>
      *
      * @param request  HTTP-запрос
      * @param response HTTP-ответ
@@ -62,13 +76,31 @@ public class JwtAuthenticationFilter extends OncePerRequestFilter {
         }
 
         String token = authHeader.substring(7);
-        String username = jwtService.extractUsername(token);
+        Claims claims = verifiedTokenCache.get(token);
+
+        if (claims == null) {
+            // версия читается до проверки: отзыв, случившийся во время проверки, сделает запись устаревшей
+            long revocationVersion = tokenRevocationService.version();
+            try {
+                claims = jwtService.parseAccessToken(token);
+            } catch (JwtException | IllegalArgumentException e) {
+                // непроверенный токен — запрос анонимный: ограничение частоты считает его по IP-адресу
+                chain.doFilter(request, response);
+                return;
+            }
+            if (claims.getSubject() == null
+                    || tokenRevocationService.isRevoked(claims.getSubject(), claims.getId(), claims.getIssuedAt())) {
+                chain.doFilter(request, response);
+                return;
+            }
+            verifiedTokenCache.put(token, claims, revocationVersion);
+        }
 
-        if (username != null && SecurityContextHolder.getContext().getAuthentication() == null) {
+        if (SecurityContextHolder.getContext().getAuthentication() == null) {
 
-            UserDetails userDetails = userDetailsService.loadUserByUsername(username);
+            UserDetails userDetails = userDetailsService.loadUserByUsername(claims.getSubject());
 
-            if (jwtService.isTokenValid(token, userDetails)) {
+            if (jwtService.isTokenValid(claims, userDetails)) {
                 UsernamePasswordAuthenticationToken authToken =
                         new UsernamePasswordAuthenticationToken(
                                 userDetails,
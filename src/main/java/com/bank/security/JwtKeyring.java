@@ -0,0 +1,290 @@
+package com.bank.security;
+
+import io.jsonwebtoken.JwsHeader;
+import io.jsonwebtoken.LocatorAdapter;
+import io.jsonwebtoken.MalformedJwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigInteger;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.attribute.PosixFilePermissions;
+import java.security.GeneralSecurityException;
+import java.security.Key;
+import java.security.KeyFactory;
+import java.security.KeyPair;
+import java.security.KeyPairGenerator;
+import java.security.PrivateKey;
+import java.security.PublicKey;
+import java.security.interfaces.ECPublicKey;
+import java.security.spec.ECGenParameterSpec;
+import java.security.spec.PKCS8EncodedKeySpec;
+import java.security.spec.X509EncodedKeySpec;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.HexFormat;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Набор ключей подписи JWT (ES256, кривая P-256).
+ *
+ * <p>Ключи хранятся в локальном каталоге {@code security.jwt.keys.dir}: для каждого
+ * {@code kid} — закрытый ключ {@code <kid>.p8} (PKCS#8) и открытый {@code <kid>.pub} (X.509).
+ * {@code kid} начинается с момента создания в секундах, подписывает самый новый ключ.
+ * Прежние ключи остаются ключами проверки, пока не истекут все подписанные ими токены,
+ * после чего удаляются.</p>
+ *
+ * <p>Ключи проверки лежат в неизменяемом словаре за volatile-ссылкой: поиск по {@code kid}
+ * из заголовка токена — одно обращение к хэш-таблице. Ротация выполняется без перезапуска:
+ * узел записывает новый ключ в каталог, остальные узлы подхватывают его при плановом
+ * перечитывании или сразу, встретив незнакомый {@code kid}.</p>
+ */
+@Slf4j
+@Component
+public class JwtKeyring extends LocatorAdapter<Key> {
+
+    private static final String PRIVATE_SUFFIX = ".p8";
+    private static final String PUBLIC_SUFFIX = ".pub";
+    private static final int COORDINATE_BYTES = 32;
+
+    /**
+     * Ключ набора; {@code privateKey} равен {@code null}, если на диске остался только открытый ключ.
+     */
+    public record KeyEntry(String kid, Instant createdAt, PublicKey publicKey, PrivateKey privateKey) {
+    }
+
+    private record Snapshot(Map<String, KeyEntry> byKid, KeyEntry signing) {
+    }
+
+    private final Path dir;
+    private final long retireAfterMillis;
+    private final long rotationIntervalMillis;
+    private final long missReloadIntervalMillis;
+
+    private volatile Snapshot snapshot;
+    private volatile long lastMissReload;
+
+    public JwtKeyring(@Value("${security.jwt.keys.dir:keys/jwt}") Path dir,
+                      @Value("${security.jwt.expiration.refresh}") long refreshExpiration,
+                      @Value("${security.jwt.keys.rotation-interval-ms:0}") long rotationIntervalMillis,
+                      @Value("${security.jwt.keys.miss-reload-interval-ms:1000}") long missReloadIntervalMillis) {
+        this.dir = dir;
+        // refresh-токен живёт дольше access-токена, поэтому после его срока ключ точно не нужен
+        this.retireAfterMillis = refreshExpiration;
+        this.rotationIntervalMillis = rotationIntervalMillis;
+        this.missReloadIntervalMillis = missReloadIntervalMillis;
+        try {
+            Files.createDirectories(dir);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create JWT key directory " + dir, e);
+        }
+        reload();
+        if (snapshot.signing() == null) {
+            rotate();
+        }
+    }
+
+    /**
+     * @return {@code kid} и закрытый ключ для подписи новых токенов
+     */
+    public KeyEntry signingKey() {
+        return snapshot.signing();
+    }
+
+    /**
+     * Ключ проверки по {@code kid} из заголовка токена.
+     */
+    @Override
+    protected Key locate(JwsHeader header) {
+        String kid = header.getKeyId();
+        if (kid == null) {
+            throw new MalformedJwtException("Missing key id");
+        }
+        KeyEntry entry = snapshot.byKid().get(kid);
+        if (entry == null && reloadOnMiss()) {
+            entry = snapshot.byKid().get(kid);
+        }
+        if (entry == null) {
+            throw new MalformedJwtException("Unknown key id");
+        }
+        return entry.publicKey();
+    }
+
+    /**
+     * Создаёт новый ключ подписи; прежние ключи остаются ключами проверки.
+     *
+     * @return {@code kid} нового ключа
+     */
+    public synchronized String rotate() {
+        try {
+            KeyPairGenerator generator = KeyPairGenerator.getInstance("EC");
+            generator.initialize(new ECGenParameterSpec("secp256r1"));
+            KeyPair pair = generator.generateKeyPair();
+
+            String kid = Instant.now().getEpochSecond() + "-" + HexFormat.of().toHexDigits(ThreadLocalRandom.current().nextInt());
+            // открытый ключ записывается первым: подписанный новым ключом токен должен проверяться сразу
+            write(dir.resolve(kid + PUBLIC_SUFFIX), pair.getPublic().getEncoded(), false);
+            write(dir.resolve(kid + PRIVATE_SUFFIX), pair.getPrivate().getEncoded(), true);
+            reload();
+            log.info("JWT signing key rotated, new kid {}", kid);
+            return kid;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("Cannot generate JWT signing key", e);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot write JWT signing key", e);
+        }
+    }
+
+    /**
+     * Перечитывает каталог ключей, при необходимости ротирует ключ по расписанию
+     * и удаляет ключи, которые больше не могут понадобиться для проверки.
+     */
+    @Scheduled(fixedDelayString = "${security.jwt.keys.reload-interval-ms:60000}")
+    public synchronized void maintain() {
+        reload();
+        KeyEntry signing = snapshot.signing();
+        Instant now = Instant.now();
+        if (signing == null || (rotationIntervalMillis > 0
+                && signing.createdAt().plusMillis(rotationIntervalMillis).isBefore(now))) {
+            rotate();
+        }
+        retire(now);
+    }
+
+    /**
+     * @return открытые ключи в формате JWK Set (RFC 7517)
+     */
+    public Map<String, Object> jwks() {
+        List<Map<String, Object>> keys = new ArrayList<>();
+        snapshot.byKid().values().stream()
+                .sorted(Comparator.comparing(KeyEntry::createdAt).reversed())
+                .forEach(entry -> {
+                    ECPublicKey key = (ECPublicKey) entry.publicKey();
+                    Map<String, Object> jwk = new LinkedHashMap<>();
+                    jwk.put("kty", "EC");
+                    jwk.put("crv", "P-256");
+                    jwk.put("use", "sig");
+                    jwk.put("alg", "ES256");
+                    jwk.put("kid", entry.kid());
+                    jwk.put("x", coordinate(key.getW().getAffineX()));
+                    jwk.put("y", coordinate(key.getW().getAffineY()));
+                    keys.add(jwk);
+                });
+        return Map.of("keys", keys);
+    }
+
+    synchronized void reload() {
+        Map<String, KeyEntry> byKid = new HashMap<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(dir, "*" + PUBLIC_SUFFIX)) {
+            KeyFactory factory = KeyFactory.getInstance("EC");
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String kid = name.substring(0, name.length() - PUBLIC_SUFFIX.length());
+                try {
+                    PublicKey publicKey = factory.generatePublic(new X509EncodedKeySpec(Files.readAllBytes(file)));
+                    Path privateFile = dir.resolve(kid + PRIVATE_SUFFIX);
+                    PrivateKey privateKey = Files.exists(privateFile)
+                            ? factory.generatePrivate(new PKCS8EncodedKeySpec(Files.readAllBytes(privateFile)))
+                            : null;
+                    byKid.put(kid, new KeyEntry(kid, createdAt(kid), publicKey, privateKey));
+                } catch (GeneralSecurityException | IOException | NumberFormatException e) {
+                    log.warn("Skipping unreadable JWT key {}", kid, e);
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot read JWT key directory " + dir, e);
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException("EC keys are not supported", e);
+        }
+
+        KeyEntry signing = byKid.values().stream()
+                .filter(entry -> entry.privateKey() != null)
+                .max(Comparator.comparing(KeyEntry::createdAt))
+                .orElse(null);
+        snapshot = new Snapshot(Map.copyOf(byKid), signing);
+    }
+
+    /**
+     * Ключ больше не нужен, когда его сменил более новый ключ и с момента смены
+     * истёк срок жизни самого долгоживущего токена.
+     */
+    private void retire(Instant now) {
+        List<KeyEntry> ordered = snapshot.byKid().values().stream()
+                .sorted(Comparator.comparing(KeyEntry::createdAt))
+                .toList();
+        boolean removed = false;
+        for (int i = 0; i + 1 < ordered.size(); i++) {
+            Instant replacedAt = ordered.get(i + 1).createdAt();
+            if (replacedAt.plusMillis(retireAfterMillis).isBefore(now)) {
+                String kid = ordered.get(i).kid();
+                try {
+                    Files.deleteIfExists(dir.resolve(kid + PRIVATE_SUFFIX));
+                    Files.deleteIfExists(dir.resolve(kid + PUBLIC_SUFFIX));
+                    removed = true;
+                    log.info("JWT key {} retired", kid);
+                } catch (IOException e) {
+                    log.warn("Cannot delete retired JWT key {}", kid, e);
+                }
+            }
+        }
+        if (removed) {
+            reload();
+        }
+    }
+
+    /**
+     * Незнакомый {@code kid} мог появиться после ротации на другом узле. Перечитывание
+     * ограничено по частоте, чтобы токены с выдуманным {@code kid} не заставляли читать диск на каждый запрос.
+     */
+    private boolean reloadOnMiss() {
+        long now = System.currentTimeMillis();
+        if (now - lastMissReload < missReloadIntervalMillis) {
+            return false;
+        }
+        lastMissReload = now;
+        reload();
+        return true;
+    }
+
+    private static Instant createdAt(String kid) {
+        int dash = kid.indexOf('-');
+        return Instant.ofEpochSecond(Long.parseLong(dash > 0 ? kid.substring(0, dash) : kid));
+    }
+
+    private static void write(Path target, byte[] content, boolean secret) throws IOException {
+        Path tmp = target.resolveSibling(target.getFileName() + ".tmp");
+        Files.write(tmp, content);
+        if (secret) {
+            try {
+                Files.setPosixFilePermissions(tmp, PosixFilePermissions.fromString("rw-------"));
+            } catch (UnsupportedOperationException e) {
+                // файловая система без POSIX-прав: доступ к каталогу ограничивается средствами окружения
+            }
+        }
+        Files.move(tmp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+    }
+
+    /**
+     * Координата точки кривой: беззнаковое big-endian число ровно из 32 байт, base64url без выравнивания.
+     */
+    private static String coordinate(BigInteger value) {
+        byte[] raw = value.toByteArray();
+        byte[] fixed = new byte[COORDINATE_BYTES];
+        int length = Math.min(raw.length, COORDINATE_BYTES);
+        System.arraycopy(raw, raw.length - length, fixed, COORDINATE_BYTES - length, length);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(fixed);
+    }
+}
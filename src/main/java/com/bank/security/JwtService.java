@@ -3,29 +3,40 @@ package com.bank.security;
 
 import com.bank.entity.UserEntity;
 import io.jsonwebtoken.*;
-import io.jsonwebtoken.security.Keys;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.security.core.userdetails.UserDetails;
 import org.springframework.stereotype.Service;
 
-import java.security.Key;
 import java.util.Date;
+import java.util.UUID;
 
 /**
  * Сервис для работы с JWT (JSON Web Token).
  * <p>Отвечает за генерацию, валидацию и извлечение данных из токенов доступа и обновления.</p>
  *
  * <p>Используется в Spring Security для аутентификации пользователей.
- * Токены подписываются с использованием секретного ключа</p>
+ * Токены подписываются текущим ключом ES256 из {@link JwtKeyring}, в заголовке передаётся его {@code kid};
+ * при проверке ключ выбирается по {@code kid}, поэтому токены, подписанные до ротации, остаются валидными.</p>
  */
 @Service
 public class JwtService {
 
     /**
-     * Секретный ключ для подписи JWT, берется из application.yaml.
+     * Claim с типом токена: без него подписанный access-токен можно было бы предъявить как refresh.
      */
-    @Value("${security.jwt.secret}")
-    private String secret;
+    private static final String TOKEN_TYPE_CLAIM = "token_type";
+
+    private static final String REFRESH_TOKEN_TYPE = "refresh";
+
+    /**
+     * Ключи подписи и проверки.
+     */
+    private final JwtKeyring keyring;
+
+    /**
+     * Парсер потокобезопасен и создаётся один раз.
+     */
+    private final JwtParser parser;
 
     /**
      * Время жизни access-токена в миллисекундах.
@@ -39,45 +50,111 @@ public class JwtService {
     @Value("${security.jwt.expiration.refresh}")
     private long refreshExpiration;
 
-    /**
-     * Генерирует ключ для подписи токена на основе секретной строки.
-     *
-     * @return {@link Key} для подписи JWT
-     */
-    private Key getSigningKey() {
-        return Keys.hmacShaKeyFor(secret.getBytes());
+    public JwtService(JwtKeyring keyring) {
+        this.keyring = keyring;
+        this.parser = Jwts.parser()
+                .keyLocator(keyring)
+                .build();
     }
 
     /**
      * Генерирует JWT access-токен для указанного пользователя.
+     * <p>Токен получает {@code jti}, по которому его можно отозвать до истечения срока.</p>
      *
      * @param user пользователь {@link UserEntity} для которого создается токен
      * @return JWT access-токен в виде строки
      */
     public String generateAccessToken(UserEntity user) {
+        JwtKeyring.KeyEntry signing = keyring.signingKey();
         return Jwts.builder()
+                .setHeaderParam("kid", signing.kid())
+                .signWith(signing.privateKey())
                 .setSubject(user.getUsername())
+                .setId(UUID.randomUUID().toString())
                 .setIssuedAt(new Date())
                 .setExpiration(new Date(System.currentTimeMillis() + accessExpiration))
-                .signWith(getSigningKey())
                 .compact();
     }
 
     /**
-     * Генерирует JWT refresh-токен для указанного пользователя.
+     * Генерирует JWT refresh-токен с идентификатором {@code jti}.
+     * <p>Состояние токена (активен, заменён, отозван) хранится на сервере по этому идентификатору.</p>
      *
-     * @param user пользователь {@link UserEntity} для которого создается токен
+     * @param username  имя пользователя
+     * @param jti       идентификатор токена
+     * @param expiresAt момент истечения
      * @return JWT refresh-токен в виде строки
      */
-    public String generateRefreshToken(UserEntity user) {
+    public String generateRefreshToken(String username, UUID jti, Date expiresAt) {
+        JwtKeyring.KeyEntry signing = keyring.signingKey();
         return Jwts.builder()
-                .setSubject(user.getUsername())
+                .setHeaderParam("kid", signing.kid())
+                .signWith(signing.privateKey())
+                .setSubject(username)
+                .setId(jti.toString())
+                .claim(TOKEN_TYPE_CLAIM, REFRESH_TOKEN_TYPE)
                 .setIssuedAt(new Date())
-                .setExpiration(new Date(System.currentTimeMillis() + refreshExpiration))
-                .signWith(getSigningKey())
+                .setExpiration(expiresAt)
                 .compact();
     }
 
+    /**
+     * Проверяет подпись и срок refresh-токена и возвращает его claims.
+     *
+     * @param token JWT refresh-токен
+     * @return claims токена, {@code jti} в {@link Claims#getId()}
+     * @throws JwtException если токен невалиден, просрочен или не является refresh-токеном
+     */
+    public Claims parseRefreshToken(String token) {
+        Claims claims = parseToken(token).getBody();
+        if (!REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class)) || claims.getId() == null) {
+            throw new MalformedJwtException("Not a refresh token");
+        }
+        return claims;
+    }
+
+    /**
+     * Проверяет подпись и срок access-токена и возвращает его claims.
+     * <p>Refresh-токен подписан тем же ключом, но как access-токен не принимается:
+     * иначе украденный refresh-токен действовал бы сутки в обход ротации и выхода.</p>
+     *
+     * @param token JWT access-токен
+     * @return claims токена
+     * @throws JwtException если токен невалиден, просрочен или является refresh-токеном
+     */
+    public Claims parseAccessToken(String token) {
+        Claims claims = parseToken(token).getBody();
+        if (REFRESH_TOKEN_TYPE.equals(claims.get(TOKEN_TYPE_CLAIM, String.class))) {
+            throw new MalformedJwtException("Not an access token");
+        }
+        return claims;
+    }
+
+    /**
+     * @return время жизни access-токена в миллисекундах
+     */
+    public long getAccessExpiration() {
+        return accessExpiration;
+    }
+
+    /**
+     * @return время жизни refresh-токена в миллисекундах
+     */
+    public long getRefreshExpiration() {
+        return refreshExpiration;
+    }
+
+    /**
+     * Проверяет подпись и срок токена и возвращает его claims.
+     *
+     * @param token JWT токен
+     * @return claims токена
+     * @throws JwtException если токен невалиден или просрочен
+     */
+    public Claims extractClaims(String token) {
+        return parseToken(token).getBody();
+    }
+
     /**
      * Извлекает имя пользователя (username) из JWT-токена.
      *
@@ -98,17 +175,18 @@ public class JwtService {
      * @return true, если токен валиден, иначе false
      */
     public boolean isTokenValid(String token, UserDetails userDetails) {
-        return extractUsername(token).equals(userDetails.getUsername()) && !isExpired(token);
+        return isTokenValid(parseToken(token).getBody(), userDetails);
     }
 
     /**
-     * Проверяет, истёк ли срок действия токена.
+     * Проверяет уже разобранный токен для указанного пользователя, не проверяя подпись повторно.
      *
-     * @param token JWT токен
-     * @return true, если токен просрочен, иначе false
+     * @param claims claims токена с проверенной подписью
+     * @param userDetails объект {@link UserDetails} для проверки
+     * @return true, если токен принадлежит пользователю и не истёк
      */
-    private boolean isExpired(String token) {
-        return parseToken(token).getBody().getExpiration().before(new Date());
+    public boolean isTokenValid(Claims claims, UserDetails userDetails) {
+        return userDetails.getUsername().equals(claims.getSubject()) && claims.getExpiration().after(new Date());
     }
 
     /**
@@ -118,9 +196,6 @@ public class JwtService {
      * @return разобранный токен с содержимым claims
      */
     private Jws<Claims> parseToken(String token) {
-        return Jwts.parser()
-                .setSigningKey(getSigningKey())
-                .build()
-                .parseClaimsJws(token);
+        return parser.parseClaimsJws(token);
     }
 }
@@ -0,0 +1,167 @@
+package com.bank.security;
+
+import com.bank.enums.RateLimitTier;
+import com.bank.util.TokenBucket;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.core.env.Environment;
+import org.springframework.http.MediaType;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.EnumMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Фильтр ограничения частоты запросов (rate limiting).
+ *
+ * <p>Выполняется до {@link JwtAuthenticationFilter} и ограничивает по IP-адресу запросы, для
+ * которых пользователь не нужен: эндпоинты аутентификации и запросы без токена. Так избыточные
+ * запросы отсекаются до BCrypt при логине и до проверки токена с загрузкой пользователя из БД.
+ * Запросы с токеном ограничивает {@link UserRateLimitFilter} после проверки токена.</p>
+ *
+ * <p>Для каждого ключа (IP-адрес или пользователь из проверенного токена) и класса эндпоинтов
+ * ({@link RateLimitTier}) хранится неблокирующий {@link TokenBucket}. Корзины обоих фильтров
+ * лежат здесь, в ограниченном по размеру кэше с вытеснением по времени простоя.</p>
+ *
+ * <p>Отклонённые запросы получают {@code 429 Too Many Requests} с заголовком {@code Retry-After}.
+ * Количество корзин и отказов публикуется в метриках {@code rate_limit.buckets}
+ * и {@code rate_limit.rejected}.</p>
+ */
+@Component
+public class RateLimitFilter extends OncePerRequestFilter {
+
+    private final boolean enabled;
+    private final Map<RateLimitTier, TierLimit> limits = new EnumMap<>(RateLimitTier.class);
+    private final Map<RateLimitTier, Counter> rejected = new EnumMap<>(RateLimitTier.class);
+    private final Cache<String, TokenBucket> buckets;
+
+    public RateLimitFilter(Environment env,
+                           MeterRegistry meterRegistry,
+                           @Value("${rate-limit.enabled:true}") boolean enabled,
+                           @Value("${rate-limit.max-keys:100000}") long maxKeys,
+                           @Value("${rate-limit.idle-expiry-seconds:600}") long idleExpirySeconds) {
+        this.enabled = enabled;
+        this.buckets = Caffeine.newBuilder()
+                .maximumSize(maxKeys)
+                .expireAfterAccess(Duration.ofSeconds(idleExpirySeconds))
+                .build();
+
+        for (RateLimitTier tier : RateLimitTier.values()) {
+            String prefix = "rate-limit.tiers." + tier.name().toLowerCase(Locale.ROOT) + ".";
+            int capacity = env.getProperty(prefix + "capacity", Integer.class, 50);
+            double refillPerSecond = env.getProperty(prefix + "refill-per-second", Double.class, 10.0);
+            if (capacity <= 0 || !(refillPerSecond > 0)) {
+                throw new IllegalArgumentException(prefix + "capacity and " + prefix
+                        + "refill-per-second must be positive, got " + capacity + " and " + refillPerSecond);
+            }
+            limits.put(tier, new TierLimit(capacity, refillPerSecond));
+            rejected.put(tier, Counter.builder("rate_limit.rejected")
+                    .tag("tier", tier.name())
+                    .register(meterRegistry));
+        }
+
+        Gauge.builder("rate_limit.buckets", buckets, Cache::estimatedSize)
+                .register(meterRegistry);
+    }
+
+    @Override
+    @NullMarked
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain)
+            throws IOException, ServletException {
+
+        if (enabled && !limitedAfterAuthentication(request)) {
+            RateLimitTier tier = resolveTier(request);
+            if (!tryAcquire(tier, "ip:" + request.getRemoteAddr(), response)) {
+                return;
+            }
+        }
+
+        chain.doFilter(request, response);
+    }
+
+    /**
+     * Запрос с токеном вне эндпоинтов аутентификации ограничивается по пользователю, которого
+     * ещё предстоит проверить, поэтому здесь пропускается.
+     */
+    boolean limitedAfterAuthentication(HttpServletRequest request) {
+        if (!enabled || resolveTier(request) == RateLimitTier.AUTH) {
+            return false;
+        }
+        String authHeader = request.getHeader("Authorization");
+        return authHeader != null && authHeader.startsWith("Bearer ");
+    }
+
+    /**
+     * Берёт жетон из корзины ключа; при отказе пишет в ответ {@code 429} с {@code Retry-After}.
+     *
+     * @return {@code true}, если запрос можно пропустить дальше
+     */
+    boolean tryAcquire(RateLimitTier tier, String key, HttpServletResponse response) throws IOException {
+        TierLimit limit = limits.get(tier);
+
+        long now = System.nanoTime();
+        TokenBucket bucket = buckets.get(tier.name() + ':' + key,
+                k -> new TokenBucket(limit.capacity(), limit.refillPerSecond(), now));
+        long waitNanos = bucket.tryAcquire(now);
+
+        if (waitNanos > 0) {
+            rejected.get(tier).increment();
+            long retryAfter = Math.max(1, TimeUnit.NANOSECONDS.toSeconds(waitNanos + 999_999_999L));
+            response.setStatus(429);
+            response.setHeader("Retry-After", Long.toString(retryAfter));
+            response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+            response.getWriter().write("{\"code\":429,\"message\":\"Too many requests\"}");
+            return false;
+        }
+        return true;
+    }
+
+    static RateLimitTier resolveTier(HttpServletRequest request) {
+        String uri = request.getRequestURI();
+        if (uri.startsWith("/v1/api/auth/")) {
+            return RateLimitTier.AUTH;
+        }
+        if ("POST".equals(request.getMethod()) && uri.equals("/v1/api/transfers")) {
+            return RateLimitTier.TRANSFER;
+        }
+        return RateLimitTier.DEFAULT;
+    }
+
+    /**
+     * Ключ корзины: IP-адрес для эндпоинтов аутентификации, иначе пользователь, которого
+     * {@link JwtAuthenticationFilter} установил по проверенному токену. Токен, не прошедший
+     * проверку, идёт в корзину IP-адреса: случайные токены не получают по новой корзине
+     * и не вытесняют из кэша корзины настоящих клиентов.
+     */
+    static String resolveKey(HttpServletRequest request, RateLimitTier tier) {
+        if (tier != RateLimitTier.AUTH) {
+            Authentication authentication = SecurityContextHolder.getContext().getAuthentication();
+            if (authentication != null && authentication.isAuthenticated()
+                    && !(authentication instanceof AnonymousAuthenticationToken)) {
+                return "u:" + authentication.getName();
+            }
+        }
+        return "ip:" + request.getRemoteAddr();
+    }
+
+    private record TierLimit(int capacity, double refillPerSecond) {}
+}
@@ -0,0 +1,44 @@
+package com.bank.security;
+
+import com.bank.enums.RateLimitTier;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.stereotype.Component;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+
+/**
+ * Ограничение частоты запросов с токеном, выполняется после {@link JwtAuthenticationFilter}.
+ *
+ * <p>Ключ — пользователь из проверенного токена, см. {@link RateLimitFilter#resolveKey}; токен,
+ * не прошедший проверку, ограничивается по IP-адресу. Корзины и лимиты общие
+ * с {@link RateLimitFilter}, который пропускает такие запросы до аутентификации.</p>
+ */
+@Component
+@RequiredArgsConstructor
+public class UserRateLimitFilter extends OncePerRequestFilter {
+
+    private final RateLimitFilter rateLimitFilter;
+
+    @Override
+    @NullMarked
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain)
+            throws IOException, ServletException {
+
+        if (rateLimitFilter.limitedAfterAuthentication(request)) {
+            RateLimitTier tier = RateLimitFilter.resolveTier(request);
+            if (!rateLimitFilter.tryAcquire(tier, RateLimitFilter.resolveKey(request, tier), response)) {
+                return;
+            }
+        }
+
+        chain.doFilter(request, response);
+    }
+}
@@ -0,0 +1,88 @@
+package com.bank.security;
+
+import com.bank.service.TokenRevocationService;
+import com.bank.util.StringHash;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Кэш проверенных access-токенов.
+ *
+ * <p>Клиент предъявляет один и тот же токен на протяжении всего срока его жизни, а проверка
+ * подписи ES256 — самая дорогая часть аутентификации запроса. Кэш хранит claims токена,
+ * подпись которого уже проверена и который не был отозван, до момента {@code exp}.</p>
+ *
+ * <p>Кэш — массив фиксированного размера с прямым отображением: ячейка выбирается по
+ * 64-битному хэшу токена, новая запись вытесняет старую. Чтение и запись — одна операция
+ * над {@link AtomicReferenceArray} без блокировок. Совпадение хэшей не приводит к подмене:
+ * запись возвращается, только если сохранённый токен совпадает с предъявленным целиком.
+ * Запись, сохранённая при другой версии набора отзывов, считается промахом, поэтому
+ * отзыв вступает в силу для кэшированных токенов сразу.</p>
+ */
+@Component
+public class VerifiedTokenCache {
+
+    private record Entry(long hash, String token, Claims claims, long expiresAt, long revocationVersion) {
+    }
+
+    private final TokenRevocationService tokenRevocationService;
+    private final AtomicReferenceArray<Entry> slots;
+    private final int mask;
+
+    private final Counter hits;
+    private final Counter misses;
+
+    public VerifiedTokenCache(TokenRevocationService tokenRevocationService,
+                              MeterRegistry meterRegistry,
+                              @Value("${security.jwt.verified-cache.size:65536}") int size) {
+        this.tokenRevocationService = tokenRevocationService;
+        int capacity = Integer.highestOneBit(Math.max(16, size) - 1) << 1;
+        this.slots = new AtomicReferenceArray<>(capacity);
+        this.mask = capacity - 1;
+        this.hits = Counter.builder("jwt.verified_cache").tag("result", "hit").register(meterRegistry);
+        this.misses = Counter.builder("jwt.verified_cache").tag("result", "miss").register(meterRegistry);
+    }
+
+    /**
+     * @param token access-токен из заголовка Authorization
+     * @return claims ранее проверенного токена или {@code null}, если токен нужно проверить
+     */
+    public Claims get(String token) {
+        long hash = StringHash.hash64(token);
+        Entry entry = slots.get(slot(hash));
+        if (entry != null
+                && entry.hash() == hash
+                && entry.revocationVersion() == tokenRevocationService.version()
+                && System.currentTimeMillis() < entry.expiresAt()
+                && entry.token().equals(token)) {
+            hits.increment();
+            return entry.claims();
+        }
+        misses.increment();
+        return null;
+    }
+
+    /**
+     * Сохраняет токен, прошедший проверку подписи и отзыва.
+     *
+     * @param token             access-токен
+     * @param claims            его claims
+     * @param revocationVersion версия набора отзывов, полученная до проверки отзыва
+     */
+    public void put(String token, Claims claims, long revocationVersion) {
+        if (claims.getExpiration() == null) {
+            return;
+        }
+        long hash = StringHash.hash64(token);
+        slots.set(slot(hash), new Entry(hash, token, claims, claims.getExpiration().getTime(), revocationVersion));
+    }
+
+    private int slot(long hash) {
+        return (int) (hash ^ (hash >>> 32)) & mask;
+    }
+}
@@ -0,0 +1,26 @@
+package com.bank.service;
+
+/**
+ * Сервис приблизительного количества строк в больших таблицах.
+ *
+ * <p>Итоги для постраничных выдач по всей таблице берутся из кэша оценок,
+ * который периодически обновляется из статистики планировщика PostgreSQL
+ * ({@code pg_class.reltuples}), вместо {@code SELECT count(*)} на каждый запрос.
+ * Если статистики ещё нет (таблица не анализировалась) или база не PostgreSQL,
+ * выполняется точный подсчёт — один раз за период обновления.</p>
+ */
+public interface ApproximateCountService {
+
+    /**
+     * Возвращает оценку количества строк в таблице.
+     *
+     * @param table имя таблицы ({@code cards} или {@code transfers})
+     * @return приблизительное количество строк
+     */
+    long estimate(String table);
+
+    /**
+     * Перечитывает оценки для всех отслеживаемых таблиц.
+     */
+    void refresh();
+}
@@ -0,0 +1,39 @@
+package com.bank.service;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+
+/**
+ * Сервис массового выпуска карт.
+ *
+ * <p>Читает поток строк (NDJSON или CSV) и обрабатывает его пачками фиксированного размера:
+ * одна проверка существования владельцев на пачку, одна проверка дубликатов на пачку,
+ * параллельное шифрование номеров и пакетная вставка через JDBC. Каждая пачка
+ * фиксируется в отдельной транзакции.</p>
+ *
+ * <p>В выходной поток построчно (NDJSON) пишутся ошибки по строкам
+ * и прогресс после каждой пачки, см. {@link com.bank.dto.BulkImportEventDto}.</p>
+ */
+public interface CardBulkImportService {
+
+    /**
+     * Формат входных данных.
+     */
+    enum Format {
+        /** По одному JSON-объекту {@link com.bank.dto.CardCreateDto} в строке. */
+        NDJSON,
+        /** CSV: {@code cardNumber,ownerName,userId,expiryDate,initialBalance[,currency]}, заголовок необязателен. */
+        CSV
+    }
+
+    /**
+     * Импортирует карты из входного потока.
+     *
+     * @param in входные данные
+     * @param format формат входных данных
+     * @param out поток для построчного отчёта о ходе импорта
+     * @throws IOException при ошибке чтения входа или записи отчёта
+     */
+    void importCards(InputStream in, Format format, OutputStream out) throws IOException;
+}
@@ -0,0 +1,33 @@
+package com.bank.service;
+
+/**
+ * Кэш метаданных карт для предварительной проверки переводов.
+ *
+ * <p>Хранит владельца, статус и срок действия карты. Перевод, который заведомо не пройдёт
+ * (чужая, заблокированная или просроченная карта), отклоняется до открытия транзакции —
+ * без соединения из пула и без блокировки строк. Прошедший предварительную проверку перевод
+ * всё равно проверяется полностью под блокировкой: кэш может только отказать раньше,
+ * но не разрешить.</p>
+ */
+public interface CardMetadataService {
+
+    /**
+     * Предварительная проверка перевода между картами пользователя.
+     *
+     * @param userId ID пользователя, инициирующего перевод
+     * @param fromCardId ID карты списания
+     * @param toCardId ID карты зачисления
+     * @throws com.bank.exception.CommonException если перевод заведомо невалиден
+     */
+    void precheckTransfer(Long userId, Long fromCardId, Long toCardId);
+
+    /**
+     * Сбрасывает метаданные карты после изменения её статуса или удаления.
+     *
+     * <p>Внутри транзакции запись сбрасывается ещё раз после фиксации, чтобы параллельная
+     * проверка не закэшировала состояние, прочитанное до неё.</p>
+     *
+     * @param cardId ID карты
+     */
+    void evict(Long cardId);
+}
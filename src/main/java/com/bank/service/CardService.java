@@ -5,6 +5,7 @@ import com.bank.dto.CardResponseDto;
 import org.jspecify.annotations.NullMarked;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 
 /**
  * Сервис для управления банковскими картами.
@@ -41,6 +42,16 @@ public interface CardService {
     @NullMarked
     Page<CardResponseDto> getUserCards(Long userId, Pageable pageable);
 
+    /**
+     * Получает срез карт пользователя без подсчёта общего количества.
+     *
+     * @param userId ID пользователя
+     * @param pageable параметры пагинации (страница, размер)
+     * @return срез с DTO карт пользователя и признаком наличия следующей страницы
+     */
+    @NullMarked
+    Slice<CardResponseDto> getUserCardsSlice(Long userId, Pageable pageable);
+
     /**
      * Получает конкретную карту пользователя по ID.
      *
@@ -87,7 +98,8 @@ public interface CardService {
     /**
      * Получает все карты системы с постраничной выдачей.
      *
-     * <p>Обычно используется администраторами для управления всеми картами.</p>
+     * <p>Обычно используется администраторами для управления всеми картами.
+     * Общее количество карт приблизительное, см. {@link ApproximateCountService}.</p>
      *
      * @param pageable параметры пагинации (страница, размер)
      * @return страница со всеми DTO карт
@@ -95,4 +107,13 @@ public interface CardService {
     @NullMarked
     Page<CardResponseDto> getAllCards(Pageable pageable);
 
+    /**
+     * Получает срез всех карт системы без подсчёта общего количества.
+     *
+     * @param pageable параметры пагинации (страница, размер)
+     * @return срез с DTO карт и признаком наличия следующей страницы
+     */
+    @NullMarked
+    Slice<CardResponseDto> getAllCardsSlice(Pageable pageable);
+
 }
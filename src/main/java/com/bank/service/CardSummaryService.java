@@ -0,0 +1,79 @@
+package com.bank.service;
+
+import com.bank.dto.CardSummaryDto;
+import com.bank.enums.CardStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+/**
+ * Сервис материализованной сводки по картам пользователя (таблица {@code user_card_summary}).
+ *
+ * <p>Сводка хранится строкой на пару (пользователь, валюта) и обновляется инкрементально
+ * в той же транзакции, что и изменение карт: выпуск, удаление, смена статуса, перевод.
+ * Методы изменения вызываются только внутри уже открытой транзакции.</p>
+ *
+ * <p>Для восстановления после расхождений есть полный пересчёт из таблиц
+ * {@code cards} и {@code transfers}.</p>
+ */
+public interface CardSummaryService {
+
+    /**
+     * Учитывает выпуск карт одного пользователя в одной валюте.
+     *
+     * @param userId ID владельца
+     * @param currency валюта карт
+     * @param status статус выпущенных карт
+     * @param count количество карт
+     * @param balance суммарный начальный баланс
+     */
+    void onCardsCreated(Long userId, String currency, CardStatus status, int count, BigDecimal balance);
+
+    /**
+     * Учитывает удаление карты.
+     *
+     * @param userId ID владельца
+     * @param currency валюта карты
+     * @param status статус карты на момент удаления
+     * @param balance баланс карты на момент удаления
+     */
+    void onCardDeleted(Long userId, String currency, CardStatus status, BigDecimal balance);
+
+    /**
+     * Учитывает смену статуса карты. Если статус не изменился, ничего не делает.
+     *
+     * @param userId ID владельца
+     * @param currency валюта карты
+     * @param from прежний статус
+     * @param to новый статус
+     */
+    void onStatusChanged(Long userId, String currency, CardStatus from, CardStatus to);
+
+    /**
+     * Учитывает перевод между картами пользователя.
+     *
+     * @param userId ID пользователя
+     * @param fromCurrency валюта карты списания
+     * @param debited списанная сумма
+     * @param toCurrency валюта карты зачисления
+     * @param credited зачисленная сумма
+     * @param at время перевода
+     */
+    void onTransfer(Long userId, String fromCurrency, BigDecimal debited,
+                    String toCurrency, BigDecimal credited, LocalDateTime at);
+
+    /**
+     * Возвращает сводку пользователя: чтение по первичному ключу, без обхода карт и переводов.
+     *
+     * @param userId ID пользователя
+     * @return сводка (пустая, если у пользователя нет карт)
+     */
+    CardSummaryDto getSummary(Long userId);
+
+    /**
+     * Полностью пересчитывает сводку из таблиц {@code cards} и {@code transfers}.
+     *
+     * @return количество строк сводки после пересчёта
+     */
+    int rebuild();
+}
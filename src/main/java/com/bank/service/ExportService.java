@@ -0,0 +1,43 @@
+package com.bank.service;
+
+import java.io.IOException;
+import java.io.OutputStream;
+
+/**
+ * Сервис полной выгрузки данных для аудита.
+ *
+ * <p>Строки читаются серверным курсором с настраиваемым размером выборки
+ * ({@code export.fetch-size}) и сразу пишутся в выходной поток, поэтому
+ * расход памяти не зависит от размера таблицы. Номера карт не расшифровываются —
+ * в выгрузку попадает только маскированный номер.</p>
+ */
+public interface ExportService {
+
+    /**
+     * Формат выгрузки.
+     */
+    enum Format {
+        /** CSV с заголовком. */
+        CSV,
+        /** По одному JSON-объекту в строке. */
+        NDJSON
+    }
+
+    /**
+     * Выгружает все карты.
+     *
+     * @param format формат выгрузки
+     * @param out поток, в который пишутся данные
+     * @throws IOException при ошибке записи
+     */
+    void exportCards(Format format, OutputStream out) throws IOException;
+
+    /**
+     * Выгружает все переводы, включая архивные: сначала архивные месяцы, затем строки из базы.
+     *
+     * @param format формат выгрузки
+     * @param out поток, в который пишутся данные
+     * @throws IOException при ошибке записи
+     */
+    void exportTransfers(Format format, OutputStream out) throws IOException;
+}
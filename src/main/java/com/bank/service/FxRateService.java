@@ -0,0 +1,31 @@
+package com.bank.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Сервис валютных курсов.
+ *
+ * <p>Держит в памяти неизменяемый снимок таблицы курсов, который периодически
+ * перечитывается из локального файла или таблицы {@code fx_rates} и атомарно заменяется.</p>
+ *
+ * <p>Получение курса на пути перевода не обращается к базе данных.</p>
+ */
+public interface FxRateService {
+
+    /**
+     * Возвращает курс конвертации между валютами.
+     *
+     * @param from валюта списания
+     * @param to валюта зачисления
+     * @return сколько единиц {@code to} за одну единицу {@code from}
+     * @throws com.bank.exception.CommonException с кодом 400, если курс для пары неизвестен
+     */
+    BigDecimal getRate(String from, String to);
+
+    /**
+     * Перечитывает таблицу курсов и атомарно подменяет текущий снимок.
+     *
+     * <p>Если загрузка завершилась ошибкой, продолжает использоваться предыдущий снимок.</p>
+     */
+    void refresh();
+}
@@ -0,0 +1,38 @@
+package com.bank.service;
+
+import com.bank.entity.TransferEntity;
+
+/**
+ * Сервис транзакционного outbox для событий о переводах.
+ *
+ * <p>Запись события выполняется в транзакции перевода, поэтому событие появляется
+ * тогда и только тогда, когда перевод зафиксирован. Отдельный ретранслятор вычитывает
+ * outbox пачками и доставляет события во все зарегистрированные
+ * {@link com.bank.event.OutboxSink} с гарантией «как минимум один раз»
+ * и сохранением порядка для каждого пользователя (а значит, и для каждой карты).</p>
+ */
+public interface OutboxService {
+
+    /**
+     * Сохраняет событие о переводе в outbox.
+     *
+     * <p>Должен вызываться внутри транзакции перевода.</p>
+     *
+     * @param transfer сохранённый перевод
+     */
+    void enqueueTransfer(TransferEntity transfer);
+
+    /**
+     * Вычитывает и публикует неопубликованные события, пока outbox не опустеет.
+     *
+     * @return количество опубликованных событий
+     */
+    int relay();
+
+    /**
+     * Удаляет пачками события, опубликованные раньше {@code outbox.retention-ms}.
+     *
+     * @return число удалённых строк
+     */
+    int purgePublished();
+}
@@ -0,0 +1,64 @@
+package com.bank.service;
+
+import com.bank.entity.UserEntity;
+
+/**
+ * Серверное хранилище refresh-токенов.
+ *
+ * <p>Каждый токен идентифицируется {@code jti} и принадлежит семейству — цепочке ротаций
+ * от одного логина. При обновлении предъявленный токен помечается заменённым и выдаётся
+ * новый того же семейства. Повторное предъявление заменённого токена означает, что он
+ * утёк: всё семейство отзывается, и обновиться не сможет ни злоумышленник, ни владелец.</p>
+ *
+ * <p>Состояние токенов кэшируется в памяти по {@code jti}, поэтому обычное обновление
+ * обходится одним обращением к кэшу и одним запросом, который атомарно заменяет токен.</p>
+ */
+public interface RefreshTokenService {
+
+    /**
+     * Выдаёт refresh-токен нового семейства.
+     *
+     * @param user пользователь, выполнивший вход
+     * @return подписанный refresh-токен
+     */
+    String issue(UserEntity user);
+
+    /**
+     * Заменяет предъявленный refresh-токен новым того же семейства.
+     *
+     * @param refreshToken предъявленный токен
+     * @return имя пользователя и новый refresh-токен
+     * @throws com.bank.exception.CommonException 401, если токен невалиден, заменён или отозван
+     */
+    Rotation rotate(String refreshToken);
+
+    /**
+     * Отзывает семейство предъявленного токена. Невалидный токен игнорируется.
+     *
+     * @param refreshToken refresh-токен из cookie, может быть {@code null}
+     */
+    void revoke(String refreshToken);
+
+    /**
+     * Отзывает все семейства пользователя, например при блокировке.
+     *
+     * @param userId ID пользователя
+     */
+    void revokeAllForUser(Long userId);
+
+    /**
+     * Удаляет истёкшие токены пачками.
+     *
+     * @return число удалённых строк
+     */
+    int purgeExpired();
+
+    /**
+     * Результат ротации.
+     *
+     * @param username     владелец токена
+     * @param refreshToken новый refresh-токен
+     */
+    record Rotation(String username, String refreshToken) {
+    }
+}
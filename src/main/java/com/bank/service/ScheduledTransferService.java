@@ -0,0 +1,47 @@
+package com.bank.service;
+
+import com.bank.dto.ScheduledTransferCreateDto;
+import com.bank.dto.ScheduledTransferDto;
+
+import java.util.List;
+
+/**
+ * Сервис регулярных переводов между картами пользователя.
+ *
+ * <p>Каждый запуск выполняется через {@link TransferService#transferBetweenOwnCards}
+ * со всеми его проверками, блокировками и лимитами, в одной транзакции с переносом
+ * графика на следующий запуск. Неудачный запуск пропускается и считается; после
+ * {@code scheduled-transfers.max-failures} неудач подряд перевод отключается.</p>
+ *
+ * <p>Планировщик безопасен при нескольких узлах: наступившие запуски захватываются
+ * через {@code FOR UPDATE SKIP LOCKED} с арендой, а перед выполнением строка
+ * блокируется повторно и проверяется, что запуск ещё не выполнен.</p>
+ */
+public interface ScheduledTransferService {
+
+    /**
+     * Создаёт регулярный перевод.
+     *
+     * @throws com.bank.exception.CommonException если карты совпадают, не найдены или не принадлежат пользователю
+     */
+    ScheduledTransferDto create(Long userId, ScheduledTransferCreateDto dto);
+
+    /**
+     * Возвращает регулярные переводы пользователя, включая отключённые.
+     */
+    List<ScheduledTransferDto> getUserSchedules(Long userId);
+
+    /**
+     * Отключает регулярный перевод пользователя.
+     *
+     * @throws com.bank.exception.CommonException 404, если перевод не найден или принадлежит другому пользователю
+     */
+    void cancel(Long userId, Long id);
+
+    /**
+     * Выполняет все наступившие запуски пачками на пуле исполнителей.
+     *
+     * @return количество обработанных запусков
+     */
+    int runDue();
+}
@@ -0,0 +1,61 @@
+package com.bank.service;
+
+import java.util.Date;
+
+/**
+ * Отзыв access-токенов до истечения их срока.
+ *
+ * <p>Поддерживаются два вида отзыва: все токены пользователя, выданные не позже
+ * момента отзыва (блокировка, удаление), и отдельный токен по {@code jti} (выход).
+ * Отзывы хранятся в памяти за фильтром Блума, поэтому проверка токена, по которому
+ * ничего не отзывалось, не обращается ни к базе, ни к хэш-таблицам. Узлы обмениваются
+ * отзывами через таблицу {@code token_revocations}, которую каждый узел читает инкрементально.</p>
+ */
+public interface TokenRevocationService {
+
+    /**
+     * Проверяет, отозван ли access-токен.
+     *
+     * @param username владелец токена (subject)
+     * @param jti      идентификатор токена, может быть {@code null} у токенов, выданных до введения отзыва
+     * @param issuedAt момент выдачи токена
+     * @return {@code true}, если токен отозван
+     */
+    boolean isRevoked(String username, String jti, Date issuedAt);
+
+    /**
+     * Версия набора отзывов: увеличивается при каждом его изменении на этом узле.
+     * Результаты проверок, сохранённые при другой версии, нужно проверить заново.
+     */
+    long version();
+
+    /**
+     * Отзывает все токены пользователя, выданные к текущему моменту.
+     * <p>Внутри транзакции отзыв вступает в силу на этом узле после её фиксации.</p>
+     *
+     * @param username имя пользователя
+     */
+    void revokeUser(String username);
+
+    /**
+     * Отзывает один токен.
+     *
+     * @param jti       идентификатор токена
+     * @param expiresAt срок действия токена: после него запись об отзыве не нужна
+     */
+    void revokeToken(String jti, Date expiresAt);
+
+    /**
+     * Читает отзывы, добавленные другими узлами после предыдущего опроса.
+     *
+     * @return число прочитанных записей
+     */
+    int poll();
+
+    /**
+     * Удаляет записи об отзыве, после которых все затронутые токены истекли.
+     *
+     * @return число удалённых строк
+     */
+    int purgeExpired();
+}
@@ -0,0 +1,64 @@
+package com.bank.service;
+
+import com.bank.dto.TransferDto;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.function.Consumer;
+
+/**
+ * Архив старых переводов в файлах на общем для всех экземпляров томе.
+ *
+ * <p>Переводы старше {@code transfers.archive.older-than-months} (если порог задан) и все
+ * отсоединённые секции (см. {@link TransferPartitionService}) переносятся помесячно в файлы-сегменты:
+ * NDJSON, сжатый независимыми gzip-блоками, плюс разреженный индекс с диапазоном
+ * {@code created_at} каждого блока. После записи сегмента строки удаляются из базы пачками.</p>
+ *
+ * <p>Всё, что раньше {@link #getHorizon() горизонта архива}, читается только из сегментов
+ * (через отображение файлов в память), всё, что позже, — только из таблицы {@code transfers}.</p>
+ */
+public interface TransferArchiveService {
+
+    /**
+     * Архивирует все месяцы, которые старше порога, и все отсоединённые секции.
+     * Отсоединённые секции архивируются, даже если порог не задан.
+     *
+     * @return количество перенесённых в архив строк
+     */
+    long archive();
+
+    /**
+     * Архивирует только отсоединённые секции, не трогая таблицу {@code transfers}.
+     *
+     * @return количество перенесённых в архив строк
+     */
+    long archiveDetachedPartitions();
+
+    /**
+     * Возвращает границу архива: начало первого месяца, который ещё не архивирован.
+     *
+     * @return граница архива или {@code null}, если архив пуст
+     */
+    LocalDateTime getHorizon();
+
+    /**
+     * Считает архивные переводы за полуинтервал {@code [from, to)}.
+     */
+    long count(LocalDateTime from, LocalDateTime to);
+
+    /**
+     * Читает архивные переводы за полуинтервал {@code [from, to)} в порядке {@code (created_at, id)}.
+     *
+     * @param offset сколько подходящих строк пропустить
+     * @param limit максимальное количество строк в ответе
+     */
+    List<TransferDto> read(LocalDateTime from, LocalDateTime to, long offset, int limit);
+
+    /**
+     * Передаёт все архивные переводы месяцев до {@code before} (не включая) по порядку месяцев,
+     * внутри месяца — в порядке {@code (created_at, id)}. Блоки распаковываются по одному.
+     *
+     * @param before начало месяца, обычно прочитанный заранее {@link #getHorizon() горизонт}
+     */
+    void forEachBefore(LocalDateTime before, Consumer<TransferDto> action);
+}
@@ -0,0 +1,35 @@
+package com.bank.service;
+
+import java.math.BigDecimal;
+
+/**
+ * Сервис лимитов на переводы (velocity limits).
+ *
+ * <p>Проверяет суточные и месячные лимиты по сумме и количеству переводов
+ * для исходной карты и для пользователя. Суммы пользователя считаются отдельно в каждой
+ * валюте карт списания, количество — по всем валютам вместе. Проверка выполняется по счётчикам в памяти,
+ * без запросов к таблице {@code transfers}; счётчики восстанавливаются из БД при старте
+ * и периодически сверяются с ней.</p>
+ */
+public interface TransferLimitService {
+
+    /**
+     * Проверяет лимиты и резервирует перевод в счётчиках.
+     *
+     * <p>Если вызов выполняется внутри транзакции, резерв автоматически снимается
+     * при её откате.</p>
+     *
+     * @param userId ID пользователя, инициирующего перевод
+     * @param fromCardId ID карты списания
+     * @param currency валюта карты списания
+     * @param amount сумма перевода в валюте карты списания
+     * @throws com.bank.exception.CommonException с кодом 400, если лимит превышен,
+     *         или с кодом 503, если счётчики недоступны и включён режим fail-closed
+     */
+    void reserve(Long userId, Long fromCardId, String currency, BigDecimal amount);
+
+    /**
+     * Перестраивает счётчики по данным таблицы {@code transfers} и атомарно подменяет текущие.
+     */
+    void rebuild();
+}
@@ -0,0 +1,39 @@
+package com.bank.service;
+
+import java.util.List;
+
+/**
+ * Обслуживание месячных секций таблицы {@code transfers}.
+ *
+ * <p>Таблица секционирована по {@code created_at} (миграция V5), секции называются
+ * {@code transfers_yYYYYmMM}. Сервис заранее создаёт секции на ближайшие месяцы,
+ * чтобы новые переводы не попадали в секцию по умолчанию, и отсоединяет секции
+ * старше срока хранения. Отсоединённая секция остаётся обычной таблицей с тем же именем
+ * и больше не участвует в запросах к {@code transfers}, пока архив не перенесёт её в сегмент
+ * и не удалит.</p>
+ *
+ * <p>Если база не PostgreSQL или таблица ещё не секционирована, методы ничего не делают.</p>
+ */
+public interface TransferPartitionService {
+
+    /**
+     * Создаёт недостающие секции с текущего месяца на {@code transfers.partitions.months-ahead} вперёд.
+     *
+     * @return имена созданных секций
+     */
+    List<String> createUpcomingPartitions();
+
+    /**
+     * Отсоединяет секции, полностью лежащие раньше срока хранения
+     * {@code transfers.partitions.retention-months}; при значении 0 ничего не отсоединяется.
+     *
+     * @return имена отсоединённых секций
+     */
+    List<String> detachExpiredPartitions();
+
+    /**
+     * Плановое обслуживание: создание будущих секций, затем отсоединение устаревших
+     * и перенос их в архив.
+     */
+    void maintain();
+}
@@ -6,6 +6,10 @@ import com.bank.dto.TransferResponseDto;
 import org.jspecify.annotations.NullMarked;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+
+import java.time.LocalDateTime;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * Сервис для управления переводами между банковскими картами.
@@ -20,6 +24,9 @@ public interface TransferService {
     /**
      * Выполняет перевод между двумя картами одного пользователя.
      *
+     * <p>Если валюты карт различаются, сумма зачисления пересчитывается по текущему
+     * курсу, а применённый курс сохраняется в переводе.</p>
+     *
      * @param userId ID пользователя, который инициирует перевод
      * @param dto DTO с данными перевода (fromCardId, toCardId, amount)
      * @return DTO с информацией о выполненном переводе,
@@ -30,19 +37,72 @@ public interface TransferService {
      *           <li>одна из карт не найдена;</li>
      *           <li>карты не принадлежат пользователю;</li>
      *           <li>карты не активны;</li>
+     *           <li>срок действия одной из карт истёк;</li>
+     *           <li>курс для валютной пары неизвестен;</li>
      *           <li>недостаточно средств на исходной карте.</li>
      *         </ul>
      */
     TransferResponseDto transferBetweenOwnCards(Long userId, TransferRequestDto dto);
 
+    /**
+     * Асинхронный вариант {@link #transferBetweenOwnCards}: результат завершается, когда перевод
+     * зафиксирован в БД, или ошибкой, по которой он отклонён.
+     *
+     * <p>По умолчанию перевод выполняется сразу в вызывающем потоке.</p>
+     *
+     * @param userId ID пользователя, который инициирует перевод
+     * @param dto DTO с данными перевода
+     * @return будущий результат перевода
+     */
+    default CompletableFuture<TransferResponseDto> transferBetweenOwnCardsAsync(Long userId, TransferRequestDto dto) {
+        try {
+            return CompletableFuture.completedFuture(transferBetweenOwnCards(userId, dto));
+        } catch (RuntimeException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
     /**
      * Получает все переводы в системе с постраничной выдачей.
      *
-     * <p>Метод обычно используется администраторами для мониторинга операций.</p>
+     * <p>Метод обычно используется администраторами для мониторинга операций.
+     * Общее количество переводов приблизительное, см. {@link ApproximateCountService}.</p>
      *
      * @param pageable параметры пагинации (страница, размер)
      * @return страница с DTO всех переводов
      */
     @NullMarked
     Page<TransferDto> getAll(Pageable pageable);
+
+    /**
+     * Получает срез всех переводов без подсчёта общего количества.
+     *
+     * @param pageable параметры пагинации (страница, размер)
+     * @return срез с DTO переводов и признаком наличия следующей страницы
+     */
+    @NullMarked
+    Slice<TransferDto> getAllSlice(Pageable pageable);
+
+    /**
+     * Получает переводы за период с точным количеством в пределах периода.
+     *
+     * <p>Таблица переводов секционирована по месяцам, поэтому и выборка, и подсчёт
+     * затрагивают только секции указанного периода.</p>
+     *
+     * @param from начало периода включительно; {@code null} — без нижней границы
+     * @param to конец периода не включительно; {@code null} — без верхней границы
+     * @param pageable параметры пагинации (страница, размер)
+     * @return страница с DTO переводов за период
+     */
+    Page<TransferDto> getAllBetween(LocalDateTime from, LocalDateTime to, Pageable pageable);
+
+    /**
+     * Получает срез переводов за период без подсчёта общего количества.
+     *
+     * @param from начало периода включительно; {@code null} — без нижней границы
+     * @param to конец периода не включительно; {@code null} — без верхней границы
+     * @param pageable параметры пагинации (страница, размер)
+     * @return срез с DTO переводов за период
+     */
+    Slice<TransferDto> getAllBetweenSlice(LocalDateTime from, LocalDateTime to, Pageable pageable);
 }
@@ -43,8 +43,9 @@ public interface UserService {
     /**
      * Обновляет access token с помощью refresh token.
      *
-     * <p>Если refresh token валиден, генерируются новые access и refresh токены,
-     * refresh token возвращается в HttpOnly cookie.</p>
+     * <p>Если refresh token валиден и ещё не заменён, генерируются новые access и refresh токены,
+     * refresh token возвращается в HttpOnly cookie. Повторное предъявление уже заменённого
+     * токена отзывает все токены, выданные после того же логина.</p>
      *
      * @param refreshToken refresh token
      * @param response HttpServletResponse для установки новой refresh cookie
@@ -55,11 +56,13 @@ public interface UserService {
     /**
      * Выполняет выход пользователя из системы.
      *
-     * <p>Удаляет refresh cookie с клиента.</p>
+     * <p>Отзывает refresh token и текущий access token на сервере и удаляет refresh cookie с клиента.</p>
      *
+     * @param refreshToken refresh token из cookie, может отсутствовать
+     * @param authorization заголовок Authorization с access token, может отсутствовать
      * @param response HttpServletResponse для удаления refresh cookie
      */
-    void logout(HttpServletResponse response);
+    void logout(String refreshToken, String authorization, HttpServletResponse response);
 
     /**
      * Удаляет пользователя по ID.
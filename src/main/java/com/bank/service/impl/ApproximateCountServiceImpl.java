@@ -0,0 +1,77 @@
+package com.bank.service.impl;
+
+import com.bank.service.ApproximateCountService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class ApproximateCountServiceImpl implements ApproximateCountService {
+
+    /** Имена таблиц подставляются в SQL, поэтому допускаются только из этого списка. */
+    private static final List<String> TABLES = List.of("cards", "transfers");
+
+    private final JdbcTemplate jdbcTemplate;
+
+    private final Map<String, Long> estimates = new ConcurrentHashMap<>();
+
+    @Override
+    public long estimate(String table) {
+        Long cached = estimates.get(table);
+        if (cached != null) {
+            return cached;
+        }
+        if (!TABLES.contains(table)) {
+            throw new IllegalArgumentException("Table is not tracked: " + table);
+        }
+        long exact = exactCount(table);
+        estimates.put(table, exact);
+        return exact;
+    }
+
+    @Override
+    @Scheduled(initialDelay = 0, fixedDelayString = "${listing.count-refresh-interval-ms:60000}")
+    public void refresh() {
+        Map<String, Long> statistics = new HashMap<>();
+        try {
+            jdbcTemplate.query(
+                    // у секционированной таблицы собственной статистики нет, оценка — сумма по секциям;
+                    // -1, если ни одна секция ещё не анализировалась
+                    "SELECT p.relname, CASE WHEN p.relkind = 'p' THEN (" +
+                    "SELECT COALESCE(CASE WHEN bool_and(c.reltuples < 0) THEN -1 " +
+                    "ELSE SUM(GREATEST(c.reltuples, 0)) END, -1) " +
+                    "FROM pg_inherits i JOIN pg_class c ON c.oid = i.inhrelid WHERE i.inhparent = p.oid" +
+                    ") ELSE p.reltuples END::bigint AS estimate FROM pg_class p " +
+                    "WHERE p.relkind IN ('r', 'p') AND p.relname IN ('cards', 'transfers')",
+                    rs -> {
+                        statistics.put(rs.getString("relname"), rs.getLong("estimate"));
+                    });
+        } catch (Exception e) {
+            log.debug("pg_class statistics unavailable, falling back to exact counts", e);
+        }
+
+        for (String table : TABLES) {
+            Long estimate = statistics.get(table);
+            try {
+                // reltuples = -1, пока таблица ни разу не анализировалась
+                estimates.put(table, estimate != null && estimate >= 0 ? estimate : exactCount(table));
+            } catch (Exception e) {
+                log.warn("Row count refresh failed for {}, keeping previous estimate", table, e);
+            }
+        }
+    }
+
+    private long exactCount(String table) {
+        Long count = jdbcTemplate.queryForObject("SELECT count(*) FROM " + table, Long.class);
+        return count != null ? count : 0;
+    }
+}
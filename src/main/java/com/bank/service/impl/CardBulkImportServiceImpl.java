@@ -0,0 +1,231 @@
+package com.bank.service.impl;
+
+import com.bank.dto.BulkImportEventDto;
+import com.bank.dto.CardCreateDto;
+import com.bank.enums.CardStatus;
+import com.bank.repository.UserRepository;
+import com.bank.service.CardBulkImportService;
+import com.bank.service.CardSummaryService;
+import com.bank.util.CardNumberAttributeConverter;
+import com.bank.util.CardUtils;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.Date;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+
+@Service
+@RequiredArgsConstructor
+public class CardBulkImportServiceImpl implements CardBulkImportService {
+
+    private static final String INSERT_SQL =
+            "INSERT INTO cards (card_number_encrypted, masked_number, owner_name, expiry_date, status, user_id, balance, currency) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+
+    private final UserRepository userRepository;
+    private final CardNumberAttributeConverter cardNumberConverter;
+    private final JdbcTemplate jdbcTemplate;
+    private final NamedParameterJdbcTemplate namedJdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final ObjectMapper objectMapper;
+    private final Validator validator;
+    private final CardSummaryService cardSummaryService;
+
+    @Value("${cards.bulk.chunk-size:1000}")
+    private int chunkSize;
+
+    @Override
+    public void importCards(InputStream in, Format format, OutputStream out) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        Progress progress = new Progress();
+        List<Row> chunk = new ArrayList<>(chunkSize);
+
+        String line;
+        long lineNo = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNo++;
+            if (line.isBlank() || (format == Format.CSV && lineNo == 1 && line.startsWith("cardNumber"))) {
+                continue;
+            }
+            try {
+                chunk.add(new Row(lineNo, parse(line, format)));
+            } catch (Exception e) {
+                progress.processed++;
+                progress.reject(out, lineNo, "Malformed line");
+            }
+            if (chunk.size() == chunkSize) {
+                processChunk(chunk, progress, out);
+                chunk.clear();
+            }
+        }
+        if (!chunk.isEmpty()) {
+            processChunk(chunk, progress, out);
+        }
+        progress.write(out, "done");
+    }
+
+    private void processChunk(List<Row> chunk, Progress progress, OutputStream out) throws IOException {
+        List<Row> valid = new ArrayList<>(chunk.size());
+        LocalDate today = LocalDate.now();
+
+        for (Row row : chunk) {
+            Set<ConstraintViolation<CardCreateDto>> violations = validator.validate(row.dto);
+            if (!violations.isEmpty()) {
+                ConstraintViolation<CardCreateDto> v = violations.iterator().next();
+                progress.reject(out, row.line, v.getPropertyPath() + " " + v.getMessage());
+            } else if (row.dto.expiryDate().isBefore(today)) {
+                progress.reject(out, row.line, "Expiry date must be in the future");
+            } else {
+                valid.add(row);
+            }
+        }
+
+        // одна проверка владельцев на пачку
+        Set<Long> userIds = new HashSet<>();
+        valid.forEach(r -> userIds.add(r.dto.userId()));
+        Set<Long> existingUsers = userIds.isEmpty() ? Set.of() : new HashSet<>(userRepository.findExistingIds(userIds));
+
+        List<Row> owned = new ArrayList<>(valid.size());
+        for (Row row : valid) {
+            if (existingUsers.contains(row.dto.userId())) {
+                owned.add(row);
+            } else {
+                progress.reject(out, row.line, "User not found");
+            }
+        }
+
+        // шифрование номеров (AES) — параллельно по ядрам
+        owned.parallelStream().forEach(r -> r.encrypted = cardNumberConverter.convertToDatabaseColumn(r.dto.cardNumber()));
+
+        // одна проверка дубликатов на пачку (по зашифрованному значению) + дубликаты внутри пачки
+        Set<String> existingNumbers = owned.isEmpty() ? Set.of() : new HashSet<>(namedJdbcTemplate.queryForList(
+                "SELECT card_number_encrypted FROM cards WHERE card_number_encrypted IN (:numbers)",
+                Map.of("numbers", owned.stream().map(r -> r.encrypted).toList()),
+                String.class));
+
+        List<Row> toInsert = new ArrayList<>(owned.size());
+        Set<String> seen = new HashSet<>();
+        for (Row row : owned) {
+            if (existingNumbers.contains(row.encrypted) || !seen.add(row.encrypted)) {
+                progress.reject(out, row.line, "Card already exists");
+            } else {
+                toInsert.add(row);
+            }
+        }
+
+        if (!toInsert.isEmpty()) {
+            transactionTemplate.executeWithoutResult(status -> {
+                jdbcTemplate.batchUpdate(INSERT_SQL, toInsert, toInsert.size(),
+                        (ps, r) -> {
+                            ps.setString(1, r.encrypted);
+                            ps.setString(2, CardUtils.maskNumber(r.dto.cardNumber()));
+                            ps.setString(3, r.dto.ownerName());
+                            ps.setDate(4, Date.valueOf(r.dto.expiryDate()));
+                            ps.setString(5, CardStatus.ACTIVE.name());
+                            ps.setLong(6, r.dto.userId());
+                            ps.setBigDecimal(7, r.dto.initialBalance());
+                            ps.setString(8, currencyOf(r));
+                        });
+                updateSummary(toInsert);
+            });
+        }
+
+        progress.created += toInsert.size();
+        progress.processed += chunk.size();
+        progress.write(out, "progress");
+    }
+
+    /**
+     * Одна запись сводки на пару (пользователь, валюта) в пачке; ключи по порядку,
+     * чтобы параллельные импорты не взаимоблокировались на строках сводки.
+     */
+    private void updateSummary(List<Row> inserted) {
+        Map<String, BigDecimal> balances = new TreeMap<>();
+        Map<String, Integer> counts = new HashMap<>();
+        for (Row r : inserted) {
+            String key = r.dto.userId() + ":" + currencyOf(r);
+            balances.merge(key, r.dto.initialBalance(), BigDecimal::add);
+            counts.merge(key, 1, Integer::sum);
+        }
+        balances.forEach((key, balance) -> {
+            int sep = key.indexOf(':');
+            cardSummaryService.onCardsCreated(Long.valueOf(key.substring(0, sep)), key.substring(sep + 1),
+                    CardStatus.ACTIVE, counts.get(key), balance);
+        });
+    }
+
+    private static String currencyOf(Row r) {
+        return r.dto.currency() != null ? r.dto.currency() : CardUtils.DEFAULT_CURRENCY;
+    }
+
+    private CardCreateDto parse(String line, Format format) throws IOException {
+        if (format == Format.NDJSON) {
+            return objectMapper.readValue(line, CardCreateDto.class);
+        }
+        String[] f = line.split(",", -1);
+        if (f.length < 5 || f.length > 6) {
+            throw new IllegalArgumentException("Unexpected column count");
+        }
+        return new CardCreateDto(
+                f[0].trim(),
+                f[1].trim(),
+                Long.valueOf(f[2].trim()),
+                LocalDate.parse(f[3].trim()),
+                new BigDecimal(f[4].trim()),
+                f.length == 6 && !f[5].isBlank() ? f[5].trim() : null
+        );
+    }
+
+    private static final class Row {
+        private final long line;
+        private final CardCreateDto dto;
+        private String encrypted;
+
+        private Row(long line, CardCreateDto dto) {
+            this.line = line;
+            this.dto = dto;
+        }
+    }
+
+    private final class Progress {
+        private long processed;
+        private long created;
+        private long failed;
+
+        void reject(OutputStream out, long line, String message) throws IOException {
+            failed++;
+            writeLine(out, BulkImportEventDto.error(line, message));
+        }
+
+        void write(OutputStream out, String type) throws IOException {
+            writeLine(out, BulkImportEventDto.progress(type, processed, created, failed));
+            out.flush();
+        }
+
+        private void writeLine(OutputStream out, BulkImportEventDto event) throws IOException {
+            out.write(objectMapper.writeValueAsBytes(event));
+            out.write('\n');
+        }
+    }
+}
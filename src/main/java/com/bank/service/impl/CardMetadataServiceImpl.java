@@ -0,0 +1,102 @@
+package com.bank.service.impl;
+
+import com.bank.enums.CardStatus;
+import com.bank.exception.BusinessException;
+import com.bank.exception.ErrorCode;
+import com.bank.service.CardMetadataService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+
+/**
+ * Метаданные читаются одним запросом в режиме autocommit, вне транзакции, и кэшируются
+ * в Caffeine. Владелец и срок действия карты не меняются; статус меняется на этом узле через
+ * {@link CardServiceImpl}, который сбрасывает запись. Изменение статуса на другом узле
+ * становится видно не позже чем через {@code transfers.precheck.ttl-ms}: до этого
+ * разблокированная там карта может ещё отклоняться здесь, заблокированная — дойдёт до
+ * проверки под блокировкой и будет отклонена ею.
+ */
+@Service
+public class CardMetadataServiceImpl implements CardMetadataService {
+
+    private static final String SELECT_SQL = "SELECT user_id, status, expiry_date FROM cards WHERE id = ?";
+
+    record CardMetadata(Long userId, CardStatus status, LocalDate expiryDate) {
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Cache<Long, CardMetadata> cards;
+
+    public CardMetadataServiceImpl(JdbcTemplate jdbcTemplate,
+                                   @Value("${transfers.precheck.cache-size:100000}") long cacheSize,
+                                   @Value("${transfers.precheck.ttl-ms:5000}") long ttlMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.cards = Caffeine.newBuilder()
+                .maximumSize(cacheSize)
+                .expireAfterWrite(Duration.ofMillis(ttlMillis))
+                .build();
+    }
+
+    /**
+     * Порядок проверок совпадает с проверкой под блокировкой, поэтому клиент получает ту же ошибку.
+     */
+    @Override
+    public void precheckTransfer(Long userId, Long fromCardId, Long toCardId) {
+        CardMetadata from = get(fromCardId);
+        if (from == null) {
+            throw new BusinessException(ErrorCode.FROM_CARD_NOT_FOUND);
+        }
+        CardMetadata to = get(toCardId);
+        if (to == null) {
+            throw new BusinessException(ErrorCode.TO_CARD_NOT_FOUND);
+        }
+        if (!from.userId().equals(userId) || !to.userId().equals(userId)) {
+            throw new BusinessException(ErrorCode.CARDS_OF_DIFFERENT_USERS);
+        }
+        if (from.status() != CardStatus.ACTIVE || to.status() != CardStatus.ACTIVE) {
+            throw new BusinessException(ErrorCode.CARDS_NOT_ACTIVE);
+        }
+        LocalDate today = LocalDate.now();
+        if (from.expiryDate().isBefore(today) || to.expiryDate().isBefore(today)) {
+            throw new BusinessException(ErrorCode.CARD_EXPIRED);
+        }
+    }
+
+    @Override
+    public void evict(Long cardId) {
+        cards.invalidate(cardId);
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    cards.invalidate(cardId);
+                }
+            });
+        }
+    }
+
+    /**
+     * @return метаданные карты или {@code null}, если карты нет; отсутствие не кэшируется
+     */
+    private CardMetadata get(Long cardId) {
+        return cards.get(cardId, this::load);
+    }
+
+    private CardMetadata load(Long cardId) {
+        List<CardMetadata> rows = jdbcTemplate.query(SELECT_SQL,
+                (rs, i) -> new CardMetadata(
+                        rs.getLong("user_id"),
+                        CardStatus.valueOf(rs.getString("status")),
+                        rs.getDate("expiry_date").toLocalDate()),
+                cardId);
+        return rows.isEmpty() ? null : rows.get(0);
+    }
+}
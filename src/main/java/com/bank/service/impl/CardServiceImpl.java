@@ -3,33 +3,45 @@ package com.bank.service.impl;
 import com.bank.dto.*;
 import com.bank.entity.*;
 import com.bank.enums.CardStatus;
-import com.bank.exception.CommonException;
+import com.bank.event.CardChangedEvent;
+import com.bank.exception.BusinessException;
+import com.bank.exception.ErrorCode;
 import com.bank.repository.CardRepository;
+import com.bank.service.ApproximateCountService;
+import com.bank.service.CardMetadataService;
 import com.bank.service.CardService;
+import com.bank.service.CardSummaryService;
 import com.bank.util.CardUtils;
+import com.bank.util.PageUtils;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NullMarked;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import java.time.LocalDate;
+import java.util.List;
 
 @RequiredArgsConstructor
 @Service
 public class CardServiceImpl implements CardService {
 
     private final CardRepository cardRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApproximateCountService approximateCountService;
+    private final CardSummaryService cardSummaryService;
+    private final CardMetadataService cardMetadataService;
 
     @Override
     @Transactional
     public CardResponseDto createCard(CardCreateDto dto) {
 
         if (dto.expiryDate().isBefore(LocalDate.now())) {
-            throw new CommonException (400, "Expiry date must be in the future");
+            throw new BusinessException(ErrorCode.CARD_EXPIRY_IN_PAST);
         }
 
         if (cardRepository.existsByCardNumberEncrypted(dto.cardNumber())) {
-            throw new CommonException (409, "Card already exists");
+            throw new BusinessException(ErrorCode.CARD_ALREADY_EXISTS);
         }
 
         CardEntity card = CardEntity.builder()
@@ -40,24 +52,33 @@ public class CardServiceImpl implements CardService {
             .status(CardStatus.ACTIVE)
             .userId(dto.userId())
             .balance(dto.initialBalance())
+            .currency(dto.currency() != null ? dto.currency() : CardUtils.DEFAULT_CURRENCY)
             .build();
 
         CardEntity saved = cardRepository.save(card);
+        cardSummaryService.onCardsCreated(saved.getUserId(), saved.getCurrency(), saved.getStatus(), 1, saved.getBalance());
         return mapToDto(saved);
     }
 
     @Override
     @NullMarked
+    @Transactional(readOnly = true)
     public Page<CardResponseDto> getUserCards(Long userId, Pageable pageable) {
-        Page<CardEntity> page = cardRepository.findAllByUserId(userId, pageable);
-        return page.map(this::mapToDto);
+        return cardRepository.findCardViewsByUserId(userId, pageable);
+    }
+
+    @Override
+    @NullMarked
+    @Transactional(readOnly = true)
+    public Slice<CardResponseDto> getUserCardsSlice(Long userId, Pageable pageable) {
+        return cardRepository.sliceCardViewsByUserId(userId, pageable);
     }
 
     @Override
     public CardResponseDto getCardForUser(Long cardId, Long userId) {
 
         CardEntity card=cardRepository.findByIdAndUserId(cardId, userId)
-                .orElseThrow(() -> new CommonException(400, "Card does not belong to user"));
+                .orElseThrow(() -> new BusinessException(ErrorCode.CARD_NOT_OWNED));
 
         return mapToDto(card);
     }
@@ -65,44 +86,60 @@ public class CardServiceImpl implements CardService {
     @Override
     @Transactional
     public void blockCard(Long id) {
-        CardEntity card = cardRepository.findById(id).orElseThrow(() -> new CommonException (404, "Card not found"));
-        card.setStatus(CardStatus.BLOCKED);
-        cardRepository.save(card);
+        changeStatus(id, CardStatus.BLOCKED);
     }
 
     @Override
     @Transactional
     public void activateCard(Long id) {
-        CardEntity card = cardRepository.findById(id).orElseThrow(() -> new CommonException (404, "Card not found"));
-        card.setStatus(CardStatus.ACTIVE);
+        changeStatus(id, CardStatus.ACTIVE);
+    }
+
+    /**
+     * Карта читается под блокировкой строки: по прочитанному статусу
+     * считается изменение сводки, и два параллельных блокирования не должны списать карту дважды.
+     * Повторная установка того же статуса ничего не меняет.
+     */
+    private void changeStatus(Long id, CardStatus status) {
+        CardEntity card = cardRepository.findByIdForUpdate(id).orElseThrow(() -> new BusinessException(ErrorCode.CARD_NOT_FOUND));
+        if (card.getStatus() == status) {
+            return;
+        }
+        cardSummaryService.onStatusChanged(card.getUserId(), card.getCurrency(), card.getStatus(), status);
+        card.setStatus(status);
         cardRepository.save(card);
+        cardMetadataService.evict(id);
+        eventPublisher.publishEvent(new CardChangedEvent(card.getUserId(), List.of(mapToDto(card))));
     }
 
+    /**
+     * Блокировка строки ждёт незавершённый перевод по карте: из сводки вычитается актуальный баланс.
+     */
     @Override
     @Transactional
     public void deleteCard(Long id) {
-        if (!cardRepository.existsById(id)) {
-            throw new CommonException(404, "Card not found");
-        }
-        cardRepository.deleteById(id);
+        CardEntity card = cardRepository.findByIdForUpdate(id).orElseThrow(() -> new BusinessException(ErrorCode.CARD_NOT_FOUND));
+        cardRepository.delete(card);
+        cardMetadataService.evict(id);
+        cardSummaryService.onCardDeleted(card.getUserId(), card.getCurrency(), card.getStatus(), card.getBalance());
     }
 
     @Override
     @NullMarked
+    @Transactional(readOnly = true)
     public Page<CardResponseDto> getAllCards(Pageable pageable) {
-        Page<CardEntity> page = cardRepository.findAll(pageable);
-        return page.map(this::mapToDto);
+        Slice<CardResponseDto> slice = cardRepository.sliceAllCardViews(pageable);
+        return PageUtils.withEstimatedTotal(slice, approximateCountService.estimate("cards"));
+    }
+
+    @Override
+    @NullMarked
+    @Transactional(readOnly = true)
+    public Slice<CardResponseDto> getAllCardsSlice(Pageable pageable) {
+        return cardRepository.sliceAllCardViews(pageable);
     }
 
     private CardResponseDto mapToDto(CardEntity e) {
-        return new CardResponseDto(
-            e.getId(),
-            e.getUserId(),
-            e.getMaskedNumber(),
-            e.getOwnerName(),
-            e.getExpiryDate(),
-            e.getStatus().name(),
-            e.getBalance()
-        );
+        return CardUtils.toResponseDto(e);
     }
 }
@@ -0,0 +1,163 @@
+package com.bank.service.impl;
+
+import com.bank.dto.CardSummaryDto;
+import com.bank.enums.CardStatus;
+import com.bank.service.CardSummaryService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Сводка обновляется через JDBC, а не через JPA: сущность для таблицы-счётчика не нужна.
+ * {@link JdbcTemplate} работает на соединении текущей JPA-транзакции.
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CardSummaryServiceImpl implements CardSummaryService {
+
+    private static final String UPSERT_SQL =
+            "INSERT INTO user_card_summary " +
+            "(user_id, currency, total_balance, active_count, blocked_count, expired_count, last_transfer_at) " +
+            "VALUES (?, ?, ?, ?, ?, ?, ?) " +
+            "ON CONFLICT (user_id, currency) DO UPDATE SET " +
+            "total_balance = user_card_summary.total_balance + EXCLUDED.total_balance, " +
+            "active_count = user_card_summary.active_count + EXCLUDED.active_count, " +
+            "blocked_count = user_card_summary.blocked_count + EXCLUDED.blocked_count, " +
+            "expired_count = user_card_summary.expired_count + EXCLUDED.expired_count, " +
+            "last_transfer_at = GREATEST(user_card_summary.last_transfer_at, EXCLUDED.last_transfer_at)";
+
+    private static final String REBUILD_SQL =
+            "INSERT INTO user_card_summary " +
+            "(user_id, currency, total_balance, active_count, blocked_count, expired_count, last_transfer_at) " +
+            "SELECT c.user_id, c.currency, SUM(c.balance), " +
+            "COUNT(*) FILTER (WHERE c.status = 'ACTIVE'), " +
+            "COUNT(*) FILTER (WHERE c.status = 'BLOCKED'), " +
+            "COUNT(*) FILTER (WHERE c.status = 'EXPIRED'), " +
+            "(SELECT MAX(t.created_at) FROM transfers t WHERE t.user_id = c.user_id) " +
+            "FROM cards c GROUP BY c.user_id, c.currency";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCardsCreated(Long userId, String currency, CardStatus status, int count, BigDecimal balance) {
+        int[] counts = new int[CardStatus.values().length];
+        counts[status.ordinal()] = count;
+        upsert(userId, currency, balance, counts, null);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onCardDeleted(Long userId, String currency, CardStatus status, BigDecimal balance) {
+        int[] counts = new int[CardStatus.values().length];
+        counts[status.ordinal()] = -1;
+        upsert(userId, currency, balance.negate(), counts, null);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onStatusChanged(Long userId, String currency, CardStatus from, CardStatus to) {
+        if (from == to) {
+            return;
+        }
+        int[] counts = new int[CardStatus.values().length];
+        counts[from.ordinal()] = -1;
+        counts[to.ordinal()] = 1;
+        upsert(userId, currency, BigDecimal.ZERO, counts, null);
+    }
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void onTransfer(Long userId, String fromCurrency, BigDecimal debited,
+                           String toCurrency, BigDecimal credited, LocalDateTime at) {
+        int[] none = new int[CardStatus.values().length];
+        if (fromCurrency.equals(toCurrency)) {
+            upsert(userId, fromCurrency, credited.subtract(debited), none, at);
+            return;
+        }
+        // строки одного пользователя обновляются в порядке валют, чтобы встречные переводы не взаимоблокировались
+        if (fromCurrency.compareTo(toCurrency) < 0) {
+            upsert(userId, fromCurrency, debited.negate(), none, at);
+            upsert(userId, toCurrency, credited, none, at);
+        } else {
+            upsert(userId, toCurrency, credited, none, at);
+            upsert(userId, fromCurrency, debited.negate(), none, at);
+        }
+    }
+
+    @Override
+    public CardSummaryDto getSummary(Long userId) {
+        Map<String, BigDecimal> balances = new LinkedHashMap<>();
+        long[] totals = new long[CardStatus.values().length];
+        LocalDateTime[] lastTransferAt = new LocalDateTime[1];
+
+        jdbcTemplate.query(
+                "SELECT currency, total_balance, active_count, blocked_count, expired_count, last_transfer_at " +
+                "FROM user_card_summary WHERE user_id = ? ORDER BY currency",
+                rs -> {
+                    int active = rs.getInt("active_count");
+                    int blocked = rs.getInt("blocked_count");
+                    int expired = rs.getInt("expired_count");
+                    if (active + blocked + expired > 0) {
+                        balances.put(rs.getString("currency"), rs.getBigDecimal("total_balance"));
+                    }
+                    totals[CardStatus.ACTIVE.ordinal()] += active;
+                    totals[CardStatus.BLOCKED.ordinal()] += blocked;
+                    totals[CardStatus.EXPIRED.ordinal()] += expired;
+
+                    Timestamp last = rs.getTimestamp("last_transfer_at");
+                    if (last != null && (lastTransferAt[0] == null || last.toLocalDateTime().isAfter(lastTransferAt[0]))) {
+                        lastTransferAt[0] = last.toLocalDateTime();
+                    }
+                },
+                userId);
+
+        return new CardSummaryDto(
+                userId,
+                balances,
+                totals[CardStatus.ACTIVE.ordinal()],
+                totals[CardStatus.BLOCKED.ordinal()],
+                totals[CardStatus.EXPIRED.ordinal()],
+                lastTransferAt[0]
+        );
+    }
+
+    /**
+     * Блокировка таблицы на время пересчёта: параллельные инкременты дождутся его окончания
+     * и применятся поверх пересчитанных значений, а уже начатые — завершатся до него.
+     */
+    @Override
+    @Transactional
+    @Scheduled(cron = "${cards.summary.rebuild-cron:-}")
+    public int rebuild() {
+        jdbcTemplate.execute("LOCK TABLE user_card_summary IN EXCLUSIVE MODE");
+        jdbcTemplate.update("DELETE FROM user_card_summary");
+        int rows = jdbcTemplate.update(REBUILD_SQL);
+        log.info("User card summary rebuilt: {} rows", rows);
+        return rows;
+    }
+
+    private void upsert(Long userId, String currency, BigDecimal balance, int[] counts, LocalDateTime lastTransferAt) {
+        jdbcTemplate.update(UPSERT_SQL,
+                userId,
+                currency,
+                balance,
+                counts[CardStatus.ACTIVE.ordinal()],
+                counts[CardStatus.BLOCKED.ordinal()],
+                counts[CardStatus.EXPIRED.ordinal()],
+                new SqlParameterValue(Types.TIMESTAMP, lastTransferAt != null ? Timestamp.valueOf(lastTransferAt) : null));
+    }
+}
@@ -0,0 +1,305 @@
+package com.bank.service.impl;
+
+import com.bank.dto.TransferDto;
+import com.bank.service.ExportService;
+import com.bank.service.TransferArchiveService;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ResultSetExtractor;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.sql.ResultSet;
+import java.sql.ResultSetMetaData;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.time.LocalDateTime;
+
+@Service
+public class ExportServiceImpl implements ExportService {
+
+    private static final String CARDS_SQL =
+            "SELECT id, masked_number, owner_name, expiry_date, status, user_id, balance, currency " +
+            "FROM cards ORDER BY id";
+
+    private static final String TRANSFERS_SQL =
+            "SELECT id, user_id, from_card_id, to_card_id, amount, credited_amount, exchange_rate, created_at " +
+            "FROM transfers ORDER BY id";
+
+    /** Строки раньше горизонта берутся из архива, даже если ещё не удалены из базы. */
+    private static final String TRANSFERS_AFTER_SQL =
+            "SELECT id, user_id, from_card_id, to_card_id, amount, credited_amount, exchange_rate, created_at " +
+            "FROM transfers WHERE created_at >= ? ORDER BY id";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectMapper objectMapper;
+    private final TransferArchiveService transferArchiveService;
+
+    public ExportServiceImpl(DataSource dataSource,
+                             PlatformTransactionManager transactionManager,
+                             ObjectMapper objectMapper,
+                             TransferArchiveService transferArchiveService,
+                             @Value("${export.fetch-size:1000}") int fetchSize) {
+        // отдельный JdbcTemplate: размер выборки включает серверный курсор PostgreSQL
+        // (работает только внутри транзакции, т.е. при выключенном autocommit)
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(fetchSize);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.objectMapper = objectMapper;
+        this.transferArchiveService = transferArchiveService;
+    }
+
+    @Override
+    public void exportCards(Format format, OutputStream out) throws IOException {
+        export(CARDS_SQL, null, format, out);
+    }
+
+    /**
+     * Горизонт читается один раз: архивные месяцы выгружаются из сегментов, остальное — из базы
+     * с {@code created_at >= горизонт}, поэтому месяц, ещё не удалённый из базы после архивации,
+     * не попадает в выгрузку дважды.
+     */
+    @Override
+    public void exportTransfers(Format format, OutputStream out) throws IOException {
+        LocalDateTime horizon = transferArchiveService.getHorizon();
+        if (horizon == null) {
+            export(TRANSFERS_SQL, null, format, out);
+        } else {
+            export(TRANSFERS_AFTER_SQL, horizon, format, out);
+        }
+    }
+
+    /**
+     * @param archivedBefore если задан, перед строками запроса выгружаются архивные переводы до этой границы
+     */
+    private void export(String sql, LocalDateTime archivedBefore, Format format, OutputStream out) throws IOException {
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8), 64 * 1024);
+        Object[] args = archivedBefore == null ? new Object[0] : new Object[]{Timestamp.valueOf(archivedBefore)};
+        try {
+            readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(sql, (ResultSetExtractor<Void>) rs -> {
+                try {
+                    RowWriter rowWriter = format == Format.CSV ? new CsvRowWriter(writer) : new NdjsonRowWriter(writer);
+                    rowWriter.begin(rs.getMetaData());
+                    if (archivedBefore != null) {
+                        transferArchiveService.forEachBefore(archivedBefore, row -> {
+                            try {
+                                rowWriter.write(archivedValues(row));
+                            } catch (IOException e) {
+                                throw new UncheckedIOException(e);
+                            }
+                        });
+                    }
+                    while (rs.next()) {
+                        rowWriter.write(rs);
+                    }
+                    rowWriter.finish();
+                } catch (IOException e) {
+                    throw new UncheckedIOException(e);
+                }
+                return null;
+            }, args));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+    }
+
+    /**
+     * Значения в порядке колонок {@link #TRANSFERS_SQL}; время — в том же виде, что отдаёт драйвер.
+     */
+    private static Object[] archivedValues(TransferDto row) {
+        return new Object[]{
+                row.getId(), row.getUserId(), row.getFromCardId(), row.getToCardId(),
+                row.getAmount(), row.getCreditedAmount(), row.getExchangeRate(),
+                row.getCreatedAt() != null ? Timestamp.valueOf(row.getCreatedAt()).toString() : null
+        };
+    }
+
+    private interface RowWriter {
+        void begin(ResultSetMetaData meta) throws SQLException, IOException;
+
+        void write(ResultSet rs) throws SQLException, IOException;
+
+        /**
+         * Строка не из базы (архив): {@code Long}, {@code BigDecimal}, строка или {@code null}.
+         */
+        void write(Object[] values) throws IOException;
+
+        default void finish() throws IOException {
+        }
+    }
+
+    private static final class CsvRowWriter implements RowWriter {
+        private final Writer writer;
+        private int columns;
+
+        private CsvRowWriter(Writer writer) {
+            this.writer = writer;
+        }
+
+        @Override
+        public void begin(ResultSetMetaData meta) throws SQLException, IOException {
+            columns = meta.getColumnCount();
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                writer.write(meta.getColumnLabel(i));
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            for (int i = 1; i <= columns; i++) {
+                if (i > 1) {
+                    writer.write(',');
+                }
+                String value = rs.getString(i);
+                if (value != null) {
+                    writeEscaped(value);
+                }
+            }
+            writer.write('\n');
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            for (int i = 0; i < values.length; i++) {
+                if (i > 0) {
+                    writer.write(',');
+                }
+                if (values[i] instanceof BigDecimal decimal) {
+                    writer.write(decimal.toPlainString());
+                } else if (values[i] != null) {
+                    writeEscaped(values[i].toString());
+                }
+            }
+            writer.write('\n');
+        }
+
+        private void writeEscaped(String value) throws IOException {
+            boolean quote = false;
+            for (int i = 0; i < value.length() && !quote; i++) {
+                char c = value.charAt(i);
+                quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+            }
+            if (!quote) {
+                writer.write(value);
+                return;
+            }
+            writer.write('"');
+            writer.write(value.replace("\"", "\"\""));
+            writer.write('"');
+        }
+    }
+
+    private final class NdjsonRowWriter implements RowWriter {
+        private final JsonGenerator generator;
+        private String[] names;
+        private int[] types;
+
+        private NdjsonRowWriter(Writer writer) throws IOException {
+            this.generator = objectMapper.getFactory().createGenerator(writer);
+            this.generator.setRootValueSeparator(null);
+            this.generator.disable(JsonGenerator.Feature.AUTO_CLOSE_TARGET);
+        }
+
+        @Override
+        public void begin(ResultSetMetaData meta) throws SQLException {
+            int columns = meta.getColumnCount();
+            names = new String[columns];
+            types = new int[columns];
+            for (int i = 0; i < columns; i++) {
+                names[i] = toCamelCase(meta.getColumnLabel(i + 1));
+                types[i] = meta.getColumnType(i + 1);
+            }
+        }
+
+        @Override
+        public void write(ResultSet rs) throws SQLException, IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                generator.writeFieldName(names[i]);
+                switch (types[i]) {
+                    case Types.BIGINT, Types.INTEGER -> {
+                        long value = rs.getLong(i + 1);
+                        if (rs.wasNull()) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeNumber(value);
+                        }
+                    }
+                    case Types.NUMERIC, Types.DECIMAL -> {
+                        BigDecimal value = rs.getBigDecimal(i + 1);
+                        if (value == null) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeNumber(value);
+                        }
+                    }
+                    default -> {
+                        String value = rs.getString(i + 1);
+                        if (value == null) {
+                            generator.writeNull();
+                        } else {
+                            generator.writeString(value);
+                        }
+                    }
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void write(Object[] values) throws IOException {
+            generator.writeStartObject();
+            for (int i = 0; i < names.length; i++) {
+                generator.writeFieldName(names[i]);
+                switch (values[i]) {
+                    case null -> generator.writeNull();
+                    case Long value -> generator.writeNumber(value);
+                    case BigDecimal value -> generator.writeNumber(value);
+                    default -> generator.writeString(values[i].toString());
+                }
+            }
+            generator.writeEndObject();
+            generator.writeRaw('\n');
+        }
+
+        @Override
+        public void finish() throws IOException {
+            generator.flush();
+        }
+
+        private static String toCamelCase(String column) {
+            StringBuilder sb = new StringBuilder(column.length());
+            boolean upper = false;
+            for (char c : column.toCharArray()) {
+                if (c == '_') {
+                    upper = true;
+                } else {
+                    sb.append(upper ? Character.toUpperCase(c) : c);
+                    upper = false;
+                }
+            }
+            return sb.toString();
+        }
+    }
+}
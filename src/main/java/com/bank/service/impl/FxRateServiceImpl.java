@@ -0,0 +1,90 @@
+package com.bank.service.impl;
+
+import com.bank.entity.FxRateEntity;
+import com.bank.exception.BusinessException;
+import com.bank.exception.ErrorCode;
+import com.bank.repository.FxRateRepository;
+import com.bank.service.FxRateService;
+import com.bank.util.FxRateSnapshot;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class FxRateServiceImpl implements FxRateService {
+
+    private final FxRateRepository fxRateRepository;
+
+    @Value("${fx.rates-file:}")
+    private String ratesFile;
+
+    private volatile FxRateSnapshot snapshot = FxRateSnapshot.EMPTY;
+
+    @Override
+    public BigDecimal getRate(String from, String to) {
+        BigDecimal rate = snapshot.rate(from, to);
+        if (rate == null) {
+            throw new BusinessException(ErrorCode.FX_RATE_UNAVAILABLE);
+        }
+        return rate;
+    }
+
+    @Override
+    @Scheduled(initialDelay = 0, fixedDelayString = "${fx.refresh-interval-ms:300000}")
+    public void refresh() {
+        try {
+            List<FxRateSnapshot.Entry> entries = ratesFile == null || ratesFile.isBlank()
+                    ? loadFromDatabase()
+                    : loadFromFile(Path.of(ratesFile));
+
+            FxRateSnapshot fresh = FxRateSnapshot.of(entries);
+            snapshot = fresh;
+            log.debug("FX rates refreshed: {} currencies", fresh.currencies());
+        } catch (Exception e) {
+            log.warn("FX rates refresh failed, keeping previous snapshot", e);
+        }
+    }
+
+    private List<FxRateSnapshot.Entry> loadFromDatabase() {
+        List<FxRateSnapshot.Entry> entries = new ArrayList<>();
+        for (FxRateEntity e : fxRateRepository.findAll()) {
+            entries.add(new FxRateSnapshot.Entry(e.getBaseCurrency(), e.getQuoteCurrency(), e.getRate()));
+        }
+        return entries;
+    }
+
+    /**
+     * Формат файла: по одной паре в строке {@code BASE,QUOTE,RATE}, строки с {@code #} — комментарии.
+     */
+    private List<FxRateSnapshot.Entry> loadFromFile(Path path) throws IOException {
+        List<FxRateSnapshot.Entry> entries = new ArrayList<>();
+        for (String line : Files.readAllLines(path)) {
+            String trimmed = line.trim();
+            if (trimmed.isEmpty() || trimmed.startsWith("#")) {
+                continue;
+            }
+            String[] parts = trimmed.split(",");
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Malformed FX rate line: " + line);
+            }
+            entries.add(new FxRateSnapshot.Entry(
+                    parts[0].trim().toUpperCase(Locale.ROOT),
+                    parts[1].trim().toUpperCase(Locale.ROOT),
+                    new BigDecimal(parts[2].trim())
+            ));
+        }
+        return entries;
+    }
+}
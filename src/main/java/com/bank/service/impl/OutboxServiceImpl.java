@@ -0,0 +1,170 @@
+package com.bank.service.impl;
+
+import com.bank.entity.OutboxEventEntity;
+import com.bank.entity.TransferEntity;
+import com.bank.event.OutboxSink;
+import com.bank.event.TransferEvent;
+import com.bank.repository.OutboxEventRepository;
+import com.bank.service.OutboxService;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class OutboxServiceImpl implements OutboxService {
+
+    private final OutboxEventRepository outboxEventRepository;
+    private final List<OutboxSink> sinks;
+    private final ObjectMapper objectMapper;
+    private final TransactionTemplate transactionTemplate;
+
+    @Value("${outbox.batch-size:200}")
+    private int batchSize;
+
+    @Value("${outbox.partition-buckets:1024}")
+    private int partitionBuckets;
+
+    @Value("${outbox.retention-ms:604800000}")
+    private long retentionMillis;
+
+    @Value("${outbox.purge-batch-size:5000}")
+    private int purgeBatchSize;
+
+    @Override
+    @Transactional(propagation = Propagation.MANDATORY)
+    public void enqueueTransfer(TransferEntity transfer) {
+        TransferEvent event = new TransferEvent(
+                null,
+                transfer.getId(),
+                transfer.getUser().getId(),
+                transfer.getFromCard().getId(),
+                transfer.getToCard().getId(),
+                transfer.getAmount(),
+                transfer.getCreditedAmount(),
+                transfer.getExchangeRate(),
+                transfer.getCreatedAt()
+        );
+
+        outboxEventRepository.save(OutboxEventEntity.builder()
+                .partitionKey(event.userId())
+                .eventType(TransferEvent.TYPE)
+                .payload(toJson(event))
+                .createdAt(LocalDateTime.now())
+                .build());
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${outbox.relay-interval-ms:500}")
+    public int relay() {
+        int total = 0;
+        while (true) {
+            Integer published;
+            try {
+                published = transactionTemplate.execute(status -> relayBatch());
+            } catch (Exception e) {
+                log.warn("Outbox relay batch failed, will retry", e);
+                break;
+            }
+            if (published == null || published == 0) {
+                break;
+            }
+            total += published;
+            if (published < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    /**
+     * Каждая пачка удаляется в своей транзакции: без долгих блокировок и одной огромной транзакции.
+     */
+    @Override
+    @Scheduled(fixedDelayString = "${outbox.purge-interval-ms:3600000}")
+    public int purgePublished() {
+        LocalDateTime before = LocalDateTime.now().minus(Duration.ofMillis(retentionMillis));
+        int total = 0;
+        int rows;
+        do {
+            Integer deleted = transactionTemplate.execute(
+                    status -> outboxEventRepository.deletePublishedBefore(before, purgeBatchSize));
+            rows = deleted != null ? deleted : 0;
+            total += rows;
+        } while (rows == purgeBatchSize);
+
+        if (total > 0) {
+            log.info("Purged {} published outbox events", total);
+        }
+        return total;
+    }
+
+    /**
+     * Одна пачка в одной транзакции: захват строк, доставка во все приёмники, отметка о публикации.
+     * Исключение любого приёмника откатывает транзакцию — строки останутся неопубликованными.
+     */
+    private int relayBatch() {
+        List<OutboxEventEntity> claimed = outboxEventRepository.claimBatch(batchSize, partitionBuckets);
+        if (claimed.isEmpty()) {
+            return 0;
+        }
+
+        List<TransferEvent> events = new ArrayList<>(claimed.size());
+        List<Long> ids = new ArrayList<>(claimed.size());
+        for (OutboxEventEntity e : claimed) {
+            events.add(fromJson(e));
+            ids.add(e.getId());
+        }
+
+        for (OutboxSink sink : sinks) {
+            try {
+                sink.publish(events);
+            } catch (Exception ex) {
+                throw new IllegalStateException("Outbox sink " + sink.getClass().getSimpleName() + " failed", ex);
+            }
+        }
+
+        outboxEventRepository.markPublished(ids, LocalDateTime.now());
+        return claimed.size();
+    }
+
+    private String toJson(TransferEvent event) {
+        try {
+            return objectMapper.writeValueAsString(event);
+        } catch (JsonProcessingException e) {
+            throw new IllegalStateException("Cannot serialize transfer event", e);
+        }
+    }
+
+    private TransferEvent fromJson(OutboxEventEntity e) {
+        try {
+            TransferEvent payload = objectMapper.readValue(e.getPayload(), TransferEvent.class);
+            return new TransferEvent(
+                    e.getId(),
+                    payload.transferId(),
+                    payload.userId(),
+                    payload.fromCardId(),
+                    payload.toCardId(),
+                    payload.amount(),
+                    payload.creditedAmount(),
+                    payload.exchangeRate(),
+                    payload.createdAt()
+            );
+        } catch (JsonProcessingException ex) {
+            throw new IllegalStateException("Cannot deserialize outbox event " + e.getId(), ex);
+        }
+    }
+}
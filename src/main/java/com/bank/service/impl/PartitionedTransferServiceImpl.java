@@ -0,0 +1,302 @@
+package com.bank.service.impl;
+
+import com.bank.dto.TransferDto;
+import com.bank.dto.TransferRequestDto;
+import com.bank.dto.TransferResponseDto;
+import com.bank.exception.BusinessException;
+import com.bank.exception.CommonException;
+import com.bank.exception.ErrorCode;
+import com.bank.service.CardMetadataService;
+import com.bank.service.TransferService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.jspecify.annotations.NullMarked;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Primary;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.TransactionSystemException;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Асинхронный движок переводов с групповой фиксацией ({@code transfers.engine.mode: partitioned}).
+ *
+ * <p>Переводы распределяются по {@code partitions} разделам по ID владельца карт: обе карты
+ * перевода принадлежат одному пользователю, поэтому каждую карту пишет только один раздел.
+ * У раздела своя ограниченная очередь и один поток. Поток набирает пачку до {@code max-batch}
+ * переводов или пока не пройдёт {@code max-wait-us} с первого из них и выполняет её через
+ * {@link TransferServiceImpl#transferBatch} одной транзакцией: одна блокировка строк карт и один
+ * COMMIT на пачку вместо пары на каждый перевод. Результат вызывающего завершается после фиксации.</p>
+ *
+ * <p>Балансы не кэшируются между пачками: внутри пачки переводы применяются к заблокированным
+ * строкам в памяти, поэтому запись мимо движка (другой узел, регулярные переводы, администратор)
+ * остаётся безопасной.</p>
+ *
+ * <p>Заведомо невалидный перевод отклоняется до постановки в очередь, см. {@link CardMetadataService}.
+ * Вызов внутри уже открытой транзакции выполняется синхронно в ней, как раньше: иначе перевод
+ * зафиксировался бы отдельно от транзакции вызывающего (например, запуска регулярного перевода).</p>
+ *
+ * <p>Отдельного журнала у движка нет: ответ вызывающему уходит только после COMMIT в БД, так что
+ * подтверждённый перевод уже надёжен. Перевод, стоявший в очереди при падении узла, не применяется
+ * ни сейчас, ни позже: вызывающий не получил ответа и может безопасно повторить запрос.</p>
+ */
+@Slf4j
+@Service
+@Primary
+@ConditionalOnProperty(name = "transfers.engine.mode", havingValue = "partitioned")
+public class PartitionedTransferServiceImpl implements TransferService {
+
+    private static final long IDLE_POLL_MILLIS = 100;
+    private static final long SHUTDOWN_WAIT_MILLIS = 10000;
+
+    private record Request(Long userId, TransferRequestDto dto, CompletableFuture<TransferResponseDto> result) {
+    }
+
+    private final TransferServiceImpl transferService;
+    private final CardMetadataService cardMetadataService;
+    private final int maxBatch;
+    private final long maxWaitNanos;
+    private final Partition[] partitions;
+
+    private final DistributionSummary batchSize;
+    private final Counter fallbacks;
+
+    private volatile boolean running;
+
+    public PartitionedTransferServiceImpl(TransferServiceImpl transferService,
+                                          CardMetadataService cardMetadataService,
+                                          MeterRegistry meterRegistry,
+                                          @Value("${transfers.engine.partitions:4}") int partitionCount,
+                                          @Value("${transfers.engine.max-batch:64}") int maxBatch,
+                                          @Value("${transfers.engine.max-wait-us:500}") long maxWaitMicros,
+                                          @Value("${transfers.engine.queue-capacity:1024}") int queueCapacity) {
+        this.transferService = transferService;
+        this.cardMetadataService = cardMetadataService;
+        this.maxBatch = maxBatch;
+        this.maxWaitNanos = TimeUnit.MICROSECONDS.toNanos(maxWaitMicros);
+
+        this.batchSize = DistributionSummary.builder("transfers.engine.batch_size").register(meterRegistry);
+        this.fallbacks = Counter.builder("transfers.engine.fallbacks").register(meterRegistry);
+        Gauge.builder("transfers.engine.queued", this, PartitionedTransferServiceImpl::queued).register(meterRegistry);
+
+        this.partitions = new Partition[partitionCount];
+        for (int i = 0; i < partitionCount; i++) {
+            partitions[i] = new Partition(i, queueCapacity);
+        }
+    }
+
+    @Override
+    public TransferResponseDto transferBetweenOwnCards(Long userId, TransferRequestDto dto) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transferService.transferBetweenOwnCards(userId, dto);
+        }
+        try {
+            return transferBetweenOwnCardsAsync(userId, dto).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+
+    @Override
+    public CompletableFuture<TransferResponseDto> transferBetweenOwnCardsAsync(Long userId, TransferRequestDto dto) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()) {
+            return transferService.transferBetweenOwnCardsAsync(userId, dto);
+        }
+        try {
+            if (dto.fromCardId().equals(dto.toCardId())) {
+                throw new BusinessException(ErrorCode.SAME_CARD);
+            }
+            cardMetadataService.precheckTransfer(userId, dto.fromCardId(), dto.toCardId());
+        } catch (CommonException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+
+        if (!running) {
+            return CompletableFuture.failedFuture(new BusinessException(ErrorCode.TRANSFER_ENGINE_STOPPED));
+        }
+        Request request = new Request(userId, dto, new CompletableFuture<>());
+        if (!partitions[Math.floorMod(userId, partitions.length)].queue.offer(request)) {
+            return CompletableFuture.failedFuture(new BusinessException(ErrorCode.TRANSFER_QUEUE_FULL));
+        }
+        return request.result();
+    }
+
+    @Override
+    @NullMarked
+    public Page<TransferDto> getAll(Pageable pageable) {
+        return transferService.getAll(pageable);
+    }
+
+    @Override
+    @NullMarked
+    public Slice<TransferDto> getAllSlice(Pageable pageable) {
+        return transferService.getAllSlice(pageable);
+    }
+
+    @Override
+    public Page<TransferDto> getAllBetween(LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        return transferService.getAllBetween(from, to, pageable);
+    }
+
+    @Override
+    public Slice<TransferDto> getAllBetweenSlice(LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        return transferService.getAllBetweenSlice(from, to, pageable);
+    }
+
+    /**
+     * Потоки разделов запускаются после создания бина, а не в конструкторе: до этого переводы
+     * не принимаются.
+     */
+    @PostConstruct
+    void start() {
+        running = true;
+        for (Partition partition : partitions) {
+            partition.thread.start();
+        }
+    }
+
+    /**
+     * Новые переводы больше не принимаются; уже поставленные в очередь выполняются до конца.
+     */
+    @PreDestroy
+    void shutdown() throws InterruptedException {
+        running = false;
+        long deadline = System.currentTimeMillis() + SHUTDOWN_WAIT_MILLIS;
+        for (Partition partition : partitions) {
+            partition.thread.join(Math.max(1, deadline - System.currentTimeMillis()));
+        }
+        for (Partition partition : partitions) {
+            Request request;
+            while ((request = partition.queue.poll()) != null) {
+                request.result().completeExceptionally(new BusinessException(ErrorCode.TRANSFER_ENGINE_STOPPED));
+            }
+        }
+    }
+
+    private double queued() {
+        int total = 0;
+        for (Partition partition : partitions) {
+            total += partition.queue.size();
+        }
+        return total;
+    }
+
+    /**
+     * Пачка выполняется одной транзакцией. Бизнес-ошибки переводов возвращаются в итогах пачки;
+     * если же пачку откатила ошибка, которую может вызвать один перевод (нарушение ограничения
+     * в БД, бизнес-ошибка вне проверок), переводы повторяются по одному, чтобы он не отклонял
+     * соседей. Остальные сбои (соединение, неожиданный откат, сбой COMMIT) относятся ко всей
+     * пачке и не повторяются: повтор по одному их не исправит, а при сбое COMMIT исход неизвестен,
+     * и повтор мог бы провести перевод дважды.
+     */
+    private void commit(List<Request> batch) {
+        batchSize.record(batch.size());
+        List<TransferServiceImpl.BatchOutcome> outcomes;
+        try {
+            outcomes = transferService.transferBatch(batch.stream()
+                    .map(r -> new TransferServiceImpl.BatchItem(r.userId(), r.dto()))
+                    .toList());
+        } catch (TransactionSystemException e) {
+            log.error("Transfer group commit of {} transfers failed with unknown outcome", batch.size(), e);
+            batch.forEach(r -> r.result().completeExceptionally(e));
+            return;
+        } catch (DataIntegrityViolationException | CommonException e) {
+            log.warn("Transfer group commit of {} transfers failed, retrying one by one", batch.size(), e);
+            fallbacks.increment();
+            for (Request r : batch) {
+                try {
+                    r.result().complete(transferService.transferBetweenOwnCards(r.userId(), r.dto()));
+                } catch (RuntimeException single) {
+                    r.result().completeExceptionally(single);
+                }
+            }
+            return;
+        }
+        for (int i = 0; i < batch.size(); i++) {
+            TransferServiceImpl.BatchOutcome outcome = outcomes.get(i);
+            if (outcome.error() != null) {
+                batch.get(i).result().completeExceptionally(outcome.error());
+            } else {
+                batch.get(i).result().complete(outcome.response());
+            }
+        }
+    }
+
+    private final class Partition implements Runnable {
+
+        private final BlockingQueue<Request> queue;
+        private final Thread thread;
+
+        private Partition(int index, int queueCapacity) {
+            this.queue = new ArrayBlockingQueue<>(queueCapacity);
+            this.thread = new Thread(this, "transfer-partition-" + index);
+            thread.setDaemon(true);
+        }
+
+        @Override
+        public void run() {
+            List<Request> batch = new ArrayList<>(maxBatch);
+            while (running || !queue.isEmpty()) {
+                try {
+                    Request first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+                    if (first == null) {
+                        continue;
+                    }
+                    batch.add(first);
+                    collect(batch, System.nanoTime() + maxWaitNanos);
+                    commit(batch);
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    batch.forEach(r -> r.result().completeExceptionally(new BusinessException(ErrorCode.TRANSFER_ENGINE_STOPPED)));
+                    return;
+                } catch (RuntimeException e) {
+                    log.error("Transfer partition {} failed to process a batch", thread.getName(), e);
+                    batch.forEach(r -> r.result().completeExceptionally(e));
+                } finally {
+                    batch.clear();
+                }
+            }
+        }
+
+        /**
+         * Добирает пачку: сначала всё, что уже лежит в очереди, затем ждёт новые переводы до срока.
+         */
+        private void collect(List<Request> batch, long deadline) throws InterruptedException {
+            while (batch.size() < maxBatch) {
+                if (queue.drainTo(batch, maxBatch - batch.size()) > 0) {
+                    continue;
+                }
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return;
+                }
+                Request next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+                if (next == null) {
+                    return;
+                }
+                batch.add(next);
+            }
+        }
+    }
+}
@@ -0,0 +1,231 @@
+package com.bank.service.impl;
+
+import com.bank.entity.UserEntity;
+import com.bank.exception.BusinessException;
+import com.bank.exception.ErrorCode;
+import com.bank.security.JwtService;
+import com.bank.service.RefreshTokenService;
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.sql.Timestamp;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Таблица {@code refresh_tokens} остаётся источником истины, кэш лишь избавляет от чтения.
+ * Ротация выполняется одним условным запросом: старый токен заменяется, только если он
+ * ещё активен, и новый вставляется в той же инструкции. Поэтому устаревший кэш на другом
+ * узле не пропустит заменённый или отозванный токен — запрос не изменит ни одной строки,
+ * и состояние будет перечитано из таблицы.
+ */
+@Slf4j
+@Service
+public class RefreshTokenServiceImpl implements RefreshTokenService {
+
+    enum Status { ACTIVE, ROTATED, REVOKED }
+
+    record TokenState(long userId, UUID familyId, Status status) {
+
+        TokenState withStatus(Status status) {
+            return new TokenState(userId, familyId, status);
+        }
+    }
+
+    private static final String INSERT_SQL =
+            "INSERT INTO refresh_tokens (jti, family_id, user_id, status, expires_at) VALUES (?, ?, ?, 'ACTIVE', ?)";
+
+    private static final String ROTATE_SQL =
+            "WITH old AS (" +
+            "UPDATE refresh_tokens SET status = 'ROTATED' WHERE jti = ? AND status = 'ACTIVE' " +
+            "RETURNING family_id, user_id) " +
+            "INSERT INTO refresh_tokens (jti, family_id, user_id, status, expires_at) " +
+            "SELECT ?, family_id, user_id, 'ACTIVE', ? FROM old";
+
+    private static final String REVOKE_FAMILY_SQL =
+            "UPDATE refresh_tokens SET status = 'REVOKED' WHERE family_id = ? AND status <> 'REVOKED'";
+
+    private static final String REVOKE_USER_SQL =
+            "UPDATE refresh_tokens SET status = 'REVOKED' WHERE user_id = ? AND status <> 'REVOKED' " +
+            "RETURNING family_id";
+
+    private static final String PURGE_SQL =
+            "DELETE FROM refresh_tokens WHERE jti IN (" +
+            "SELECT jti FROM refresh_tokens WHERE expires_at < ? LIMIT ?)";
+
+    private final JwtService jwtService;
+    private final JdbcTemplate jdbcTemplate;
+    private final int purgeBatchSize;
+
+    private final Cache<UUID, TokenState> tokens;
+    /**
+     * Отозванные семейства: токены семейства, уже лежащие в кэше, перечислить нельзя.
+     * Запись живёт не меньше любого токена, выданного до отзыва.
+     */
+    private final Cache<UUID, Boolean> revokedFamilies;
+
+    public RefreshTokenServiceImpl(JwtService jwtService,
+                                   JdbcTemplate jdbcTemplate,
+                                   @Value("${security.refresh-tokens.cache-size:100000}") long cacheSize,
+                                   @Value("${security.refresh-tokens.purge-batch-size:5000}") int purgeBatchSize) {
+        this.jwtService = jwtService;
+        this.jdbcTemplate = jdbcTemplate;
+        this.purgeBatchSize = purgeBatchSize;
+
+        Duration lifetime = Duration.ofMillis(jwtService.getRefreshExpiration());
+        this.tokens = Caffeine.newBuilder()
+                .expireAfterWrite(lifetime)
+                .maximumSize(cacheSize)
+                .build();
+        this.revokedFamilies = Caffeine.newBuilder()
+                .expireAfterWrite(lifetime)
+                .maximumSize(cacheSize)
+                .build();
+    }
+
+    @Override
+    public String issue(UserEntity user) {
+        UUID jti = UUID.randomUUID();
+        UUID familyId = UUID.randomUUID();
+        Date expiresAt = nextExpiry();
+
+        jdbcTemplate.update(INSERT_SQL, jti, familyId, user.getId(), new Timestamp(expiresAt.getTime()));
+        tokens.put(jti, new TokenState(user.getId(), familyId, Status.ACTIVE));
+        return jwtService.generateRefreshToken(user.getUsername(), jti, expiresAt);
+    }
+
+    @Override
+    public Rotation rotate(String refreshToken) {
+        Claims claims = parse(refreshToken);
+        if (claims == null) {
+            throw invalid();
+        }
+        UUID jti = UUID.fromString(claims.getId());
+
+        TokenState state = lookup(jti);
+        if (state == null) {
+            throw invalid();
+        }
+        if (state.status() != Status.ACTIVE || revokedFamilies.getIfPresent(state.familyId()) != null) {
+            rejectInactive(jti, state);
+        }
+
+        UUID next = UUID.randomUUID();
+        Date expiresAt = nextExpiry();
+        int rows = jdbcTemplate.update(ROTATE_SQL, jti, next, new Timestamp(expiresAt.getTime()));
+        if (rows == 0) {
+            // токен уже заменён или отозван на другом узле либо параллельным запросом
+            tokens.invalidate(jti);
+            TokenState actual = lookup(jti);
+            if (actual == null) {
+                throw invalid();
+            }
+            rejectInactive(jti, actual);
+        }
+
+        tokens.put(jti, state.withStatus(Status.ROTATED));
+        tokens.put(next, new TokenState(state.userId(), state.familyId(), Status.ACTIVE));
+        return new Rotation(claims.getSubject(), jwtService.generateRefreshToken(claims.getSubject(), next, expiresAt));
+    }
+
+    @Override
+    public void revoke(String refreshToken) {
+        Claims claims = parse(refreshToken);
+        if (claims == null) {
+            return;
+        }
+        TokenState state = lookup(UUID.fromString(claims.getId()));
+        if (state != null) {
+            revokeFamily(state.familyId());
+        }
+    }
+
+    @Override
+    public void revokeAllForUser(Long userId) {
+        List<UUID> families = jdbcTemplate.queryForList(REVOKE_USER_SQL, UUID.class, userId);
+        families.forEach(familyId -> revokedFamilies.put(familyId, Boolean.TRUE));
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${security.refresh-tokens.purge-interval-ms:3600000}")
+    public int purgeExpired() {
+        Timestamp now = Timestamp.valueOf(LocalDateTime.now());
+        int total = 0;
+        int rows;
+        do {
+            rows = jdbcTemplate.update(PURGE_SQL, now, purgeBatchSize);
+            total += rows;
+        } while (rows == purgeBatchSize);
+
+        if (total > 0) {
+            log.info("Purged {} expired refresh tokens", total);
+        }
+        return total;
+    }
+
+    /**
+     * Заменённый токен предъявлен повторно — отзываем семейство, в том числе выданный взамен токен.
+     */
+    private void rejectInactive(UUID jti, TokenState state) {
+        if (state.status() == Status.ROTATED && revokedFamilies.getIfPresent(state.familyId()) == null) {
+            log.warn("Refresh token {} reused, revoking family {} of user {}", jti, state.familyId(), state.userId());
+            revokeFamily(state.familyId());
+        }
+        throw invalid();
+    }
+
+    private void revokeFamily(UUID familyId) {
+        jdbcTemplate.update(REVOKE_FAMILY_SQL, familyId);
+        revokedFamilies.put(familyId, Boolean.TRUE);
+    }
+
+    private TokenState lookup(UUID jti) {
+        TokenState cached = tokens.getIfPresent(jti);
+        if (cached != null) {
+            return cached;
+        }
+        List<TokenState> rows = jdbcTemplate.query(
+                "SELECT user_id, family_id, status FROM refresh_tokens WHERE jti = ?",
+                (rs, i) -> new TokenState(
+                        rs.getLong("user_id"),
+                        rs.getObject("family_id", UUID.class),
+                        Status.valueOf(rs.getString("status"))),
+                jti);
+        if (rows.isEmpty()) {
+            return null;
+        }
+        tokens.put(jti, rows.getFirst());
+        return rows.getFirst();
+    }
+
+    private Claims parse(String refreshToken) {
+        if (refreshToken == null || refreshToken.isBlank()) {
+            return null;
+        }
+        try {
+            Claims claims = jwtService.parseRefreshToken(refreshToken);
+            UUID.fromString(claims.getId());
+            return claims;
+        } catch (JwtException | IllegalArgumentException e) {
+            return null;
+        }
+    }
+
+    private Date nextExpiry() {
+        return new Date(System.currentTimeMillis() + jwtService.getRefreshExpiration());
+    }
+
+    private static BusinessException invalid() {
+        return new BusinessException(ErrorCode.INVALID_REFRESH_TOKEN);
+    }
+}
@@ -0,0 +1,281 @@
+package com.bank.service.impl;
+
+import com.bank.dto.ScheduledTransferCreateDto;
+import com.bank.dto.ScheduledTransferDto;
+import com.bank.dto.TransferRequestDto;
+import com.bank.entity.CardEntity;
+import com.bank.entity.ScheduledTransferEntity;
+import com.bank.exception.BusinessException;
+import com.bank.exception.ErrorCode;
+import com.bank.repository.CardRepository;
+import com.bank.repository.ScheduledTransferRepository;
+import com.bank.service.ScheduledTransferService;
+import com.bank.service.TransferService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Запуск проходит в две транзакции. Захват: пачка наступивших строк блокируется
+ * с {@code SKIP LOCKED}, получает аренду {@code claimed_until} и сразу отпускается,
+ * чтобы переводы не держали блокировки всей пачки. Выполнение: на пуле исполнителей
+ * строка блокируется снова, и если {@code next_run_at} не изменился (запуск не выполнил
+ * другой узел после истечения аренды), выполняется перевод и переносится график.
+ */
+@Slf4j
+@Service
+public class ScheduledTransferServiceImpl implements ScheduledTransferService {
+
+    private enum Outcome { SUCCESS, FAILED, SKIPPED }
+
+    private final ScheduledTransferRepository scheduledTransferRepository;
+    private final CardRepository cardRepository;
+    private final TransferService transferService;
+    private final TransactionTemplate transactionTemplate;
+    private final ExecutorService workers;
+    private final int batchSize;
+    private final long leaseSeconds;
+    private final int maxFailures;
+
+    private final Map<Outcome, Counter> executed = new EnumMap<>(Outcome.class);
+    private final Counter claimed;
+    private final Timer duration;
+
+    public ScheduledTransferServiceImpl(ScheduledTransferRepository scheduledTransferRepository,
+                                        CardRepository cardRepository,
+                                        TransferService transferService,
+                                        TransactionTemplate transactionTemplate,
+                                        MeterRegistry meterRegistry,
+                                        @Value("${scheduled-transfers.workers:4}") int workerCount,
+                                        @Value("${scheduled-transfers.batch-size:100}") int batchSize,
+                                        @Value("${scheduled-transfers.lease-seconds:300}") long leaseSeconds,
+                                        @Value("${scheduled-transfers.max-failures:3}") int maxFailures) {
+        this.scheduledTransferRepository = scheduledTransferRepository;
+        this.cardRepository = cardRepository;
+        this.transferService = transferService;
+        this.transactionTemplate = transactionTemplate;
+        this.batchSize = batchSize;
+        this.leaseSeconds = leaseSeconds;
+        this.maxFailures = maxFailures;
+
+        AtomicInteger threadNumber = new AtomicInteger();
+        this.workers = Executors.newFixedThreadPool(workerCount, r -> {
+            Thread thread = new Thread(r, "scheduled-transfer-" + threadNumber.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        for (Outcome outcome : Outcome.values()) {
+            executed.put(outcome, Counter.builder("scheduled_transfers.executed")
+                    .tag("outcome", outcome.name())
+                    .register(meterRegistry));
+        }
+        this.claimed = Counter.builder("scheduled_transfers.claimed").register(meterRegistry);
+        this.duration = Timer.builder("scheduled_transfers.duration").register(meterRegistry);
+    }
+
+    @Override
+    @Transactional
+    public ScheduledTransferDto create(Long userId, ScheduledTransferCreateDto dto) {
+        if (dto.fromCardId().equals(dto.toCardId())) {
+            throw new BusinessException(ErrorCode.SAME_CARD);
+        }
+        CardEntity from = cardRepository.findById(dto.fromCardId())
+                .orElseThrow(() -> new BusinessException(ErrorCode.FROM_CARD_NOT_FOUND));
+        CardEntity to = cardRepository.findById(dto.toCardId())
+                .orElseThrow(() -> new BusinessException(ErrorCode.TO_CARD_NOT_FOUND));
+        if (!from.getUserId().equals(userId) || !to.getUserId().equals(userId)) {
+            throw new BusinessException(ErrorCode.CARDS_OF_DIFFERENT_USERS);
+        }
+
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime start = dto.startAt() != null ? dto.startAt() : now;
+        ScheduledTransferEntity schedule = scheduledTransferRepository.save(ScheduledTransferEntity.builder()
+                .userId(userId)
+                .fromCardId(from.getId())
+                .toCardId(to.getId())
+                .amount(dto.amount())
+                .frequency(dto.frequency())
+                .startAt(start)
+                .nextRunAt(start)
+                .active(true)
+                .createdAt(now)
+                .build());
+        return mapToDto(schedule);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public List<ScheduledTransferDto> getUserSchedules(Long userId) {
+        return scheduledTransferRepository.findByUserIdOrderByIdAsc(userId).stream()
+                .map(this::mapToDto)
+                .toList();
+    }
+
+    @Override
+    @Transactional
+    public void cancel(Long userId, Long id) {
+        ScheduledTransferEntity schedule = scheduledTransferRepository.findByIdAndUserId(id, userId)
+                .orElseThrow(() -> new BusinessException(ErrorCode.SCHEDULED_TRANSFER_NOT_FOUND));
+        schedule.setActive(false);
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${scheduled-transfers.poll-interval-ms:10000}")
+    public int runDue() {
+        int total = 0;
+        while (true) {
+            List<Claim> batch;
+            try {
+                batch = transactionTemplate.execute(status -> claimBatch());
+            } catch (Exception e) {
+                log.warn("Claiming scheduled transfers failed, will retry", e);
+                break;
+            }
+            if (batch == null || batch.isEmpty()) {
+                break;
+            }
+            claimed.increment(batch.size());
+
+            List<Callable<Outcome>> tasks = new ArrayList<>(batch.size());
+            for (Claim claim : batch) {
+                tasks.add(() -> duration.recordCallable(() -> execute(claim)));
+            }
+            try {
+                for (Future<Outcome> result : workers.invokeAll(tasks)) {
+                    try {
+                        executed.get(result.get()).increment();
+                    } catch (ExecutionException e) {
+                        // execute() перехватывает ошибки перевода сам; сюда попадают только сбои учёта неудачи,
+                        // такой запуск подхватит другой опрос после истечения аренды
+                        log.error("Scheduled transfer worker failed", e.getCause());
+                    }
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+
+            total += batch.size();
+            if (batch.size() < batchSize) {
+                break;
+            }
+        }
+        return total;
+    }
+
+    @PreDestroy
+    void shutdown() {
+        workers.shutdown();
+    }
+
+    private List<Claim> claimBatch() {
+        LocalDateTime now = LocalDateTime.now();
+        List<Claim> batch = new ArrayList<>();
+        for (ScheduledTransferEntity schedule : scheduledTransferRepository.claimDue(now, batchSize)) {
+            schedule.setClaimedUntil(now.plusSeconds(leaseSeconds));
+            batch.add(new Claim(schedule.getId(), schedule.getNextRunAt()));
+        }
+        return batch;
+    }
+
+    private Outcome execute(Claim claim) {
+        try {
+            Outcome outcome = transactionTemplate.execute(status -> {
+                ScheduledTransferEntity schedule = lockIfStillDue(claim);
+                if (schedule == null) {
+                    return Outcome.SKIPPED;
+                }
+                transferService.transferBetweenOwnCards(schedule.getUserId(),
+                        new TransferRequestDto(schedule.getFromCardId(), schedule.getToCardId(), schedule.getAmount()));
+
+                LocalDateTime now = LocalDateTime.now();
+                schedule.setLastRunAt(now);
+                schedule.setNextRunAt(nextRun(schedule, now));
+                schedule.setClaimedUntil(null);
+                schedule.setFailureCount(0);
+                schedule.setLastError(null);
+                return Outcome.SUCCESS;
+            });
+            return outcome != null ? outcome : Outcome.SKIPPED;
+        } catch (Exception e) {
+            log.info("Scheduled transfer {} failed: {}", claim.id(), e.getMessage());
+            transactionTemplate.executeWithoutResult(status -> recordFailure(claim, e));
+            return Outcome.FAILED;
+        }
+    }
+
+    /**
+     * Неудачный запуск не повторяется: график переносится на следующий период,
+     * чтобы, например, нехватка средств не приводила к переводу в случайный момент позже.
+     */
+    private void recordFailure(Claim claim, Exception error) {
+        ScheduledTransferEntity schedule = lockIfStillDue(claim);
+        if (schedule == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        schedule.setLastRunAt(now);
+        schedule.setNextRunAt(nextRun(schedule, now));
+        schedule.setClaimedUntil(null);
+        schedule.setFailureCount(schedule.getFailureCount() + 1);
+        String message = error.getMessage() != null ? error.getMessage() : error.getClass().getSimpleName();
+        schedule.setLastError(message.length() > 255 ? message.substring(0, 255) : message);
+        if (schedule.getFailureCount() >= maxFailures) {
+            schedule.setActive(false);
+            log.warn("Scheduled transfer {} deactivated after {} consecutive failures", schedule.getId(), maxFailures);
+        }
+    }
+
+    private ScheduledTransferEntity lockIfStillDue(Claim claim) {
+        return scheduledTransferRepository.findByIdForUpdate(claim.id())
+                .filter(ScheduledTransferEntity::isActive)
+                .filter(s -> s.getNextRunAt().equals(claim.dueAt()))
+                .orElse(null);
+    }
+
+    /**
+     * Следующий запуск по графику после текущего; пропущенные за время простоя запуски не догоняются.
+     */
+    private static LocalDateTime nextRun(ScheduledTransferEntity schedule, LocalDateTime now) {
+        LocalDateTime after = schedule.getNextRunAt().isAfter(now) ? schedule.getNextRunAt() : now;
+        return schedule.getFrequency().nextAfter(schedule.getStartAt(), after);
+    }
+
+    private ScheduledTransferDto mapToDto(ScheduledTransferEntity e) {
+        return ScheduledTransferDto.builder()
+                .id(e.getId())
+                .fromCardId(e.getFromCardId())
+                .toCardId(e.getToCardId())
+                .amount(e.getAmount())
+                .frequency(e.getFrequency())
+                .nextRunAt(e.getNextRunAt())
+                .active(e.isActive())
+                .lastRunAt(e.getLastRunAt())
+                .failureCount(e.getFailureCount())
+                .lastError(e.getLastError())
+                .build();
+    }
+
+    private record Claim(Long id, LocalDateTime dueAt) {
+    }
+}
@@ -0,0 +1,232 @@
+package com.bank.service.impl;
+
+import com.bank.security.JwtService;
+import com.bank.service.TokenRevocationService;
+import com.bank.util.BloomFilter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.SqlParameterValue;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.sql.Types;
+import java.util.Date;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Изменения (свои отзывы и прочитанные из таблицы) применяются под монитором к рабочим
+ * словарям, после чего публикуется новый неизменяемый снимок с заново построенными
+ * фильтрами Блума. Проверка токена читает только volatile-снимок и не блокируется.
+ *
+ * <p>Опрос читает строки с {@code id} больше последнего увиденного, а также строки,
+ * созданные за {@code poll-overlap-ms} до предыдущего опроса: транзакция, получившая
+ * меньший {@code id}, могла зафиксироваться позже. Повторное применение записи безвредно.</p>
+ */
+@Slf4j
+@Service
+public class TokenRevocationServiceImpl implements TokenRevocationService {
+
+    private static final double FALSE_POSITIVE_RATE = 0.01;
+
+    private static final String INSERT_SQL =
+            "INSERT INTO token_revocations (username, issued_before, jti, expires_at, created_at) VALUES (?, ?, ?, ?, ?)";
+
+    private static final String POLL_SQL =
+            "SELECT id, username, issued_before, jti, expires_at FROM token_revocations " +
+            "WHERE (id > ? OR created_at > ?) AND expires_at > ? ORDER BY id";
+
+    record Watermark(long issuedBefore, long expiresAt) {
+    }
+
+    /**
+     * Снимок для проверки токенов; фильтр равен {@code null}, если отзывов такого вида нет.
+     */
+    private record Snapshot(long version, BloomFilter users, Map<String, Long> watermarks,
+                            BloomFilter tokens, Set<String> jtis) {
+
+        static final Snapshot EMPTY = new Snapshot(0, null, Map.of(), null, Set.of());
+    }
+
+    private final JdbcTemplate jdbcTemplate;
+    private final long accessExpiration;
+    private final long pollOverlapMillis;
+
+    private final Map<String, Watermark> watermarks = new HashMap<>();
+    private final Map<String, Long> revokedJtis = new HashMap<>();
+    private long lastSeenId;
+    private long lastPollStartedAt;
+
+    private volatile Snapshot snapshot = Snapshot.EMPTY;
+
+    public TokenRevocationServiceImpl(JdbcTemplate jdbcTemplate,
+                                      JwtService jwtService,
+                                      @Value("${security.revocation.poll-overlap-ms:10000}") long pollOverlapMillis) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.accessExpiration = jwtService.getAccessExpiration();
+        this.pollOverlapMillis = pollOverlapMillis;
+    }
+
+    @Override
+    public long version() {
+        return snapshot.version();
+    }
+
+    @Override
+    public boolean isRevoked(String username, String jti, Date issuedAt) {
+        Snapshot current = snapshot;
+        if (jti != null && current.tokens() != null
+                && current.tokens().mightContain(jti) && current.jtis().contains(jti)) {
+            return true;
+        }
+        if (current.users() != null && current.users().mightContain(username)) {
+            Long issuedBefore = current.watermarks().get(username);
+            return issuedBefore != null && (issuedAt == null || issuedAt.getTime() <= issuedBefore);
+        }
+        return false;
+    }
+
+    /**
+     * {@code iat} в токене хранится с точностью до секунды, поэтому токен, выданный в ту же
+     * секунду сразу после отзыва, тоже будет считаться отозванным — пользователю придётся войти ещё раз.
+     */
+    @Override
+    public void revokeUser(String username) {
+        long now = System.currentTimeMillis();
+        long expiresAt = now + accessExpiration;
+        insert(username, now, null, expiresAt, now);
+        afterCommit(() -> {
+            synchronized (this) {
+                mergeWatermark(username, now, expiresAt);
+                publish();
+            }
+        });
+    }
+
+    @Override
+    public void revokeToken(String jti, Date expiresAt) {
+        long now = System.currentTimeMillis();
+        insert(null, null, jti, expiresAt.getTime(), now);
+        afterCommit(() -> {
+            synchronized (this) {
+                revokedJtis.merge(jti, expiresAt.getTime(), Math::max);
+                publish();
+            }
+        });
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${security.revocation.poll-interval-ms:1000}")
+    public int poll() {
+        long startedAt = System.currentTimeMillis();
+        long afterId;
+        long createdAfter;
+        synchronized (this) {
+            afterId = lastSeenId;
+            createdAfter = lastPollStartedAt - pollOverlapMillis;
+        }
+
+        List<Row> rows = jdbcTemplate.query(POLL_SQL,
+                (rs, i) -> new Row(
+                        rs.getLong("id"),
+                        rs.getString("username"),
+                        rs.getTimestamp("issued_before"),
+                        rs.getString("jti"),
+                        rs.getTimestamp("expires_at").getTime()),
+                afterId, new Timestamp(createdAfter), new Timestamp(startedAt));
+
+        synchronized (this) {
+            for (Row row : rows) {
+                if (row.username() != null && row.issuedBefore() != null) {
+                    mergeWatermark(row.username(), row.issuedBefore().getTime(), row.expiresAt());
+                }
+                if (row.jti() != null) {
+                    revokedJtis.merge(row.jti(), row.expiresAt(), Math::max);
+                }
+                lastSeenId = Math.max(lastSeenId, row.id());
+            }
+            lastPollStartedAt = startedAt;
+
+            boolean expired = watermarks.values().removeIf(w -> w.expiresAt() < startedAt)
+                    | revokedJtis.values().removeIf(expiresAt -> expiresAt < startedAt);
+            if (!rows.isEmpty() || expired) {
+                publish();
+            }
+        }
+        return rows.size();
+    }
+
+    @Override
+    @Scheduled(fixedDelayString = "${security.revocation.purge-interval-ms:3600000}")
+    public int purgeExpired() {
+        int rows = jdbcTemplate.update("DELETE FROM token_revocations WHERE expires_at < ?",
+                new Timestamp(System.currentTimeMillis()));
+        if (rows > 0) {
+            log.info("Purged {} expired token revocations", rows);
+        }
+        return rows;
+    }
+
+    private void insert(String username, Long issuedBefore, String jti, long expiresAt, long now) {
+        jdbcTemplate.update(INSERT_SQL,
+                new SqlParameterValue(Types.VARCHAR, username),
+                new SqlParameterValue(Types.TIMESTAMP, issuedBefore != null ? new Timestamp(issuedBefore) : null),
+                new SqlParameterValue(Types.VARCHAR, jti),
+                new Timestamp(expiresAt),
+                new Timestamp(now));
+    }
+
+    private void mergeWatermark(String username, long issuedBefore, long expiresAt) {
+        watermarks.merge(username, new Watermark(issuedBefore, expiresAt),
+                (a, b) -> new Watermark(Math.max(a.issuedBefore(), b.issuedBefore()),
+                        Math.max(a.expiresAt(), b.expiresAt())));
+    }
+
+    /**
+     * Вызывается под монитором.
+     */
+    private void publish() {
+        BloomFilter users = null;
+        Map<String, Long> issuedBefore = new HashMap<>(watermarks.size() * 2);
+        if (!watermarks.isEmpty()) {
+            users = new BloomFilter(watermarks.size(), FALSE_POSITIVE_RATE);
+            for (Map.Entry<String, Watermark> e : watermarks.entrySet()) {
+                users.put(e.getKey());
+                issuedBefore.put(e.getKey(), e.getValue().issuedBefore());
+            }
+        }
+        BloomFilter tokens = null;
+        if (!revokedJtis.isEmpty()) {
+            tokens = new BloomFilter(revokedJtis.size(), FALSE_POSITIVE_RATE);
+            revokedJtis.keySet().forEach(tokens::put);
+        }
+        snapshot = new Snapshot(snapshot.version() + 1, users, Map.copyOf(issuedBefore),
+                tokens, Set.copyOf(revokedJtis.keySet()));
+    }
+
+    /**
+     * Отзыв, записанный в транзакции блокировки или удаления, применяется локально только после
+     * фиксации: при откате пользователь не должен оказаться разлогиненным.
+     */
+    private static void afterCommit(Runnable action) {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCommit() {
+                    action.run();
+                }
+            });
+        } else {
+            action.run();
+        }
+    }
+
+    record Row(long id, String username, Timestamp issuedBefore, String jti, long expiresAt) {
+    }
+}
@@ -0,0 +1,594 @@
+package com.bank.service.impl;
+
+import com.bank.dto.TransferDto;
+import com.bank.service.TransferArchiveService;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.ConnectionCallback;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.NavigableMap;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentSkipListMap;
+import java.util.function.Consumer;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+import java.util.stream.Stream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Формат сегмента {@code transfers-YYYY-MM.seg}: подряд записанные gzip-члены,
+ * в каждом до {@code block-rows} строк NDJSON, упорядоченных по {@code (created_at, id)}.
+ * Индекс {@code transfers-YYYY-MM.idx}: на каждый блок смещение, длина, число строк
+ * и первый/последний {@code created_at} в микросекундах. По индексу чтение пропускает
+ * блоки вне периода и распаковывает только пересекающиеся с его границами.
+ *
+ * <p>Порядок записи рассчитан на падение в любой момент: сегмент и индекс пишутся во
+ * временные файлы и переименовываются (индекс последним), затем сдвигается горизонт, и только
+ * потом из базы удаляются строки месяца. Повторный запуск не переписывает готовый сегмент,
+ * а дочищает базу.</p>
+ *
+ * <p>Каталог архива должен быть общим для всех экземпляров (сетевой том): архивирует один из них
+ * под advisory-блокировкой, а остальные раз в {@code rescan-ms} перечитывают каталог и файл
+ * горизонта. Строки месяца удаляются из базы не раньше чем через {@code purge-delay-ms} после
+ * записи сегмента: пока другой экземпляр не увидел новый горизонт, он читает месяц из базы,
+ * и строки там ещё есть. Поэтому задержка должна быть больше интервала перечитывания.</p>
+ */
+@Slf4j
+@Service
+public class TransferArchiveServiceImpl implements TransferArchiveService {
+
+    /** Ключ advisory-блокировки архивации (7301 — outbox, 7302 — секции). */
+    private static final int LOCK_KEY = 7303;
+
+    private static final int INDEX_MAGIC = 0x54584931; // "TXI1"
+
+    private static final String LIVE_TABLE = "transfers";
+    private static final Pattern DETACHED_PARTITION = Pattern.compile("transfers_y(\\d{4})m(\\d{2})");
+    private static final Pattern SEGMENT_INDEX = Pattern.compile("transfers-(\\d{4}-\\d{2})\\.idx");
+    private static final String HORIZON_FILE = "horizon";
+
+    private static final String COLUMNS =
+            "id, user_id, from_card_id, to_card_id, amount, credited_amount, exchange_rate, created_at";
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate readOnlyTransaction;
+    private final ObjectWriter rowWriter;
+    private final ObjectReader rowReader;
+    private final Path directory;
+    private final int olderThanMonths;
+    private final int blockRows;
+    private final int deleteBatchSize;
+    private final long purgeDelayMillis;
+
+    private final NavigableMap<YearMonth, Segment> segments = new ConcurrentSkipListMap<>();
+    private volatile LocalDateTime horizon;
+
+    public TransferArchiveServiceImpl(DataSource dataSource,
+                                      PlatformTransactionManager transactionManager,
+                                      ObjectMapper objectMapper,
+                                      @Value("${transfers.archive.dir:archive/transfers}") Path directory,
+                                      @Value("${transfers.archive.older-than-months:0}") int olderThanMonths,
+                                      @Value("${transfers.archive.block-rows:1024}") int blockRows,
+                                      @Value("${transfers.archive.delete-batch-size:5000}") int deleteBatchSize,
+                                      @Value("${transfers.archive.purge-delay-ms:900000}") long purgeDelayMillis) {
+        // как и при выгрузке: размер выборки включает серверный курсор PostgreSQL внутри транзакции
+        this.jdbcTemplate = new JdbcTemplate(dataSource);
+        this.jdbcTemplate.setFetchSize(blockRows);
+        this.readOnlyTransaction = new TransactionTemplate(transactionManager);
+        this.readOnlyTransaction.setReadOnly(true);
+        this.rowWriter = objectMapper.writerFor(TransferDto.class);
+        this.rowReader = objectMapper.readerFor(TransferDto.class);
+        this.directory = directory;
+        this.olderThanMonths = olderThanMonths;
+        this.blockRows = blockRows;
+        this.deleteBatchSize = deleteBatchSize;
+        this.purgeDelayMillis = purgeDelayMillis;
+        try {
+            loadExisting();
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot open transfer archive in " + directory, e);
+        }
+        log.info("Transfer archive opened: {} segments, horizon {}", segments.size(), horizon);
+    }
+
+    /**
+     * Отсоединённые секции архивируются и при {@code older-than-months: 0}: иначе их строки
+     * пропали бы из запросов, а таблицы так и остались бы в базе.
+     */
+    @Override
+    @Scheduled(cron = "${transfers.archive.cron:0 30 3 * * *}")
+    public long archive() {
+        return locked(olderThanMonths > 0 ? YearMonth.now().minusMonths(olderThanMonths) : null);
+    }
+
+    @Override
+    public long archiveDetachedPartitions() {
+        return locked(null);
+    }
+
+    /**
+     * Сессионная блокировка держится на отдельном соединении всё время архивации.
+     */
+    private long locked(YearMonth cutoff) {
+        Long archived = jdbcTemplate.execute((ConnectionCallback<Long>) con -> {
+            try (var lock = con.prepareStatement("SELECT pg_try_advisory_lock(" + LOCK_KEY + ")");
+                 var rs = lock.executeQuery()) {
+                if (!rs.next() || !rs.getBoolean(1)) {
+                    log.info("Transfer archiving is running on another instance, skipping");
+                    return 0L;
+                }
+            }
+            try {
+                return archiveBefore(cutoff);
+            } finally {
+                try (var unlock = con.prepareStatement("SELECT pg_advisory_unlock(" + LOCK_KEY + ")")) {
+                    unlock.execute();
+                }
+            }
+        });
+        return archived != null ? archived : 0;
+    }
+
+    /**
+     * Подхватывает сегменты и горизонт, записанные другим экземпляром.
+     */
+    @Scheduled(fixedDelayString = "${transfers.archive.rescan-ms:60000}")
+    public void rescan() {
+        try {
+            loadExisting();
+        } catch (IOException | RuntimeException e) {
+            log.warn("Cannot rescan transfer archive in {}", directory, e);
+        }
+    }
+
+    @Override
+    public LocalDateTime getHorizon() {
+        return horizon;
+    }
+
+    @Override
+    public long count(LocalDateTime from, LocalDateTime to) {
+        long fromMicros = micros(from);
+        long toMicros = micros(to);
+        long total = 0;
+        for (Segment segment : overlapping(from, to)) {
+            for (Block block : segment.blocks()) {
+                if (!block.overlaps(fromMicros, toMicros)) {
+                    continue;
+                }
+                if (block.within(fromMicros, toMicros)) {
+                    total += block.rows();
+                    continue;
+                }
+                for (TransferDto row : decode(segment, block)) {
+                    if (inRange(row, fromMicros, toMicros)) {
+                        total++;
+                    }
+                }
+            }
+        }
+        return total;
+    }
+
+    @Override
+    public List<TransferDto> read(LocalDateTime from, LocalDateTime to, long offset, int limit) {
+        long fromMicros = micros(from);
+        long toMicros = micros(to);
+        long skip = offset;
+        List<TransferDto> result = new ArrayList<>(Math.min(limit, blockRows));
+        if (limit <= 0) {
+            return result;
+        }
+        for (Segment segment : overlapping(from, to)) {
+            for (Block block : segment.blocks()) {
+                if (!block.overlaps(fromMicros, toMicros)) {
+                    continue;
+                }
+                // целиком пропускаемый блок даже не распаковывается
+                if (block.within(fromMicros, toMicros) && skip >= block.rows()) {
+                    skip -= block.rows();
+                    continue;
+                }
+                for (TransferDto row : decode(segment, block)) {
+                    if (!inRange(row, fromMicros, toMicros)) {
+                        continue;
+                    }
+                    if (skip > 0) {
+                        skip--;
+                        continue;
+                    }
+                    result.add(row);
+                    if (result.size() == limit) {
+                        return result;
+                    }
+                }
+            }
+        }
+        return result;
+    }
+
+    @Override
+    public void forEachBefore(LocalDateTime before, Consumer<TransferDto> action) {
+        for (Segment segment : segments.headMap(YearMonth.from(before), false).values()) {
+            for (Block block : segment.blocks()) {
+                decode(segment, block).forEach(action);
+            }
+        }
+    }
+
+    /**
+     * Архивирует месяцы до {@code cutoff} (не включая) из живой таблицы и все отсоединённые секции,
+     * от старых к новым, чтобы горизонт только рос.
+     *
+     * @param cutoff {@code null} — только отсоединённые секции
+     */
+    long archiveBefore(YearMonth cutoff) {
+        NavigableMap<YearMonth, String> sources = new TreeMap<>();
+        Timestamp oldest = cutoff == null ? null : jdbcTemplate.queryForObject(
+                "SELECT MIN(created_at) FROM " + LIVE_TABLE + " WHERE created_at < ?",
+                Timestamp.class, Timestamp.valueOf(cutoff.atDay(1).atStartOfDay()));
+        if (oldest != null) {
+            for (YearMonth m = YearMonth.from(oldest.toLocalDateTime()); m.isBefore(cutoff); m = m.plusMonths(1)) {
+                sources.put(m, LIVE_TABLE);
+            }
+        }
+        for (String table : detachedPartitions()) {
+            Matcher m = DETACHED_PARTITION.matcher(table);
+            if (m.matches()) {
+                sources.put(YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2))), table);
+            }
+        }
+
+        long archived = 0;
+        for (Map.Entry<YearMonth, String> entry : sources.entrySet()) {
+            archived += archiveMonth(entry.getValue(), entry.getKey());
+        }
+        return archived;
+    }
+
+    /**
+     * Переносит месяц из таблицы {@code source} в сегмент и удаляет его строки из базы.
+     *
+     * @return количество записанных в сегмент строк (0, если сегмент уже был готов)
+     */
+    long archiveMonth(String source, YearMonth month) {
+        if (!LIVE_TABLE.equals(source) && !DETACHED_PARTITION.matcher(source).matches()) {
+            throw new IllegalArgumentException("Not a transfers table: " + source);
+        }
+        long written = 0;
+        try {
+            if (!segments.containsKey(month)) {
+                written = writeSegment(source, month);
+                segments.put(month, openSegment(month));
+            }
+            advanceHorizon(month.plusMonths(1));
+            log.info("Transfers for {} archived from {}: {} rows", month, source, written);
+            if (purgeDue(month)) {
+                purge(source, month);
+            } else {
+                log.info("Rows of {} stay in {} until other instances pick up the segment", month, source);
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return written;
+    }
+
+    private long writeSegment(String source, YearMonth month) throws IOException {
+        Files.createDirectories(directory);
+        Path segmentTmp = directory.resolve(baseName(month) + ".seg.tmp");
+        Path indexTmp = directory.resolve(baseName(month) + ".idx.tmp");
+
+        BlockWriter writer;
+        try (FileChannel channel = FileChannel.open(segmentTmp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            writer = new BlockWriter(Channels.newOutputStream(channel));
+            try {
+                readOnlyTransaction.executeWithoutResult(status -> jdbcTemplate.query(
+                        "SELECT " + COLUMNS + " FROM " + source +
+                        " WHERE created_at >= ? AND created_at < ? ORDER BY created_at, id",
+                        (RowCallbackHandler) rs -> writer.write(TransferDto.builder()
+                                .id(rs.getLong("id"))
+                                .userId(rs.getLong("user_id"))
+                                .fromCardId(rs.getLong("from_card_id"))
+                                .toCardId(rs.getLong("to_card_id"))
+                                .amount(rs.getBigDecimal("amount"))
+                                .creditedAmount(rs.getBigDecimal("credited_amount"))
+                                .exchangeRate(rs.getBigDecimal("exchange_rate"))
+                                .createdAt(rs.getTimestamp("created_at").toLocalDateTime())
+                                .build()),
+                        Timestamp.valueOf(month.atDay(1).atStartOfDay()),
+                        Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay())));
+            } catch (UncheckedIOException e) {
+                throw e.getCause();
+            }
+            writer.finish();
+            channel.force(true);
+        }
+
+        try (FileChannel channel = FileChannel.open(indexTmp,
+                StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            DataOutputStream out = new DataOutputStream(Channels.newOutputStream(channel));
+            out.writeInt(INDEX_MAGIC);
+            out.writeInt(writer.blocks.size());
+            for (Block block : writer.blocks) {
+                out.writeLong(block.offset());
+                out.writeInt(block.length());
+                out.writeInt(block.rows());
+                out.writeLong(block.firstMicros());
+                out.writeLong(block.lastMicros());
+            }
+            out.flush();
+            channel.force(true);
+        }
+
+        // индекс появляется последним: сегмент без индекса считается недописанным
+        Files.move(segmentTmp, segmentPath(month), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        Files.move(indexTmp, indexPath(month), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        return writer.totalRows;
+    }
+
+    private void purge(String source, YearMonth month) {
+        if (!LIVE_TABLE.equals(source)) {
+            jdbcTemplate.execute("DROP TABLE " + source);
+            return;
+        }
+        Timestamp from = Timestamp.valueOf(month.atDay(1).atStartOfDay());
+        Timestamp to = Timestamp.valueOf(month.plusMonths(1).atDay(1).atStartOfDay());
+        // пачками в отдельных транзакциях: без долгих блокировок и раздутого WAL одной транзакции;
+        // условие по created_at во внешнем запросе ограничивает DELETE секцией месяца
+        int deleted;
+        do {
+            deleted = jdbcTemplate.update(
+                    "DELETE FROM " + LIVE_TABLE + " WHERE created_at >= ? AND created_at < ? AND id IN (" +
+                    "SELECT id FROM " + LIVE_TABLE + " WHERE created_at >= ? AND created_at < ? LIMIT ?)",
+                    from, to, from, to, deleteBatchSize);
+        } while (deleted > 0);
+    }
+
+    private boolean purgeDue(YearMonth month) throws IOException {
+        long writtenAt = Files.getLastModifiedTime(indexPath(month)).toMillis();
+        return System.currentTimeMillis() - writtenAt >= purgeDelayMillis;
+    }
+
+    private List<String> detachedPartitions() {
+        try {
+            return jdbcTemplate.queryForList(
+                    "SELECT c.relname FROM pg_class c " +
+                    "WHERE c.relkind = 'r' AND c.relname LIKE 'transfers\\_y%' AND NOT c.relispartition " +
+                    "ORDER BY c.relname",
+                    String.class);
+        } catch (Exception e) {
+            log.debug("Partition catalog unavailable, archiving the live table only", e);
+            return List.of();
+        }
+    }
+
+    private synchronized void advanceHorizon(YearMonth month) throws IOException {
+        LocalDateTime next = month.atDay(1).atStartOfDay();
+        if (horizon != null && !next.isAfter(horizon)) {
+            return;
+        }
+        Path tmp = directory.resolve(HORIZON_FILE + ".tmp");
+        Files.writeString(tmp, month.toString());
+        Files.move(tmp, directory.resolve(HORIZON_FILE), StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        horizon = next;
+    }
+
+    /**
+     * Горизонт читается до сегментов: всё, что раньше него, уже лежит в готовых сегментах,
+     * и горизонт публикуется только после того, как они открыты.
+     */
+    private synchronized void loadExisting() throws IOException {
+        if (!Files.isDirectory(directory)) {
+            return;
+        }
+        LocalDateTime stored = null;
+        Path horizonFile = directory.resolve(HORIZON_FILE);
+        if (Files.exists(horizonFile)) {
+            stored = YearMonth.parse(Files.readString(horizonFile).trim()).atDay(1).atStartOfDay();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            for (Path file : files.toList()) {
+                Matcher m = SEGMENT_INDEX.matcher(file.getFileName().toString());
+                YearMonth month = m.matches() ? YearMonth.parse(m.group(1)) : null;
+                if (month != null && !segments.containsKey(month)) {
+                    segments.put(month, openSegment(month));
+                    log.debug("Transfer archive segment {} opened", month);
+                }
+            }
+        }
+        if (stored != null && (horizon == null || stored.isAfter(horizon))) {
+            horizon = stored;
+        }
+    }
+
+    private Segment openSegment(YearMonth month) throws IOException {
+        MappedByteBuffer index = map(indexPath(month));
+        if (index.getInt() != INDEX_MAGIC) {
+            throw new IOException("Corrupt archive index " + indexPath(month));
+        }
+        int count = index.getInt();
+        List<Block> blocks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            blocks.add(new Block(index.getLong(), index.getInt(), index.getInt(), index.getLong(), index.getLong()));
+        }
+        return new Segment(map(segmentPath(month)), List.copyOf(blocks));
+    }
+
+    private static MappedByteBuffer map(Path path) throws IOException {
+        try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+            // отображение остаётся действительным после закрытия канала
+            return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+        }
+    }
+
+    private Iterable<Segment> overlapping(LocalDateTime from, LocalDateTime to) {
+        if (!from.isBefore(to)) {
+            return List.of();
+        }
+        return segments.subMap(YearMonth.from(from), true, YearMonth.from(to), true).values();
+    }
+
+    private List<TransferDto> decode(Segment segment, Block block) {
+        ByteBuffer bytes = segment.data().slice((int) block.offset(), block.length());
+        List<TransferDto> rows = new ArrayList<>(block.rows());
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(
+                new GZIPInputStream(new ByteBufferInputStream(bytes)), StandardCharsets.UTF_8))) {
+            String line;
+            while ((line = reader.readLine()) != null) {
+                rows.add(rowReader.readValue(line));
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException("Corrupt archive block at offset " + block.offset(), e);
+        }
+        return rows;
+    }
+
+    private static boolean inRange(TransferDto row, long fromMicros, long toMicros) {
+        long at = micros(row.getCreatedAt());
+        return at >= fromMicros && at < toMicros;
+    }
+
+    private static long micros(LocalDateTime time) {
+        return time.toEpochSecond(ZoneOffset.UTC) * 1_000_000L + time.getNano() / 1_000;
+    }
+
+    private Path segmentPath(YearMonth month) {
+        return directory.resolve(baseName(month) + ".seg");
+    }
+
+    private Path indexPath(YearMonth month) {
+        return directory.resolve(baseName(month) + ".idx");
+    }
+
+    private static String baseName(YearMonth month) {
+        return "transfers-" + month;
+    }
+
+    private record Segment(MappedByteBuffer data, List<Block> blocks) {
+    }
+
+    private record Block(long offset, int length, int rows, long firstMicros, long lastMicros) {
+
+        boolean overlaps(long fromMicros, long toMicros) {
+            return lastMicros >= fromMicros && firstMicros < toMicros;
+        }
+
+        boolean within(long fromMicros, long toMicros) {
+            return firstMicros >= fromMicros && lastMicros < toMicros;
+        }
+    }
+
+    /**
+     * Копит строки блока в памяти и сбрасывает их в сегмент отдельным gzip-членом.
+     */
+    private final class BlockWriter {
+        private final OutputStream out;
+        private final List<Block> blocks = new ArrayList<>();
+        private final ByteArrayOutputStream buffer = new ByteArrayOutputStream(64 * 1024);
+        private GZIPOutputStream gzip;
+        private long offset;
+        private long totalRows;
+        private int rows;
+        private long first;
+        private long last;
+
+        private BlockWriter(OutputStream out) {
+            this.out = out;
+        }
+
+        void write(TransferDto row) {
+            try {
+                if (gzip == null) {
+                    gzip = new GZIPOutputStream(buffer, 8 * 1024);
+                    first = micros(row.getCreatedAt());
+                }
+                gzip.write(rowWriter.writeValueAsBytes(row));
+                gzip.write('\n');
+                last = micros(row.getCreatedAt());
+                totalRows++;
+                if (++rows == blockRows) {
+                    flushBlock();
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        void finish() throws IOException {
+            if (gzip != null) {
+                flushBlock();
+            }
+            out.flush();
+        }
+
+        private void flushBlock() throws IOException {
+            gzip.finish();
+            buffer.writeTo(out);
+            blocks.add(new Block(offset, buffer.size(), rows, first, last));
+            offset += buffer.size();
+            buffer.reset();
+            gzip = null;
+            rows = 0;
+        }
+    }
+
+    private static final class ByteBufferInputStream extends InputStream {
+        private final ByteBuffer buffer;
+
+        private ByteBufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xff : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (!buffer.hasRemaining()) {
+                return -1;
+            }
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+}
@@ -0,0 +1,183 @@
+package com.bank.service.impl;
+
+import com.bank.exception.BusinessException;
+import com.bank.exception.ErrorCode;
+import com.bank.repository.TransferRepository;
+import com.bank.service.TransferLimitService;
+import com.bank.util.VelocityCounters;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Stream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransferLimitServiceImpl implements TransferLimitService {
+
+    private final TransferRepository transferRepository;
+
+    @Value("${limits.card.daily-amount:0}")
+    private BigDecimal cardDailyAmount;
+    @Value("${limits.card.daily-count:0}")
+    private int cardDailyCount;
+    @Value("${limits.card.monthly-amount:0}")
+    private BigDecimal cardMonthlyAmount;
+    @Value("${limits.card.monthly-count:0}")
+    private int cardMonthlyCount;
+
+    @Value("${limits.user.daily-amount:0}")
+    private BigDecimal userDailyAmount;
+    @Value("${limits.user.daily-count:0}")
+    private int userDailyCount;
+    @Value("${limits.user.monthly-amount:0}")
+    private BigDecimal userMonthlyAmount;
+    @Value("${limits.user.monthly-count:0}")
+    private int userMonthlyCount;
+
+    @Value("${limits.fail-open:false}")
+    private boolean failOpen;
+
+    @Value("${limits.stripes:64}")
+    private int stripes;
+
+    private VelocityCounters.Limits cardLimits;
+    private VelocityCounters.Limits userCountLimits;
+    private VelocityCounters.Limits userAmountLimits;
+
+    /**
+     * Счётчики по картам и по пользователям. {@code null}, пока не выполнено первое восстановление из БД.
+     * Количество переводов пользователя считается по всем валютам вместе, сумма — отдельно в каждой
+     * валюте: складывать копейки и центы нельзя.
+     */
+    private volatile Counters counters;
+
+    @PostConstruct
+    void init() {
+        cardLimits = new VelocityCounters.Limits(
+                toMinor(cardDailyAmount), cardDailyCount, toMinor(cardMonthlyAmount), cardMonthlyCount);
+        userCountLimits = new VelocityCounters.Limits(0, userDailyCount, 0, userMonthlyCount);
+        userAmountLimits = new VelocityCounters.Limits(toMinor(userDailyAmount), 0, toMinor(userMonthlyAmount), 0);
+    }
+
+    @Override
+    public void reserve(Long userId, Long fromCardId, String currency, BigDecimal amount) {
+        Counters current = counters;
+        if (current == null) {
+            if (failOpen) {
+                return;
+            }
+            throw new BusinessException(ErrorCode.LIMITS_UNAVAILABLE);
+        }
+
+        long minor = toMinor(amount);
+        long now = System.currentTimeMillis();
+
+        VelocityCounters.Verdict verdict = current.byCard().tryAdd(fromCardId, minor, now, cardLimits);
+        if (verdict != VelocityCounters.Verdict.OK) {
+            throw limitExceeded(verdict, ErrorCode.CARD_DAILY_AMOUNT_LIMIT, ErrorCode.CARD_DAILY_COUNT_LIMIT,
+                    ErrorCode.CARD_MONTHLY_AMOUNT_LIMIT, ErrorCode.CARD_MONTHLY_COUNT_LIMIT);
+        }
+
+        verdict = current.byUser().tryAdd(userId, 0, now, userCountLimits);
+        if (verdict == VelocityCounters.Verdict.OK) {
+            verdict = current.byUser(currency).tryAdd(userId, minor, now, userAmountLimits);
+            if (verdict != VelocityCounters.Verdict.OK) {
+                current.byUser().remove(userId, 0, now);
+            }
+        }
+        if (verdict != VelocityCounters.Verdict.OK) {
+            current.byCard().remove(fromCardId, minor, now);
+            throw limitExceeded(verdict, ErrorCode.USER_DAILY_AMOUNT_LIMIT, ErrorCode.USER_DAILY_COUNT_LIMIT,
+                    ErrorCode.USER_MONTHLY_AMOUNT_LIMIT, ErrorCode.USER_MONTHLY_COUNT_LIMIT);
+        }
+
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+                @Override
+                public void afterCompletion(int status) {
+                    if (status != STATUS_COMMITTED) {
+                        current.byCard().remove(fromCardId, minor, now);
+                        current.byUser().remove(userId, 0, now);
+                        current.byUser(currency).remove(userId, minor, now);
+                    }
+                }
+            });
+        }
+    }
+
+    /**
+     * Выполняется при старте и затем периодически: счётчики строятся заново по переводам
+     * за последние 30 дней, после чего ссылка на них атомарно подменяется.
+     * Резервы, сделанные во время перестроения, могут быть учтены неточно — расхождение
+     * ограничено одним циклом сверки.
+     */
+    @Override
+    @Transactional(readOnly = true)
+    @Scheduled(initialDelay = 0, fixedDelayString = "${limits.reconcile-interval-ms:300000}")
+    public void rebuild() {
+        try {
+            Counters fresh = new Counters(stripes);
+            LocalDateTime since = LocalDateTime.now().minus(Duration.ofDays(30));
+            ZoneId zone = ZoneId.systemDefault();
+
+            try (Stream<TransferRepository.VelocityRow> rows = transferRepository.streamVelocitySince(since)) {
+                rows.forEach(row -> {
+                    long minor = toMinor(row.getAmount());
+                    long at = row.getCreatedAt().atZone(zone).toInstant().toEpochMilli();
+                    fresh.byCard().add(row.getCardId(), minor, at);
+                    fresh.byUser().add(row.getUserId(), 0, at);
+                    fresh.byUser(row.getCurrency()).add(row.getUserId(), minor, at);
+                });
+            }
+
+            counters = fresh;
+        } catch (Exception e) {
+            log.warn("Transfer limit counters rebuild failed, keeping previous counters", e);
+        }
+    }
+
+    private static BusinessException limitExceeded(VelocityCounters.Verdict verdict,
+                                                    ErrorCode dailyAmount, ErrorCode dailyCount,
+                                                    ErrorCode monthlyAmount, ErrorCode monthlyCount) {
+        return new BusinessException(switch (verdict) {
+            case DAILY_AMOUNT -> dailyAmount;
+            case DAILY_COUNT -> dailyCount;
+            case MONTHLY_AMOUNT -> monthlyAmount;
+            case MONTHLY_COUNT -> monthlyCount;
+            case OK -> throw new IllegalStateException();
+        });
+    }
+
+    private static long toMinor(BigDecimal amount) {
+        return amount.movePointRight(2).longValue();
+    }
+
+    private record Counters(VelocityCounters byCard, VelocityCounters byUser,
+                            Map<String, VelocityCounters> byUserAndCurrency, int stripes) {
+
+        Counters(int stripes) {
+            this(new VelocityCounters(stripes), new VelocityCounters(stripes), new ConcurrentHashMap<>(), stripes);
+        }
+
+        /**
+         * Суммы переводов пользователей с карт в валюте {@code currency}.
+         */
+        VelocityCounters byUser(String currency) {
+            return byUserAndCurrency.computeIfAbsent(currency, c -> new VelocityCounters(stripes));
+        }
+    }
+}
@@ -0,0 +1,162 @@
+package com.bank.service.impl;
+
+import com.bank.service.TransferArchiveService;
+import com.bank.service.TransferPartitionService;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * DDL секций выполняется через JDBC, каждая операция в своей транзакции под
+ * advisory-блокировкой: при нескольких экземплярах приложения обслуживание
+ * выполняет только один, остальные пропускают цикл.
+ *
+ * <p>Отсоединённые секции сразу переносятся в архив ({@link TransferArchiveService}), который
+ * затем удаляет их таблицы: иначе строки выпали бы из запросов до ночной архивации.</p>
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class TransferPartitionServiceImpl implements TransferPartitionService {
+
+    /** Ключ advisory-блокировки обслуживания секций (7301 занят outbox). */
+    private static final int LOCK_KEY = 7302;
+
+    private static final Pattern PARTITION_NAME = Pattern.compile("transfers_y(\\d{4})m(\\d{2})");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final TransferArchiveService transferArchiveService;
+
+    @Value("${transfers.partitions.months-ahead:3}")
+    private int monthsAhead;
+
+    @Value("${transfers.partitions.retention-months:0}")
+    private int retentionMonths;
+
+    @Override
+    public List<String> createUpcomingPartitions() {
+        List<String> created = new ArrayList<>();
+        if (!isPartitioned()) {
+            return created;
+        }
+        List<String> existing = partitions();
+        YearMonth current = YearMonth.now();
+        for (int i = 0; i <= monthsAhead; i++) {
+            YearMonth month = current.plusMonths(i);
+            String name = partitionName(month);
+            if (existing.contains(name)) {
+                continue;
+            }
+            try {
+                // значения границ формируются из YearMonth, а не из пользовательского ввода
+                boolean done = withLock(() -> jdbcTemplate.execute(
+                        "CREATE TABLE IF NOT EXISTS " + name + " PARTITION OF transfers " +
+                        "FOR VALUES FROM ('" + month.atDay(1) + "') TO ('" + month.plusMonths(1).atDay(1) + "')"));
+                if (done) {
+                    created.add(name);
+                    log.info("Transfer partition {} created", name);
+                }
+            } catch (Exception e) {
+                // например, строки этого месяца уже лежат в секции по умолчанию
+                log.warn("Could not create transfer partition {}", name, e);
+            }
+        }
+        return created;
+    }
+
+    @Override
+    public List<String> detachExpiredPartitions() {
+        List<String> detached = new ArrayList<>();
+        if (retentionMonths <= 0 || !isPartitioned()) {
+            return detached;
+        }
+        YearMonth oldestKept = YearMonth.now().minusMonths(retentionMonths);
+        for (String name : partitions()) {
+            Matcher m = PARTITION_NAME.matcher(name);
+            if (!m.matches()) {
+                continue;
+            }
+            YearMonth month = YearMonth.of(Integer.parseInt(m.group(1)), Integer.parseInt(m.group(2)));
+            if (!month.isBefore(oldestKept)) {
+                continue;
+            }
+            try {
+                boolean done = withLock(() -> {
+                    // DETACH берёт эксклюзивную блокировку родителя; не ждём её дольше нескольких секунд
+                    jdbcTemplate.execute("SET LOCAL lock_timeout = '5s'");
+                    jdbcTemplate.execute("ALTER TABLE transfers DETACH PARTITION " + name);
+                });
+                if (done) {
+                    detached.add(name);
+                    log.info("Transfer partition {} detached", name);
+                }
+            } catch (Exception e) {
+                log.warn("Could not detach transfer partition {}", name, e);
+            }
+        }
+        return detached;
+    }
+
+    @Override
+    @Scheduled(initialDelay = 0, fixedDelayString = "${transfers.partitions.maintenance-interval-ms:3600000}")
+    public void maintain() {
+        createUpcomingPartitions();
+        if (!detachExpiredPartitions().isEmpty()) {
+            transferArchiveService.archiveDetachedPartitions();
+        }
+    }
+
+    private boolean isPartitioned() {
+        try {
+            Integer count = jdbcTemplate.queryForObject(
+                    "SELECT count(*) FROM pg_partitioned_table pt " +
+                    "JOIN pg_class c ON c.oid = pt.partrelid WHERE c.relname = 'transfers'",
+                    Integer.class);
+            return count != null && count > 0;
+        } catch (Exception e) {
+            log.debug("Partition catalog unavailable, skipping transfer partition maintenance", e);
+            return false;
+        }
+    }
+
+    private List<String> partitions() {
+        return jdbcTemplate.queryForList(
+                "SELECT c.relname FROM pg_inherits i " +
+                "JOIN pg_class c ON c.oid = i.inhrelid " +
+                "JOIN pg_class p ON p.oid = i.inhparent " +
+                "WHERE p.relname = 'transfers' ORDER BY c.relname",
+                String.class);
+    }
+
+    /**
+     * Выполняет действие в отдельной транзакции, если удалось взять advisory-блокировку.
+     *
+     * @return {@code false}, если блокировку держит другой экземпляр и действие пропущено
+     */
+    private boolean withLock(Runnable action) {
+        Boolean done = transactionTemplate.execute(status -> {
+            Boolean locked = jdbcTemplate.queryForObject("SELECT pg_try_advisory_xact_lock(?)", Boolean.class, LOCK_KEY);
+            if (!Boolean.TRUE.equals(locked)) {
+                return false;
+            }
+            action.run();
+            return true;
+        });
+        return Boolean.TRUE.equals(done);
+    }
+
+    static String partitionName(YearMonth month) {
+        return String.format("transfers_y%04dm%02d", month.getYear(), month.getMonthValue());
+    }
+}
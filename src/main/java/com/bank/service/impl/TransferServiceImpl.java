@@ -7,76 +7,299 @@ import com.bank.entity.CardEntity;
 import com.bank.entity.TransferEntity;
 import com.bank.entity.UserEntity;
 import com.bank.enums.CardStatus;
+import com.bank.event.CardChangedEvent;
+import com.bank.exception.BusinessException;
 import com.bank.exception.CommonException;
+import com.bank.exception.ErrorCode;
 import com.bank.repository.CardRepository;
 import com.bank.repository.TransferRepository;
+import com.bank.service.ApproximateCountService;
+import com.bank.service.CardMetadataService;
+import com.bank.service.CardSummaryService;
+import com.bank.service.FxRateService;
+import com.bank.service.OutboxService;
+import com.bank.service.TransferArchiveService;
+import com.bank.service.TransferLimitService;
 import com.bank.service.TransferService;
+import com.bank.util.CardUtils;
+import com.bank.util.PageUtils;
 import lombok.RequiredArgsConstructor;
 import org.jspecify.annotations.NullMarked;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.SliceImpl;
+import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 
 @Service
 @RequiredArgsConstructor
 public class TransferServiceImpl implements TransferService {
 
+    /** Границы открытого периода: конкретные значения, чтобы условие по created_at оставалось в запросе. */
+    private static final LocalDateTime OPEN_LOWER_BOUND = LocalDateTime.of(1970, 1, 1, 0, 0);
+    private static final LocalDateTime OPEN_UPPER_BOUND = LocalDateTime.of(9999, 1, 1, 0, 0);
+
+    /** Порядок архивных сегментов; в нём же читается живая часть периода, начинающегося в архиве. */
+    private static final Sort CHRONOLOGICAL = Sort.by("createdAt", "id");
+
     private final CardRepository cardRepository;
     private final UserServiceImpl userService;
     private final TransferRepository transferRepository;
+    private final FxRateService fxRateService;
+    private final TransferLimitService transferLimitService;
+    private final OutboxService outboxService;
+    private final ApplicationEventPublisher eventPublisher;
+    private final ApproximateCountService approximateCountService;
+    private final CardSummaryService cardSummaryService;
+    private final TransferArchiveService transferArchiveService;
+    private final CardMetadataService cardMetadataService;
+    private final TransactionTemplate transactionTemplate;
 
+    /**
+     * Заведомо невалидный перевод отклоняется по кэшу метаданных карт ещё до транзакции;
+     * остальные проверяются заново под блокировкой строк карт.
+     */
     @Override
-    @Transactional
     public TransferResponseDto transferBetweenOwnCards(Long userId, TransferRequestDto dto) {
 
         if (dto.fromCardId().equals(dto.toCardId())) {
-            throw new CommonException (400, "From and To card must differ");
+            throw new BusinessException(ErrorCode.SAME_CARD);
+        }
+
+        cardMetadataService.precheckTransfer(userId, dto.fromCardId(), dto.toCardId());
+
+        return transactionTemplate.execute(status -> transferLocked(userId, dto));
+    }
+
+    /**
+     * Элемент групповой фиксации: перевод пользователя {@code userId}.
+     */
+    public record BatchItem(Long userId, TransferRequestDto dto) {
+    }
+
+    /**
+     * Итог перевода в групповой фиксации: ответ или бизнес-ошибка, по которой перевод отклонён.
+     */
+    public record BatchOutcome(TransferResponseDto response, CommonException error) {
+    }
+
+    /**
+     * Выполняет пачку переводов в одной транзакции.
+     *
+     * <p>Строки всех карт пачки блокируются один раз в порядке возрастания id, после чего
+     * переводы применяются к загруженным картам по очереди: каждый следующий видит балансы
+     * после предыдущих. Перевод, не прошедший проверки, отклоняется без отката остальных.
+     * Любая другая ошибка откатывает всю пачку.</p>
+     *
+     * @param items переводы в порядке поступления
+     * @return итоги в том же порядке; после возврата транзакция уже зафиксирована
+     */
+    @Transactional
+    public List<BatchOutcome> transferBatch(List<BatchItem> items) {
+        Set<Long> cardIds = new HashSet<>();
+        for (BatchItem item : items) {
+            cardIds.add(item.dto().fromCardId());
+            cardIds.add(item.dto().toCardId());
+        }
+        Map<Long, CardEntity> cards = lockCards(cardIds);
+
+        List<BatchOutcome> outcomes = new ArrayList<>(items.size());
+        for (BatchItem item : items) {
+            try {
+                outcomes.add(new BatchOutcome(apply(item.userId(), item.dto(), cards), null));
+            } catch (CommonException e) {
+                outcomes.add(new BatchOutcome(null, e));
+            }
+        }
+        return outcomes;
+    }
+
+    private TransferResponseDto transferLocked(Long userId, TransferRequestDto dto) {
+        return apply(userId, dto, lockCards(Set.of(dto.fromCardId(), dto.toCardId())));
+    }
+
+    /**
+     * Проверки до изменения балансов не меняют состояние, поэтому отклонённый перевод
+     * ничего не оставляет после себя. Резерв лимита — последний шаг, который может отказать.
+     */
+    private TransferResponseDto apply(Long userId, TransferRequestDto dto, Map<Long, CardEntity> cards) {
+
+        if (dto.fromCardId().equals(dto.toCardId())) {
+            throw new BusinessException(ErrorCode.SAME_CARD);
         }
 
-        CardEntity from = cardRepository.findById(dto.fromCardId()).orElseThrow(() -> new CommonException (404, "From card not found"));
-        CardEntity to = cardRepository.findById(dto.toCardId()).orElseThrow(() -> new CommonException (404, "To card not found"));
+        CardEntity from = cards.get(dto.fromCardId());
+        if (from == null) {
+            throw new BusinessException(ErrorCode.FROM_CARD_NOT_FOUND);
+        }
+        CardEntity to = cards.get(dto.toCardId());
+        if (to == null) {
+            throw new BusinessException(ErrorCode.TO_CARD_NOT_FOUND);
+        }
 
         if (!from.getUserId().equals(userId) || !to.getUserId().equals(userId)) {
-            throw new CommonException (400, "Cards must belong to the same user");
+            throw new BusinessException(ErrorCode.CARDS_OF_DIFFERENT_USERS);
         }
 
         if (from.getStatus() != CardStatus.ACTIVE || to.getStatus() != CardStatus.ACTIVE) {
-            throw new CommonException (400, "Both cards must be ACTIVE");
+            throw new BusinessException(ErrorCode.CARDS_NOT_ACTIVE);
+        }
+
+        if (from.getExpiryDate().isBefore(LocalDate.now()) || to.getExpiryDate().isBefore(LocalDate.now())) {
+            throw new BusinessException(ErrorCode.CARD_EXPIRED);
         }
 
         if (from.getBalance().compareTo(dto.amount()) < 0) {
-            throw new CommonException(400, "Insufficient funds");
+            throw new BusinessException(ErrorCode.INSUFFICIENT_FUNDS);
         }
 
-        from.setBalance(from.getBalance().subtract(dto.amount()));
-        to.setBalance(to.getBalance().add(dto.amount()));
+        BigDecimal rate = Objects.equals(from.getCurrency(), to.getCurrency())
+                ? BigDecimal.ONE
+                : fxRateService.getRate(from.getCurrency(), to.getCurrency());
+        BigDecimal credited = rate.compareTo(BigDecimal.ONE) == 0
+                ? dto.amount()
+                : dto.amount().multiply(rate).setScale(2, RoundingMode.HALF_EVEN);
 
         UserEntity user= userService.getById(userId);
 
+        transferLimitService.reserve(userId, from.getId(), from.getCurrency(), dto.amount());
+
+        from.setBalance(from.getBalance().subtract(dto.amount()));
+        to.setBalance(to.getBalance().add(credited));
+
         TransferEntity  transfer = TransferEntity.builder()
                 .user(user)
                 .fromCard(from)
                 .toCard(to)
                 .amount(dto.amount())
+                .creditedAmount(credited)
+                .exchangeRate(rate)
                 .createdAt(LocalDateTime.now())
                 .build();
 
         cardRepository.save(from);
         cardRepository.save(to);
         TransferEntity transferEntity=transferRepository.save(transfer);
+        outboxService.enqueueTransfer(transferEntity);
+        cardSummaryService.onTransfer(userId, from.getCurrency(), dto.amount(), to.getCurrency(), credited,
+                transferEntity.getCreatedAt());
+        eventPublisher.publishEvent(new CardChangedEvent(userId,
+                List.of(CardUtils.toResponseDto(from), CardUtils.toResponseDto(to))));
 
         return buildResponseDto(transferEntity);
     }
 
     @Override
     @NullMarked
+    @Transactional(readOnly = true)
     public Page<TransferDto> getAll(Pageable pageable) {
 
-        Page<TransferEntity> page = transferRepository.findAll(pageable);
+        Slice<TransferEntity> slice = transferRepository.findSliceBy(pageable);
+
+        return PageUtils.withEstimatedTotal(slice.map(this::mapToDto), approximateCountService.estimate("transfers"));
+    }
+
+    @Override
+    @NullMarked
+    @Transactional(readOnly = true)
+    public Slice<TransferDto> getAllSlice(Pageable pageable) {
+        return transferRepository.findSliceBy(pageable).map(this::mapToDto);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Page<TransferDto> getAllBetween(LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        LocalDateTime horizon = transferArchiveService.getHorizon();
+        if (horizon == null || !lowerBound(from).isBefore(horizon)) {
+            return transferRepository.findCreatedBetween(lowerBound(from), upperBound(to), pageable).map(this::mapToDto);
+        }
+        List<TransferDto> content = readAcrossArchive(lowerBound(from), upperBound(to), horizon, pageable, pageable.getPageSize());
+        long total = transferArchiveService.count(lowerBound(from), earliest(upperBound(to), horizon));
+        if (upperBound(to).isAfter(horizon)) {
+            total += transferRepository.countCreatedBetween(horizon, upperBound(to));
+        }
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    @Override
+    @Transactional(readOnly = true)
+    public Slice<TransferDto> getAllBetweenSlice(LocalDateTime from, LocalDateTime to, Pageable pageable) {
+        LocalDateTime horizon = transferArchiveService.getHorizon();
+        if (horizon == null || !lowerBound(from).isBefore(horizon)) {
+            return transferRepository.sliceCreatedBetween(lowerBound(from), upperBound(to), pageable).map(this::mapToDto);
+        }
+        // лишняя строка только показывает, есть ли следующая страница
+        List<TransferDto> content = readAcrossArchive(lowerBound(from), upperBound(to), horizon, pageable, pageable.getPageSize() + 1);
+        boolean hasNext = content.size() > pageable.getPageSize();
+        return new SliceImpl<>(hasNext ? content.subList(0, pageable.getPageSize()) : content, pageable, hasNext);
+    }
+
+    /**
+     * Период начинается в архиве: сначала идут архивные строки, затем строки живой таблицы
+     * от горизонта, обе части в порядке {@code (created_at, id)}.
+     */
+    private List<TransferDto> readAcrossArchive(LocalDateTime from, LocalDateTime to, LocalDateTime horizon,
+                                                Pageable pageable, int limit) {
+        LocalDateTime archivedTo = earliest(to, horizon);
+        List<TransferDto> content = new ArrayList<>(transferArchiveService.read(from, archivedTo, pageable.getOffset(), limit));
+        if (content.size() == limit || !to.isAfter(horizon)) {
+            return content;
+        }
+        long liveOffset = content.isEmpty()
+                ? pageable.getOffset() - transferArchiveService.count(from, archivedTo)
+                : 0;
+        int remaining = limit - content.size();
+        // смещение живой части не кратно размеру страницы: читаем две соседние страницы и вырезаем нужное
+        int page = (int) (liveOffset / remaining);
+        int skip = (int) (liveOffset % remaining);
+        List<TransferDto> live = new ArrayList<>(2 * remaining);
+        Slice<TransferEntity> slice = transferRepository.sliceCreatedBetween(horizon, to, PageRequest.of(page, remaining, CHRONOLOGICAL));
+        slice.forEach(e -> live.add(mapToDto(e)));
+        if (skip > 0 && slice.hasNext()) {
+            transferRepository.sliceCreatedBetween(horizon, to, PageRequest.of(page + 1, remaining, CHRONOLOGICAL))
+                    .forEach(e -> live.add(mapToDto(e)));
+        }
+        content.addAll(live.subList(Math.min(skip, live.size()), Math.min(skip + remaining, live.size())));
+        return content;
+    }
+
+    private static LocalDateTime earliest(LocalDateTime a, LocalDateTime b) {
+        return a.isBefore(b) ? a : b;
+    }
+
+    private static LocalDateTime lowerBound(LocalDateTime from) {
+        return from != null ? from : OPEN_LOWER_BOUND;
+    }
+
+    private static LocalDateTime upperBound(LocalDateTime to) {
+        return to != null ? to : OPEN_UPPER_BOUND;
+    }
 
-        return page.map(this::mapToDto);
+    /**
+     * Строки карт блокируются в порядке возрастания id, чтобы встречные переводы и пачки
+     * не взаимоблокировались. Отсутствующих карт в результате нет.
+     */
+    private Map<Long, CardEntity> lockCards(Set<Long> ids) {
+        Map<Long, CardEntity> cards = new HashMap<>(ids.size() * 2);
+        ids.stream().sorted().forEach(id -> cardRepository.findByIdForUpdate(id).ifPresent(card -> cards.put(id, card)));
+        return cards;
     }
 
     private TransferDto mapToDto(TransferEntity e) {
@@ -86,6 +309,8 @@ public class TransferServiceImpl implements TransferService {
                 .fromCardId(e.getFromCard().getId())
                 .toCardId(e.getToCard().getId())
                 .amount(e.getAmount())
+                .creditedAmount(e.getCreditedAmount())
+                .exchangeRate(e.getExchangeRate())
                 .createdAt(e.getCreatedAt())
                 .build();
     }
@@ -94,6 +319,8 @@ public class TransferServiceImpl implements TransferService {
                 .fromCardMasked(e.getFromCard().getMaskedNumber())
                 .toCardMasked( e.getToCard().getMaskedNumber())
                 .amount(e.getAmount())
+                .creditedAmount(e.getCreditedAmount())
+                .exchangeRate(e.getExchangeRate())
                 .fromCardBalanceAfter(e.getFromCard().getBalance())
                 .toCardBalanceAfter(e.getToCard().getBalance())
                 .timestamp(e.getCreatedAt())
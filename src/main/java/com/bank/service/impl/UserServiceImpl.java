@@ -5,9 +5,14 @@ import com.bank.dto.LoginRequest;
 import com.bank.dto.RegisterRequest;
 import com.bank.entity.UserEntity;
 import com.bank.enums.Role;
-import com.bank.exception.CommonException;
+import com.bank.exception.BusinessException;
+import com.bank.exception.ErrorCode;
 import com.bank.repository.UserRepository;
 import com.bank.security.JwtService;
+import com.bank.service.RefreshTokenService;
+import com.bank.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.JwtException;
 import com.bank.service.UserService;
 import jakarta.servlet.http.Cookie;
 import jakarta.servlet.http.HttpServletResponse;
@@ -27,12 +32,14 @@ public class UserServiceImpl implements UserService {
     private final PasswordEncoder passwordEncoder;
     private final AuthenticationManager authenticationManager;
     private final JwtService jwtService;
+    private final RefreshTokenService refreshTokenService;
+    private final TokenRevocationService tokenRevocationService;
 
     @Override
     public void register(RegisterRequest request) {
 
         if (userRepository.existsByUsername(request.username())) {
-            throw new CommonException (409, "User already exists");
+            throw new BusinessException(ErrorCode.USER_ALREADY_EXISTS);
         }
 
         var user = UserEntity.builder()
@@ -55,15 +62,16 @@ public class UserServiceImpl implements UserService {
         );
 
         String accessToken = jwtService.generateAccessToken(user);
-        String refreshToken = jwtService.generateRefreshToken(user);
+        String refreshToken = refreshTokenService.issue(user);
 
         // Refresh token → HttpOnly cookie
         Cookie cookie = new Cookie("refresh_token", refreshToken);
         cookie.setHttpOnly(true); // true-кука недоступна из JavaScript на стороне клиента, повышает безопасность
         cookie.setSecure(false);       // true-кука будет передаваться только по HTTPS
-        cookie.setPath("/"); // кука отправляется только сюда
+        // тот же path и без domain, что при refresh и logout: иначе у клиента остаётся вторая кука
+        // со старым jti, которую logout не удалит, а её предъявление сработает как повторное использование
+        cookie.setPath("/v1/api/auth");
         cookie.setMaxAge(60 * 60 * 24); // время жизни куки 1 день
-        cookie.setDomain("localhost"); //  домен, для которого действительна кука
         cookie.setAttribute("SameSite", "Lax");
         // для SameSite=None обязательно наличие Secure=true (HTTPS), иначе браузер может игнорировать куку.
         // SameSite=Lax (базовая защита) или SameSite=Strict (максимальная защита).
@@ -76,17 +84,17 @@ public class UserServiceImpl implements UserService {
     @Override
     public AuthResponse refresh(String refreshToken, HttpServletResponse response) {
 
-        String username = jwtService.extractUsername(refreshToken);
-        UserEntity user = getByUsername(username);
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(refreshToken);
+        UserEntity user = getByUsername(rotation.username());
 
         String newAccess = jwtService.generateAccessToken(user);
-        String newRefresh = jwtService.generateRefreshToken(user);
+        String newRefresh = rotation.refreshToken();
 
         // положить новый refresh cookie
         Cookie cookie = new Cookie("refresh_token", newRefresh);
         cookie.setHttpOnly(true);
         cookie.setSecure(false);
-        cookie.setPath("/v1/api/auth/refresh");
+        cookie.setPath("/v1/api/auth"); // refresh и logout: выход должен получить токен, чтобы отозвать его
         cookie.setMaxAge(60 * 60 * 24);
         cookie.setAttribute("SameSite", "None");
         response.addCookie(cookie);
@@ -95,12 +103,24 @@ public class UserServiceImpl implements UserService {
     }
 
     @Override
-    public void logout(HttpServletResponse response) {
+    public void logout(String refreshToken, String authorization, HttpServletResponse response) {
+        refreshTokenService.revoke(refreshToken);
+        if (authorization != null && authorization.startsWith("Bearer ")) {
+            try {
+                Claims claims = jwtService.parseAccessToken(authorization.substring(7));
+                if (claims.getId() != null) {
+                    tokenRevocationService.revokeToken(claims.getId(), claims.getExpiration());
+                }
+            } catch (JwtException e) {
+                // просроченный или поддельный токен отзывать незачем
+            }
+        }
+
         // Удаляем refresh cookie
         ResponseCookie deleteCookie = ResponseCookie.from("refresh_token", "")
                 .httpOnly(true)
                 .secure(true)
-                .path("/v1/api/auth/refresh") // тот же path!
+                .path("/v1/api/auth") // тот же path!
                 .sameSite("None")
                 .maxAge(0) // удаление
                 .build();
@@ -115,10 +135,11 @@ public class UserServiceImpl implements UserService {
         UserEntity user = getById(id);
 
         if (user.getRole() == Role.ROLE_ADMIN) {
-            throw new CommonException (403, "You cannot delete the administrator");
+            throw new BusinessException(ErrorCode.ADMIN_DELETE_FORBIDDEN);
         }
 
         userRepository.deleteById(id);
+        tokenRevocationService.revokeUser(user.getUsername());
     }
 
     @Override
@@ -127,6 +148,8 @@ public class UserServiceImpl implements UserService {
         UserEntity user = getById(id);
         user.setEnabled(false);
         userRepository.save(user);
+        refreshTokenService.revokeAllForUser(id);
+        tokenRevocationService.revokeUser(user.getUsername());
     }
 
     @Override
@@ -140,12 +163,12 @@ public class UserServiceImpl implements UserService {
     @Override
     public UserEntity getByUsername(String username) {
         return userRepository.findByUsername(username)
-                .orElseThrow(() -> new CommonException (404, "User not found"));
+                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
     }
 
     @Override
     public UserEntity getById(Long id) {
         return userRepository.findById(id)
-                .orElseThrow(() -> new CommonException (404, "User not found"));
+                .orElseThrow(() -> new BusinessException(ErrorCode.USER_NOT_FOUND));
     }
 }
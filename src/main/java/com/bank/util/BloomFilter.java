@@ -0,0 +1,54 @@
+package com.bank.util;
+
+/**
+ * Фильтр Блума для строковых ключей.
+ *
+ * <p>Отвечает «точно нет» или «возможно есть»: отрицательный ответ стоит нескольких
+ * обращений к массиву битов без аллокаций. Фильтр только пополняется; чтобы удалить
+ * ключи, его строят заново. Запись не потокобезопасна — фильтр заполняется целиком
+ * до публикации и после этого только читается.</p>
+ */
+public final class BloomFilter {
+
+    private final long[] bits;
+    private final int bitCount;
+    private final int hashCount;
+
+    /**
+     * @param expectedKeys ожидаемое число ключей
+     * @param falsePositiveRate допустимая доля ложноположительных ответов, например {@code 0.01}
+     */
+    public BloomFilter(int expectedKeys, double falsePositiveRate) {
+        int n = Math.max(1, expectedKeys);
+        long m = (long) Math.ceil(-n * Math.log(falsePositiveRate) / (Math.log(2) * Math.log(2)));
+        this.bitCount = (int) Math.min(Integer.MAX_VALUE - 63, Math.max(64, m));
+        this.bits = new long[(bitCount + 63) >>> 6];
+        this.hashCount = Math.max(1, (int) Math.round((double) bitCount / n * Math.log(2)));
+    }
+
+    /**
+     * Две половины 64-битного хэша дают независимые хэши для схемы Кирша — Митценмахера.
+     */
+    public void put(String key) {
+        long hash = StringHash.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int index = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            bits[index >>> 6] |= 1L << index;
+        }
+    }
+
+    public boolean mightContain(String key) {
+        long hash = StringHash.hash64(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int i = 1; i <= hashCount; i++) {
+            int index = ((h1 + i * h2) & Integer.MAX_VALUE) % bitCount;
+            if ((bits[index >>> 6] & (1L << index)) == 0) {
+                return false;
+            }
+        }
+        return true;
+    }
+}
@@ -1,12 +1,21 @@
 package com.bank.util;
 
+import com.bank.dto.CardResponseDto;
+import com.bank.entity.CardEntity;
+
 /**
  * Вспомогательный класс для работы с банковскими картами.
  *
- * <p>Содержит метод для маскирования номера карты.</p>
+ * <p>Содержит метод для маскирования номера карты, преобразование карты в DTO
+ * и валюту карты по умолчанию.</p>
  */
 public class CardUtils {
 
+    /**
+     * Валюта карты по умолчанию (ISO 4217), если она не указана при создании.
+     */
+    public static final String DEFAULT_CURRENCY = "RUB";
+
     /**
      * Маскирует номер карты, оставляя видимыми только последние 4 цифры.
      *
@@ -21,4 +30,23 @@ public class CardUtils {
         String last4 = plainCardNumber.substring(plainCardNumber.length() - 4);
         return "**** **** **** " + last4;
     }
+
+    /**
+     * Преобразует сущность карты в DTO ответа (без расшифровки номера карты).
+     *
+     * @param e сущность карты
+     * @return DTO карты
+     */
+    public static CardResponseDto toResponseDto(CardEntity e) {
+        return new CardResponseDto(
+            e.getId(),
+            e.getUserId(),
+            e.getMaskedNumber(),
+            e.getOwnerName(),
+            e.getExpiryDate(),
+            e.getStatus().name(),
+            e.getBalance(),
+            e.getCurrency()
+        );
+    }
 }
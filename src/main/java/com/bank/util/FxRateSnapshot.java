@@ -0,0 +1,112 @@
+package com.bank.util;
+
+import java.math.BigDecimal;
+import java.math.MathContext;
+import java.math.RoundingMode;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Неизменяемый снимок таблицы валютных курсов.
+ *
+ * <p>Курсы хранятся в плоской матрице {@code n x n}, индексы валют — в неизменяемой
+ * {@link Map}. Поиск курса не берёт блокировок и не создаёт объектов: {@code Map.get}
+ * по строковому ключу и чтение элемента массива. Обновление таблицы выполняется
+ * построением нового снимка и атомарной заменой ссылки на него.</p>
+ *
+ * <p>Если в исходных данных задан только прямой курс {@code BASE → QUOTE},
+ * обратный курс вычисляется при построении снимка.</p>
+ */
+public final class FxRateSnapshot {
+
+    /**
+     * Точность курса (соответствует колонке {@code DECIMAL(19, 8)}).
+     */
+    public static final int RATE_SCALE = 8;
+
+    /**
+     * Пустой снимок: доступны только переводы в одной валюте.
+     */
+    public static final FxRateSnapshot EMPTY = new FxRateSnapshot(Map.of(), new BigDecimal[0]);
+
+    private final Map<String, Integer> index;
+    private final BigDecimal[] rates;
+    private final int size;
+
+    private FxRateSnapshot(Map<String, Integer> index, BigDecimal[] rates) {
+        this.index = index;
+        this.rates = rates;
+        this.size = index.size();
+    }
+
+    /**
+     * Строит снимок из списка курсов.
+     *
+     * @param entries курсы валютных пар
+     * @return новый снимок
+     */
+    public static FxRateSnapshot of(List<Entry> entries) {
+        Map<String, Integer> index = new HashMap<>();
+        for (Entry e : entries) {
+            index.putIfAbsent(e.base(), index.size());
+            index.putIfAbsent(e.quote(), index.size());
+        }
+
+        int n = index.size();
+        BigDecimal[] rates = new BigDecimal[n * n];
+
+        // сначала обратные курсы, затем прямые — явно заданный курс имеет приоритет
+        for (Entry e : entries) {
+            int i = index.get(e.base());
+            int j = index.get(e.quote());
+            rates[j * n + i] = BigDecimal.ONE.divide(e.rate(), new MathContext(19, RoundingMode.HALF_EVEN))
+                    .setScale(RATE_SCALE, RoundingMode.HALF_EVEN);
+        }
+        for (Entry e : entries) {
+            int i = index.get(e.base());
+            int j = index.get(e.quote());
+            rates[i * n + j] = e.rate().setScale(RATE_SCALE, RoundingMode.HALF_EVEN);
+        }
+
+        return new FxRateSnapshot(Map.copyOf(index), rates);
+    }
+
+    /**
+     * Возвращает курс конвертации.
+     *
+     * @param from валюта списания
+     * @param to валюта зачисления
+     * @return курс (сколько единиц {@code to} за одну единицу {@code from}),
+     *         {@link BigDecimal#ONE} для одинаковых валют или {@code null}, если курс неизвестен
+     */
+    public BigDecimal rate(String from, String to) {
+        if (from.equals(to)) {
+            return BigDecimal.ONE;
+        }
+        Integer i = index.get(from);
+        Integer j = index.get(to);
+        if (i == null || j == null) {
+            return null;
+        }
+        return rates[i * size + j];
+    }
+
+    /**
+     * Количество валют в снимке.
+     *
+     * @return число валют
+     */
+    public int currencies() {
+        return size;
+    }
+
+    /**
+     * Курс одной валютной пары.
+     *
+     * @param base базовая валюта
+     * @param quote котируемая валюта
+     * @param rate сколько единиц {@code quote} за одну единицу {@code base}
+     */
+    public record Entry(String base, String quote, BigDecimal rate) {}
+}
@@ -0,0 +1,36 @@
+package com.bank.util;
+
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.Slice;
+
+/**
+ * Вспомогательный класс для постраничных выдач без {@code count(*)}.
+ */
+public class PageUtils {
+
+    /**
+     * Собирает страницу из {@link Slice} и приблизительного общего количества строк.
+     *
+     * <p>Итог не может быть меньше уже известного: если за срезом есть ещё строки, он как минимум
+     * на одну больше прочитанного; если срез последний — итог известен точно. Пустой срез за концом
+     * выдачи говорит только о том, что строк не больше смещения: итог ограничивается им, а не оценкой.</p>
+     *
+     * @param slice срез, прочитанный запросом {@code limit + 1}
+     * @param estimate приблизительное количество строк
+     * @return страница с оценкой итога
+     */
+    public static <T> Page<T> withEstimatedTotal(Slice<T> slice, long estimate) {
+        long offset = slice.getPageable().isPaged() ? slice.getPageable().getOffset() : 0;
+        long seen = offset + slice.getNumberOfElements();
+        long total;
+        if (!slice.hasContent()) {
+            total = offset;
+        } else if (slice.hasNext()) {
+            total = Math.max(estimate, seen + 1);
+        } else {
+            total = seen;
+        }
+        return new PageImpl<>(slice.getContent(), slice.getPageable(), total);
+    }
+}
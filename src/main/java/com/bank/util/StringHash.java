@@ -0,0 +1,28 @@
+package com.bank.util;
+
+/**
+ * Быстрый некриптографический 64-битный хэш строки.
+ */
+public final class StringHash {
+
+    private StringHash() {
+    }
+
+    /**
+     * FNV-1a по символам строки с финальным перемешиванием из SplitMix64, которое
+     * распределяет по всем битам результата даже близкие строки (токены с общим префиксом).
+     */
+    public static long hash64(String value) {
+        long h = 0xcbf29ce484222325L;
+        for (int i = 0; i < value.length(); i++) {
+            h ^= value.charAt(i);
+            h *= 0x100000001b3L;
+        }
+        h ^= h >>> 30;
+        h *= 0xbf58476d1ce4e5b9L;
+        h ^= h >>> 27;
+        h *= 0x94d049bb133111ebL;
+        h ^= h >>> 31;
+        return h;
+    }
+}
@@ -0,0 +1,53 @@
+package com.bank.util;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Неблокирующий token bucket.
+ *
+ * <p>Реализован по алгоритму GCRA (generic cell rate algorithm): всё состояние —
+ * одно «теоретическое время прибытия» следующего запроса в {@link AtomicLong},
+ * поэтому получение токена — это одна CAS-операция без блокировок.
+ * Поведение эквивалентно корзине ёмкостью {@code capacity} с пополнением
+ * {@code refillPerSecond} токенов в секунду.</p>
+ */
+public final class TokenBucket {
+
+    private final long emissionIntervalNanos;
+    private final long burstToleranceNanos;
+    private final AtomicLong theoreticalArrival;
+
+    /**
+     * @param capacity максимальное число запросов подряд (ёмкость корзины)
+     * @param refillPerSecond скорость пополнения, токенов в секунду
+     * @param nowNanos текущее время по {@link System#nanoTime()}
+     */
+    public TokenBucket(int capacity, double refillPerSecond, long nowNanos) {
+        if (!(refillPerSecond > 0)) {
+            throw new IllegalArgumentException("Refill rate must be positive: " + refillPerSecond);
+        }
+        this.emissionIntervalNanos = (long) (1_000_000_000L / refillPerSecond);
+        this.burstToleranceNanos = emissionIntervalNanos * (Math.max(1, capacity) - 1);
+        this.theoreticalArrival = new AtomicLong(nowNanos);
+    }
+
+    /**
+     * Пытается получить один токен.
+     *
+     * @param nowNanos текущее время по {@link System#nanoTime()}
+     * @return {@code 0}, если токен получен, иначе время ожидания до появления токена в наносекундах
+     */
+    public long tryAcquire(long nowNanos) {
+        while (true) {
+            long tat = theoreticalArrival.get();
+            long base = Math.max(tat, nowNanos);
+            long wait = base - nowNanos - burstToleranceNanos;
+            if (wait > 0) {
+                return wait;
+            }
+            if (theoreticalArrival.compareAndSet(tat, base + emissionIntervalNanos)) {
+                return 0;
+            }
+        }
+    }
+}
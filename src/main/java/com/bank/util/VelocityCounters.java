@@ -0,0 +1,205 @@
+package com.bank.util;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Счётчики скорости операций (сумма и количество) в скользящих окнах.
+ *
+ * <p>Для каждого ключа (id карты или пользователя) хранятся два кольцевых буфера:
+ * 24 часовых корзины для суточного окна и 30 дневных корзин для месячного окна.
+ * Каждая корзина помечена номером часа/дня, поэтому устаревшие корзины
+ * переиспользуются без отдельной очистки.</p>
+ *
+ * <p>Ключи распределены по полосам (striping): каждая полоса — отдельная
+ * {@link HashMap} под собственным монитором, так что операции по разным
+ * картам почти не конкурируют друг с другом.</p>
+ *
+ * <p>Суммы хранятся в минорных единицах (копейках, центах).</p>
+ */
+public final class VelocityCounters {
+
+    private static final int HOURS = 24;
+    private static final int DAYS = 30;
+    private static final long MILLIS_PER_HOUR = 3_600_000L;
+    private static final long MILLIS_PER_DAY = 86_400_000L;
+
+    private final Stripe[] stripes;
+    private final int mask;
+
+    /**
+     * @param stripes количество полос (округляется вверх до степени двойки)
+     */
+    public VelocityCounters(int stripes) {
+        int n = Integer.highestOneBit(Math.max(1, stripes - 1)) << 1;
+        this.stripes = new Stripe[n];
+        for (int i = 0; i < n; i++) {
+            this.stripes[i] = new Stripe();
+        }
+        this.mask = n - 1;
+    }
+
+    /**
+     * Атомарно проверяет лимиты и, если они не нарушены, учитывает операцию.
+     *
+     * @param key id карты или пользователя
+     * @param amount сумма в минорных единицах
+     * @param nowMillis момент операции
+     * @param limits лимиты для ключа
+     * @return {@link Verdict#OK}, если операция учтена, иначе нарушенный лимит
+     */
+    public Verdict tryAdd(long key, long amount, long nowMillis, Limits limits) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Window w = stripe.windows.computeIfAbsent(key, k -> new Window());
+            Verdict verdict = w.check(amount, nowMillis, limits);
+            if (verdict == Verdict.OK) {
+                w.add(amount, 1, nowMillis);
+            }
+            return verdict;
+        }
+    }
+
+    /**
+     * Безусловно учитывает операцию (используется при восстановлении из БД).
+     *
+     * @param key id карты или пользователя
+     * @param amount сумма в минорных единицах
+     * @param atMillis момент операции
+     */
+    public void add(long key, long amount, long atMillis) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            stripe.windows.computeIfAbsent(key, k -> new Window()).add(amount, 1, atMillis);
+        }
+    }
+
+    /**
+     * Откатывает ранее учтённую операцию (например, при откате транзакции перевода).
+     *
+     * @param key id карты или пользователя
+     * @param amount сумма в минорных единицах
+     * @param atMillis момент, с которым операция была учтена
+     */
+    public void remove(long key, long amount, long atMillis) {
+        Stripe stripe = stripeFor(key);
+        synchronized (stripe) {
+            Window w = stripe.windows.get(key);
+            if (w != null) {
+                w.add(-amount, -1, atMillis);
+            }
+        }
+    }
+
+    private Stripe stripeFor(long key) {
+        long h = key * 0x9E3779B97F4A7C15L;
+        return stripes[(int) (h ^ (h >>> 32)) & mask];
+    }
+
+    /**
+     * Результат проверки лимитов.
+     */
+    public enum Verdict {
+        OK,
+        DAILY_AMOUNT,
+        DAILY_COUNT,
+        MONTHLY_AMOUNT,
+        MONTHLY_COUNT
+    }
+
+    /**
+     * Лимиты для одного ключа. Значение {@code 0} означает отсутствие ограничения.
+     *
+     * @param dailyAmount максимальная сумма за 24 часа (минорные единицы)
+     * @param dailyCount максимальное количество операций за 24 часа
+     * @param monthlyAmount максимальная сумма за 30 дней (минорные единицы)
+     * @param monthlyCount максимальное количество операций за 30 дней
+     */
+    public record Limits(long dailyAmount, int dailyCount, long monthlyAmount, int monthlyCount) {}
+
+    private static final class Stripe {
+        private final Map<Long, Window> windows = new HashMap<>();
+    }
+
+    private static final class Window {
+        private final long[] hourStamp = new long[HOURS];
+        private final long[] hourAmount = new long[HOURS];
+        private final int[] hourCount = new int[HOURS];
+        private final long[] dayStamp = new long[DAYS];
+        private final long[] dayAmount = new long[DAYS];
+        private final int[] dayCount = new int[DAYS];
+
+        Window() {
+            Arrays.fill(hourStamp, Long.MIN_VALUE);
+            Arrays.fill(dayStamp, Long.MIN_VALUE);
+        }
+
+        Verdict check(long amount, long nowMillis, Limits limits) {
+            long hour = nowMillis / MILLIS_PER_HOUR;
+            long day = nowMillis / MILLIS_PER_DAY;
+
+            long dAmount = 0;
+            int dCount = 0;
+            for (int i = 0; i < HOURS; i++) {
+                if (hourStamp[i] > hour - HOURS) {
+                    dAmount += hourAmount[i];
+                    dCount += hourCount[i];
+                }
+            }
+            if (limits.dailyAmount() > 0 && dAmount + amount > limits.dailyAmount()) {
+                return Verdict.DAILY_AMOUNT;
+            }
+            if (limits.dailyCount() > 0 && dCount + 1 > limits.dailyCount()) {
+                return Verdict.DAILY_COUNT;
+            }
+
+            long mAmount = 0;
+            int mCount = 0;
+            for (int i = 0; i < DAYS; i++) {
+                if (dayStamp[i] > day - DAYS) {
+                    mAmount += dayAmount[i];
+                    mCount += dayCount[i];
+                }
+            }
+            if (limits.monthlyAmount() > 0 && mAmount + amount > limits.monthlyAmount()) {
+                return Verdict.MONTHLY_AMOUNT;
+            }
+            if (limits.monthlyCount() > 0 && mCount + 1 > limits.monthlyCount()) {
+                return Verdict.MONTHLY_COUNT;
+            }
+            return Verdict.OK;
+        }
+
+        /**
+         * Корзина, помеченная более поздним часом/днём, уже вытеснила этот момент из окна,
+         * поэтому операция в ней не учитывается. Откат (отрицательный count) никогда
+         * не переинициализирует корзину.
+         */
+        void add(long amount, int count, long atMillis) {
+            long hour = atMillis / MILLIS_PER_HOUR;
+            int h = (int) Math.floorMod(hour, HOURS);
+            if (hourStamp[h] < hour && count > 0) {
+                hourStamp[h] = hour;
+                hourAmount[h] = 0;
+                hourCount[h] = 0;
+            }
+            if (hourStamp[h] == hour) {
+                hourAmount[h] += amount;
+                hourCount[h] += count;
+            }
+
+            long day = atMillis / MILLIS_PER_DAY;
+            int d = (int) Math.floorMod(day, DAYS);
+            if (dayStamp[d] < day && count > 0) {
+                dayStamp[d] = day;
+                dayAmount[d] = 0;
+                dayCount[d] = 0;
+            }
+            if (dayStamp[d] == day) {
+                dayAmount[d] += amount;
+                dayCount[d] += count;
+            }
+        }
+    }
+}
@@ -0,0 +1,98 @@
+package com.bank.config;
+
+import liquibase.integration.spring.SpringLiquibase;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import javax.sql.DataSource;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Решение о запуске Liquibase по отпечатку на встроенной базе H2; само обновление не выполняется.
+ */
+class LiquibaseFingerprintPostProcessorTest {
+
+    private static final String CHANGE_LOG = "db/migration/db.changelog-master.yaml";
+
+    private DataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private LiquibaseFingerprintPostProcessor postProcessor;
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE liquibase_fingerprints " +
+                "(change_log VARCHAR(255) PRIMARY KEY, fingerprint VARCHAR(64) NOT NULL, updated_at TIMESTAMP NOT NULL)");
+        postProcessor = new LiquibaseFingerprintPostProcessor();
+    }
+
+    /**
+     * Запоминает решение пост-процессора о запуске обновления.
+     */
+    private static final class RecordingLiquibase extends SpringLiquibase {
+
+        private boolean run = true;
+
+        @Override
+        public void setShouldRun(boolean shouldRun) {
+            super.setShouldRun(shouldRun);
+            this.run = shouldRun;
+        }
+    }
+
+    private RecordingLiquibase liquibase() {
+        RecordingLiquibase liquibase = new RecordingLiquibase();
+        liquibase.setDataSource(dataSource);
+        liquibase.setChangeLog("classpath:" + CHANGE_LOG);
+        return liquibase;
+    }
+
+    /**
+     * Полный цикл старта бина: до инициализации решается, запускать ли обновление, после — сохраняется отпечаток.
+     */
+    private boolean start(RecordingLiquibase liquibase) {
+        postProcessor.postProcessBeforeInitialization(liquibase, "liquibase");
+        boolean run = liquibase.run;
+        postProcessor.postProcessAfterInitialization(liquibase, "liquibase");
+        return run;
+    }
+
+    @Test
+    void unchangedChangelog_skippedOnNextStart() {
+        assertTrue(start(liquibase()));
+        assertEquals(1, jdbcTemplate.queryForObject("SELECT count(*) FROM liquibase_fingerprints", Integer.class));
+
+        assertFalse(start(liquibase()));
+    }
+
+    @Test
+    void changedChangelog_runsAndStoresNewFingerprint() {
+        String fingerprint = postProcessor.fingerprint(liquibase());
+        jdbcTemplate.update("INSERT INTO liquibase_fingerprints VALUES (?, ?, CURRENT_TIMESTAMP)",
+                "classpath:" + CHANGE_LOG, "0".repeat(64));
+
+        assertTrue(start(liquibase()));
+        assertEquals(fingerprint, jdbcTemplate.queryForObject(
+                "SELECT fingerprint FROM liquibase_fingerprints", String.class));
+    }
+
+    @Test
+    void differentContexts_changeFingerprint() {
+        SpringLiquibase withContexts = liquibase();
+        withContexts.setContexts("test");
+
+        assertNotEquals(postProcessor.fingerprint(liquibase()), postProcessor.fingerprint(withContexts));
+    }
+
+    @Test
+    void missingTable_updateRuns() {
+        jdbcTemplate.execute("DROP TABLE liquibase_fingerprints");
+
+        assertTrue(start(liquibase()));
+    }
+}
@@ -0,0 +1,104 @@
+package com.bank.config;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Маршрутизация на двух встроенных базах H2: каждая знает, чья она, через таблицу {@code node}.
+ */
+class ReplicaRoutingDataSourceTest {
+
+    private JdbcTemplate replicaAdmin;
+    private ReplicaLagMonitor lagMonitor;
+    private JdbcTemplate jdbcTemplate;
+    private TransactionTemplate readWrite;
+    private TransactionTemplate readOnly;
+
+    @BeforeEach
+    void setUp() {
+        DataSource primary = node("primary");
+        DataSource replica = node("replica");
+        replicaAdmin = new JdbcTemplate(replica);
+        replicaAdmin.execute("CREATE TABLE lag (ms BIGINT)");
+        replicaAdmin.update("INSERT INTO lag VALUES (0)");
+
+        lagMonitor = new ReplicaLagMonitor(replica, "SELECT ms FROM lag", 1000);
+        lagMonitor.check();
+
+        DataSource routing = new LazyConnectionDataSourceProxy(new ReplicaRoutingDataSource(
+                primary, replica, lagMonitor, new ReadYourWritesTracker(Duration.ofMinutes(1), 100)));
+        jdbcTemplate = new JdbcTemplate(routing);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(routing);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    @AfterEach
+    void tearDown() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToReplica() {
+        assertEquals("replica", readOnly.execute(s -> currentNode()));
+        assertEquals("primary", readWrite.execute(s -> currentNode()));
+        assertEquals("primary", currentNode());
+    }
+
+    @Test
+    void laggingReplicaFallsBackToPrimary() {
+        replicaAdmin.update("UPDATE lag SET ms = 5000");
+        lagMonitor.check();
+
+        assertEquals("primary", readOnly.execute(s -> currentNode()));
+
+        replicaAdmin.execute("DROP TABLE lag");
+        lagMonitor.check();
+
+        assertEquals("primary", readOnly.execute(s -> currentNode()));
+    }
+
+    @Test
+    void writerReadsOwnWritesFromPrimary() {
+        authenticate("alice");
+        readWrite.executeWithoutResult(s -> jdbcTemplate.update("UPDATE node SET writes = writes + 1"));
+
+        assertEquals("primary", readOnly.execute(s -> currentNode()));
+
+        authenticate("bob");
+        assertEquals("replica", readOnly.execute(s -> currentNode()));
+    }
+
+    private String currentNode() {
+        return jdbcTemplate.queryForObject("SELECT name FROM node", String.class);
+    }
+
+    private static DataSource node(String name) {
+        DataSource dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("CREATE TABLE node (name VARCHAR(16), writes INT)");
+        jdbc.update("INSERT INTO node VALUES (?, 0)", name);
+        return dataSource;
+    }
+
+    private static void authenticate(String username) {
+        SecurityContextHolder.getContext().setAuthentication(
+                UsernamePasswordAuthenticationToken.authenticated(username, null, List.of()));
+    }
+}
@@ -2,10 +2,15 @@ package com.bank.controller;
 
 import com.bank.dto.*;
 import com.bank.entity.UserEntity;
+import com.bank.event.CardEventHub;
+import com.bank.service.CardBulkImportService;
 import com.bank.security.JpaUserDetailsService;
 import com.bank.security.JwtAuthenticationFilter;
 import com.bank.security.JwtService;
+import com.bank.security.RateLimitFilter;
+import com.bank.security.UserRateLimitFilter;
 import com.bank.service.CardService;
+import com.bank.service.CardSummaryService;
 import com.bank.service.impl.UserServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import org.junit.jupiter.api.Test;
@@ -21,9 +26,12 @@ import org.springframework.test.web.servlet.MockMvc;
 import java.math.BigDecimal;
 import java.time.LocalDate;
 import java.util.List;
+import java.util.Map;
 
 import static org.mockito.ArgumentMatchers.*;
 import static org.mockito.Mockito.doNothing;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
 import static org.mockito.Mockito.when;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
 import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
@@ -44,9 +52,24 @@ class CardControllerTest {
     @MockitoBean
     private UserServiceImpl userService;
 
+    @MockitoBean
+    private CardEventHub cardEventHub;
+
+    @MockitoBean
+    private CardBulkImportService cardBulkImportService;
+
+    @MockitoBean
+    private CardSummaryService cardSummaryService;
+
     @MockitoBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @MockitoBean
+    private RateLimitFilter rateLimitFilter;
+
+    @MockitoBean
+    private UserRateLimitFilter userRateLimitFilter;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -63,7 +86,7 @@ class CardControllerTest {
         when(userService.getByUsername("john")).thenReturn(user);
 
         CardResponseDto dto = new CardResponseDto(1L, 10L, "**** 1111", "John Wick",
-                LocalDate.now().plusYears(1), "ACTIVE", new BigDecimal("1000"));
+                LocalDate.now().plusYears(1), "ACTIVE", new BigDecimal("1000"), "RUB");
         Page<CardResponseDto> page = new PageImpl<>(List.of(dto));
 
         when(cardService.getUserCards(eq(10L), any(PageRequest.class))).thenReturn(page);
@@ -86,7 +109,7 @@ class CardControllerTest {
         when(userService.getByUsername("john")).thenReturn(user);
 
         CardResponseDto dto = new CardResponseDto(1L, 10L, "**** 1111", "John Wick",
-                LocalDate.now().plusYears(1), "ACTIVE", new BigDecimal("1000"));
+                LocalDate.now().plusYears(1), "ACTIVE", new BigDecimal("1000"), "RUB");
 
         when(cardService.getCardForUser(1L, 10L)).thenReturn(dto);
 
@@ -112,12 +135,13 @@ class CardControllerTest {
                 "John Wick",
                 1L,
                 LocalDate.now().plusYears(1),
-                new BigDecimal("1000")
+                new BigDecimal("1000"),
+                "RUB"
         );
 
         CardResponseDto response = new CardResponseDto(
                 1L, 1L, "**** **** **** 5678", "John Wick",
-                LocalDate.now().plusYears(1), "ACTIVE", new BigDecimal("1000")
+                LocalDate.now().plusYears(1), "ACTIVE", new BigDecimal("1000"), "RUB"
         );
 
         when(cardService.createCard(dto)).thenReturn(response);
@@ -162,7 +186,7 @@ class CardControllerTest {
     @WithMockUser(username = "admin", roles = {"ADMIN"})
     void getAllCardsAsAdmin_success() throws Exception {
         CardResponseDto dto = new CardResponseDto(1L, 10L, "**** 1111", "John Wick",
-                LocalDate.now().plusYears(1), "ACTIVE", new BigDecimal("1000"));
+                LocalDate.now().plusYears(1), "ACTIVE", new BigDecimal("1000"), "RUB");
         Page<CardResponseDto> page = new PageImpl<>(List.of(dto));
 
         when(cardService.getAllCards(any(Pageable.class))).thenReturn(page);
@@ -174,4 +198,41 @@ class CardControllerTest {
                 .andExpect(jsonPath("$.content[0].id").value(1));
     }
 
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void getAllCardsAsAdmin_withoutTotal_returnsSlice() throws Exception {
+        CardResponseDto dto = new CardResponseDto(1L, 10L, "**** 1111", "John Wick",
+                LocalDate.now().plusYears(1), "ACTIVE", new BigDecimal("1000"), "RUB");
+        Slice<CardResponseDto> slice = new SliceImpl<>(List.of(dto), PageRequest.of(0, 10), true);
+
+        when(cardService.getAllCardsSlice(any(Pageable.class))).thenReturn(slice);
+
+        mockMvc.perform(get("/v1/api/cards/all")
+                        .param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content[0].id").value(1))
+                .andExpect(jsonPath("$.totalElements").doesNotExist());
+
+        verify(cardService, never()).getAllCards(any());
+    }
+
+    @Test
+    @WithMockUser(username = "john", roles = {"USER"})
+    void getSummary_success() throws Exception {
+        UserEntity user = new UserEntity();
+        user.setId(10L);
+        user.setUsername("john");
+
+        when(userService.getByUsername("john")).thenReturn(user);
+        when(cardSummaryService.getSummary(10L)).thenReturn(new CardSummaryDto(10L,
+                Map.of("RUB", new BigDecimal("1500.00")), 2, 1, 0, null));
+
+        mockMvc.perform(get("/v1/api/cards/summary"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.balances.RUB").value(1500.00))
+                .andExpect(jsonPath("$.activeCards").value(2))
+                .andExpect(jsonPath("$.blockedCards").value(1));
+
+        verify(cardService, never()).getUserCards(any(), any());
+    }
 }
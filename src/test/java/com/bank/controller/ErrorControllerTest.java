@@ -0,0 +1,57 @@
+package com.bank.controller;
+
+import com.bank.dto.ErrorDto;
+import com.bank.exception.BusinessException;
+import com.bank.exception.CommonException;
+import com.bank.exception.ErrorCode;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.http.ResponseEntity;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.*;
+
+class ErrorControllerTest {
+
+    SimpleMeterRegistry meterRegistry;
+
+    ErrorController errorController;
+
+    @BeforeEach
+    void setup() {
+        meterRegistry = new SimpleMeterRegistry();
+        errorController = new ErrorController(new StaticListableBeanFactory(Map.of("meterRegistry", meterRegistry))
+                .getBeanProvider(MeterRegistry.class));
+    }
+
+    @Test
+    void businessException_returnsPreparedResponseAndCounts() {
+        ResponseEntity<ErrorDto> first = errorController.handleCommonException(new BusinessException(ErrorCode.INSUFFICIENT_FUNDS));
+        ResponseEntity<ErrorDto> second = errorController.handleCommonException(new BusinessException(ErrorCode.INSUFFICIENT_FUNDS));
+
+        assertThat(first).isSameAs(second);
+        assertThat(first.getStatusCode().value()).isEqualTo(400);
+        assertThat(first.getBody().getMessage()).isEqualTo("Insufficient funds");
+        assertThat(meterRegistry.get("business_errors").tag("code", "INSUFFICIENT_FUNDS").counter().count())
+                .isEqualTo(2.0);
+    }
+
+    @Test
+    void commonException_withoutCode_countedAsUnclassified() {
+        ResponseEntity<ErrorDto> response = errorController.handleCommonException(new CommonException(418, "Teapot"));
+
+        assertThat(response.getStatusCode().value()).isEqualTo(418);
+        assertThat(response.getBody().getMessage()).isEqualTo("Teapot");
+        assertThat(meterRegistry.get("business_errors").tag("code", "UNCLASSIFIED").counter().count())
+                .isEqualTo(1.0);
+    }
+
+    @Test
+    void businessException_hasNoStackTrace() {
+        assertThat(new BusinessException(ErrorCode.CARD_NOT_FOUND).getStackTrace()).isEmpty();
+    }
+}
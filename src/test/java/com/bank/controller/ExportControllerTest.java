@@ -0,0 +1,92 @@
+package com.bank.controller;
+
+import com.bank.security.JpaUserDetailsService;
+import com.bank.security.JwtAuthenticationFilter;
+import com.bank.security.JwtService;
+import com.bank.security.RateLimitFilter;
+import com.bank.security.UserRateLimitFilter;
+import com.bank.service.ExportService;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
+
+import java.io.ByteArrayInputStream;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.doAnswer;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ExportController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ExportControllerTest {
+
+    private static final String CSV = "id,masked_number\n1,**** **** **** 1111\n";
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private ExportService exportService;
+
+    @MockitoBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockitoBean
+    private RateLimitFilter rateLimitFilter;
+
+    @MockitoBean
+    private UserRateLimitFilter userRateLimitFilter;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private JpaUserDetailsService jpaUserDetailsService;
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportCards_plainCsv() throws Exception {
+        doAnswer(i -> {
+            i.getArgument(1, OutputStream.class).write(CSV.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportCards(eq(ExportService.Format.CSV), any());
+
+        mockMvc.perform(get("/v1/api/admin/export/cards"))
+                .andExpect(status().isOk())
+                .andExpect(header().doesNotExist("Content-Encoding"))
+                .andExpect(content().string(CSV));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void exportTransfers_gzipWhenAccepted() throws Exception {
+        doAnswer(i -> {
+            i.getArgument(1, OutputStream.class).write(CSV.getBytes(StandardCharsets.UTF_8));
+            return null;
+        }).when(exportService).exportTransfers(eq(ExportService.Format.NDJSON), any());
+
+        MvcResult result = mockMvc.perform(get("/v1/api/admin/export/transfers")
+                        .param("format", "ndjson")
+                        .header("Accept-Encoding", "gzip"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Content-Encoding", "gzip"))
+                .andExpect(content().contentTypeCompatibleWith("application/x-ndjson"))
+                .andReturn();
+
+        byte[] body = result.getResponse().getContentAsByteArray();
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(body))) {
+            assertEquals(CSV, new String(in.readAllBytes(), StandardCharsets.UTF_8));
+        }
+    }
+}
@@ -0,0 +1,70 @@
+package com.bank.controller;
+
+import com.bank.security.JpaUserDetailsService;
+import com.bank.security.JwtAuthenticationFilter;
+import com.bank.security.JwtKeyring;
+import com.bank.security.JwtService;
+import com.bank.security.RateLimitFilter;
+import com.bank.security.UserRateLimitFilter;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.util.List;
+import java.util.Map;
+
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = JwkController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class JwkControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @MockitoBean
+    private JwtKeyring keyring;
+
+    @MockitoBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockitoBean
+    private RateLimitFilter rateLimitFilter;
+
+    @MockitoBean
+    private UserRateLimitFilter userRateLimitFilter;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private JpaUserDetailsService jpaUserDetailsService;
+
+    @Test
+    void jwks_success() throws Exception {
+        when(keyring.jwks()).thenReturn(Map.of("keys", List.of(Map.of("kty", "EC", "kid", "1760000000-0a1b2c3d"))));
+
+        mockMvc.perform(get("/.well-known/jwks.json"))
+                .andExpect(status().isOk())
+                .andExpect(header().string("Cache-Control", "max-age=300, public"))
+                .andExpect(jsonPath("$.keys[0].kid").value("1760000000-0a1b2c3d"));
+    }
+
+    @Test
+    @WithMockUser(roles = "ADMIN")
+    void rotate_success() throws Exception {
+        when(keyring.rotate()).thenReturn("1760000100-0e0f1a2b");
+
+        mockMvc.perform(post("/v1/api/admin/jwt-keys/rotate"))
+                .andExpect(status().isOk())
+                .andExpect(content().string("1760000100-0e0f1a2b"));
+
+        verify(keyring).rotate();
+    }
+}
@@ -0,0 +1,121 @@
+package com.bank.controller;
+
+import com.bank.dto.ScheduledTransferCreateDto;
+import com.bank.dto.ScheduledTransferDto;
+import com.bank.entity.UserEntity;
+import com.bank.enums.TransferFrequency;
+import com.bank.exception.CommonException;
+import com.bank.security.JpaUserDetailsService;
+import com.bank.security.JwtAuthenticationFilter;
+import com.bank.security.JwtService;
+import com.bank.security.RateLimitFilter;
+import com.bank.security.UserRateLimitFilter;
+import com.bank.service.ScheduledTransferService;
+import com.bank.service.impl.UserServiceImpl;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.web.servlet.AutoConfigureMockMvc;
+import org.springframework.boot.test.autoconfigure.web.servlet.WebMvcTest;
+import org.springframework.http.MediaType;
+import org.springframework.security.test.context.support.WithMockUser;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.test.web.servlet.MockMvc;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.*;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.*;
+
+@WebMvcTest(controllers = ScheduledTransferController.class)
+@AutoConfigureMockMvc(addFilters = false)
+class ScheduledTransferControllerTest {
+
+    @Autowired
+    private MockMvc mockMvc;
+
+    @Autowired
+    private ObjectMapper objectMapper;
+
+    @MockitoBean
+    private ScheduledTransferService scheduledTransferService;
+
+    @MockitoBean
+    private UserServiceImpl userService;
+
+    @MockitoBean
+    private JwtAuthenticationFilter jwtAuthenticationFilter;
+
+    @MockitoBean
+    private RateLimitFilter rateLimitFilter;
+
+    @MockitoBean
+    private UserRateLimitFilter userRateLimitFilter;
+
+    @MockitoBean
+    private JwtService jwtService;
+
+    @MockitoBean
+    private JpaUserDetailsService jpaUserDetailsService;
+
+    @BeforeEach
+    void setUp() {
+        UserEntity user = new UserEntity();
+        user.setId(1L);
+        user.setUsername("user1");
+        when(userService.getByUsername("user1")).thenReturn(user);
+    }
+
+    @Test
+    @WithMockUser(username = "user1", roles = {"USER"})
+    void create_success() throws Exception {
+        ScheduledTransferCreateDto dto = new ScheduledTransferCreateDto(
+                10L, 20L, new BigDecimal("500.00"), TransferFrequency.WEEKLY, null);
+        when(scheduledTransferService.create(eq(1L), any())).thenReturn(ScheduledTransferDto.builder()
+                .id(7L)
+                .fromCardId(10L)
+                .toCardId(20L)
+                .amount(new BigDecimal("500.00"))
+                .frequency(TransferFrequency.WEEKLY)
+                .nextRunAt(LocalDateTime.now())
+                .active(true)
+                .build());
+
+        mockMvc.perform(post("/v1/api/transfers/scheduled")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.id").value(7))
+                .andExpect(jsonPath("$.frequency").value("WEEKLY"));
+    }
+
+    @Test
+    @WithMockUser(username = "user1", roles = {"USER"})
+    void create_rejectsNonPositiveAmount() throws Exception {
+        ScheduledTransferCreateDto dto = new ScheduledTransferCreateDto(
+                10L, 20L, BigDecimal.ZERO, TransferFrequency.DAILY, null);
+
+        mockMvc.perform(post("/v1/api/transfers/scheduled")
+                        .contentType(MediaType.APPLICATION_JSON)
+                        .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(status().isBadRequest());
+
+        verifyNoInteractions(scheduledTransferService);
+    }
+
+    @Test
+    @WithMockUser(username = "user1", roles = {"USER"})
+    void cancel_notFound() throws Exception {
+        doThrow(new CommonException(404, "Scheduled transfer not found"))
+                .when(scheduledTransferService).cancel(1L, 99L);
+
+        mockMvc.perform(delete("/v1/api/transfers/scheduled/99"))
+                .andExpect(status().isNotFound())
+                .andExpect(jsonPath("$.message").value("Scheduled transfer not found"));
+    }
+}
@@ -8,6 +8,9 @@ import com.bank.exception.CommonException;
 import com.bank.security.JpaUserDetailsService;
 import com.bank.security.JwtAuthenticationFilter;
 import com.bank.security.JwtService;
+import com.bank.security.RateLimitFilter;
+import com.bank.security.UserRateLimitFilter;
+import com.bank.service.TransferArchiveService;
 import com.bank.service.TransferService;
 import com.bank.service.impl.UserServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
@@ -21,10 +24,12 @@ import org.springframework.http.MediaType;
 import org.springframework.security.test.context.support.WithMockUser;
 import org.springframework.test.context.bean.override.mockito.MockitoBean;
 import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.MvcResult;
 import org.springframework.beans.factory.annotation.Autowired;
 import java.math.BigDecimal;
 import java.time.LocalDateTime;
 import java.util.List;
+import java.util.concurrent.CompletableFuture;
 
 import static org.mockito.Mockito.*;
 import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.*;
@@ -43,6 +48,9 @@ class TransferControllerTest {
     @MockitoBean
     private TransferService transferService;
 
+    @MockitoBean
+    private TransferArchiveService transferArchiveService;
+
     @MockitoBean
     private UserServiceImpl userService;
 
@@ -51,6 +59,12 @@ class TransferControllerTest {
     @MockitoBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @MockitoBean
+    private RateLimitFilter rateLimitFilter;
+
+    @MockitoBean
+    private UserRateLimitFilter userRateLimitFilter;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -78,11 +92,16 @@ class TransferControllerTest {
                 .build();
 
         when(userService.getByUsername("user1")).thenReturn(user);
-        when(transferService.transferBetweenOwnCards(user.getId(), dto)).thenReturn(response);
+        when(transferService.transferBetweenOwnCardsAsync(user.getId(), dto))
+                .thenReturn(CompletableFuture.completedFuture(response));
 
-        mockMvc.perform(post("/v1/api/transfers")
+        MvcResult result = mockMvc.perform(post("/v1/api/transfers")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.fromCardMasked").value("**** **** **** 1111"))
                 .andExpect(jsonPath("$.toCardMasked").value("**** **** **** 2222"));
@@ -94,12 +113,16 @@ class TransferControllerTest {
         TransferRequestDto dto = new TransferRequestDto(1L, 2L, new BigDecimal("1000"));
 
         when(userService.getByUsername("user1")).thenReturn(user);
-        when(transferService.transferBetweenOwnCards(user.getId(), dto))
-                .thenThrow(new CommonException(400, "Insufficient funds"));
+        when(transferService.transferBetweenOwnCardsAsync(user.getId(), dto))
+                .thenReturn(CompletableFuture.failedFuture(new CommonException(400, "Insufficient funds")));
 
-        mockMvc.perform(post("/v1/api/transfers")
+        MvcResult result = mockMvc.perform(post("/v1/api/transfers")
                         .contentType(MediaType.APPLICATION_JSON)
                         .content(objectMapper.writeValueAsString(dto)))
+                .andExpect(request().asyncStarted())
+                .andReturn();
+
+        mockMvc.perform(asyncDispatch(result))
                 .andExpect(status().isBadRequest())
                 .andExpect(jsonPath("$.message").value("Insufficient funds"));
     }
@@ -113,6 +136,8 @@ class TransferControllerTest {
                 null,
                 null,
                 new BigDecimal("100"),
+                new BigDecimal("100"),
+                BigDecimal.ONE,
                 LocalDateTime.now()
         );
 
@@ -125,4 +150,23 @@ class TransferControllerTest {
                 .andExpect(status().isOk())
                 .andExpect(jsonPath("$.content[0].id").value(1));
     }
+
+    @Test
+    @WithMockUser(username = "admin", roles = {"ADMIN"})
+    void testGetTransfersForPeriodAsAdmin() throws Exception {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2025, 2, 1, 0, 0);
+
+        when(transferService.getAllBetweenSlice(from, to, PageRequest.of(0, 10)))
+                .thenReturn(new SliceImpl<>(List.of(), PageRequest.of(0, 10), false));
+
+        mockMvc.perform(get("/v1/api/transfers/all")
+                        .param("from", "2025-01-01T00:00:00")
+                        .param("to", "2025-02-01T00:00:00")
+                        .param("withTotal", "false"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.content").isEmpty());
+
+        verify(transferService, never()).getAllSlice(any());
+    }
 }
@@ -7,6 +7,8 @@ import com.bank.exception.CommonException;
 import com.bank.security.JpaUserDetailsService;
 import com.bank.security.JwtAuthenticationFilter;
 import com.bank.security.JwtService;
+import com.bank.security.RateLimitFilter;
+import com.bank.security.UserRateLimitFilter;
 import com.bank.service.impl.UserServiceImpl;
 import com.fasterxml.jackson.databind.ObjectMapper;
 import jakarta.servlet.http.Cookie;
@@ -42,6 +44,12 @@ class UserControllerTest {
     @MockitoBean
     private JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @MockitoBean
+    private RateLimitFilter rateLimitFilter;
+
+    @MockitoBean
+    private UserRateLimitFilter userRateLimitFilter;
+
     @MockitoBean
     private JwtService jwtService;
 
@@ -132,10 +140,12 @@ class UserControllerTest {
     @WithMockUser
     void logout_success() throws Exception {
 
-        mockMvc.perform(post("/v1/api/auth/logout"))
+        mockMvc.perform(post("/v1/api/auth/logout")
+                        .cookie(new Cookie("refresh_token", "refresh123"))
+                        .header("Authorization", "Bearer access123"))
                 .andExpect(status().isNoContent());
 
-        Mockito.verify(userService).logout(any());
+        Mockito.verify(userService).logout(eq("refresh123"), eq("Bearer access123"), any());
     }
 
 
@@ -0,0 +1,207 @@
+package com.bank.event;
+
+import com.bank.dto.CardResponseDto;
+import com.bank.enums.CardStatus;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.ArgumentCaptor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.context.annotation.AnnotationConfigApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.EnableTransactionManagement;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class CardEventHubTest {
+
+    private static final long USER = 5L;
+
+    private MeterRegistry meterRegistry;
+    private TestHub hub;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        hub = new TestHub(meterRegistry);
+        ReflectionTestUtils.setField(hub, "bufferSize", 2);
+        ReflectionTestUtils.setField(hub, "timeoutMs", 1000L);
+        ReflectionTestUtils.setField(hub, "maxPerUser", 2);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    void subscribe_overPerUserCap_evictsExistingSubscriber() {
+        hub.subscribe(USER);
+        hub.subscribe(USER);
+        hub.subscribe(USER);
+
+        int completed = 0;
+        for (SseEmitter emitter : hub.emitters.subList(0, 2)) {
+            completed += mockingDetails(emitter).getInvocations().stream()
+                    .filter(i -> i.getMethod().getName().equals("complete"))
+                    .count();
+        }
+        assertEquals(1, completed);
+        verify(hub.emitters.get(2), never()).complete();
+        assertEquals(2, connections());
+    }
+
+    @Test
+    void bufferOverflow_disconnectsSubscriber() {
+        SseEmitter emitter = hub.subscribe(USER);
+
+        hub.onCardChanged(new CardChangedEvent(USER, List.of(card(1), card(2), card(3))));
+
+        verify(emitter).complete();
+        assertEquals(0, connections());
+        assertEquals(1, meterRegistry.get("cards.stream.evicted").counter().count());
+    }
+
+    @Test
+    void cardChange_deliveredToSubscriber() throws Exception {
+        SseEmitter emitter = hub.subscribe(USER);
+        SseEmitter other = hub.subscribe(USER + 1);
+
+        hub.onCardChanged(new CardChangedEvent(USER, List.of(card(1))));
+
+        verify(emitter, timeout(1000)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(other, after(100).never()).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void heartbeat_pingsIdleSubscribers() throws Exception {
+        SseEmitter emitter = hub.subscribe(USER);
+
+        hub.heartbeat();
+
+        verify(emitter, timeout(1000)).send(any(SseEmitter.SseEventBuilder.class));
+        verify(emitter, never()).complete();
+    }
+
+    @Test
+    void heartbeat_sendFailure_removesSubscriber() throws Exception {
+        SseEmitter emitter = hub.subscribe(USER);
+        doThrow(new IOException("broken pipe")).when(emitter).send(any(SseEmitter.SseEventBuilder.class));
+
+        hub.heartbeat();
+
+        verify(emitter, timeout(1000)).completeWithError(any());
+        assertEquals(0, connections());
+    }
+
+    @Test
+    void timeout_removesSubscriber() throws Exception {
+        SseEmitter emitter = hub.subscribe(USER);
+        ArgumentCaptor<Runnable> onTimeout = ArgumentCaptor.forClass(Runnable.class);
+        verify(emitter).onTimeout(onTimeout.capture());
+
+        onTimeout.getValue().run();
+        hub.heartbeat();
+        hub.onCardChanged(new CardChangedEvent(USER, List.of(card(1))));
+
+        assertEquals(0, connections());
+        verify(emitter, after(100).never()).send(any(SseEmitter.SseEventBuilder.class));
+    }
+
+    @Test
+    void cardChange_deliveredOnlyAfterCommit() throws Exception {
+        try (AnnotationConfigApplicationContext context = new AnnotationConfigApplicationContext(TransactionalConfig.class)) {
+            TestHub transactionalHub = context.getBean(TestHub.class);
+            ApplicationEventPublisher publisher = context;
+            TransactionTemplate transaction = new TransactionTemplate(context.getBean(PlatformTransactionManager.class));
+            SseEmitter emitter = transactionalHub.subscribe(USER);
+
+            transaction.executeWithoutResult(status -> {
+                publisher.publishEvent(new CardChangedEvent(USER, List.of(card(1))));
+                status.setRollbackOnly();
+            });
+            verify(emitter, after(100).never()).send(any(SseEmitter.SseEventBuilder.class));
+
+            transaction.executeWithoutResult(status -> {
+                publisher.publishEvent(new CardChangedEvent(USER, List.of(card(2))));
+                try {
+                    verify(emitter, after(100).never()).send(any(SseEmitter.SseEventBuilder.class));
+                } catch (IOException e) {
+                    throw new IllegalStateException(e);
+                }
+            });
+            verify(emitter, timeout(1000)).send(any(SseEmitter.SseEventBuilder.class));
+        }
+    }
+
+    private double connections() {
+        return meterRegistry.get("cards.stream.connections").gauge().value();
+    }
+
+    private static CardResponseDto card(long id) {
+        return new CardResponseDto(id, USER, "**** 1111", "John", LocalDate.now().plusYears(1),
+                CardStatus.ACTIVE, new BigDecimal("100.00"), "RUB");
+    }
+
+    /**
+     * Вместо настоящих SSE-соединений — моки, чтобы проверять отправку и закрытие.
+     */
+    static class TestHub extends CardEventHub {
+
+        final List<SseEmitter> emitters = new ArrayList<>();
+
+        TestHub(MeterRegistry meterRegistry) {
+            super(meterRegistry);
+        }
+
+        @Override
+        SseEmitter newEmitter(long timeout) {
+            SseEmitter emitter = mock(SseEmitter.class);
+            emitters.add(emitter);
+            return emitter;
+        }
+    }
+
+    @Configuration
+    @EnableTransactionManagement
+    static class TransactionalConfig {
+
+        @Bean
+        DataSource dataSource() {
+            return new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        }
+
+        @Bean
+        PlatformTransactionManager transactionManager(DataSource dataSource) {
+            return new DataSourceTransactionManager(dataSource);
+        }
+
+        @Bean
+        MeterRegistry meterRegistry() {
+            return new SimpleMeterRegistry();
+        }
+
+        @Bean
+        TestHub cardEventHub(MeterRegistry meterRegistry) {
+            return new TestHub(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,172 @@
+package com.bank.repository;
+
+import com.bank.dto.TransferRequestDto;
+import com.bank.entity.CardEntity;
+import com.bank.entity.UserEntity;
+import com.bank.enums.CardStatus;
+import com.bank.enums.Role;
+import com.bank.service.ApproximateCountService;
+import com.bank.service.CardMetadataService;
+import com.bank.service.CardSummaryService;
+import com.bank.service.FxRateService;
+import com.bank.service.OutboxService;
+import com.bank.service.TransferArchiveService;
+import com.bank.service.TransferLimitService;
+import com.bank.service.impl.CardServiceImpl;
+import com.bank.service.impl.TransferServiceImpl;
+import com.bank.service.impl.UserServiceImpl;
+import com.bank.util.CardNumberAttributeConverter;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.bean.override.mockito.MockitoBean;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import javax.sql.DataSource;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.when;
+
+/**
+ * Проверяет на встроенной H2, что карты и пользователи читаются из базы, а не из кэша узла:
+ * изменения через сервисы и изменения в обход Hibernate (как с другого узла) сразу видны.
+ */
+@DataJpaTest(properties = {
+        "spring.liquibase.enabled=false",
+        "spring.jpa.hibernate.ddl-auto=create-drop",
+        "encryption.aes-key=0123456789abcdef"
+})
+@Import({CardNumberAttributeConverter.class, CardServiceImpl.class, TransferServiceImpl.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EntityFreshnessTest {
+
+    @Autowired
+    private CardRepository cardRepository;
+
+    @Autowired
+    private UserRepository userRepository;
+
+    @Autowired
+    private CardServiceImpl cardService;
+
+    @Autowired
+    private TransferServiceImpl transferService;
+
+    @Autowired
+    private DataSource dataSource;
+
+    @Autowired
+    private PlatformTransactionManager transactionManager;
+
+    @MockitoBean
+    private UserServiceImpl userService;
+
+    @MockitoBean
+    private FxRateService fxRateService;
+
+    @MockitoBean
+    private TransferLimitService transferLimitService;
+
+    @MockitoBean
+    private OutboxService outboxService;
+
+    @MockitoBean
+    private ApproximateCountService approximateCountService;
+
+    @MockitoBean
+    private CardSummaryService cardSummaryService;
+
+    @MockitoBean
+    private TransferArchiveService transferArchiveService;
+
+    @MockitoBean
+    private CardMetadataService cardMetadataService;
+
+    private TransactionTemplate tx;
+    private JdbcTemplate otherNode;
+    private UserEntity user;
+
+    @BeforeEach
+    void setUp() {
+        tx = new TransactionTemplate(transactionManager);
+        otherNode = new JdbcTemplate(dataSource);
+
+        user = tx.execute(s -> userRepository.save(UserEntity.builder()
+                .username("user-" + UUID.randomUUID())
+                .password("secret")
+                .role(Role.ROLE_USER)
+                .enabled(true)
+                .build()));
+        when(userService.getById(anyLong()))
+                .thenAnswer(i -> userRepository.findById((Long) i.getArgument(0)).orElseThrow());
+    }
+
+    @Test
+    void blockAndActivate_statusReadFromDatabase() {
+        Long cardId = createCard(new BigDecimal("100")).getId();
+        loadCard(cardId);
+
+        cardService.blockCard(cardId);
+        assertEquals(CardStatus.BLOCKED, loadCard(cardId).getStatus());
+
+        otherNode.update("UPDATE cards SET status = 'ACTIVE' WHERE id = ?", cardId);
+        assertEquals(CardStatus.ACTIVE, loadCard(cardId).getStatus());
+    }
+
+    @Test
+    void transfer_balancesReadFromDatabase() {
+        Long fromId = createCard(new BigDecimal("1000")).getId();
+        Long toId = createCard(new BigDecimal("500")).getId();
+        loadCard(fromId);
+        loadCard(toId);
+
+        transferService.transferBetweenOwnCards(user.getId(), new TransferRequestDto(fromId, toId, new BigDecimal("200")));
+
+        assertEquals(0, new BigDecimal("800").compareTo(loadCard(fromId).getBalance()));
+        assertEquals(0, new BigDecimal("700").compareTo(loadCard(toId).getBalance()));
+
+        otherNode.update("UPDATE cards SET balance = 50 WHERE id = ?", fromId);
+        assertEquals(0, new BigDecimal("50").compareTo(loadCard(fromId).getBalance()));
+    }
+
+    @Test
+    void findByUsername_seesChangesFromOtherNodes() {
+        assertTrue(tx.execute(s -> userRepository.findByUsername(user.getUsername())).orElseThrow().isEnabled());
+
+        otherNode.update("UPDATE users SET enabled = FALSE WHERE id = ?", user.getId());
+        assertFalse(tx.execute(s -> userRepository.findByUsername(user.getUsername())).orElseThrow().isEnabled());
+
+        String newcomer = "user-" + UUID.randomUUID();
+        assertTrue(tx.execute(s -> userRepository.findByUsername(newcomer)).isEmpty());
+        otherNode.update("INSERT INTO users (username, password, role, enabled) VALUES (?, 'secret', 'ROLE_USER', TRUE)",
+                newcomer);
+        assertTrue(tx.execute(s -> userRepository.findByUsername(newcomer)).isPresent());
+    }
+
+    private CardEntity createCard(BigDecimal balance) {
+        return tx.execute(s -> cardRepository.save(CardEntity.builder()
+                .cardNumberEncrypted(String.valueOf(System.nanoTime()))
+                .maskedNumber("**** **** **** 0000")
+                .ownerName("JOHN DOE")
+                .expiryDate(LocalDate.now().plusYears(3))
+                .status(CardStatus.ACTIVE)
+                .userId(user.getId())
+                .balance(balance)
+                .currency("RUB")
+                .build()));
+    }
+
+    private CardEntity loadCard(Long id) {
+        return tx.execute(s -> cardRepository.findById(id).orElseThrow());
+    }
+}
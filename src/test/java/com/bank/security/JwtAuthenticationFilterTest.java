@@ -0,0 +1,101 @@
+package com.bank.security;
+
+import com.bank.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.jsonwebtoken.MalformedJwtException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.core.userdetails.User;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class JwtAuthenticationFilterTest {
+
+    @Mock
+    JwtService jwtService;
+
+    @Mock
+    JpaUserDetailsService userDetailsService;
+
+    @Mock
+    TokenRevocationService tokenRevocationService;
+
+    @Mock
+    Claims claims;
+
+    JwtAuthenticationFilter filter;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        VerifiedTokenCache cache = new VerifiedTokenCache(tokenRevocationService, new SimpleMeterRegistry(), 16);
+        filter = new JwtAuthenticationFilter(jwtService, userDetailsService, tokenRevocationService, cache);
+
+        when(claims.getSubject()).thenReturn("john");
+        when(claims.getId()).thenReturn("jti-1");
+        when(claims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 60000));
+        when(jwtService.parseAccessToken("access123")).thenReturn(claims);
+        when(jwtService.isTokenValid(eq(claims), any())).thenReturn(true);
+        when(userDetailsService.loadUserByUsername("john"))
+                .thenReturn(User.withUsername("john").password("x").authorities("ROLE_USER").build());
+    }
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    @Test
+    void repeatedToken_signatureCheckedOnce() throws Exception {
+        doFilter();
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        SecurityContextHolder.clearContext();
+
+        doFilter();
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNotNull();
+        verify(jwtService, times(1)).parseAccessToken("access123");
+    }
+
+    @Test
+    void revokedToken_notAuthenticated() throws Exception {
+        when(tokenRevocationService.isRevoked(eq("john"), eq("jti-1"), any())).thenReturn(true);
+
+        doFilter();
+        doFilter();
+
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+        verify(jwtService, times(2)).parseAccessToken("access123");
+    }
+
+    @Test
+    void invalidToken_passedOnUnauthenticated() throws Exception {
+        when(jwtService.parseAccessToken("forged")).thenThrow(new MalformedJwtException("bad signature"));
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer forged");
+        MockFilterChain chain = new MockFilterChain();
+
+        filter.doFilter(request, new MockHttpServletResponse(), chain);
+
+        assertThat(chain.getRequest()).isNotNull();
+        assertThat(SecurityContextHolder.getContext().getAuthentication()).isNull();
+    }
+
+    private void doFilter() throws Exception {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        request.addHeader("Authorization", "Bearer access123");
+        filter.doFilter(request, new MockHttpServletResponse(), new MockFilterChain());
+    }
+}
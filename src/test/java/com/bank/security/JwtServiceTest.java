@@ -0,0 +1,146 @@
+package com.bank.security;
+
+import com.bank.entity.UserEntity;
+import com.bank.enums.Role;
+import io.jsonwebtoken.JwtException;
+import io.jsonwebtoken.Jwts;
+import io.jsonwebtoken.security.Keys;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.Base64;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+
+class JwtServiceTest {
+
+    private static final long REFRESH_EXPIRATION = 86400000L;
+
+    @TempDir
+    Path keysDir;
+
+    JwtKeyring keyring;
+
+    JwtService jwtService;
+
+    UserEntity user;
+
+    @BeforeEach
+    void setup() {
+        keyring = new JwtKeyring(keysDir, REFRESH_EXPIRATION, 0, 0);
+        jwtService = jwtService(keyring);
+
+        user = UserEntity.builder()
+                .id(1L)
+                .username("john")
+                .role(Role.ROLE_USER)
+                .enabled(true)
+                .build();
+    }
+
+    @Test
+    void accessToken_signedWithCurrentKid() {
+        String token = jwtService.generateAccessToken(user);
+
+        assertThat(header(token)).contains("\"kid\":\"" + keyring.signingKey().kid() + "\"")
+                .contains("\"alg\":\"ES256\"");
+        assertThat(jwtService.extractUsername(token)).isEqualTo("john");
+    }
+
+    @Test
+    void rotate_keepsEarlierTokensValid() {
+        String before = jwtService.generateAccessToken(user);
+        String oldKid = keyring.signingKey().kid();
+
+        String newKid = keyring.rotate();
+        String after = jwtService.generateAccessToken(user);
+
+        assertThat(newKid).isNotEqualTo(oldKid);
+        assertThat(header(after)).contains(newKid);
+        assertThat(jwtService.extractUsername(before)).isEqualTo("john");
+        assertThat(jwtService.extractUsername(after)).isEqualTo("john");
+    }
+
+    @Test
+    void keyRotatedOnAnotherNode_verifiedWithoutRestart() {
+        JwtKeyring otherNode = new JwtKeyring(keysDir, REFRESH_EXPIRATION, 0, 0);
+        otherNode.rotate();
+
+        String token = jwtService(otherNode).generateAccessToken(user);
+
+        assertThat(jwtService.extractUsername(token)).isEqualTo("john");
+    }
+
+    @Test
+    void retiredKey_noLongerVerifies() {
+        JwtKeyring shortLived = new JwtKeyring(keysDir, 0, 0, 0);
+        JwtService service = jwtService(shortLived);
+        String oldToken = service.generateAccessToken(user);
+        String oldKid = shortLived.signingKey().kid();
+
+        shortLived.rotate();
+        shortLived.maintain();
+
+        assertThat(Files.exists(keysDir.resolve(oldKid + ".pub"))).isFalse();
+        assertThatThrownBy(() -> service.extractUsername(oldToken)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    void refreshToken_rejectedAsAccessToken() {
+        String refresh = jwtService.generateRefreshToken("john", UUID.randomUUID(),
+                new Date(System.currentTimeMillis() + REFRESH_EXPIRATION));
+        String access = jwtService.generateAccessToken(user);
+
+        assertThatThrownBy(() -> jwtService.parseAccessToken(refresh)).isInstanceOf(JwtException.class);
+        assertThatThrownBy(() -> jwtService.parseRefreshToken(access)).isInstanceOf(JwtException.class);
+        assertThat(jwtService.parseAccessToken(access).getSubject()).isEqualTo("john");
+    }
+
+    @Test
+    void hmacToken_rejected() {
+        String forged = Jwts.builder()
+                .setHeaderParam("kid", keyring.signingKey().kid())
+                .setSubject("admin")
+                .signWith(Keys.hmacShaKeyFor("0123456789abcdef0123456789abcdef".getBytes(StandardCharsets.UTF_8)))
+                .compact();
+
+        assertThatThrownBy(() -> jwtService.extractUsername(forged)).isInstanceOf(JwtException.class);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void jwks_listsAllVerificationKeys() {
+        keyring.rotate();
+
+        List<Map<String, Object>> keys = (List<Map<String, Object>>) keyring.jwks().get("keys");
+
+        assertThat(keys).hasSize(2);
+        assertThat(keys.getFirst())
+                .containsEntry("kty", "EC")
+                .containsEntry("crv", "P-256")
+                .containsEntry("alg", "ES256")
+                .containsEntry("kid", keyring.signingKey().kid());
+        assertThat((String) keys.getFirst().get("x")).hasSize(43);
+        assertThat((String) keys.getFirst().get("y")).hasSize(43);
+    }
+
+    private static JwtService jwtService(JwtKeyring keyring) {
+        JwtService service = new JwtService(keyring);
+        ReflectionTestUtils.setField(service, "accessExpiration", 600000L);
+        ReflectionTestUtils.setField(service, "refreshExpiration", REFRESH_EXPIRATION);
+        return service;
+    }
+
+    private static String header(String token) {
+        return new String(Base64.getUrlDecoder().decode(token.substring(0, token.indexOf('.'))), StandardCharsets.UTF_8);
+    }
+}
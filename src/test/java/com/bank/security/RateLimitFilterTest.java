@@ -0,0 +1,142 @@
+package com.bank.security;
+
+import com.bank.enums.RateLimitTier;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.env.MockEnvironment;
+import org.springframework.mock.web.MockFilterChain;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.core.context.SecurityContextHolder;
+
+import static org.assertj.core.api.Assertions.*;
+
+class RateLimitFilterTest {
+
+    @AfterEach
+    void cleanup() {
+        SecurityContextHolder.clearContext();
+    }
+
+    /**
+     * Пополнение медленное, чтобы за время теста корзина не наполнялась заново.
+     */
+    private static RateLimitFilter filter(int capacity, double refillPerSecond) {
+        MockEnvironment env = new MockEnvironment();
+        for (String tier : new String[]{"auth", "transfer", "default"}) {
+            env.setProperty("rate-limit.tiers." + tier + ".capacity", Integer.toString(capacity));
+            env.setProperty("rate-limit.tiers." + tier + ".refill-per-second", Double.toString(refillPerSecond));
+        }
+        return new RateLimitFilter(env, new SimpleMeterRegistry(), true, 1000, 600);
+    }
+
+    private static MockHttpServletResponse send(RateLimitFilter filter, String user, String token) throws Exception {
+        SecurityContextHolder.clearContext();
+        if (user != null) {
+            SecurityContextHolder.getContext().setAuthentication(
+                    new UsernamePasswordAuthenticationToken(user, null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        }
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/api/cards");
+        request.setRemoteAddr("10.0.0.1");
+        if (token != null) {
+            request.addHeader("Authorization", "Bearer " + token);
+        }
+        return send(filter, request);
+    }
+
+    /**
+     * Оба этапа, как в цепочке Spring Security; JWT-фильтр между ними заменён контекстом из теста.
+     */
+    private static MockHttpServletResponse send(RateLimitFilter filter, MockHttpServletRequest request) throws Exception {
+        UserRateLimitFilter userFilter = new UserRateLimitFilter(filter);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        MockFilterChain chain = new MockFilterChain();
+        filter.doFilter(request, response, (req, res) -> userFilter.doFilter(req, res, chain));
+        return response;
+    }
+
+    @Test
+    void burstUpToCapacity_thenRejectedWithRetryAfter() throws Exception {
+        RateLimitFilter filter = filter(3, 0.5);
+
+        for (int i = 0; i < 3; i++) {
+            assertThat(send(filter, "john", "t").getStatus()).isEqualTo(200);
+        }
+        MockHttpServletResponse rejected = send(filter, "john", "t");
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(rejected.getHeader("Retry-After")).isEqualTo("2");
+        assertThat(rejected.getContentAsString()).contains("Too many requests");
+    }
+
+    @Test
+    void verifiedUsers_haveSeparateBuckets() throws Exception {
+        RateLimitFilter filter = filter(1, 0.5);
+
+        assertThat(send(filter, "john", "a").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "jane", "b").getStatus()).isEqualTo(200);
+        assertThat(send(filter, "john", "c").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void unverifiedTokens_shareTheIpBucket() throws Exception {
+        RateLimitFilter filter = filter(2, 0.5);
+
+        assertThat(send(filter, null, "random-1").getStatus()).isEqualTo(200);
+        assertThat(send(filter, null, "random-2").getStatus()).isEqualTo(200);
+        assertThat(send(filter, null, "random-3").getStatus()).isEqualTo(429);
+    }
+
+    @Test
+    void requestsWithoutToken_limitedBeforeAuthentication() throws Exception {
+        RateLimitFilter filter = filter(1, 0.5);
+        MockHttpServletRequest first = new MockHttpServletRequest("POST", "/v1/api/auth/login");
+        MockHttpServletRequest second = new MockHttpServletRequest("GET", "/v1/api/cards");
+        MockHttpServletRequest third = new MockHttpServletRequest("POST", "/v1/api/auth/login");
+        third.addHeader("Authorization", "Bearer t");
+
+        assertThat(send(filter, first).getStatus()).isEqualTo(200);
+        assertThat(send(filter, second).getStatus()).isEqualTo(200);
+
+        MockFilterChain chain = new MockFilterChain();
+        MockHttpServletResponse rejected = new MockHttpServletResponse();
+        filter.doFilter(third, rejected, chain);
+
+        assertThat(rejected.getStatus()).isEqualTo(429);
+        assertThat(chain.getRequest()).isNull();
+    }
+
+    @Test
+    void requestsWithToken_passedToUserStage() throws Exception {
+        RateLimitFilter filter = filter(1, 0.5);
+
+        for (int i = 0; i < 3; i++) {
+            MockHttpServletRequest request = new MockHttpServletRequest("GET", "/v1/api/cards");
+            request.addHeader("Authorization", "Bearer t");
+            MockFilterChain chain = new MockFilterChain();
+            filter.doFilter(request, new MockHttpServletResponse(), chain);
+            assertThat(chain.getRequest()).isNotNull();
+        }
+    }
+
+    @Test
+    void authTier_keyedByIpEvenWhenAuthenticated() {
+        SecurityContextHolder.getContext().setAuthentication(
+                new UsernamePasswordAuthenticationToken("john", null, AuthorityUtils.createAuthorityList("ROLE_USER")));
+        MockHttpServletRequest request = new MockHttpServletRequest("POST", "/v1/api/auth/login");
+        request.setRemoteAddr("10.0.0.2");
+
+        assertThat(RateLimitFilter.resolveKey(request, RateLimitTier.AUTH)).isEqualTo("ip:10.0.0.2");
+        assertThat(RateLimitFilter.resolveKey(request, RateLimitTier.DEFAULT)).isEqualTo("u:john");
+    }
+
+    @Test
+    void nonPositiveRefill_rejectedAtStartup() {
+        assertThatThrownBy(() -> filter(10, 0))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("refill-per-second");
+    }
+}
@@ -0,0 +1,78 @@
+package com.bank.security;
+
+import com.bank.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+
+import java.util.Date;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class VerifiedTokenCacheTest {
+
+    @Mock
+    TokenRevocationService tokenRevocationService;
+
+    @Mock
+    Claims claims;
+
+    VerifiedTokenCache cache;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(tokenRevocationService.version()).thenReturn(1L);
+        when(claims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() + 60000));
+        cache = new VerifiedTokenCache(tokenRevocationService, new SimpleMeterRegistry(), 16);
+    }
+
+    @Test
+    void get_returnsVerifiedClaims() {
+        cache.put("token-a", claims, 1L);
+
+        assertThat(cache.get("token-a")).isSameAs(claims);
+        assertThat(cache.get("token-b")).isNull();
+    }
+
+    @Test
+    void get_tokenInSameSlot_notConfused() {
+        cache.put("token-0", claims, 1L);
+        String other = null;
+        for (int i = 1; other == null; i++) {
+            String candidate = "token-" + i;
+            cache.put(candidate, claims, 1L);
+            if (cache.get("token-0") == null) {
+                other = candidate; // вытеснил token-0 из той же ячейки
+            } else {
+                cache.put("token-0", claims, 1L);
+            }
+        }
+
+        assertThat(cache.get(other)).isSameAs(claims);
+        assertThat(cache.get("token-0")).isNull();
+    }
+
+    @Test
+    void get_revocationsChanged_missesUntilRechecked() {
+        cache.put("token-a", claims, 1L);
+
+        when(tokenRevocationService.version()).thenReturn(2L);
+
+        assertThat(cache.get("token-a")).isNull();
+        cache.put("token-a", claims, 2L);
+        assertThat(cache.get("token-a")).isSameAs(claims);
+    }
+
+    @Test
+    void get_expiredToken_miss() {
+        when(claims.getExpiration()).thenReturn(new Date(System.currentTimeMillis() - 1));
+        cache.put("token-a", claims, 1L);
+
+        assertThat(cache.get("token-a")).isNull();
+    }
+}
@@ -0,0 +1,127 @@
+package com.bank.service.impl;
+
+import com.bank.enums.CardStatus;
+import com.bank.repository.UserRepository;
+import com.bank.service.CardBulkImportService;
+import com.bank.service.CardSummaryService;
+import com.bank.util.CardNumberAttributeConverter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import jakarta.validation.Validation;
+import jakarta.validation.Validator;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.ParameterizedPreparedStatementSetter;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.math.BigDecimal;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CardBulkImportServiceImplTest {
+
+    @Mock
+    private UserRepository userRepository;
+
+    @Mock
+    private CardNumberAttributeConverter cardNumberConverter;
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private NamedParameterJdbcTemplate namedJdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private CardSummaryService cardSummaryService;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private final Validator validator = Validation.buildDefaultValidatorFactory().getValidator();
+
+    private CardBulkImportServiceImpl importService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        importService = new CardBulkImportServiceImpl(userRepository, cardNumberConverter, jdbcTemplate,
+                namedJdbcTemplate, transactionTemplate, objectMapper, validator, cardSummaryService);
+        ReflectionTestUtils.setField(importService, "chunkSize", 2);
+
+        when(cardNumberConverter.convertToDatabaseColumn(anyString())).thenAnswer(i -> "enc:" + i.getArgument(0));
+        doAnswer(i -> {
+            ((Consumer<Object>) i.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void importCards_csv_insertsValidRowsAndReportsErrors() throws Exception {
+        String expiry = LocalDate.now().plusYears(2).toString();
+        String csv = "cardNumber,ownerName,userId,expiryDate,initialBalance,currency\n" +
+                "4111111111111111,IVAN PETROV,1," + expiry + ",100,RUB\n" +
+                "not,a,valid,line\n" +
+                "4222222222222222,IVAN PETROV,99," + expiry + ",100,\n" +
+                "4333333333333333,IVAN PETROV,1," + expiry + ",50,\n";
+
+        when(userRepository.findExistingIds(any())).thenReturn(List.of(1L));
+        when(namedJdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class))).thenReturn(List.of());
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importService.importCards(new ByteArrayInputStream(csv.getBytes(StandardCharsets.UTF_8)),
+                CardBulkImportService.Format.CSV, out);
+
+        List<String> lines = out.toString(StandardCharsets.UTF_8).lines().toList();
+        String done = lines.getLast();
+        assertTrue(done.contains("\"type\":\"done\""));
+        assertTrue(done.contains("\"processed\":4"));
+        assertTrue(done.contains("\"created\":2"));
+        assertTrue(done.contains("\"failed\":2"));
+        assertTrue(lines.stream().anyMatch(l -> l.contains("\"line\":3") && l.contains("Malformed line")));
+        assertTrue(lines.stream().anyMatch(l -> l.contains("\"line\":4") && l.contains("User not found")));
+
+        verify(jdbcTemplate, times(2)).batchUpdate(anyString(), anyList(), anyInt(),
+                any(ParameterizedPreparedStatementSetter.class));
+        verify(cardSummaryService).onCardsCreated(1L, "RUB", CardStatus.ACTIVE, 1, new BigDecimal("100"));
+        verify(cardSummaryService).onCardsCreated(1L, "RUB", CardStatus.ACTIVE, 1, new BigDecimal("50"));
+    }
+
+    @Test
+    void importCards_ndjson_rejectsDuplicates() throws Exception {
+        String expiry = LocalDate.now().plusYears(2).toString();
+        String line = "{\"cardNumber\":\"4111111111111111\",\"ownerName\":\"IVAN PETROV\",\"userId\":1," +
+                "\"expiryDate\":\"" + expiry + "\",\"initialBalance\":100}\n";
+
+        when(userRepository.findExistingIds(any())).thenReturn(List.of(1L));
+        when(namedJdbcTemplate.queryForList(anyString(), anyMap(), eq(String.class)))
+                .thenReturn(List.of("enc:4111111111111111"));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        importService.importCards(new ByteArrayInputStream(line.getBytes(StandardCharsets.UTF_8)),
+                CardBulkImportService.Format.NDJSON, out);
+
+        String result = out.toString(StandardCharsets.UTF_8);
+        assertTrue(result.contains("Card already exists"));
+        assertTrue(result.contains("\"created\":0"));
+        verifyNoInteractions(jdbcTemplate);
+    }
+}
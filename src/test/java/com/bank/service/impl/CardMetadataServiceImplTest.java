@@ -0,0 +1,96 @@
+package com.bank.service.impl;
+
+import com.bank.enums.CardStatus;
+import com.bank.exception.CommonException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class CardMetadataServiceImplTest {
+
+    private static final LocalDate NEXT_YEAR = LocalDate.now().plusYears(1);
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    CardMetadataServiceImpl cardMetadataService;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        cardMetadataService = new CardMetadataServiceImpl(jdbcTemplate, 1000, 60000);
+    }
+
+    @SuppressWarnings("unchecked")
+    private void givenCard(long id, CardMetadataServiceImpl.CardMetadata metadata) {
+        doReturn(metadata != null ? List.of(metadata) : List.of())
+                .when(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(id));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void precheck_validTransfer_readsEachCardOnce() {
+        givenCard(10L, new CardMetadataServiceImpl.CardMetadata(1L, CardStatus.ACTIVE, NEXT_YEAR));
+        givenCard(20L, new CardMetadataServiceImpl.CardMetadata(1L, CardStatus.ACTIVE, NEXT_YEAR));
+
+        cardMetadataService.precheckTransfer(1L, 10L, 20L);
+        cardMetadataService.precheckTransfer(1L, 20L, 10L);
+
+        verify(jdbcTemplate, times(2)).query(anyString(), any(RowMapper.class), anyLong());
+    }
+
+    @Test
+    void precheck_foreignCard_rejected() {
+        givenCard(10L, new CardMetadataServiceImpl.CardMetadata(1L, CardStatus.ACTIVE, NEXT_YEAR));
+        givenCard(20L, new CardMetadataServiceImpl.CardMetadata(2L, CardStatus.ACTIVE, NEXT_YEAR));
+
+        assertThatThrownBy(() -> cardMetadataService.precheckTransfer(1L, 10L, 20L))
+                .isInstanceOf(CommonException.class)
+                .hasMessage("Cards must belong to the same user");
+    }
+
+    @Test
+    void precheck_expiredCard_rejected() {
+        givenCard(10L, new CardMetadataServiceImpl.CardMetadata(1L, CardStatus.ACTIVE, LocalDate.now().minusDays(1)));
+        givenCard(20L, new CardMetadataServiceImpl.CardMetadata(1L, CardStatus.ACTIVE, NEXT_YEAR));
+
+        assertThatThrownBy(() -> cardMetadataService.precheckTransfer(1L, 10L, 20L))
+                .isInstanceOf(CommonException.class)
+                .hasMessage("Card is expired");
+    }
+
+    @Test
+    void precheck_missingCard_notCached() {
+        givenCard(10L, null);
+
+        assertThatThrownBy(() -> cardMetadataService.precheckTransfer(1L, 10L, 20L))
+                .hasMessage("From card not found");
+
+        givenCard(10L, new CardMetadataServiceImpl.CardMetadata(1L, CardStatus.ACTIVE, NEXT_YEAR));
+        givenCard(20L, new CardMetadataServiceImpl.CardMetadata(1L, CardStatus.ACTIVE, NEXT_YEAR));
+        cardMetadataService.precheckTransfer(1L, 10L, 20L);
+    }
+
+    @Test
+    void evict_statusChange_visibleImmediately() {
+        givenCard(10L, new CardMetadataServiceImpl.CardMetadata(1L, CardStatus.ACTIVE, NEXT_YEAR));
+        givenCard(20L, new CardMetadataServiceImpl.CardMetadata(1L, CardStatus.ACTIVE, NEXT_YEAR));
+        cardMetadataService.precheckTransfer(1L, 10L, 20L);
+
+        givenCard(20L, new CardMetadataServiceImpl.CardMetadata(1L, CardStatus.BLOCKED, NEXT_YEAR));
+        cardMetadataService.evict(20L);
+
+        assertThatThrownBy(() -> cardMetadataService.precheckTransfer(1L, 10L, 20L))
+                .hasMessage("Both cards must be ACTIVE");
+    }
+}
@@ -4,13 +4,18 @@ import com.bank.dto.CardCreateDto;
 import com.bank.dto.CardResponseDto;
 import com.bank.entity.CardEntity;
 import com.bank.enums.CardStatus;
+import com.bank.event.CardChangedEvent;
 import com.bank.exception.CommonException;
 import com.bank.repository.CardRepository;
+import com.bank.service.ApproximateCountService;
+import com.bank.service.CardMetadataService;
+import com.bank.service.CardSummaryService;
 import com.bank.util.CardUtils;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.*;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -26,6 +31,18 @@ class CardServiceImplTest {
     @Mock
     private CardRepository cardRepository;
 
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ApproximateCountService approximateCountService;
+
+    @Mock
+    private CardSummaryService cardSummaryService;
+
+    @Mock
+    private CardMetadataService cardMetadataService;
+
     @InjectMocks
     private CardServiceImpl cardService;
 
@@ -41,7 +58,8 @@ class CardServiceImplTest {
                 "John Doe",
                 5L,
                 LocalDate.now().plusYears(1),
-                new BigDecimal(500)
+                new BigDecimal(500),
+                null
         );
 
         CardEntity saved = CardEntity.builder()
@@ -75,7 +93,8 @@ class CardServiceImplTest {
                 "John",
                 5L,
                 LocalDate.now().minusDays(1),
-                new BigDecimal(100)
+                new BigDecimal(100),
+                null
         );
 
         CommonException ex = assertThrows(CommonException.class,
@@ -92,7 +111,8 @@ class CardServiceImplTest {
                 "John",
                 5L,
                 LocalDate.now().plusYears(1),
-                new BigDecimal(100)
+                new BigDecimal(100),
+                null
         );
 
         when(cardRepository.existsByCardNumberEncrypted(dto.cardNumber()))
@@ -113,19 +133,12 @@ class CardServiceImplTest {
 
         Pageable pageable = PageRequest.of(0, 10);
 
-        CardEntity e = CardEntity.builder()
-                .id(1L)
-                .userId(5L)
-                .maskedNumber("**** 1234")
-                .ownerName("John")
-                .expiryDate(LocalDate.now().plusYears(1))
-                .status(CardStatus.ACTIVE)
-                .balance(new BigDecimal(100))
-                .build();
+        CardResponseDto view = new CardResponseDto(1L, 5L, "**** 1234", "John",
+                LocalDate.now().plusYears(1), CardStatus.ACTIVE, new BigDecimal(100), "RUB");
 
-        Page<CardEntity> page = new PageImpl<>(List.of(e));
+        Page<CardResponseDto> page = new PageImpl<>(List.of(view));
 
-        when(cardRepository.findAllByUserId(5L, pageable)).thenReturn(page);
+        when(cardRepository.findCardViewsByUserId(5L, pageable)).thenReturn(page);
 
         Page<CardResponseDto> result = cardService.getUserCards(5L, pageable);
 
@@ -182,18 +195,36 @@ class CardServiceImplTest {
         e.setId(1L);
         e.setStatus(CardStatus.ACTIVE);
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(e));
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(e));
 
         cardService.blockCard(1L);
 
         assertEquals(CardStatus.BLOCKED, e.getStatus());
         verify(cardRepository).save(e);
+        verify(cardSummaryService).onStatusChanged(null, null, CardStatus.ACTIVE, CardStatus.BLOCKED);
+        verify(cardMetadataService).evict(1L);
+        verify(eventPublisher).publishEvent(any(CardChangedEvent.class));
+    }
+
+    @Test
+    void blockCard_alreadyBlocked_summaryUnchanged() {
+
+        CardEntity e = new CardEntity();
+        e.setId(1L);
+        e.setStatus(CardStatus.BLOCKED);
+
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(e));
+
+        cardService.blockCard(1L);
+
+        verifyNoInteractions(cardSummaryService, eventPublisher);
+        verify(cardRepository, never()).save(any());
     }
 
     @Test
     void blockCard_notFound_throw() {
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.empty());
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         CommonException ex = assertThrows(CommonException.class,
                 () -> cardService.blockCard(1L));
@@ -212,7 +243,7 @@ class CardServiceImplTest {
         e.setId(1L);
         e.setStatus(CardStatus.BLOCKED);
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.of(e));
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(e));
 
         cardService.activateCard(1L);
 
@@ -223,7 +254,7 @@ class CardServiceImplTest {
     @Test
     void activateCard_notFound_throw() {
 
-        when(cardRepository.findById(1L)).thenReturn(Optional.empty());
+        when(cardRepository.findByIdForUpdate(1L)).thenReturn(Optional.empty());
 
         CommonException ex = assertThrows(CommonException.class,
                 () -> cardService.activateCard(1L));
@@ -238,17 +269,26 @@ class CardServiceImplTest {
     @Test
     void deleteCard_success() {
 
-        when(cardRepository.existsById(10L)).thenReturn(true);
+        CardEntity e = CardEntity.builder()
+                .id(10L)
+                .userId(5L)
+                .status(CardStatus.ACTIVE)
+                .balance(new BigDecimal(100))
+                .currency("RUB")
+                .build();
+
+        when(cardRepository.findByIdForUpdate(10L)).thenReturn(Optional.of(e));
 
         cardService.deleteCard(10L);
 
-        verify(cardRepository).deleteById(10L);
+        verify(cardRepository).delete(e);
+        verify(cardSummaryService).onCardDeleted(5L, "RUB", CardStatus.ACTIVE, new BigDecimal(100));
     }
 
     @Test
     void deleteCard_notFound_throw() {
 
-        when(cardRepository.existsById(10L)).thenReturn(false);
+        when(cardRepository.findByIdForUpdate(10L)).thenReturn(Optional.empty());
 
         CommonException ex = assertThrows(CommonException.class,
                 () -> cardService.deleteCard(10L));
@@ -265,23 +305,51 @@ class CardServiceImplTest {
 
         Pageable pageable = PageRequest.of(0, 5);
 
-        CardEntity e = CardEntity.builder()
-                .id(1L)
-                .userId(1L)
-                .maskedNumber("**** 2222")
-                .ownerName("John")
-                .expiryDate(LocalDate.now().plusYears(1))
-                .status(CardStatus.ACTIVE)
-                .balance(new BigDecimal(300))
-                .build();
+        CardResponseDto view = new CardResponseDto(1L, 1L, "**** 2222", "John",
+                LocalDate.now().plusYears(1), CardStatus.ACTIVE, new BigDecimal(300), "RUB");
 
-        Page<CardEntity> page = new PageImpl<>(List.of(e));
-        when(cardRepository.findAll(pageable)).thenReturn(page);
+        Slice<CardResponseDto> slice = new SliceImpl<>(List.of(view), pageable, true);
+        when(cardRepository.sliceAllCardViews(pageable)).thenReturn(slice);
+        when(approximateCountService.estimate("cards")).thenReturn(42L);
 
         Page<CardResponseDto> result = cardService.getAllCards(pageable);
 
-        assertEquals(1, result.getTotalElements());
+        assertEquals(42, result.getTotalElements());
         assertEquals(new BigDecimal(300), result.getContent().getFirst().balance());
         assertEquals("ACTIVE", result.getContent().getFirst().status());
     }
+
+    @Test
+    void getAllCards_lastSlice_totalIsExact() {
+
+        Pageable pageable = PageRequest.of(2, 5);
+
+        CardResponseDto view = new CardResponseDto(11L, 1L, "**** 2222", "John",
+                LocalDate.now().plusYears(1), CardStatus.ACTIVE, new BigDecimal(300), "RUB");
+
+        when(cardRepository.sliceAllCardViews(pageable)).thenReturn(new SliceImpl<>(List.of(view), pageable, false));
+
+        Page<CardResponseDto> result = cardService.getAllCards(pageable);
+
+        // оценка устарела, но последний срез даёт точный итог
+        assertEquals(11, result.getTotalElements());
+        assertFalse(result.hasNext());
+    }
+
+    @Test
+    void getUserCardsSlice_doesNotCount() {
+
+        Pageable pageable = PageRequest.of(0, 10);
+
+        CardResponseDto view = new CardResponseDto(1L, 5L, "**** 1234", "John",
+                LocalDate.now().plusYears(1), CardStatus.ACTIVE, new BigDecimal(100), "RUB");
+
+        when(cardRepository.sliceCardViewsByUserId(5L, pageable)).thenReturn(new SliceImpl<>(List.of(view), pageable, true));
+
+        Slice<CardResponseDto> result = cardService.getUserCardsSlice(5L, pageable);
+
+        assertTrue(result.hasNext());
+        assertEquals(1, result.getNumberOfElements());
+        verify(cardRepository, never()).findCardViewsByUserId(any(), any());
+    }
 }
@@ -0,0 +1,105 @@
+package com.bank.service.impl;
+
+import com.bank.entity.OutboxEventEntity;
+import com.bank.event.OutboxSink;
+import com.bank.event.TransferEvent;
+import com.bank.repository.OutboxEventRepository;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class OutboxServiceImplTest {
+
+    @Mock
+    private OutboxEventRepository outboxEventRepository;
+
+    @Mock
+    private OutboxSink sink;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final ObjectMapper objectMapper = new ObjectMapper().registerModule(new JavaTimeModule());
+
+    private OutboxServiceImpl outboxService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        outboxService = new OutboxServiceImpl(outboxEventRepository, List.of(sink), objectMapper, transactionTemplate);
+        ReflectionTestUtils.setField(outboxService, "batchSize", 10);
+        ReflectionTestUtils.setField(outboxService, "partitionBuckets", 16);
+        ReflectionTestUtils.setField(outboxService, "retentionMillis", 3600000L);
+        ReflectionTestUtils.setField(outboxService, "purgeBatchSize", 2);
+
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+    }
+
+    @Test
+    void relay_publishesAndMarksEvents() throws Exception {
+        OutboxEventEntity row = outboxRow(5L);
+        when(outboxEventRepository.claimBatch(10, 16)).thenReturn(List.of(row)).thenReturn(List.of());
+
+        int published = outboxService.relay();
+
+        assertEquals(1, published);
+
+        @SuppressWarnings("unchecked")
+        ArgumentCaptor<List<TransferEvent>> captor = ArgumentCaptor.forClass(List.class);
+        verify(sink).publish(captor.capture());
+        assertEquals(5L, captor.getValue().getFirst().outboxId());
+        assertEquals(42L, captor.getValue().getFirst().transferId());
+        verify(outboxEventRepository).markPublished(eq(List.of(5L)), any());
+    }
+
+    @Test
+    void relay_sinkFailure_leavesEventsUnpublished() throws Exception {
+        when(outboxEventRepository.claimBatch(10, 16)).thenReturn(List.of(outboxRow(5L)));
+        doThrow(new RuntimeException("down")).when(sink).publish(any());
+
+        int published = outboxService.relay();
+
+        assertEquals(0, published);
+        verify(outboxEventRepository, never()).markPublished(any(), any());
+    }
+
+    @Test
+    void purgePublished_deletesInBatchesOlderThanRetention() {
+        when(outboxEventRepository.deletePublishedBefore(any(), eq(2))).thenReturn(2, 2, 1);
+
+        int purged = outboxService.purgePublished();
+
+        assertEquals(5, purged);
+        ArgumentCaptor<LocalDateTime> before = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(outboxEventRepository, times(3)).deletePublishedBefore(before.capture(), eq(2));
+        assertTrue(before.getValue().isBefore(LocalDateTime.now().minusMinutes(59)));
+        verify(transactionTemplate, times(3)).execute(any());
+    }
+
+    private OutboxEventEntity outboxRow(Long id) throws Exception {
+        TransferEvent event = new TransferEvent(null, 42L, 1L, 10L, 20L,
+                new BigDecimal("100"), new BigDecimal("100"), BigDecimal.ONE, LocalDateTime.now());
+
+        return OutboxEventEntity.builder()
+                .id(id)
+                .partitionKey(1L)
+                .eventType(TransferEvent.TYPE)
+                .payload(objectMapper.writeValueAsString(event))
+                .createdAt(LocalDateTime.now())
+                .build();
+    }
+}
@@ -0,0 +1,133 @@
+package com.bank.service.impl;
+
+import com.bank.dto.TransferRequestDto;
+import com.bank.dto.TransferResponseDto;
+import com.bank.exception.BusinessException;
+import com.bank.exception.CommonException;
+import com.bank.exception.ErrorCode;
+import com.bank.service.CardMetadataService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.transaction.UnexpectedRollbackException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class PartitionedTransferServiceImplTest {
+
+    @Mock
+    TransferServiceImpl transferService;
+
+    @Mock
+    CardMetadataService cardMetadataService;
+
+    PartitionedTransferServiceImpl engine;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        // пачка закрывается по размеру, а не по времени, чтобы тест был детерминированным
+        engine = new PartitionedTransferServiceImpl(transferService, cardMetadataService, new SimpleMeterRegistry(),
+                2, 3, TimeUnit.SECONDS.toMicros(10), 16);
+        engine.start();
+    }
+
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        engine.shutdown();
+    }
+
+    private static TransferResponseDto response(String amount) {
+        return TransferResponseDto.builder().amount(new BigDecimal(amount)).build();
+    }
+
+    @Test
+    void transfers_groupCommittedAndCompletedPerRequest() throws Exception {
+        when(transferService.transferBatch(anyList())).thenAnswer(i -> {
+            List<TransferServiceImpl.BatchItem> items = i.getArgument(0);
+            List<TransferServiceImpl.BatchOutcome> outcomes = new ArrayList<>();
+            for (TransferServiceImpl.BatchItem item : items) {
+                outcomes.add(item.dto().amount().compareTo(new BigDecimal("1000")) > 0
+                        ? new TransferServiceImpl.BatchOutcome(null, new BusinessException(ErrorCode.INSUFFICIENT_FUNDS))
+                        : new TransferServiceImpl.BatchOutcome(response(item.dto().amount().toPlainString()), null));
+            }
+            return outcomes;
+        });
+
+        CompletableFuture<TransferResponseDto> first = engine.transferBetweenOwnCardsAsync(2L, new TransferRequestDto(1L, 2L, new BigDecimal("10")));
+        CompletableFuture<TransferResponseDto> second = engine.transferBetweenOwnCardsAsync(2L, new TransferRequestDto(1L, 2L, new BigDecimal("5000")));
+        CompletableFuture<TransferResponseDto> third = engine.transferBetweenOwnCardsAsync(2L, new TransferRequestDto(2L, 1L, new BigDecimal("20")));
+
+        assertThat(first.get(5, TimeUnit.SECONDS).getAmount()).isEqualByComparingTo("10");
+        assertThat(third.get(5, TimeUnit.SECONDS).getAmount()).isEqualByComparingTo("20");
+        assertThatThrownBy(() -> second.get(5, TimeUnit.SECONDS))
+                .hasCauseInstanceOf(BusinessException.class)
+                .hasMessageContaining("Insufficient funds");
+        verify(transferService, times(1)).transferBatch(argThat(items -> items.size() == 3));
+    }
+
+    @Test
+    void constraintViolation_retriedOneByOne() throws Exception {
+        when(transferService.transferBatch(anyList())).thenThrow(new DataIntegrityViolationException("balance check"));
+        when(transferService.transferBetweenOwnCards(eq(3L), any())).thenReturn(response("1"));
+
+        List<CompletableFuture<TransferResponseDto>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(engine.transferBetweenOwnCardsAsync(3L, new TransferRequestDto(1L, 2L, BigDecimal.ONE)));
+        }
+
+        for (CompletableFuture<TransferResponseDto> result : results) {
+            assertThat(result.get(5, TimeUnit.SECONDS).getAmount()).isEqualByComparingTo("1");
+        }
+        verify(transferService, times(3)).transferBetweenOwnCards(eq(3L), any());
+    }
+
+    @Test
+    void unexpectedRollback_failsBatchWithoutRetry() {
+        when(transferService.transferBatch(anyList())).thenThrow(new UnexpectedRollbackException("rolled back"));
+
+        List<CompletableFuture<TransferResponseDto>> results = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            results.add(engine.transferBetweenOwnCardsAsync(3L, new TransferRequestDto(1L, 2L, BigDecimal.ONE)));
+        }
+
+        for (CompletableFuture<TransferResponseDto> result : results) {
+            assertThatThrownBy(() -> result.get(5, TimeUnit.SECONDS))
+                    .hasCauseInstanceOf(UnexpectedRollbackException.class);
+        }
+        verify(transferService, never()).transferBetweenOwnCards(any(), any());
+    }
+
+    @Test
+    void stoppedEngine_rejectsWithoutQueueFull() throws Exception {
+        engine.shutdown();
+
+        assertThatThrownBy(() -> engine.transferBetweenOwnCards(1L, new TransferRequestDto(1L, 2L, BigDecimal.ONE)))
+                .isInstanceOf(CommonException.class)
+                .hasMessage("Transfer engine is shutting down, retry later");
+        verifyNoInteractions(transferService);
+    }
+
+    @Test
+    void precheckRejection_notQueued() {
+        doThrow(new BusinessException(ErrorCode.CARDS_NOT_ACTIVE))
+                .when(cardMetadataService).precheckTransfer(1L, 1L, 2L);
+
+        assertThatThrownBy(() -> engine.transferBetweenOwnCards(1L, new TransferRequestDto(1L, 2L, BigDecimal.ONE)))
+                .isInstanceOf(CommonException.class)
+                .hasMessage("Both cards must be ACTIVE");
+        verifyNoInteractions(transferService);
+    }
+}
@@ -0,0 +1,175 @@
+package com.bank.service.impl;
+
+import com.bank.entity.UserEntity;
+import com.bank.enums.Role;
+import com.bank.exception.CommonException;
+import com.bank.security.JwtKeyring;
+import com.bank.security.JwtService;
+import com.bank.service.RefreshTokenService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.mockito.ArgumentCaptor;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.nio.file.Path;
+import java.util.Date;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class RefreshTokenServiceImplTest {
+
+    private static final String ROTATE = "WITH old";
+    private static final String REVOKE_FAMILY = "UPDATE refresh_tokens SET status = 'REVOKED' WHERE family_id";
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @TempDir
+    Path keysDir;
+
+    JwtService jwtService;
+
+    RefreshTokenServiceImpl refreshTokenService;
+
+    UserEntity user;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+
+        jwtService = new JwtService(new JwtKeyring(keysDir, 86400000L, 0, 1000));
+        ReflectionTestUtils.setField(jwtService, "accessExpiration", 600000L);
+        ReflectionTestUtils.setField(jwtService, "refreshExpiration", 86400000L);
+
+        refreshTokenService = new RefreshTokenServiceImpl(jwtService, jdbcTemplate, 1000, 2);
+
+        user = UserEntity.builder()
+                .id(1L)
+                .username("john")
+                .role(Role.ROLE_USER)
+                .enabled(true)
+                .build();
+
+        when(jdbcTemplate.update(startsWith(ROTATE), any(), any(), any())).thenReturn(1);
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rotate_commonPath_servedFromCache() {
+        String first = refreshTokenService.issue(user);
+
+        RefreshTokenService.Rotation rotation = refreshTokenService.rotate(first);
+
+        assertThat(rotation.username()).isEqualTo("john");
+        assertThat(jwtService.parseRefreshToken(rotation.refreshToken()).getId())
+                .isNotEqualTo(jwtService.parseRefreshToken(first).getId());
+        verify(jdbcTemplate).update(startsWith("INSERT INTO refresh_tokens"), any(), any(), eq(1L), any());
+        verify(jdbcTemplate).update(startsWith(ROTATE), any(), any(), any());
+        verify(jdbcTemplate, never()).query(anyString(), any(RowMapper.class), any());
+    }
+
+    @Test
+    void rotate_reusedToken_revokesFamily() {
+        String first = refreshTokenService.issue(user);
+        String second = refreshTokenService.rotate(first).refreshToken();
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first))
+                .isInstanceOf(CommonException.class)
+                .hasMessageContaining("Invalid refresh token");
+        verify(jdbcTemplate).update(startsWith(REVOKE_FAMILY), any());
+
+        // выданный взамен токен отозван вместе с семейством
+        assertThatThrownBy(() -> refreshTokenService.rotate(second))
+                .isInstanceOf(CommonException.class);
+        verify(jdbcTemplate, times(1)).update(startsWith(ROTATE), any(), any(), any());
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rotate_alreadyRotatedOnAnotherNode_revokesFamily() {
+        String first = refreshTokenService.issue(user);
+        UUID familyId = UUID.randomUUID();
+
+        when(jdbcTemplate.update(startsWith(ROTATE), any(), any(), any())).thenReturn(0);
+        doReturn(List.of(new RefreshTokenServiceImpl.TokenState(1L, familyId, RefreshTokenServiceImpl.Status.ROTATED)))
+                .when(jdbcTemplate).query(startsWith("SELECT"), any(RowMapper.class), any());
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(first))
+                .isInstanceOf(CommonException.class);
+        verify(jdbcTemplate).update(startsWith(REVOKE_FAMILY), eq(familyId));
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void rotate_unknownToken_rejected() {
+        String token = jwtService.generateRefreshToken("john", UUID.randomUUID(),
+                new Date(System.currentTimeMillis() + 60000));
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+                .isInstanceOf(CommonException.class);
+        verify(jdbcTemplate).query(startsWith("SELECT"), any(RowMapper.class), any());
+        verify(jdbcTemplate, never()).update(startsWith(ROTATE), any(), any(), any());
+    }
+
+    @Test
+    void rotate_accessToken_rejected() {
+        String accessToken = jwtService.generateAccessToken(user);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(accessToken))
+                .isInstanceOf(CommonException.class);
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void revoke_logout_blocksFurtherRefresh() {
+        String token = refreshTokenService.issue(user);
+
+        refreshTokenService.revoke(token);
+
+        verify(jdbcTemplate).update(startsWith(REVOKE_FAMILY), any());
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+                .isInstanceOf(CommonException.class);
+    }
+
+    @Test
+    void revoke_missingToken_ignored() {
+        refreshTokenService.revoke(null);
+        refreshTokenService.revoke("garbage");
+
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void revokeAllForUser_blocksCachedTokens() {
+        String token = refreshTokenService.issue(user);
+        ArgumentCaptor<Object> familyId = ArgumentCaptor.forClass(Object.class);
+        verify(jdbcTemplate).update(startsWith("INSERT"), any(), familyId.capture(), any(), any());
+
+        when(jdbcTemplate.queryForList(anyString(), eq(UUID.class), eq(1L)))
+                .thenReturn(List.of((UUID) familyId.getValue()));
+
+        refreshTokenService.revokeAllForUser(1L);
+
+        assertThatThrownBy(() -> refreshTokenService.rotate(token))
+                .isInstanceOf(CommonException.class);
+    }
+
+    @Test
+    void purgeExpired_deletesInBatches() {
+        when(jdbcTemplate.update(startsWith("DELETE"), any(), any())).thenReturn(2, 2, 1);
+
+        int purged = refreshTokenService.purgeExpired();
+
+        assertThat(purged).isEqualTo(5);
+        verify(jdbcTemplate, times(3)).update(startsWith("DELETE"), any(), eq(2));
+    }
+}
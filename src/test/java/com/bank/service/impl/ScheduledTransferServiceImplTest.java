@@ -0,0 +1,158 @@
+package com.bank.service.impl;
+
+import com.bank.dto.ScheduledTransferCreateDto;
+import com.bank.dto.TransferRequestDto;
+import com.bank.entity.CardEntity;
+import com.bank.entity.ScheduledTransferEntity;
+import com.bank.enums.TransferFrequency;
+import com.bank.exception.CommonException;
+import com.bank.repository.CardRepository;
+import com.bank.repository.ScheduledTransferRepository;
+import com.bank.service.TransferService;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Optional;
+import java.util.function.Consumer;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class ScheduledTransferServiceImplTest {
+
+    @Mock
+    private ScheduledTransferRepository scheduledTransferRepository;
+
+    @Mock
+    private CardRepository cardRepository;
+
+    @Mock
+    private TransferService transferService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private ScheduledTransferServiceImpl scheduledTransferService;
+
+    @BeforeEach
+    @SuppressWarnings("unchecked")
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        scheduledTransferService = new ScheduledTransferServiceImpl(scheduledTransferRepository, cardRepository,
+                transferService, transactionTemplate, meterRegistry, 2, 10, 300, 3);
+
+        when(transactionTemplate.execute(any())).thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+        doAnswer(i -> {
+            ((Consumer<Object>) i.getArgument(0)).accept(null);
+            return null;
+        }).when(transactionTemplate).executeWithoutResult(any());
+    }
+
+    @AfterEach
+    void tearDown() {
+        scheduledTransferService.shutdown();
+    }
+
+    @Test
+    void runDue_executesTransferAndMovesToNextPeriod() {
+        LocalDateTime start = LocalDateTime.now().minusWeeks(1).minusMinutes(1);
+        ScheduledTransferEntity schedule = schedule(start, start.plusWeeks(1), 0);
+        when(scheduledTransferRepository.claimDue(any(), eq(10))).thenReturn(List.of(schedule));
+        when(scheduledTransferRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(schedule));
+
+        assertEquals(1, scheduledTransferService.runDue());
+
+        verify(transferService).transferBetweenOwnCards(5L, new TransferRequestDto(10L, 20L, new BigDecimal("50.00")));
+        assertEquals(start.plusWeeks(2), schedule.getNextRunAt());
+        assertNull(schedule.getClaimedUntil());
+        assertEquals(1.0, meterRegistry.counter("scheduled_transfers.executed", "outcome", "SUCCESS").count());
+    }
+
+    @Test
+    void runDue_failedRunIsSkippedAndDeactivatesAfterLimit() {
+        LocalDateTime due = LocalDateTime.now().minusMinutes(1);
+        ScheduledTransferEntity schedule = schedule(due, due, 2);
+        when(scheduledTransferRepository.claimDue(any(), eq(10))).thenReturn(List.of(schedule));
+        when(scheduledTransferRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(schedule));
+        when(transferService.transferBetweenOwnCards(any(), any())).thenThrow(new CommonException(400, "Insufficient funds"));
+
+        scheduledTransferService.runDue();
+
+        assertEquals(3, schedule.getFailureCount());
+        assertEquals("Insufficient funds", schedule.getLastError());
+        assertFalse(schedule.isActive());
+        assertEquals(due.plusWeeks(1), schedule.getNextRunAt());
+        assertEquals(1.0, meterRegistry.counter("scheduled_transfers.executed", "outcome", "FAILED").count());
+    }
+
+    @Test
+    void runDue_skipsRunAlreadyExecutedByAnotherNode() {
+        LocalDateTime due = LocalDateTime.now().minusMinutes(1);
+        ScheduledTransferEntity claimed = schedule(due, due, 0);
+        ScheduledTransferEntity current = schedule(due, due.plusWeeks(1), 0);
+        when(scheduledTransferRepository.claimDue(any(), eq(10))).thenReturn(List.of(claimed));
+        when(scheduledTransferRepository.findByIdForUpdate(1L)).thenReturn(Optional.of(current));
+
+        scheduledTransferService.runDue();
+
+        verifyNoInteractions(transferService);
+        assertEquals(1.0, meterRegistry.counter("scheduled_transfers.executed", "outcome", "SKIPPED").count());
+    }
+
+    @Test
+    void create_rejectsCardsOfAnotherUser() {
+        CardEntity own = new CardEntity();
+        own.setId(10L);
+        own.setUserId(5L);
+        CardEntity foreign = new CardEntity();
+        foreign.setId(20L);
+        foreign.setUserId(6L);
+        when(cardRepository.findById(10L)).thenReturn(Optional.of(own));
+        when(cardRepository.findById(20L)).thenReturn(Optional.of(foreign));
+
+        CommonException ex = assertThrows(CommonException.class, () -> scheduledTransferService.create(5L,
+                new ScheduledTransferCreateDto(10L, 20L, BigDecimal.TEN, TransferFrequency.DAILY, null)));
+
+        assertEquals("Cards must belong to the same user", ex.getMessage());
+        verify(scheduledTransferRepository, never()).save(any());
+    }
+
+    @Test
+    void monthlyScheduleKeepsDayOfMonth() {
+        LocalDateTime start = LocalDateTime.of(2025, 1, 31, 9, 0);
+
+        LocalDateTime february = TransferFrequency.MONTHLY.nextAfter(start, start);
+        LocalDateTime march = TransferFrequency.MONTHLY.nextAfter(start, february);
+
+        assertEquals(LocalDateTime.of(2025, 2, 28, 9, 0), february);
+        assertEquals(LocalDateTime.of(2025, 3, 31, 9, 0), march);
+    }
+
+    private static ScheduledTransferEntity schedule(LocalDateTime start, LocalDateTime nextRunAt, int failures) {
+        return ScheduledTransferEntity.builder()
+                .id(1L)
+                .userId(5L)
+                .fromCardId(10L)
+                .toCardId(20L)
+                .amount(new BigDecimal("50.00"))
+                .frequency(TransferFrequency.WEEKLY)
+                .startAt(start)
+                .nextRunAt(nextRunAt)
+                .active(true)
+                .failureCount(failures)
+                .createdAt(start)
+                .build();
+    }
+}
@@ -0,0 +1,110 @@
+package com.bank.service.impl;
+
+import com.bank.security.JwtService;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowMapper;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.sql.Timestamp;
+import java.util.Date;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TokenRevocationServiceImplTest {
+
+    @Mock
+    JdbcTemplate jdbcTemplate;
+
+    @Mock
+    JwtService jwtService;
+
+    TokenRevocationServiceImpl revocationService;
+
+    @BeforeEach
+    void setup() {
+        MockitoAnnotations.openMocks(this);
+        when(jwtService.getAccessExpiration()).thenReturn(600000L);
+        revocationService = new TokenRevocationServiceImpl(jdbcTemplate, jwtService, 10000);
+    }
+
+    @AfterEach
+    void cleanup() {
+        if (TransactionSynchronizationManager.isSynchronizationActive()) {
+            TransactionSynchronizationManager.clearSynchronization();
+        }
+    }
+
+    @Test
+    void isRevoked_nothingRevoked() {
+        assertThat(revocationService.isRevoked("john", "jti-1", new Date())).isFalse();
+        verifyNoInteractions(jdbcTemplate);
+    }
+
+    @Test
+    void revokeUser_revokesTokensIssuedBefore() {
+        long now = System.currentTimeMillis();
+
+        revocationService.revokeUser("john");
+
+        verify(jdbcTemplate).update(startsWith("INSERT INTO token_revocations"), any(), any(), any(), any(), any());
+        assertThat(revocationService.isRevoked("john", "jti-1", new Date(now - 1000))).isTrue();
+        assertThat(revocationService.isRevoked("john", "jti-2", new Date(now + 2000))).isFalse();
+        assertThat(revocationService.isRevoked("alice", "jti-3", new Date(now - 1000))).isFalse();
+    }
+
+    @Test
+    void revokeUser_insideTransaction_appliedAfterCommit() {
+        TransactionSynchronizationManager.initSynchronization();
+
+        revocationService.revokeUser("john");
+        assertThat(revocationService.isRevoked("john", null, new Date(0))).isFalse();
+
+        TransactionSynchronizationManager.getSynchronizations().forEach(TransactionSynchronization::afterCommit);
+        assertThat(revocationService.isRevoked("john", null, new Date(0))).isTrue();
+    }
+
+    @Test
+    void revokeToken_revokesOnlyThatToken() {
+        revocationService.revokeToken("jti-1", new Date(System.currentTimeMillis() + 60000));
+
+        assertThat(revocationService.isRevoked("john", "jti-1", new Date())).isTrue();
+        assertThat(revocationService.isRevoked("john", "jti-2", new Date())).isFalse();
+    }
+
+    @Test
+    @SuppressWarnings("unchecked")
+    void poll_appliesRevocationsFromOtherNodes() {
+        long now = System.currentTimeMillis();
+        doReturn(List.of(
+                new TokenRevocationServiceImpl.Row(5, "bob", new Timestamp(now), null, now + 60000),
+                new TokenRevocationServiceImpl.Row(7, null, null, "jti-9", now + 60000)))
+                .when(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(0L), any(), any());
+
+        assertThat(revocationService.poll()).isEqualTo(2);
+
+        assertThat(revocationService.isRevoked("bob", "jti-1", new Date(now - 1000))).isTrue();
+        assertThat(revocationService.isRevoked("john", "jti-9", new Date())).isTrue();
+
+        revocationService.poll();
+        verify(jdbcTemplate).query(anyString(), any(RowMapper.class), eq(7L), any(), any());
+    }
+
+    @Test
+    void poll_dropsExpiredRevocations() {
+        revocationService.revokeToken("jti-1", new Date(System.currentTimeMillis() - 1000));
+        assertThat(revocationService.isRevoked("john", "jti-1", new Date())).isTrue();
+
+        revocationService.poll();
+
+        assertThat(revocationService.isRevoked("john", "jti-1", new Date())).isFalse();
+    }
+}
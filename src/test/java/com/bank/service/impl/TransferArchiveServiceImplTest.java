@@ -0,0 +1,171 @@
+package com.bank.service.impl;
+
+import com.bank.dto.TransferDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.DriverManagerDataSource;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.sql.Timestamp;
+import java.time.LocalDateTime;
+import java.time.YearMonth;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Архивация на встроенной H2: сегмент пишется и читается с диска, строки удаляются пачками.
+ */
+class TransferArchiveServiceImplTest {
+
+    private static final YearMonth JANUARY = YearMonth.of(2024, 1);
+
+    @TempDir
+    Path directory;
+
+    private DriverManagerDataSource dataSource;
+    private JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .registerModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+
+    @BeforeEach
+    void setUp() {
+        dataSource = new DriverManagerDataSource("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        jdbcTemplate = new JdbcTemplate(dataSource);
+        jdbcTemplate.execute("CREATE TABLE transfers (id BIGINT PRIMARY KEY, user_id BIGINT, from_card_id BIGINT, " +
+                "to_card_id BIGINT, amount DECIMAL(19, 2), credited_amount DECIMAL(19, 2), " +
+                "exchange_rate DECIMAL(19, 8), created_at TIMESTAMP)");
+        for (int i = 1; i <= 5; i++) {
+            insert(i, LocalDateTime.of(2024, 1, i * 5, 12, 0));
+        }
+        insert(6, LocalDateTime.of(2024, 2, 1, 0, 0));
+    }
+
+    @Test
+    void archiveMonth_writesSegmentAndDeletesRows() {
+        TransferArchiveServiceImpl archive = newService();
+
+        assertEquals(5, archive.archiveMonth("transfers", JANUARY));
+
+        assertEquals(List.of(6L), jdbcTemplate.queryForList("SELECT id FROM transfers", Long.class));
+        assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0), archive.getHorizon());
+        assertTrue(Files.exists(directory.resolve("transfers-2024-01.seg")));
+        assertTrue(Files.exists(directory.resolve("transfers-2024-01.idx")));
+    }
+
+    @Test
+    void read_filtersByPeriodAndSkipsOffset() {
+        newService().archiveMonth("transfers", JANUARY);
+        // новый экземпляр открывает архив с диска, как после перезапуска
+        TransferArchiveServiceImpl archive = newService();
+
+        LocalDateTime from = LocalDateTime.of(2024, 1, 8, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 1, 25, 0, 0);
+
+        assertEquals(3, archive.count(from, to));
+        List<TransferDto> rows = archive.read(from, to, 1, 10);
+        assertEquals(List.of(3L, 4L), rows.stream().map(TransferDto::getId).toList());
+        assertEquals(0, archive.read(from, to, 3, 10).size());
+        assertEquals(5, archive.count(LocalDateTime.of(1970, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0)));
+    }
+
+    @Test
+    void archiveMonth_finishesPurgeWhenSegmentAlreadyWritten() {
+        TransferArchiveServiceImpl archive = newService();
+        archive.archiveMonth("transfers", JANUARY);
+        // уже архивированная строка, оставшаяся в базе после падения посреди удаления
+        insert(5, LocalDateTime.of(2024, 1, 25, 12, 0));
+
+        assertEquals(0, archive.archiveMonth("transfers", JANUARY));
+
+        assertEquals(List.of(6L), jdbcTemplate.queryForList("SELECT id FROM transfers", Long.class));
+        assertEquals(5, archive.count(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0)));
+    }
+
+    @Test
+    void archiveMonth_keepsRowsUntilPurgeDelayPasses() {
+        TransferArchiveServiceImpl archive = newService(TimeUnit.HOURS.toMillis(1));
+
+        assertEquals(5, archive.archiveMonth("transfers", JANUARY));
+
+        // горизонт уже сдвинут, но другие экземпляры ещё могут читать январь из базы
+        assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0), archive.getHorizon());
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transfers", Integer.class));
+    }
+
+    @Test
+    void rescan_picksUpSegmentWrittenByAnotherInstance() {
+        TransferArchiveServiceImpl reader = newService();
+        assertNull(reader.getHorizon());
+
+        newService().archiveMonth("transfers", JANUARY);
+        reader.rescan();
+
+        assertEquals(LocalDateTime.of(2024, 2, 1, 0, 0), reader.getHorizon());
+        assertEquals(5, reader.count(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0)));
+    }
+
+    @Test
+    void forEachBefore_streamsArchivedMonthsInOrder() {
+        TransferArchiveServiceImpl archive = newService();
+        archive.archiveMonth("transfers", JANUARY);
+
+        List<Long> ids = new ArrayList<>();
+        archive.forEachBefore(archive.getHorizon(), row -> ids.add(row.getId()));
+
+        assertEquals(List.of(1L, 2L, 3L, 4L, 5L), ids);
+    }
+
+    @Test
+    void archiveMonth_detachedPartition_archivedAndDropped() {
+        jdbcTemplate.execute("CREATE TABLE transfers_y2024m01 AS SELECT * FROM transfers WHERE created_at < '2024-02-01'");
+        TransferArchiveServiceImpl archive = newService();
+
+        assertEquals(5, archive.archiveMonth("transfers_y2024m01", JANUARY));
+
+        assertEquals(0, jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM information_schema.tables WHERE LOWER(table_name) = 'transfers_y2024m01'",
+                Integer.class));
+        assertEquals(5, archive.count(LocalDateTime.of(2024, 1, 1, 0, 0), LocalDateTime.of(2024, 2, 1, 0, 0)));
+    }
+
+    @Test
+    void archiveBefore_withoutCutoff_leavesLiveTable() {
+        TransferArchiveServiceImpl archive = newService();
+
+        // без порога переносятся только отсоединённые секции; в H2 их нет
+        assertEquals(0, archive.archiveBefore(null));
+
+        assertEquals(6, jdbcTemplate.queryForObject("SELECT COUNT(*) FROM transfers", Integer.class));
+        assertNull(archive.getHorizon());
+    }
+
+    @Test
+    void archiveMonth_rejectsForeignTables() {
+        assertThrows(IllegalArgumentException.class, () -> newService().archiveMonth("users", JANUARY));
+    }
+
+    private TransferArchiveServiceImpl newService() {
+        return newService(0);
+    }
+
+    private TransferArchiveServiceImpl newService(long purgeDelayMillis) {
+        return new TransferArchiveServiceImpl(dataSource, new DataSourceTransactionManager(dataSource), objectMapper,
+                directory, 12, 2, 2, purgeDelayMillis);
+    }
+
+    private void insert(long id, LocalDateTime createdAt) {
+        jdbcTemplate.update("INSERT INTO transfers VALUES (?, 1, 10, 20, 100, 100, 1, ?)", id, Timestamp.valueOf(createdAt));
+    }
+}
@@ -0,0 +1,110 @@
+package com.bank.service.impl;
+
+import com.bank.exception.CommonException;
+import com.bank.repository.TransferRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.*;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class TransferLimitServiceImplTest {
+
+    @Mock
+    private TransferRepository transferRepository;
+
+    @InjectMocks
+    private TransferLimitServiceImpl limitService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+
+        ReflectionTestUtils.setField(limitService, "cardDailyAmount", new BigDecimal("1000"));
+        ReflectionTestUtils.setField(limitService, "cardDailyCount", 3);
+        ReflectionTestUtils.setField(limitService, "cardMonthlyAmount", BigDecimal.ZERO);
+        ReflectionTestUtils.setField(limitService, "userDailyAmount", BigDecimal.ZERO);
+        ReflectionTestUtils.setField(limitService, "userMonthlyAmount", BigDecimal.ZERO);
+        ReflectionTestUtils.setField(limitService, "stripes", 4);
+        limitService.init();
+    }
+
+    @Test
+    void reserve_failClosedBeforeRebuild() {
+        CommonException ex = assertThrows(CommonException.class,
+                () -> limitService.reserve(1L, 10L, "RUB", new BigDecimal("10")));
+
+        assertEquals(503, ex.getCode());
+    }
+
+    @Test
+    void reserve_failOpenBeforeRebuild() {
+        ReflectionTestUtils.setField(limitService, "failOpen", true);
+
+        assertDoesNotThrow(() -> limitService.reserve(1L, 10L, "RUB", new BigDecimal("10")));
+    }
+
+    @Test
+    void reserve_dailyAmountExceeded() {
+        when(transferRepository.streamVelocitySince(any())).thenReturn(Stream.empty());
+        limitService.rebuild();
+
+        limitService.reserve(1L, 10L, "RUB", new BigDecimal("600"));
+
+        CommonException ex = assertThrows(CommonException.class,
+                () -> limitService.reserve(1L, 10L, "RUB", new BigDecimal("500")));
+
+        assertEquals("Card daily transfer amount limit exceeded", ex.getMessage());
+
+        // лимит считается по карте, другая карта того же пользователя не затронута
+        assertDoesNotThrow(() -> limitService.reserve(1L, 11L, "RUB", new BigDecimal("500")));
+    }
+
+    @Test
+    void userAmounts_keptPerCurrency_countsAcrossCurrencies() {
+        ReflectionTestUtils.setField(limitService, "cardDailyAmount", BigDecimal.ZERO);
+        ReflectionTestUtils.setField(limitService, "cardDailyCount", 0);
+        ReflectionTestUtils.setField(limitService, "userDailyAmount", new BigDecimal("1000"));
+        ReflectionTestUtils.setField(limitService, "userDailyCount", 3);
+        limitService.init();
+        when(transferRepository.streamVelocitySince(any())).thenReturn(Stream.empty());
+        limitService.rebuild();
+
+        limitService.reserve(1L, 10L, "RUB", new BigDecimal("900"));
+        // 900 рублей и 900 долларов не складываются в одну сумму
+        limitService.reserve(1L, 20L, "USD", new BigDecimal("900"));
+
+        CommonException amount = assertThrows(CommonException.class,
+                () -> limitService.reserve(1L, 10L, "RUB", new BigDecimal("200")));
+        assertEquals("User daily transfer amount limit exceeded", amount.getMessage());
+
+        limitService.reserve(1L, 20L, "USD", new BigDecimal("100"));
+        CommonException count = assertThrows(CommonException.class,
+                () -> limitService.reserve(1L, 10L, "RUB", new BigDecimal("1")));
+        assertEquals("User daily transfer count limit exceeded", count.getMessage());
+    }
+
+    @Test
+    void rebuild_countsExistingTransfers() {
+        TransferRepository.VelocityRow row = mock(TransferRepository.VelocityRow.class);
+        when(row.getCardId()).thenReturn(10L);
+        when(row.getUserId()).thenReturn(1L);
+        when(row.getCurrency()).thenReturn("RUB");
+        when(row.getAmount()).thenReturn(new BigDecimal("1"));
+        when(row.getCreatedAt()).thenReturn(LocalDateTime.now().minusMinutes(5));
+        when(transferRepository.streamVelocitySince(any())).thenReturn(Stream.of(row, row, row));
+
+        limitService.rebuild();
+
+        CommonException ex = assertThrows(CommonException.class,
+                () -> limitService.reserve(1L, 10L, "RUB", new BigDecimal("1")));
+
+        assertEquals("Card daily transfer count limit exceeded", ex.getMessage());
+    }
+}
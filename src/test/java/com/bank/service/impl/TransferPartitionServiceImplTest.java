@@ -0,0 +1,95 @@
+package com.bank.service.impl;
+
+import com.bank.service.TransferArchiveService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.Mock;
+import org.mockito.MockitoAnnotations;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.YearMonth;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+class TransferPartitionServiceImplTest {
+
+    @Mock
+    private JdbcTemplate jdbcTemplate;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
+    @Mock
+    private TransferArchiveService transferArchiveService;
+
+    private TransferPartitionServiceImpl partitionService;
+
+    @BeforeEach
+    void setUp() {
+        MockitoAnnotations.openMocks(this);
+        partitionService = new TransferPartitionServiceImpl(jdbcTemplate, transactionTemplate, transferArchiveService);
+        ReflectionTestUtils.setField(partitionService, "monthsAhead", 1);
+        ReflectionTestUtils.setField(partitionService, "retentionMonths", 12);
+
+        when(transactionTemplate.execute(any())).thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
+        when(jdbcTemplate.queryForObject(contains("pg_partitioned_table"), eq(Integer.class))).thenReturn(1);
+        when(jdbcTemplate.queryForObject(contains("pg_try_advisory_xact_lock"), eq(Boolean.class), any())).thenReturn(true);
+    }
+
+    @Test
+    void createUpcomingPartitions_createsOnlyMissingMonths() {
+        YearMonth current = YearMonth.now();
+        String existing = TransferPartitionServiceImpl.partitionName(current);
+        String next = TransferPartitionServiceImpl.partitionName(current.plusMonths(1));
+        when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class)))
+                .thenReturn(List.of("transfers_default", existing));
+
+        List<String> created = partitionService.createUpcomingPartitions();
+
+        assertEquals(List.of(next), created);
+        verify(jdbcTemplate).execute("CREATE TABLE IF NOT EXISTS " + next + " PARTITION OF transfers " +
+                "FOR VALUES FROM ('" + current.plusMonths(1).atDay(1) + "') TO ('" + current.plusMonths(2).atDay(1) + "')");
+    }
+
+    @Test
+    void detachExpiredPartitions_keepsRetentionWindowAndDefault() {
+        YearMonth current = YearMonth.now();
+        String expired = TransferPartitionServiceImpl.partitionName(current.minusMonths(13));
+        String kept = TransferPartitionServiceImpl.partitionName(current.minusMonths(12));
+        when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class)))
+                .thenReturn(List.of("transfers_default", expired, kept));
+
+        List<String> detached = partitionService.detachExpiredPartitions();
+
+        assertEquals(List.of(expired), detached);
+        verify(jdbcTemplate).execute("ALTER TABLE transfers DETACH PARTITION " + expired);
+        verify(jdbcTemplate, never()).execute("ALTER TABLE transfers DETACH PARTITION " + kept);
+    }
+
+    @Test
+    void maintain_archivesDetachedPartitions() {
+        String expired = TransferPartitionServiceImpl.partitionName(YearMonth.now().minusMonths(13));
+        when(jdbcTemplate.queryForList(contains("pg_inherits"), eq(String.class)))
+                .thenReturn(List.of("transfers_default", expired));
+
+        partitionService.maintain();
+
+        verify(transferArchiveService).archiveDetachedPartitions();
+    }
+
+    @Test
+    void maintain_skipsWhenTableIsNotPartitioned() {
+        when(jdbcTemplate.queryForObject(contains("pg_partitioned_table"), eq(Integer.class))).thenReturn(0);
+
+        partitionService.maintain();
+
+        verify(jdbcTemplate, never()).execute(anyString());
+        verifyNoInteractions(transactionTemplate, transferArchiveService);
+    }
+}
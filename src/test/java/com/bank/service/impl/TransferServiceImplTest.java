@@ -1,18 +1,33 @@
 package com.bank.service.impl;
 
+import com.bank.dto.TransferDto;
 import com.bank.dto.TransferRequestDto;
 import com.bank.entity.CardEntity;
 import com.bank.entity.TransferEntity;
 import com.bank.entity.UserEntity;
 import com.bank.enums.CardStatus;
+import com.bank.event.CardChangedEvent;
+import com.bank.exception.BusinessException;
 import com.bank.exception.CommonException;
+import com.bank.exception.ErrorCode;
 import com.bank.repository.CardRepository;
 import com.bank.repository.TransferRepository;
+import com.bank.service.ApproximateCountService;
+import com.bank.service.CardMetadataService;
+import com.bank.service.CardSummaryService;
+import com.bank.service.FxRateService;
+import com.bank.service.OutboxService;
+import com.bank.service.TransferArchiveService;
+import com.bank.service.TransferLimitService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.mockito.*;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.*;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 import java.util.List;
 import java.util.Optional;
@@ -34,6 +49,33 @@ class TransferServiceImplTest {
     @Mock
     private TransferRepository transferRepository;
 
+    @Mock
+    private FxRateService fxRateService;
+
+    @Mock
+    private TransferLimitService transferLimitService;
+
+    @Mock
+    private OutboxService outboxService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private ApproximateCountService approximateCountService;
+
+    @Mock
+    private CardSummaryService cardSummaryService;
+
+    @Mock
+    private TransferArchiveService transferArchiveService;
+
+    @Mock
+    private CardMetadataService cardMetadataService;
+
+    @Mock
+    private TransactionTemplate transactionTemplate;
+
     private UserEntity user;
     private CardEntity fromCard;
     private CardEntity toCard;
@@ -41,6 +83,8 @@ class TransferServiceImplTest {
     @BeforeEach
     void setUp() {
         MockitoAnnotations.openMocks(this);
+        when(transactionTemplate.execute(any()))
+                .thenAnswer(i -> ((TransactionCallback<?>) i.getArgument(0)).doInTransaction(null));
 
         user = new UserEntity();
         user.setId(1L);
@@ -50,6 +94,7 @@ class TransferServiceImplTest {
         fromCard.setUserId(1L);
         fromCard.setBalance(new BigDecimal("1000"));
         fromCard.setStatus(CardStatus.ACTIVE);
+        fromCard.setExpiryDate(LocalDate.now().plusYears(1));
         fromCard.setMaskedNumber("**** **** **** 1111");
 
         toCard = new CardEntity();
@@ -57,6 +102,7 @@ class TransferServiceImplTest {
         toCard.setUserId(1L);
         toCard.setBalance(new BigDecimal("500"));
         toCard.setStatus(CardStatus.ACTIVE);
+        toCard.setExpiryDate(LocalDate.now().plusYears(1));
         toCard.setMaskedNumber("**** **** **** 2222");
     }
 
@@ -64,8 +110,8 @@ class TransferServiceImplTest {
     void testSuccessfulTransfer() {
         TransferRequestDto dto = new TransferRequestDto(fromCard.getId(), toCard.getId(), new BigDecimal("200"));
 
-        when(cardRepository.findById(fromCard.getId())).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(toCard.getId())).thenReturn(Optional.of(toCard));
+        when(cardRepository.findByIdForUpdate(fromCard.getId())).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdForUpdate(toCard.getId())).thenReturn(Optional.of(toCard));
         when(userService.getById(user.getId())).thenReturn(user);
         when(cardRepository.save(any())).thenAnswer(i -> i.getArgument(0));
         when(transferRepository.save(any(TransferEntity.class))).thenAnswer(i -> i.getArgument(0));
@@ -76,6 +122,50 @@ class TransferServiceImplTest {
         assertEquals(new BigDecimal("700"), toCard.getBalance());
         verify(cardRepository, times(2)).save(any());
         verify(transferRepository, times(1)).save(any());
+        verify(transferLimitService).reserve(user.getId(), fromCard.getId(), fromCard.getCurrency(), new BigDecimal("200"));
+        verify(outboxService).enqueueTransfer(any(TransferEntity.class));
+        verify(eventPublisher).publishEvent(any(CardChangedEvent.class));
+        verify(cardSummaryService).onTransfer(eq(user.getId()), any(), eq(new BigDecimal("200")),
+                any(), eq(new BigDecimal("200")), any());
+    }
+
+    @Test
+    void testTransferLimitExceeded() {
+        TransferRequestDto dto = new TransferRequestDto(fromCard.getId(), toCard.getId(), new BigDecimal("200"));
+
+        when(cardRepository.findByIdForUpdate(fromCard.getId())).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdForUpdate(toCard.getId())).thenReturn(Optional.of(toCard));
+        doThrow(new CommonException(400, "Card daily transfer amount limit exceeded"))
+                .when(transferLimitService).reserve(user.getId(), fromCard.getId(), fromCard.getCurrency(), new BigDecimal("200"));
+
+        CommonException ex = assertThrows(CommonException.class, () ->
+                transferService.transferBetweenOwnCards(user.getId(), dto)
+        );
+
+        assertEquals("Card daily transfer amount limit exceeded", ex.getMessage());
+        assertEquals(new BigDecimal("1000"), fromCard.getBalance());
+        verify(transferRepository, never()).save(any());
+        verify(outboxService, never()).enqueueTransfer(any());
+    }
+
+    @Test
+    void testCrossCurrencyTransfer() {
+        fromCard.setCurrency("USD");
+        toCard.setCurrency("RUB");
+        TransferRequestDto dto = new TransferRequestDto(fromCard.getId(), toCard.getId(), new BigDecimal("10"));
+
+        when(cardRepository.findByIdForUpdate(fromCard.getId())).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdForUpdate(toCard.getId())).thenReturn(Optional.of(toCard));
+        when(fxRateService.getRate("USD", "RUB")).thenReturn(new BigDecimal("92.50000000"));
+        when(userService.getById(user.getId())).thenReturn(user);
+        when(transferRepository.save(any(TransferEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+        var response = transferService.transferBetweenOwnCards(user.getId(), dto);
+
+        assertEquals(new BigDecimal("990"), fromCard.getBalance());
+        assertEquals(new BigDecimal("1425.00"), toCard.getBalance());
+        assertEquals(new BigDecimal("925.00"), response.getCreditedAmount());
+        assertEquals(new BigDecimal("92.50000000"), response.getExchangeRate());
     }
 
     @Test
@@ -83,8 +173,8 @@ class TransferServiceImplTest {
         fromCard.setBalance(new BigDecimal("100"));
         TransferRequestDto dto = new TransferRequestDto(fromCard.getId(), toCard.getId(), new BigDecimal("200"));
 
-        when(cardRepository.findById(fromCard.getId())).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(toCard.getId())).thenReturn(Optional.of(toCard));
+        when(cardRepository.findByIdForUpdate(fromCard.getId())).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdForUpdate(toCard.getId())).thenReturn(Optional.of(toCard));
 
         CommonException ex = assertThrows(CommonException.class, () ->
                 transferService.transferBetweenOwnCards(user.getId(), dto)
@@ -98,8 +188,8 @@ class TransferServiceImplTest {
         fromCard.setStatus(CardStatus.BLOCKED);
         TransferRequestDto dto = new TransferRequestDto(fromCard.getId(), toCard.getId(), new BigDecimal("50"));
 
-        when(cardRepository.findById(fromCard.getId())).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(toCard.getId())).thenReturn(Optional.of(toCard));
+        when(cardRepository.findByIdForUpdate(fromCard.getId())).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdForUpdate(toCard.getId())).thenReturn(Optional.of(toCard));
 
         CommonException ex = assertThrows(CommonException.class, () ->
                 transferService.transferBetweenOwnCards(user.getId(), dto)
@@ -113,8 +203,8 @@ class TransferServiceImplTest {
         toCard.setUserId(2L); // другая карта
         TransferRequestDto dto = new TransferRequestDto(fromCard.getId(), toCard.getId(), new BigDecimal("50"));
 
-        when(cardRepository.findById(fromCard.getId())).thenReturn(Optional.of(fromCard));
-        when(cardRepository.findById(toCard.getId())).thenReturn(Optional.of(toCard));
+        when(cardRepository.findByIdForUpdate(fromCard.getId())).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdForUpdate(toCard.getId())).thenReturn(Optional.of(toCard));
 
         CommonException ex = assertThrows(CommonException.class, () ->
                 transferService.transferBetweenOwnCards(user.getId(), dto)
@@ -123,6 +213,58 @@ class TransferServiceImplTest {
         assertEquals("Cards must belong to the same user", ex.getMessage());
     }
 
+    @Test
+    void testTransferExpiredCard() {
+        toCard.setExpiryDate(LocalDate.now().minusDays(1));
+        TransferRequestDto dto = new TransferRequestDto(fromCard.getId(), toCard.getId(), new BigDecimal("50"));
+
+        when(cardRepository.findByIdForUpdate(fromCard.getId())).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdForUpdate(toCard.getId())).thenReturn(Optional.of(toCard));
+
+        CommonException ex = assertThrows(CommonException.class, () ->
+                transferService.transferBetweenOwnCards(user.getId(), dto)
+        );
+
+        assertEquals("Card is expired", ex.getMessage());
+    }
+
+    @Test
+    void testTransferRejectedByPrecheck_noTransaction() {
+        TransferRequestDto dto = new TransferRequestDto(fromCard.getId(), toCard.getId(), new BigDecimal("50"));
+        doThrow(new BusinessException(ErrorCode.CARDS_NOT_ACTIVE))
+                .when(cardMetadataService).precheckTransfer(user.getId(), fromCard.getId(), toCard.getId());
+
+        CommonException ex = assertThrows(CommonException.class, () ->
+                transferService.transferBetweenOwnCards(user.getId(), dto)
+        );
+
+        assertEquals("Both cards must be ACTIVE", ex.getMessage());
+        verify(transactionTemplate, never()).execute(any());
+        verify(cardRepository, never()).findByIdForUpdate(any());
+    }
+
+    @Test
+    void testTransferBatch_appliesInOrderAndRejectsIndividually() {
+        when(cardRepository.findByIdForUpdate(fromCard.getId())).thenReturn(Optional.of(fromCard));
+        when(cardRepository.findByIdForUpdate(toCard.getId())).thenReturn(Optional.of(toCard));
+        when(userService.getById(user.getId())).thenReturn(user);
+        when(transferRepository.save(any(TransferEntity.class))).thenAnswer(i -> i.getArgument(0));
+
+        List<TransferServiceImpl.BatchOutcome> outcomes = transferService.transferBatch(List.of(
+                new TransferServiceImpl.BatchItem(user.getId(), new TransferRequestDto(fromCard.getId(), toCard.getId(), new BigDecimal("600"))),
+                new TransferServiceImpl.BatchItem(user.getId(), new TransferRequestDto(fromCard.getId(), toCard.getId(), new BigDecimal("600"))),
+                new TransferServiceImpl.BatchItem(user.getId(), new TransferRequestDto(toCard.getId(), fromCard.getId(), new BigDecimal("100")))));
+
+        assertNull(outcomes.get(0).error());
+        assertEquals("Insufficient funds", outcomes.get(1).error().getMessage());
+        assertNull(outcomes.get(2).error());
+        assertEquals(new BigDecimal("500"), fromCard.getBalance());
+        assertEquals(new BigDecimal("1000"), toCard.getBalance());
+        verify(cardRepository, times(1)).findByIdForUpdate(fromCard.getId());
+        verify(cardRepository, times(1)).findByIdForUpdate(toCard.getId());
+        verify(transferRepository, times(2)).save(any());
+    }
+
     @Test
     void testTransferSameCard() {
         TransferRequestDto dto = new TransferRequestDto(fromCard.getId(), fromCard.getId(), new BigDecimal("50"));
@@ -145,11 +287,53 @@ class TransferServiceImplTest {
                 .createdAt(LocalDateTime.now())
                 .build();
 
-        Page<TransferEntity> page = new PageImpl<>(List.of(transferEntity));
-        when(transferRepository.findAll(any(Pageable.class))).thenReturn(page);
+        Slice<TransferEntity> slice = new SliceImpl<>(List.of(transferEntity), Pageable.unpaged(), false);
+        when(transferRepository.findSliceBy(any(Pageable.class))).thenReturn(slice);
 
         Page<?> result = transferService.getAll(Pageable.unpaged());
 
         assertEquals(1, result.getTotalElements());
     }
+
+    @Test
+    void testGetAllBetween_openUpperBound() {
+        LocalDateTime from = LocalDateTime.of(2025, 1, 1, 0, 0);
+        when(transferRepository.findCreatedBetween(eq(from), any(LocalDateTime.class), any(Pageable.class)))
+                .thenReturn(Page.empty());
+
+        transferService.getAllBetween(from, null, Pageable.unpaged());
+
+        ArgumentCaptor<LocalDateTime> to = ArgumentCaptor.forClass(LocalDateTime.class);
+        verify(transferRepository).findCreatedBetween(eq(from), to.capture(), any(Pageable.class));
+        assertTrue(to.getValue().isAfter(LocalDateTime.now().plusYears(100)));
+    }
+
+    @Test
+    void testGetAllBetween_continuesFromArchiveIntoLiveTable() {
+        LocalDateTime from = LocalDateTime.of(2024, 1, 1, 0, 0);
+        LocalDateTime to = LocalDateTime.of(2024, 4, 1, 0, 0);
+        LocalDateTime horizon = LocalDateTime.of(2024, 3, 1, 0, 0);
+        TransferDto archived = TransferDto.builder().id(1L).createdAt(LocalDateTime.of(2024, 2, 10, 0, 0)).build();
+        TransferEntity live = TransferEntity.builder()
+                .id(2L)
+                .fromCard(fromCard)
+                .toCard(toCard)
+                .user(user)
+                .amount(new BigDecimal("100"))
+                .createdAt(LocalDateTime.of(2024, 3, 5, 0, 0))
+                .build();
+
+        when(transferArchiveService.getHorizon()).thenReturn(horizon);
+        when(transferArchiveService.read(from, horizon, 0, 2)).thenReturn(List.of(archived));
+        when(transferArchiveService.count(from, horizon)).thenReturn(1L);
+        when(transferRepository.sliceCreatedBetween(eq(horizon), eq(to), any(Pageable.class)))
+                .thenReturn(new SliceImpl<>(List.of(live)));
+        when(transferRepository.countCreatedBetween(horizon, to)).thenReturn(1L);
+
+        Page<TransferDto> result = transferService.getAllBetween(from, to, PageRequest.of(0, 2));
+
+        assertEquals(List.of(1L, 2L), result.getContent().stream().map(TransferDto::getId).toList());
+        assertEquals(2, result.getTotalElements());
+        verify(transferRepository, never()).findCreatedBetween(any(), any(), any());
+    }
 }
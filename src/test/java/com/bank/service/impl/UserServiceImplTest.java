@@ -7,7 +7,9 @@ import com.bank.enums.Role;
 import com.bank.exception.CommonException;
 import com.bank.repository.UserRepository;
 import com.bank.security.JwtService;
-import jakarta.servlet.http.Cookie;
+import com.bank.service.RefreshTokenService;
+import com.bank.service.TokenRevocationService;
+import io.jsonwebtoken.Claims;
 import jakarta.servlet.http.HttpServletResponse;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
@@ -15,6 +17,7 @@ import org.mockito.*;
 import org.springframework.security.authentication.AuthenticationManager;
 import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
 import org.springframework.security.crypto.password.PasswordEncoder;
+import java.util.Date;
 import java.util.Optional;
 
 import static org.assertj.core.api.Assertions.*;
@@ -34,6 +37,12 @@ class UserServiceImplTest {
     @Mock
     JwtService jwtService;
 
+    @Mock
+    RefreshTokenService refreshTokenService;
+
+    @Mock
+    TokenRevocationService tokenRevocationService;
+
     @Mock
     HttpServletResponse response;
 
@@ -92,7 +101,7 @@ class UserServiceImplTest {
 
         when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
         when(jwtService.generateAccessToken(any())).thenReturn("access123");
-        when(jwtService.generateRefreshToken(any())).thenReturn("refresh123");
+        when(refreshTokenService.issue(user)).thenReturn("refresh123");
 
         var authResponse = userService.login(request, response);
 
@@ -100,7 +109,7 @@ class UserServiceImplTest {
                 new UsernamePasswordAuthenticationToken("john", "123")
         );
 
-        verify(response).addCookie(any(Cookie.class));
+        verify(response).addCookie(argThat(c -> "/v1/api/auth".equals(c.getPath()) && c.getDomain() == null));
         assertThat(authResponse.accessToken()).isEqualTo("access123");
     }
 
@@ -120,25 +129,51 @@ class UserServiceImplTest {
     @Test
     void refresh_success() {
 
-        when(jwtService.extractUsername("refreshOld")).thenReturn("john");
+        when(refreshTokenService.rotate("refreshOld"))
+                .thenReturn(new RefreshTokenService.Rotation("john", "newRefresh"));
         when(userRepository.findByUsername("john")).thenReturn(Optional.of(user));
         when(jwtService.generateAccessToken(any())).thenReturn("newAccess");
-        when(jwtService.generateRefreshToken(any())).thenReturn("newRefresh");
 
         var result = userService.refresh("refreshOld", response);
 
-        verify(response).addCookie(any(Cookie.class));
+        verify(response).addCookie(argThat(c -> c.getValue().equals("newRefresh")));
 
         assertThat(result.accessToken()).isEqualTo("newAccess");
     }
 
+    @Test
+    void refresh_rejectedToken() {
+        when(refreshTokenService.rotate("stolen")).thenThrow(new CommonException(401, "Invalid refresh token"));
+
+        assertThatThrownBy(() -> userService.refresh("stolen", response))
+                .isInstanceOf(CommonException.class)
+                .hasMessageContaining("Invalid refresh token");
+
+        verify(response, never()).addCookie(any());
+    }
+
     // -------------------- LOGOUT --------------------
 
     @Test
     void logout_success() {
-        userService.logout(response);
+        userService.logout("refresh123", null, response);
 
+        verify(refreshTokenService).revoke("refresh123");
         verify(response).addHeader(eq("Set-Cookie"), contains("Max-Age=0"));
+        verifyNoInteractions(tokenRevocationService);
+    }
+
+    @Test
+    void logout_revokesAccessToken() {
+        Claims claims = mock(Claims.class);
+        Date expiresAt = new Date(System.currentTimeMillis() + 60000);
+        when(claims.getId()).thenReturn("jti-1");
+        when(claims.getExpiration()).thenReturn(expiresAt);
+        when(jwtService.parseAccessToken("access123")).thenReturn(claims);
+
+        userService.logout("refresh123", "Bearer access123", response);
+
+        verify(tokenRevocationService).revokeToken("jti-1", expiresAt);
     }
 
     // -------------------- DELETE --------------------
@@ -153,6 +188,7 @@ class UserServiceImplTest {
         userService.deleteById(1L);
 
         verify(userRepository).deleteById(1L);
+        verify(tokenRevocationService).revokeUser("john");
     }
 
     @Test
@@ -177,6 +213,8 @@ class UserServiceImplTest {
 
         assertThat(user.isEnabled()).isFalse();
         verify(userRepository).save(user);
+        verify(refreshTokenService).revokeAllForUser(1L);
+        verify(tokenRevocationService).revokeUser("john");
     }
 
     @Test
@@ -0,0 +1,35 @@
+package com.bank.util;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.SliceImpl;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.*;
+
+class PageUtilsTest {
+
+    @Test
+    void sliceWithNext_totalIsEstimateButAtLeastOneMore() {
+        Page<Integer> page = PageUtils.withEstimatedTotal(new SliceImpl<>(List.of(1, 2), PageRequest.of(3, 2), true), 5);
+
+        assertThat(page.getTotalElements()).isEqualTo(9);
+    }
+
+    @Test
+    void lastSlice_totalIsExact() {
+        Page<Integer> page = PageUtils.withEstimatedTotal(new SliceImpl<>(List.of(1), PageRequest.of(1, 2), false), 1000);
+
+        assertThat(page.getTotalElements()).isEqualTo(3);
+    }
+
+    @Test
+    void emptySlicePastEnd_totalClampedToOffset() {
+        Page<Integer> page = PageUtils.withEstimatedTotal(new SliceImpl<>(List.of(), PageRequest.of(50, 20), false), 100_000);
+
+        assertThat(page.getTotalElements()).isEqualTo(1000);
+        assertThat(page.getContent()).isEmpty();
+    }
+}